@@ -0,0 +1,73 @@
+package com.example.votingsystem.bench;
+
+import com.example.votingsystem.dashboard.service.DashboardService;
+import com.example.votingsystem.voting.repository.VoteRepository;
+import com.example.votingsystem.voting.service.VotingService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+// Result/dashboard reads at growing vote counts, next to the SQL they replaced
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AggregationBenchmark {
+
+    private static final int CATEGORIES = 20;
+    private static final int NOMINEES = 5;
+
+    @Param({"10000", "100000", "1000000"})
+    public int votes;
+
+    private ConfigurableApplicationContext ctx;
+    private VotingService voting;
+    private DashboardService dashboard;
+    private VoteRepository repo;
+    private BenchApp.Seed seed;
+    private int i;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ctx = BenchApp.start("bench-agg-" + votes);
+        seed = BenchApp.seed(ctx, CATEGORIES, NOMINEES, votes / CATEGORIES);
+        BenchApp.seedVotes(ctx, seed);
+        BenchApp.reloadCaches(ctx);
+        voting = ctx.getBean(VotingService.class);
+        dashboard = ctx.getBean(DashboardService.class);
+        repo = ctx.getBean(VoteRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() { ctx.close(); }
+
+    private long nextCategory() { return seed.categoryIds()[(i++ & Integer.MAX_VALUE) % CATEGORIES]; }
+
+    @Benchmark
+    public Object categoryResults() { return voting.categoryResults(nextCategory()); }
+
+    @Benchmark
+    public Object dashboardLeaders() { return dashboard.leaders(nextCategory(), 3); }
+
+    @Benchmark
+    public Object dashboardKpis() { return dashboard.kpis(); }
+
+    @Benchmark
+    public Object dashboardSnapshot() { return dashboard.snapshot(seed.eventId()); }
+
+    // Baseline: the per-nominee COUNT(*) categoryResults used to run
+    @Benchmark
+    public void sqlCountPerNominee(Blackhole bh) {
+        long c = nextCategory();
+        int idx = (int) (c - seed.categoryIds()[0]);
+        for (long n : seed.nomineeIds()[Math.floorMod(idx, CATEGORIES)]) bh.consume(repo.countByCategory_IdAndNominee_Id(c, n));
+    }
+
+    // Baseline: full GROUP BY over votes (what the tally engine loads/reconciles with)
+    @Benchmark
+    public Object sqlGroupByAll() { return repo.countsByCategoryAndNominee(); }
+}
@@ -0,0 +1,61 @@
+package com.example.votingsystem.bench;
+
+import com.example.votingsystem.voting.dto.BallotRequest;
+import com.example.votingsystem.voting.dto.VoteRequest;
+import com.example.votingsystem.voting.service.VotingService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// One whole ballot vs the same ten votes sent one by one (ops = complete ballots)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class BallotBenchmark {
+
+    private static final int CATEGORIES = 10;
+    private static final int NOMINEES = 5;
+    private static final int STUDENTS = 20_000;
+
+    private ConfigurableApplicationContext ctx;
+    private VotingService voting;
+    private BenchApp.Seed seed;
+    private final AtomicLong next = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ctx = BenchApp.start("bench-ballot");
+        seed = BenchApp.seed(ctx, CATEGORIES, NOMINEES, STUDENTS);
+        BenchApp.reloadCaches(ctx);
+        voting = ctx.getBean(VotingService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() { ctx.close(); }
+
+    private long nominee(long i, int c) { return seed.nomineeIds()[c][(int) ((i / STUDENTS + c) % NOMINEES)]; }
+
+    @Benchmark
+    public Object ballot() {
+        long i = next.getAndIncrement();
+        Map<Long, Long> selections = new HashMap<>();
+        for (int c = 0; c < CATEGORIES; c++) selections.put(seed.categoryIds()[c], nominee(i, c));
+        return voting.castBallot(seed.firstStudentId() + i % STUDENTS, new BallotRequest(seed.eventId(), selections));
+    }
+
+    @Benchmark
+    public void singleVotes() {
+        long i = next.getAndIncrement();
+        long student = seed.firstStudentId() + i % STUDENTS;
+        for (int c = 0; c < CATEGORIES; c++) {
+            voting.castOrUpdateVote(student, new VoteRequest(seed.eventId(), seed.categoryIds()[c], nominee(i, c)));
+        }
+    }
+}
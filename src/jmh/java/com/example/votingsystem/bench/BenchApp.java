@@ -0,0 +1,117 @@
+package com.example.votingsystem.bench;
+
+import com.example.votingsystem.VotingsystemApplication;
+import com.example.votingsystem.dashboard.service.DashboardAggregateCache;
+import com.example.votingsystem.nominee.entity.Category;
+import com.example.votingsystem.nominee.entity.Event;
+import com.example.votingsystem.nominee.entity.Nominee;
+import com.example.votingsystem.nominee.repository.CategoryRepository;
+import com.example.votingsystem.nominee.repository.EventRepository;
+import com.example.votingsystem.nominee.repository.NomineeRepository;
+import com.example.votingsystem.voting.service.BallotStateStore;
+import com.example.votingsystem.voting.service.VoteTallyEngine;
+import com.example.votingsystem.voting.service.VoteTopologyCache;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Boots the application on a private in-memory H2 database and seeds benchmark data
+final class BenchApp {
+
+    private BenchApp() {}
+
+    /** Ids of the seeded catalog; nominees[c][n] is nominee n of category c. */
+    record Seed(long eventId, long[] categoryIds, long[][] nomineeIds, long firstStudentId, int students) {}
+
+    // Passed as command-line args: those override application.properties (default properties would not)
+    static ConfigurableApplicationContext start(String db) {
+        return new SpringApplicationBuilder(VotingsystemApplication.class).run(
+                "--spring.datasource.url=jdbc:h2:mem:" + db + ";DB_CLOSE_DELAY=-1",
+                "--server.port=0",
+                "--app.voting.journal.dir=" + System.getProperty("java.io.tmpdir") + "/votingsystem-bench-journal/" + db,
+                "--app.voting.checkpoint.dir=" + System.getProperty("java.io.tmpdir") + "/votingsystem-bench-checkpoints/"
+                        + db + "-" + ProcessHandle.current().pid(),
+                "--spring.main.banner-mode=off",
+                "--spring.jpa.show-sql=false",
+                "--spring.devtools.restart.enabled=false",
+                "--logging.level.root=WARN");
+    }
+
+    static Seed seed(ConfigurableApplicationContext ctx, int categories, int nomineesPerCategory, int students) {
+        var events = ctx.getBean(EventRepository.class);
+        var cats = ctx.getBean(CategoryRepository.class);
+        var noms = ctx.getBean(NomineeRepository.class);
+        var jdbc = ctx.getBean(JdbcTemplate.class);
+
+        var event = new Event();
+        event.setName("Bench event");
+        event.setStartAt(LocalDateTime.now().minusDays(1));
+        event.setEndAt(LocalDateTime.now().plusDays(30));
+        events.save(event);
+
+        long[] categoryIds = new long[categories];
+        long[][] nomineeIds = new long[categories][nomineesPerCategory];
+        for (int c = 0; c < categories; c++) {
+            var cat = new Category();
+            cat.setName("Bench category " + c);
+            cat.setEvent(event);
+            categoryIds[c] = cats.save(cat).getId();
+            for (int n = 0; n < nomineesPerCategory; n++) {
+                var nom = new Nominee();
+                nom.setName("Nominee " + c + "-" + n);
+                nom.setCategory(cat);
+                nomineeIds[c][n] = noms.save(nom).getId();
+            }
+        }
+
+        // students in bulk (same password hash; benchmarks never log in)
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(students);
+        for (int i = 0; i < students; i++) {
+            rows.add(new Object[]{ "B" + i, "Bench student " + i, "b" + i + "@bench.test", "n/a", true, now,
+                    i % 2 == 0 ? "MALE" : "FEMALE" });
+        }
+        jdbc.batchUpdate("insert into students (index_no, full_name, email, password_hash, active, created_at, gender)"
+                + " values (?, ?, ?, ?, ?, ?, ?)", rows);
+        Long first = jdbc.queryForObject("select min(id) from students where index_no like 'B%'", Long.class);
+        return new Seed(event.getId(), categoryIds, nomineeIds, first, students);
+    }
+
+    /** Every student votes once in every category (pseudo-random nominee). */
+    static void seedVotes(ConfigurableApplicationContext ctx, Seed seed) {
+        seedVotes(ctx, seed, LocalDateTime.now());
+    }
+
+    static void seedVotes(ConfigurableApplicationContext ctx, Seed seed, LocalDateTime castAt) {
+        var jdbc = ctx.getBean(JdbcTemplate.class);
+        Timestamp now = Timestamp.valueOf(castAt);
+        List<Object[]> batch = new ArrayList<>(10_000);
+        for (int s = 0; s < seed.students(); s++) {
+            for (int c = 0; c < seed.categoryIds().length; c++) {
+                long[] noms = seed.nomineeIds()[c];
+                batch.add(new Object[]{ seed.firstStudentId() + s, seed.categoryIds()[c],
+                        noms[(s * 31 + c) % noms.length], now, now });
+                if (batch.size() == 10_000) { insertVotes(jdbc, batch); batch.clear(); }
+            }
+        }
+        if (!batch.isEmpty()) insertVotes(jdbc, batch);
+    }
+
+    private static void insertVotes(JdbcTemplate jdbc, List<Object[]> batch) {
+        jdbc.batchUpdate("insert into votes (student_id, category_id, nominee_id, created_at, updated_at)"
+                + " values (?, ?, ?, ?, ?)", batch);
+    }
+
+    // Data was inserted behind the caches' back: load them again (they were empty at startup)
+    static void reloadCaches(ConfigurableApplicationContext ctx) {
+        ctx.getBean(VoteTallyEngine.class).afterSingletonsInstantiated();
+        ctx.getBean(DashboardAggregateCache.class).afterSingletonsInstantiated();
+        ctx.getBean(VoteTopologyCache.class).afterSingletonsInstantiated();
+        ctx.getBean(BallotStateStore.class).reload();
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.votingsystem.bench;
+
+import com.example.votingsystem.voting.checkpoint.VoteCheckpointService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// Startup restore of the vote state: checkpoint file + catch-up vs reading the whole votes table
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CheckpointRestoreBenchmark {
+
+    private static final int CATEGORIES = 10;
+
+    @Param({"100000", "1000000"})
+    public int votes;
+
+    private ConfigurableApplicationContext ctx;
+    private JdbcTemplate jdbc;
+    private Path withCheckpoint, empty;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ctx = BenchApp.start("bench-checkpoint");
+        var seed = BenchApp.seed(ctx, CATEGORIES, 5, votes / CATEGORIES);
+        // cast an hour ago: outside the catch-up margin, like votes from before the last checkpoint
+        BenchApp.seedVotes(ctx, seed, LocalDateTime.now().minusHours(1));
+        jdbc = ctx.getBean(JdbcTemplate.class);
+
+        withCheckpoint = Files.createTempDirectory("bench-ckpt");
+        empty = Files.createTempDirectory("bench-ckpt-empty");
+        var writer = service(withCheckpoint);
+        writer.restore();
+        writer.checkpoint();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() { ctx.close(); }
+
+    private VoteCheckpointService service(Path dir) {
+        return new VoteCheckpointService(true, dir.toString(), 60_000, jdbc, new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public Object fromCheckpoint() { return service(withCheckpoint).restore(); }
+
+    @Benchmark
+    public Object fromDatabase() { return service(empty).restore(); }
+}
@@ -0,0 +1,47 @@
+package com.example.votingsystem.bench;
+
+import com.example.votingsystem.export.ReportTable;
+import com.example.votingsystem.export.impl.CsvExporter;
+import com.example.votingsystem.export.impl.ExcelExporter;
+import com.example.votingsystem.export.impl.PdfExporter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Report exporters on large tables (no Spring context needed)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class ExportBenchmark {
+
+    @Param({"1000", "10000", "50000"})
+    public int rows;
+
+    private ReportTable table;
+    private final CsvExporter csv = new CsvExporter();
+    private final ExcelExporter excel = new ExcelExporter();
+    private final PdfExporter pdf = new PdfExporter();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<List<Object>> data = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            data.add(List.of("Category " + (i % 40), "Nominee, \"" + i + "\"", (long) i * 7 % 1000, i % 3 == 0));
+        }
+        table = new ReportTable("Bench report", List.of("Category", "Nominee", "Votes", "Winner"), data);
+    }
+
+    @Benchmark
+    public byte[] csv() { return csv.export(table); }
+
+    @Benchmark
+    public byte[] excel() throws Exception { return excel.export(table); }
+
+    @Benchmark
+    public byte[] pdf() throws Exception { return pdf.export(table); }
+}
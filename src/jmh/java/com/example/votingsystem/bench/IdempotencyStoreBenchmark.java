@@ -0,0 +1,65 @@
+package com.example.votingsystem.bench;
+
+import com.example.votingsystem.common.idempotency.IdempotencyStore;
+import com.example.votingsystem.common.idempotency.IdempotencyStore.StoredResponse;
+import com.example.votingsystem.common.idempotency.InMemoryIdempotencyStore;
+import com.example.votingsystem.common.idempotency.JdbcIdempotencyStore;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Idempotency-Key store cost with 8 threads: replay lookups of existing keys and claim+complete of new ones
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class IdempotencyStoreBenchmark {
+
+    private static final int KEYS = 100_000;
+    private static final String FP = "0".repeat(64);
+    private static final StoredResponse OK = new StoredResponse(200, "{\"eventId\":1,\"accepted\":10,\"rejected\":0}");
+
+    @Param({"memory", "jdbc"})
+    public String store;
+
+    private ConfigurableApplicationContext ctx;
+    private IdempotencyStore target;
+    private final AtomicLong next = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (store.equals("jdbc")) {
+            ctx = BenchApp.start("bench-idempotency");   // schema generation creates idempotency_keys
+            target = new JdbcIdempotencyStore(ctx.getBean(JdbcTemplate.class), 3_600_000, 30_000);
+        } else {
+            target = new InMemoryIdempotencyStore(3_600_000, 30_000, KEYS * 20);
+        }
+        for (int i = 0; i < KEYS; i++) {
+            target.claim("vote:" + i + "|seed", FP);
+            target.complete("vote:" + i + "|seed", OK);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() { if (ctx != null) ctx.close(); }
+
+    @Benchmark
+    public Object replayLookup() {
+        return target.claim("vote:" + ThreadLocalRandom.current().nextInt(KEYS) + "|seed", FP);
+    }
+
+    @Benchmark
+    public Object claimAndComplete() {
+        String key = "vote:" + next.getAndIncrement() + "|new";
+        var claim = target.claim(key, FP);
+        target.complete(key, OK);
+        return claim;
+    }
+}
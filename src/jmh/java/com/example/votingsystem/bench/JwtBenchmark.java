@@ -0,0 +1,72 @@
+package com.example.votingsystem.bench;
+
+import com.example.votingsystem.admin.domain.Role;
+import com.example.votingsystem.admin.security.JwtAuthFilter;
+import com.example.votingsystem.admin.security.JwtService;
+import com.example.votingsystem.admin.security.PrincipalCache;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.security.Key;
+import java.util.concurrent.TimeUnit;
+
+// Token parsing (parser per call, shared parser, verified-token cache) and the whole JwtAuthFilter pass
+// (user lookup stubbed, no DB)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String SECRET = "bench-secret-bench-secret-bench-secret-bench-secret";
+
+    private JwtService jwt;
+    private Key key;
+    private JwtAuthFilter filter;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwt = new JwtService(SECRET);
+        key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        token = jwt.generate("student@bench.test", Role.STUDENT, 3600);
+        UserDetailsService uds = username -> User.withUsername(username).password("n/a").roles("STUDENT").build();
+        var meters = new SimpleMeterRegistry();
+        filter = new JwtAuthFilter(jwt, new PrincipalCache(uds, 0, 1, meters), meters);   // lookup on every pass
+    }
+
+    // what JwtService.parse did before the parser was shared
+    @Benchmark
+    public Object parserPerCall() {
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public Object parse() { return jwt.parse(token).getBody().getSubject(); }
+
+    @Benchmark
+    public Object cached() { return jwt.claims(token).getSubject(); }
+
+    @Benchmark
+    public Object filter() throws Exception {
+        var req = new MockHttpServletRequest("GET", "/api/vote/mine");
+        req.addHeader("Authorization", "Bearer " + token);
+        var res = new MockHttpServletResponse();
+        try {
+            filter.doFilter(req, res, new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
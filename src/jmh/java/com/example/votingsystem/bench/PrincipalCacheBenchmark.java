@@ -0,0 +1,68 @@
+package com.example.votingsystem.bench;
+
+import com.example.votingsystem.admin.domain.Role;
+import com.example.votingsystem.admin.security.JwtAuthFilter;
+import com.example.votingsystem.admin.security.JwtService;
+import com.example.votingsystem.admin.security.PrincipalCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// JwtAuthFilter against the real users/students tables: principal loaded per request vs cached
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PrincipalCacheBenchmark {
+
+    private static final int STUDENTS = 20_000;
+    private static final int ACTIVE = 200;   // students sending requests
+
+    private ConfigurableApplicationContext ctx;
+    private JwtAuthFilter uncached;
+    private JwtAuthFilter cached;
+    private String[] tokens;
+    private final AtomicLong next = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ctx = BenchApp.start("bench-principal");
+        BenchApp.seed(ctx, 1, 2, STUDENTS);
+        JwtService jwt = ctx.getBean(JwtService.class);
+        tokens = new String[ACTIVE];
+        for (int i = 0; i < ACTIVE; i++) tokens[i] = jwt.generate("B" + (i * 7 % STUDENTS), Role.STUDENT, 3600);
+        var meters = new SimpleMeterRegistry();
+        uncached = new JwtAuthFilter(jwt, new PrincipalCache(ctx.getBean(UserDetailsService.class), 0, 1, meters), meters);
+        cached = new JwtAuthFilter(jwt, ctx.getBean(PrincipalCache.class), meters);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() { ctx.close(); }
+
+    @Benchmark
+    public Object uncached() throws Exception { return run(uncached); }
+
+    @Benchmark
+    public Object cached() throws Exception { return run(cached); }
+
+    private Object run(JwtAuthFilter filter) throws Exception {
+        var req = new MockHttpServletRequest("GET", "/api/vote/my");
+        req.addHeader("Authorization", "Bearer " + tokens[(int) (next.getAndIncrement() % ACTIVE)]);
+        try {
+            filter.doFilter(req, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
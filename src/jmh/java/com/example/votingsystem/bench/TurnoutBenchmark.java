@@ -0,0 +1,59 @@
+package com.example.votingsystem.bench;
+
+import com.example.votingsystem.dashboard.service.DashboardService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+// Turnout of an event (voted in any / every category): voter bitmaps vs count(distinct) in SQL
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TurnoutBenchmark {
+
+    private static final int CATEGORIES = 20;
+    private static final int STUDENTS = 50_000;
+
+    private ConfigurableApplicationContext ctx;
+    private DashboardService dashboard;
+    private JdbcTemplate jdbc;
+    private BenchApp.Seed seed;
+    private long calls;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ctx = BenchApp.start("bench-turnout");
+        seed = BenchApp.seed(ctx, CATEGORIES, 4, STUDENTS);
+        BenchApp.seedVotes(ctx, seed);
+        // a tenth of the students skip the last category, so "every category" is a real intersection
+        ctx.getBean(JdbcTemplate.class).update("delete from votes where category_id = ? and mod(student_id, 10) = 0",
+                seed.categoryIds()[CATEGORIES - 1]);
+        BenchApp.reloadCaches(ctx);
+        dashboard = ctx.getBean(DashboardService.class);
+        jdbc = ctx.getBean(JdbcTemplate.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() { ctx.close(); }
+
+    @Benchmark
+    public Object bitmaps() { return dashboard.turnout(seed.eventId(), null); }
+
+    // "v.id > -n" is always true; it only keeps H2 from answering repeated queries from its result cache
+    @Benchmark
+    public Object sql() {
+        long noCache = -(++calls);
+        Long any = jdbc.queryForObject("select count(distinct v.student_id) from votes v"
+                + " join categories c on c.id = v.category_id where c.event_id = ? and v.id > ?",
+                Long.class, seed.eventId(), noCache);
+        Long all = jdbc.queryForObject("select count(*) from (select v.student_id from votes v"
+                + " join categories c on c.id = v.category_id where c.event_id = ? and v.id > ?"
+                + " group by v.student_id having count(*) = ?)", Long.class, seed.eventId(), noCache, CATEGORIES);
+        return new long[]{any, all};
+    }
+}
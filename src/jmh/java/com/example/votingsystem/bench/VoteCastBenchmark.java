@@ -0,0 +1,63 @@
+package com.example.votingsystem.bench;
+
+import com.example.votingsystem.voting.dto.VoteRequest;
+import com.example.votingsystem.voting.service.VotingService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// castOrUpdateVote end to end (validation, upsert, commit, event hand-off) against embedded H2
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class VoteCastBenchmark {
+
+    private static final int CATEGORIES = 10;
+    private static final int NOMINEES = 5;
+    private static final int STUDENTS = 10_000;
+
+    private ConfigurableApplicationContext ctx;
+    private VotingService voting;
+    private BenchApp.Seed seed;
+    private final AtomicLong next = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ctx = BenchApp.start("bench-cast");
+        seed = BenchApp.seed(ctx, CATEGORIES, NOMINEES, STUDENTS);
+        BenchApp.reloadCaches(ctx);
+        voting = ctx.getBean(VotingService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() { ctx.close(); }
+
+    // first pass over (student, category) inserts, later passes change the nominee (update)
+    private VoteRequest nextVote(long i, long[] studentOut) {
+        int c = (int) (i % CATEGORIES);
+        long s = (i / CATEGORIES) % STUDENTS;
+        long pass = i / ((long) CATEGORIES * STUDENTS);
+        studentOut[0] = seed.firstStudentId() + s;
+        return new VoteRequest(seed.eventId(), seed.categoryIds()[c],
+                seed.nomineeIds()[c][(int) ((s + pass) % NOMINEES)]);
+    }
+
+    @Benchmark
+    public void castOrUpdateVote() {
+        long[] student = new long[1];
+        VoteRequest req = nextVote(next.getAndIncrement(), student);
+        voting.castOrUpdateVote(student[0], req);
+    }
+
+    @Benchmark
+    public Object validateOnly() {
+        long[] student = new long[1];
+        VoteRequest req = nextVote(next.getAndIncrement(), student);
+        return voting.validateVote(student[0], req);
+    }
+}
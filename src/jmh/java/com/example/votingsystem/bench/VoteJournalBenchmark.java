@@ -0,0 +1,74 @@
+package com.example.votingsystem.bench;
+
+import com.example.votingsystem.voting.journal.VoteJournal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// Journal append cost and replay of a whole journal / a one-hour window
+// (compare replayAll with AggregationBenchmark.sqlGroupByAll at the same vote count)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VoteJournalBenchmark {
+
+    private static final long T0 = 1_700_000_000_000L;
+
+    @Param({"100000", "1000000"})
+    public int records;
+
+    private Path dir;
+    private VoteJournal journal;
+    private final AtomicLong next = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("bench-journal");
+        journal = new VoteJournal(true, dir.toString(), 64L << 20, 10, new SimpleMeterRegistry());
+        journal.open();
+        // 50 categories x 5 nominees, one record per 10 ms; every 5th record changes an earlier vote
+        for (int i = 0; i < records; i++) {
+            long category = i % 50, nominee = i % 5;
+            if (i % 5 == 4) journal.cast(T0 + i * 10L, true, (long) i, 1L, category, (nominee + 1) % 5, nominee);
+            else journal.cast(T0 + i * 10L, false, (long) i, 1L, category, null, nominee);
+        }
+        journal.sync();
+        next.set(records);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        try (Stream<Path> s = Files.walk(dir)) {
+            s.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Threads(4)
+    public void append() {
+        long i = next.getAndIncrement();
+        journal.cast(T0 + i * 10L, false, i, 1L, i % 50, null, i % 5);
+    }
+
+    @Benchmark
+    public Object replayAll() { return journal.tallies(0, Long.MAX_VALUE); }
+
+    // 360k records/hour at this rate: the last hour of the journal
+    @Benchmark
+    public Object replayLastHour() {
+        long end = T0 + records * 10L;
+        return journal.tallies(end - 3_600_000, end);
+    }
+}
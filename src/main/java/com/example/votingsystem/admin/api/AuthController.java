@@ -2,15 +2,21 @@ package com.example.votingsystem.admin.api;
 
 import com.example.votingsystem.admin.domain.Role;
 import com.example.votingsystem.admin.security.*;
-import com.example.votingsystem.student.repo.StudentRepository;
+import com.example.votingsystem.common.ServiceBusyException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.*;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 // Handles auth endpoints: /api/auth/login (issue JWT) and /api/auth/me
 @RestController
 @RequestMapping("/api/auth")
@@ -18,32 +24,89 @@ public class AuthController {
     private final AuthenticationManager authManager;  // Performs credential checks
     private final JwtService jwt;  // Issues JWT tokens
     private final LoginAttemptService attempts;  // Tracks/blocks student login attempts
-    private final StudentRepository students;  // Detects if username is a student indexNo
+    private final IdentityDirectory identities;  // Resolves username / indexNo / email to the account
+    private final MeterRegistry meters;  // auth.login{outcome=...} latency
+    private final LoginExecutor loginPool;  // Bounded pool for password checks (keeps Tomcat workers free)
 
     public AuthController(
             AuthenticationManager authManager,
             JwtService jwt,
             LoginAttemptService attempts,
-            StudentRepository students
+            IdentityDirectory identities,
+            MeterRegistry meters,
+            LoginExecutor loginPool
     ) {
         this.authManager = authManager;
         this.jwt = jwt;
         this.attempts = attempts;
-        this.students = students;
+        this.identities = identities;
+        this.meters = meters;
+        this.loginPool = loginPool;
+        for (String outcome : new String[]{"success", "unauthorized", "locked", "throttled", "busy", "error"}) {
+            loginTimer(outcome);
+        }
+    }
+
+    private Timer loginTimer(String outcome) {
+        return Timer.builder("auth.login")
+                .description("Login request time (password hashing included)")
+                .tag("outcome", outcome)
+                .register(meters);
     }
 
+    // Runs on the login pool; the servlet thread is released while BCrypt works (503 when the queue is full)
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody Map<String, String> body) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody Map<String, String> body, HttpServletRequest request) {
+        Timer.Sample sample = Timer.start(meters);
+        String ip = request.getRemoteAddr();
+
+        CompletableFuture<ResponseEntity<?>> res;
+        try {
+            res = loginPool.submit(() -> doLogin(body, ip));
+        } catch (ServiceBusyException e) {
+            sample.stop(loginTimer("busy"));
+            throw e;
+        }
+        return res.whenComplete((r, e) -> {
+            String outcome = r == null ? (e != null && e.getCause() instanceof ServiceBusyException ? "busy" : "error")
+                    : switch (r.getStatusCode().value()) {   // error → GlobalErrorHandler
+                case 200 -> "success";
+                case 423 -> "locked";
+                case 429 -> "throttled";
+                default -> "unauthorized";
+            };
+            sample.stop(loginTimer(outcome));
+        });
+    }
+
+    private ResponseEntity<?> doLogin(Map<String, String> body, String ip) {
         String username = body.getOrDefault("username", ""); // Read credentials from JSON
         String password = body.getOrDefault("password", "");
 
-        // Only students can be blocked. Cheap pre-check by indexNo.(identified by indexNo)
-        boolean isStudentUser =
-                students.existsByIndexNo(username); // ← or existsByIndexNo(username)
+        // Only students can be blocked; index number and email share one counter (keyed by index number)
+        var who = identities.resolve(username);
+        boolean isStudentUser = who != null && who.kind() == IdentityDirectory.Kind.STUDENT;
+        String throttleKey = isStudentUser ? who.name() : username;
+
+        // Identifiers that match no account are throttled per client address too (guessing/spraying
+        // names); known accounts never are, so a shared NAT address can't lock real users out
+        if (who == null) {
+            Optional<Instant> ipBlocked = attempts.ipBlockedUntil(ip);
+            if (ipBlocked.isPresent()) {
+                long retryAfter = Math.max(1, Duration.between(Instant.now(), ipBlocked.get()).toSeconds());
+                return ResponseEntity.status(429)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                        .body(Map.of(
+                                "error", "TOO_MANY_ATTEMPTS",
+                                "message", "Too many failed logins from this address. Try again later.",
+                                "blockedUntil", ipBlocked.get()
+                        ));
+            }
+        }
 
         // If student is currently blocked → return 423 (Locked)
-        if (isStudentUser && attempts.isBlocked(username)) {
-            Optional<Instant> until = attempts.blockedUntil(username);
+        if (isStudentUser && attempts.isBlocked(throttleKey)) {
+            Optional<Instant> until = attempts.blockedUntil(throttleKey);
             return ResponseEntity.status(423).body(Map.of(
                     "error", "LOCKED",
                     "message", "Student temporarily blocked after 3 failed attempts. Try again later.",
@@ -58,7 +121,7 @@ public class AuthController {
             );
 
             // success → clear streak if student
-            if (isStudentUser) attempts.recordSuccess(username);
+            if (isStudentUser) attempts.recordSuccess(throttleKey);
 
             Object principal = auth.getPrincipal();
             String tokenUsername;
@@ -85,12 +148,13 @@ public class AuthController {
                     "role", role.name()
             ));
         } catch (BadCredentialsException ex) {
+            if (who == null) attempts.recordIpFailure(ip);
             // failed → count + maybe lock (students only)
             // Record failure and possibly lock student accounts
             if (isStudentUser) {
-                attempts.recordFailure(username);
-                if (attempts.isBlocked(username)) {
-                    Optional<Instant> until = attempts.blockedUntil(username);
+                attempts.recordFailure(throttleKey);
+                if (attempts.isBlocked(throttleKey)) {
+                    Optional<Instant> until = attempts.blockedUntil(throttleKey);
                     return ResponseEntity.status(423).body(Map.of(
                             "error", "LOCKED",
                             "message", "Student temporarily blocked after 3 failed attempts. Try again later.",
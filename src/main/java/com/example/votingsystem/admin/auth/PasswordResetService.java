@@ -1,10 +1,12 @@
 package com.example.votingsystem.admin.auth;
 
 import com.example.votingsystem.student.domain.Student;
+import com.example.votingsystem.student.events.StudentAccountChangedEvent;
 import com.example.votingsystem.student.repo.StudentRepository;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -26,6 +28,7 @@ public class PasswordResetService {
     private final PasswordResetRepository resets; // Access to reset-code records
     private final JavaMailSender mailSender; // Sends the OTP email
     private final PasswordEncoder encoder; // Hashes the new password
+    private final ApplicationEventPublisher publisher; // Tells caches the account changed
 
     // Make a 6-digit random OTP as a zero-padded string
     private static String randomOtp() {
@@ -95,6 +98,7 @@ public class PasswordResetService {
         // Update password (hashed) and save
         student.setPasswordHash(encoder.encode(newPassword));
         students.save(student);
+        publisher.publishEvent(new StudentAccountChangedEvent(StudentAccountChangedEvent.Kind.PASSWORD_RESET, student.getId()));
 
         // Mark OTP as used
         latest.setUsedAt(Instant.now());
@@ -0,0 +1,9 @@
+package com.example.votingsystem.admin.itc;
+
+// Published after an ITC restore replaced every table: in-memory copies of the data must be rebuilt
+public class DatabaseRestoredEvent {
+
+    private final long timestamp = System.currentTimeMillis();
+
+    public long getTimestamp() { return timestamp; }
+}
@@ -1,5 +1,6 @@
 package com.example.votingsystem.admin.itc;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.datasource.DataSourceUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -21,12 +22,14 @@ import java.util.regex.Pattern;
 public class ItcService {
 
     private final DataSource dataSource;
+    private final ApplicationEventPublisher publisher;
     private final Path baseDir;
     private final Path sqlDir;
     private final Path h2Dir;
 
-    public ItcService(DataSource dataSource) throws IOException {
+    public ItcService(DataSource dataSource, ApplicationEventPublisher publisher) throws IOException {
         this.dataSource = dataSource;
+        this.publisher = publisher;
         this.baseDir = Paths.get("backups");
         this.sqlDir = baseDir.resolve("sql");
         this.h2Dir = baseDir.resolve("h2");
@@ -144,6 +147,8 @@ public class ItcService {
             st.execute("DROP ALL OBJECTS DELETE FILES");
             st.execute("RUNSCRIPT FROM '" + norm(sqlFile) + "' CHARSET 'UTF-8'");
         }
+        // caches, tallies and checkpoints still describe the old tables: rebuild them before returning
+        publisher.publishEvent(new DatabaseRestoredEvent());
     }
 
     /* ===========================
@@ -0,0 +1,133 @@
+package com.example.votingsystem.admin.security;
+
+import com.example.votingsystem.admin.itc.DatabaseRestoredEvent;
+import com.example.votingsystem.student.events.StudentAccountChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Case-insensitive map from any login identifier (staff username, student index number or email)
+ * to the account it names, so authentication resolves an identifier without querying three tables.
+ * Loaded when the application is ready (after the seeders) and kept current from committed student
+ * changes. An identifier not found in memory (rows written behind its back) is looked up with one
+ * indexed, exact-case query and remembered.
+ * Precedence on clashes is the old lookup order: username, then index number, then email.
+ */
+@Component
+public class IdentityDirectory {
+
+    private static final Logger log = LoggerFactory.getLogger(IdentityDirectory.class);
+
+    public enum Kind { USER, STUDENT }
+
+    /** The account an identifier names; {@code name} is its canonical login name (username / index number). */
+    public record Identity(Kind kind, long id, String name) {}
+
+    // exact-case lookups on the unique columns, in precedence order
+    private static final String LOOKUP_SQL = """
+            select 1, id, username from users where username = ?
+            union all select 2, id, index_no from students where index_no = ?
+            union all select 3, id, index_no from students where email = ?
+            order by 1""";
+
+    private final JdbcTemplate jdbc;
+    private final Map<String, Identity> users = new ConcurrentHashMap<>();
+    private final Map<String, Identity> indexNos = new ConcurrentHashMap<>();
+    private final Map<String, Identity> emails = new ConcurrentHashMap<>();
+    private final Map<Long, String[]> studentKeys = new ConcurrentHashMap<>();   // id -> {indexNo, email} keys
+
+    public IdentityDirectory(JdbcTemplate jdbc) { this.jdbc = jdbc; }
+
+    @EventListener({ApplicationReadyEvent.class, DatabaseRestoredEvent.class})
+    public void reload() {
+        long started = System.currentTimeMillis();
+        users.clear();
+        indexNos.clear();
+        emails.clear();
+        studentKeys.clear();
+        jdbc.query("select id, username from users",
+                rs -> { putUser(rs.getLong(1), rs.getString(2)); });
+        jdbc.query("select id, index_no, email from students",
+                rs -> { putStudent(rs.getLong(1), rs.getString(2), rs.getString(3)); });
+        log.info("[Identity] loaded {} users and {} students ({} ms)",
+                users.size(), studentKeys.size(), System.currentTimeMillis() - started);
+    }
+
+    /** Account named by the identifier (any case), or null if there is none. */
+    public Identity resolve(String identifier) {
+        if (identifier == null || identifier.isBlank()) return null;
+        String key = key(identifier);
+        Identity found = users.get(key);
+        if (found == null) found = indexNos.get(key);
+        if (found == null) found = emails.get(key);
+        return found != null ? found : lookup(identifier.trim());
+    }
+
+    /** Drop a mapping that no longer matches the database (the next resolve looks it up again). */
+    public void forget(String identifier) {
+        String key = key(identifier);
+        users.remove(key);
+        Identity student = indexNos.get(key);
+        if (student == null) student = emails.get(key);
+        if (student != null) removeStudent(student.id());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStudentChanged(StudentAccountChangedEvent e) {
+        if (e.getStudentId() == null) return;
+        removeStudent(e.getStudentId());
+        if (e.getKind() == StudentAccountChangedEvent.Kind.DELETED) return;
+        jdbc.query("select id, index_no, email from students where id = ?",
+                rs -> { putStudent(rs.getLong(1), rs.getString(2), rs.getString(3)); }, e.getStudentId());
+    }
+
+    public int size() { return users.size() + studentKeys.size(); }
+
+    private Identity lookup(String identifier) {
+        List<Object[]> rows = jdbc.query(LOOKUP_SQL,
+                (rs, n) -> new Object[]{rs.getInt(1), rs.getLong(2), rs.getString(3)},
+                identifier, identifier, identifier);
+        if (rows.isEmpty()) return null;
+        Object[] r = rows.get(0);
+        if ((int) r[0] == 1) return putUser((long) r[1], (String) r[2]);
+        // load the whole student so both of its keys are known
+        List<Identity> student = jdbc.query("select id, index_no, email from students where id = ?",
+                (rs, n) -> putStudent(rs.getLong(1), rs.getString(2), rs.getString(3)), r[1]);
+        return student.isEmpty() ? null : student.get(0);
+    }
+
+    private Identity putUser(long id, String username) {
+        Identity i = new Identity(Kind.USER, id, username);
+        users.put(key(username), i);
+        return i;
+    }
+
+    private Identity putStudent(long id, String indexNo, String email) {
+        Identity i = new Identity(Kind.STUDENT, id, indexNo);
+        String[] keys = {key(indexNo), email == null ? null : key(email)};
+        studentKeys.put(id, keys);
+        indexNos.put(keys[0], i);
+        if (keys[1] != null) emails.put(keys[1], i);
+        return i;
+    }
+
+    private void removeStudent(long id) {
+        String[] keys = studentKeys.remove(id);
+        if (keys == null) return;
+        indexNos.computeIfPresent(keys[0], (k, i) -> i.id() == id ? null : i);
+        if (keys[1] != null) emails.computeIfPresent(keys[1], (k, i) -> i.id() == id ? null : i);
+    }
+
+    private static String key(String identifier) { return identifier.trim().toLowerCase(Locale.ROOT); }
+}
@@ -1,6 +1,8 @@
 package com.example.votingsystem.admin.security;
 
 import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,40 +12,76 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
-// JWT filter: checks Authorization header, validates token, sets SecurityContext
+// JWT filter: checks Authorization header, validates token, sets SecurityContext.
+// A browser EventSource cannot send headers, so the dashboard stream also takes a short-lived
+// stream-scoped ticket as ?access_token=; scoped tokens are refused everywhere else.
 public class JwtAuthFilter extends OncePerRequestFilter {
 
+    static final String STREAM_PATH = "/api/dashboard/stream";
+    static final String TICKET_PARAM = "access_token";
+
     private final JwtService jwtService;  // Parses/validates JWT
-    private final UserDetailsService userDetailsService;  // Loads user details from DB
+    private final PrincipalCache principals;  // Loads user details (cached per token subject)
+    private final Timer parseValid;    // auth.jwt.parse{result=valid}
+    private final Timer parseInvalid;  // auth.jwt.parse{result=invalid}
 
-    public JwtAuthFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+    public JwtAuthFilter(JwtService jwtService, PrincipalCache principals, MeterRegistry meters) {
         this.jwtService = jwtService;
-        this.userDetailsService = userDetailsService;
+        this.principals = principals;
+        this.parseValid = parseTimer(meters, "valid");
+        this.parseInvalid = parseTimer(meters, "invalid");
+    }
+
+    private static Timer parseTimer(MeterRegistry meters, String result) {
+        return Timer.builder("auth.jwt.parse")
+                .description("Time to verify and decode a bearer token")
+                .tag("result", result)
+                .register(meters);
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
             throws ServletException, IOException {
 
+        boolean stream = "GET".equals(req.getMethod())
+                && req.getRequestURI().equals(req.getContextPath() + STREAM_PATH);
         String header = req.getHeader(HttpHeaders.AUTHORIZATION);
-        // If no "Bearer ..." header → skip auth and continue
-        if (!StringUtils.hasText(header) || !header.startsWith("Bearer ")) {
+        String token;
+        boolean ticket = false;
+        if (StringUtils.hasText(header) && header.startsWith("Bearer ")) {
+            token = header.substring(7); // remove "Bearer "
+        } else if (stream && StringUtils.hasText(req.getParameter(TICKET_PARAM))) {
+            token = req.getParameter(TICKET_PARAM);
+            ticket = true;
+        } else {
+            // no token → skip auth and continue
             chain.doFilter(req, res);
             return;
         }
 
-        String token = header.substring(7); // remove "Bearer "
         try {
-            Claims claims = jwtService.parse(token).getBody(); // validate + read claims
+            Claims claims;
+            long t0 = System.nanoTime();
+            try {
+                claims = jwtService.claims(token); // validate + read claims (cached once verified)
+                parseValid.record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+            } catch (RuntimeException e) {
+                parseInvalid.record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+                throw e;
+            }
             String username = claims.getSubject();  // who is the user
             String role = claims.get("role", String.class); // "STUDENT", "ADMIN", ...
+            String scope = claims.get(JwtService.SCOPE_CLAIM, String.class);
+
+            // Tickets open the stream and nothing else; full tokens never travel in the URL
+            if (scope == null ? ticket : !(stream && scope.equals(JwtService.STREAM_SCOPE))) username = null;
 
             // Only set auth if none exists yet
             if (StringUtils.hasText(username) &&
@@ -51,7 +89,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
                 UserDetails details = null;
                 try {
-                    details = userDetailsService.loadUserByUsername(username);  // try DB-backed user
+                    details = principals.get(username);  // try DB-backed user (cached)
                 } catch (Exception ignored) {
                     // fall back to claims only
                 }
@@ -3,28 +3,68 @@ package com.example.votingsystem.admin.security;
 import com.example.votingsystem.admin.domain.Role;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
 
 // Makes and verifies JWT tokens
 @Service
 public class JwtService {
+    // Restricts a token to one endpoint; tokens without it are accepted everywhere (see JwtAuthFilter)
+    public static final String SCOPE_CLAIM = "scope";
+    public static final String STREAM_SCOPE = "dashboard-stream";
+
     private final Key key; // Secret key for signing tokens
-    public JwtService(@Value("${app.jwt.secret:dev-secret-change-me-please-dev-secret-change-me}") String secret){
+    private final JwtParser parser; // immutable and thread-safe: built once
+    // Verified tokens: SHA-256 of the token -> claims, until the token expires (tokens themselves are not kept)
+    private final ConcurrentHashMap<String, Verified> verified = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final LongSupplier clock;
+
+    private record Verified(Claims claims, long expiresAt) {}
+
+    public JwtService(String secret) { this(secret, 10_000); }
+
+    @Autowired
+    public JwtService(@Value("${app.jwt.secret:dev-secret-change-me-please-dev-secret-change-me}") String secret,
+                      @Value("${app.jwt.cache.max-entries:10000}") int maxEntries){
+        this(secret, maxEntries, System::currentTimeMillis);
+    }
+
+    // clock drives issue/expiry times, the parser's exp check and cache expiry (tests)
+    JwtService(String secret, int maxEntries, LongSupplier clock) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
+        this.clock = clock;
+        this.parser = Jwts.parserBuilder().setSigningKey(key).setClock(() -> new Date(clock.getAsLong())).build();
+        this.maxEntries = maxEntries;
     }
 
     // Create a JWT with username, role, and expiry (ttlSeconds)
     public String generate(String username, Role role, long ttlSeconds){
-        Instant now = Instant.now();
+        return generate(username, role, ttlSeconds, null);
+    }
+
+    // Same, limited to the given scope (null = unrestricted)
+    public String generate(String username, Role role, long ttlSeconds, String scope){
+        Instant now = Instant.ofEpochMilli(clock.getAsLong());
+        Map<String, Object> claims = scope == null
+                ? Map.of("role", role.name())
+                : Map.of("role", role.name(), SCOPE_CLAIM, scope);
         return Jwts.builder()
                 .setSubject(username)    // who the token is for
-                .addClaims(Map.of("role", role.name()))   // store role in token
+                .addClaims(claims)   // store role (and scope) in token
                 .setIssuedAt(Date.from(now))   // issued time
                 .setExpiration(Date.from(now.plusSeconds(ttlSeconds)))   // expiry time
                 .signWith(key, SignatureAlgorithm.HS256)   // sign with secret key
@@ -33,6 +73,46 @@ public class JwtService {
 
     // Validate and read a JWT (throws if invalid/expired)
     public Jws<Claims> parse(String token){
-        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        return parser.parseClaimsJws(token);
+    }
+
+    /** Claims of a valid token; a token verified before is served from the cache until it expires. */
+    public Claims claims(String token){
+        if (maxEntries <= 0) return parse(token).getBody();
+        String digest = digest(token);
+        long now = clock.getAsLong();
+        Verified hit = verified.get(digest);
+        if (hit != null) {
+            if (hit.expiresAt() > now) return hit.claims();
+            verified.remove(digest, hit);   // expired: parse() below throws ExpiredJwtException
+        }
+        Claims claims = parse(token).getBody();
+        Date exp = claims.getExpiration();
+        if (exp != null) {
+            if (verified.size() >= maxEntries) evict(now);
+            verified.put(digest, new Verified(claims, exp.getTime()));
+        }
+        return claims;
+    }
+
+    public int cachedTokens() { return verified.size(); }
+
+    // Full: drop expired tokens, then arbitrary ones until there is room
+    private void evict(long now) {
+        verified.values().removeIf(v -> v.expiresAt() <= now);
+        Iterator<String> it = verified.keySet().iterator();
+        while (verified.size() >= maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] sha = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(sha);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);   // every JRE ships SHA-256
+        }
     }
 }
@@ -1,24 +1,62 @@
 package com.example.votingsystem.admin.security;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Duration;
+import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
-// Tracks login failures and temporarily blocks users after too many tries
+/**
+ * Tracks login failures and temporarily blocks users after too many tries. Failures are counted in
+ * memory (sliding window per normalized username, and per client IP with a higher limit for
+ * identifiers that match no account), so the login path never queries login_attempts. Changes are
+ * written behind to login_attempts every flush-interval-ms and on shutdown, and loaded back at
+ * startup, so blocks survive restarts.
+ */
 @Service
-public class LoginAttemptService {
+public class LoginAttemptService implements SmartInitializingSingleton {
 
-    private final LoginAttemptRepository repo;
+    private static final Logger log = LoggerFactory.getLogger(LoginAttemptService.class);
 
-    // Settings: how many failures before block, and block time
-    private final int MAX_FAILURES = 3;
-    private final Duration BLOCK_FOR = Duration.ofMinutes(10);
+    // IP rows share login_attempts with usernames, under this prefix
+    static final String IP_PREFIX = "ip:";
 
-    public LoginAttemptService(LoginAttemptRepository repo) {
-        this.repo = repo;
+    private static final String MERGE_SQL =
+            "merge into login_attempts (username, failures, blocked_until) key (username) values (?, ?, ?)";
+
+    private final JdbcTemplate jdbc;
+    private final LoginThrottle users;
+    private final LoginThrottle ips;
+    private final Counter failuresCounter;  // auth.login.failures
+    private final Counter lockouts;         // auth.login.lockouts: blocks started
+
+    public LoginAttemptService(JdbcTemplate jdbc, MeterRegistry meters,
+                               @Value("${app.auth.throttle.max-failures:3}") int maxFailures,
+                               @Value("${app.auth.throttle.ip-max-failures:20}") int ipMaxFailures,
+                               @Value("${app.auth.throttle.window-ms:900000}") long windowMs,
+                               @Value("${app.auth.throttle.block-ms:600000}") long blockMs) {
+        this.jdbc = jdbc;
+        this.users = new LoginThrottle(maxFailures, windowMs, blockMs);
+        this.ips = new LoginThrottle(ipMaxFailures, windowMs, blockMs);
+        this.failuresCounter = Counter.builder("auth.login.failures")
+                .description("Failed student logins").register(meters);
+        this.lockouts = Counter.builder("auth.login.lockouts")
+                .description("Student accounts temporarily blocked after too many failures").register(meters);
+        Gauge.builder("auth.login.throttle.keys", this, s -> s.users.size() + s.ips.size())
+                .description("Usernames and IPs with recent login failures held in memory")
+                .register(meters);
     }
 
     // Normalize username (trim + lowercase) for consistent lookups
@@ -26,51 +64,86 @@ public class LoginAttemptService {
         return (username == null ? "" : username.trim().toLowerCase());
     }
 
-    // Check if a user is currently blocked; if block expired, clear it
+    // Blocks still running (and recent failures) from before the restart
+    @Override
+    public void afterSingletonsInstantiated() {
+        long now = System.currentTimeMillis();
+        int[] loaded = {0};
+        jdbc.query("select username, failures, blocked_until from login_attempts", rs -> {
+            String key = rs.getString(1);
+            Timestamp until = rs.getTimestamp(3);
+            long blockedUntil = until == null ? 0 : until.getTime();
+            if (key.startsWith(IP_PREFIX)) ips.restore(key.substring(IP_PREFIX.length()), rs.getInt(2), blockedUntil, now);
+            else users.restore(key, rs.getInt(2), blockedUntil, now);
+            loaded[0]++;
+        });
+        users.sweep(now);
+        ips.sweep(now);
+        log.info("[Throttle] restored {} login-attempt rows", loaded[0]);
+    }
+
+    // Check if a user is currently blocked (memory only)
     public boolean isBlocked(String username) {
-        String u = norm(username);
-        return repo.findByUsername(u)
-                .map(la -> {
-                    Instant until = la.getBlockedUntil();
-                    if (until == null) return false;  // never blocked
-                    if (until.isAfter(Instant.now())) return true;  // still blocked
-                    // block expired -> clear
-                    la.setBlockedUntil(null);
-                    la.setFailures(0);
-                    repo.save(la);
-                    return false;
-                }).orElse(false);
+        return users.blockedUntil(norm(username), System.currentTimeMillis()) != 0;
     }
 
     // Get the time until which user is blocked (if any)
     public Optional<Instant> blockedUntil(String username) {
-        return repo.findByUsername(norm(username)).map(LoginAttempt::getBlockedUntil);
+        long until = users.blockedUntil(norm(username), System.currentTimeMillis());
+        return until == 0 ? Optional.empty() : Optional.of(Instant.ofEpochMilli(until));
+    }
+
+    // Same for a client address (any account)
+    public Optional<Instant> ipBlockedUntil(String ip) {
+        if (ip == null) return Optional.empty();
+        long until = ips.blockedUntil(ip, System.currentTimeMillis());
+        return until == 0 ? Optional.empty() : Optional.of(Instant.ofEpochMilli(until));
     }
 
     // Record a failed login; if limit reached, start a block
-    @Transactional
     public void recordFailure(String username) {
-        String u = norm(username);
-        LoginAttempt la = repo.findByUsername(u).orElseGet(() -> {
-            LoginAttempt x = new LoginAttempt();  // create new counter if not exists
-            x.setUsername(u);
-            return x;
-        });
-        la.setFailures(la.getFailures() + 1); // increase failure count
-        if (la.getFailures() >= MAX_FAILURES) {  // hit limit → block
-            la.setFailures(0);   // reset counter
-            la.setBlockedUntil(Instant.now().plus(BLOCK_FOR));
-        }
-        repo.save(la);
+        failuresCounter.increment();
+        if (users.fail(norm(username), System.currentTimeMillis())) lockouts.increment();
+    }
+
+    // Record a failed login from an address (for an identifier that matches no account)
+    public void recordIpFailure(String ip) {
+        if (ip != null) ips.fail(ip, System.currentTimeMillis());
     }
 
     // Record a successful login; clear failures and any block
-    @Transactional
     public void recordSuccess(String username) {
-        repo.findByUsername(norm(username)).ifPresent(la -> {
-            la.setFailures(0);
-            la.setBlockedUntil(null);
-            repo.save(la);
-        });
+        users.clear(norm(username));
+    }
+
+    /** Write changed windows to login_attempts and drop idle ones from memory. */
+    @Scheduled(initialDelayString = "${app.auth.throttle.flush-interval-ms:2000}",
+            fixedDelayString = "${app.auth.throttle.flush-interval-ms:2000}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        List<Object[]> upserts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        users.drainDirty(now, (key, state) -> collect(key, state, upserts, deletes));
+        ips.drainDirty(now, (key, state) -> collect(IP_PREFIX + key, state, upserts, deletes));
+        if (!upserts.isEmpty()) jdbc.batchUpdate(MERGE_SQL, upserts);
+        if (!deletes.isEmpty()) jdbc.batchUpdate("delete from login_attempts where username = ?", deletes);
+        users.sweep(now);
+        ips.sweep(now);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("[Throttle] final flush failed: {}", e.getMessage());
+        }
+    }
+
+    // state = {failures in window, blocked until (0 = none)}; nothing left to remember → delete the row
+    private static void collect(String key, long[] state, List<Object[]> upserts, List<Object[]> deletes) {
+        if (key.length() > 64) return;   // column width; only an odd IPv6 literal could be this long
+        if (state[0] == 0 && state[1] == 0) deletes.add(new Object[]{key});
+        else upserts.add(new Object[]{key, (int) state[0], state[1] == 0 ? null : new Timestamp(state[1])});
     }
 }
@@ -0,0 +1,93 @@
+package com.example.votingsystem.admin.security;
+
+import com.example.votingsystem.common.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs logins (user lookup + BCrypt check) on a small dedicated pool with a bounded queue, so a
+ * login storm cannot occupy every Tomcat worker and starve vote requests. A login is shed with
+ * ServiceBusyException (503 + Retry-After) when the queue is full, or when it waited longer than
+ * max-wait-ms for a thread (the client would be close to timing out; no point hashing for it).
+ * Metrics: executor.*{name=auth.login}, auth.login.rejected{reason}, auth.login.queue.wait.
+ */
+@Component
+public class LoginExecutor implements DisposableBean {
+
+    private final ThreadPoolExecutor pool;
+    private final long retryAfterSeconds;
+    private final long maxWaitNanos;
+    private final Counter queueFull;
+    private final Counter waitedTooLong;
+    private final Timer queueWait;
+
+    public LoginExecutor(@Value("${app.auth.login.threads:0}") int threads,
+                         @Value("${app.auth.login.queue-capacity:256}") int queueCapacity,
+                         @Value("${app.auth.login.max-wait-ms:10000}") long maxWaitMs,
+                         @Value("${app.auth.login.retry-after-seconds:2}") long retryAfterSeconds,
+                         MeterRegistry meters) {
+        int n = threads > 0 ? threads : Math.max(2, Runtime.getRuntime().availableProcessors());
+        AtomicInteger ids = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(n, n, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread t = new Thread(r, "login-" + ids.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        new ExecutorServiceMetrics(pool, "auth.login", Tags.empty()).bindTo(meters);
+        this.queueFull = rejectedCounter(meters, "queue-full");
+        this.waitedTooLong = rejectedCounter(meters, "waited-too-long");
+        this.queueWait = Timer.builder("auth.login.queue.wait")
+                .description("Time a login waited for a hashing thread")
+                .register(meters);
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meters, String reason) {
+        return Counter.builder("auth.login.rejected")
+                .description("Logins shed by admission control")
+                .tag("reason", reason)
+                .register(meters);
+    }
+
+    /** Queue the login; throws ServiceBusyException at once if the queue is full. */
+    public <T> CompletableFuture<T> submit(Supplier<T> login) {
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long waited = System.nanoTime() - queuedAt;
+                queueWait.record(waited, TimeUnit.NANOSECONDS);
+                if (waited > maxWaitNanos) {
+                    waitedTooLong.increment();
+                    throw busy();
+                }
+                return login.get();
+            }, pool);
+        } catch (RejectedExecutionException e) {
+            queueFull.increment();
+            throw busy();
+        }
+    }
+
+    private ServiceBusyException busy() {
+        return new ServiceBusyException("Too many logins right now, please retry", retryAfterSeconds);
+    }
+
+    public int queued() { return pool.getQueue().size(); }
+
+    @Override
+    public void destroy() { pool.shutdownNow(); }
+}
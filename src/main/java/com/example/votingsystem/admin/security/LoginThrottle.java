@@ -0,0 +1,115 @@
+package com.example.votingsystem.admin.security;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Sliding-window failure tracker, one window per key (normalized username or client IP).
+ * maxFailures failures within windowMs block the key for blockMs. Checks are a map lookup and a
+ * volatile read; a failure updates its window inside the map's compute, so concurrent failures
+ * are never lost. Changed keys are remembered until drained by the persistence write-behind.
+ */
+public class LoginThrottle {
+
+    private final int maxFailures;
+    private final long windowMs;
+    private final long blockMs;
+    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+    public LoginThrottle(int maxFailures, long windowMs, long blockMs) {
+        this.maxFailures = Math.max(1, maxFailures);
+        this.windowMs = windowMs;
+        this.blockMs = blockMs;
+    }
+
+    /** End of the key's block in epoch millis, or 0 if it is not blocked at {@code now}. */
+    public long blockedUntil(String key, long now) {
+        Window w = windows.get(key);
+        if (w == null) return 0;
+        long until = w.blockedUntil;
+        return until > now ? until : 0;
+    }
+
+    /** Count a failure; returns true if this failure started a block. */
+    public boolean fail(String key, long now) {
+        boolean[] blocked = {false};
+        // inside compute, so sweep() cannot drop the window while this failure is added
+        windows.compute(key, (k, w) -> {
+            if (w == null) w = new Window(maxFailures);
+            blocked[0] = w.fail(now, windowMs, blockMs);
+            return w;
+        });
+        dirty.add(key);
+        return blocked[0];
+    }
+
+    /** Forget the key's failures and block (successful login). */
+    public void clear(String key) {
+        if (windows.remove(key) != null) dirty.add(key);
+    }
+
+    /** Load persisted state: {@code failures} recent failures (counted as of now) and an optional block. */
+    public void restore(String key, int failures, long blockedUntil, long now) {
+        Window w = new Window(maxFailures);
+        for (int i = 0; i < Math.min(failures, maxFailures - 1); i++) w.record(now);
+        w.blockedUntil = blockedUntil > now ? blockedUntil : 0;
+        windows.put(key, w);
+    }
+
+    /** Hands each changed key with its state (failures in window, block end or 0) to the writer. */
+    public void drainDirty(long now, BiConsumer<String, long[]> writer) {
+        for (String key : dirty) {
+            dirty.remove(key);
+            Window w = windows.get(key);
+            writer.accept(key, w == null ? new long[]{0, 0} : w.snapshot(now, windowMs));
+        }
+    }
+
+    /** Drop windows with no failure in the window and no active block. */
+    public void sweep(long now) {
+        for (String key : windows.keySet()) {
+            windows.computeIfPresent(key, (k, w) -> w.idle(now, windowMs) && !dirty.contains(k) ? null : w);
+        }
+    }
+
+    public int size() { return windows.size(); }
+
+    // Failure times in a ring: the oldest of the last maxFailures tells whether they all fit in the window
+    private static final class Window {
+        private final long[] times;
+        private int next, count;
+        volatile long blockedUntil;
+
+        Window(int maxFailures) { times = new long[maxFailures]; }
+
+        synchronized boolean fail(long now, long windowMs, long blockMs) {
+            if (blockedUntil > now) return false;   // already blocked: nothing to add
+            record(now);
+            if (count < times.length || times[next] <= now - windowMs) return false;
+            blockedUntil = now + blockMs;
+            count = 0;   // a new window starts after the block
+            return true;
+        }
+
+        void record(long now) {
+            times[next] = now;
+            next = (next + 1) % times.length;
+            if (count < times.length) count++;
+        }
+
+        synchronized long[] snapshot(long now, long windowMs) {
+            long recent = 0;
+            for (int i = 0; i < count; i++) {
+                if (times[(next - 1 - i + times.length) % times.length] > now - windowMs) recent++;
+            }
+            return new long[]{recent, blockedUntil > now ? blockedUntil : 0};
+        }
+
+        synchronized boolean idle(long now, long windowMs) {
+            if (blockedUntil > now) return false;
+            return count == 0 || times[(next - 1 + times.length) % times.length] <= now - windowMs;
+        }
+    }
+}
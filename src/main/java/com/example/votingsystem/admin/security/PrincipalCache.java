@@ -0,0 +1,104 @@
+package com.example.votingsystem.admin.security;
+
+import com.example.votingsystem.admin.itc.DatabaseRestoredEvent;
+import com.example.votingsystem.student.events.StudentAccountChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Principals resolved by JwtAuthFilter, keyed by JWT subject, so an authenticated request does not
+ * hit the users/students tables. Entries live for ttl-ms (0 disables caching) and at most max-entries
+ * are kept; a committed change to a student account drops that student's entry at once.
+ */
+public class PrincipalCache {
+
+    private record Entry(UserDetails details, long expiresAt) {}
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final UserDetailsService users;
+    private final long ttlMs;
+    private final int maxEntries;
+    private final LongSupplier clock;
+    // bumped on every invalidation: a load that raced with one is not cached
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+
+    public PrincipalCache(UserDetailsService users, long ttlMs, int maxEntries, MeterRegistry meters) {
+        this(users, ttlMs, maxEntries, meters, System::currentTimeMillis);
+    }
+
+    PrincipalCache(UserDetailsService users, long ttlMs, int maxEntries, MeterRegistry meters, LongSupplier clock) {
+        this.users = users;
+        this.ttlMs = ttlMs;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.clock = clock;
+        this.hits = lookupCounter(meters, "hit");
+        this.misses = lookupCounter(meters, "miss");
+    }
+
+    private static Counter lookupCounter(MeterRegistry meters, String result) {
+        return Counter.builder("auth.principal.lookup")
+                .description("Principal lookups by JwtAuthFilter, served from the cache or loaded")
+                .tag("result", result)
+                .register(meters);
+    }
+
+    /** Cached principal of the subject, loaded through the UserDetailsService when missing or expired. */
+    public UserDetails get(String subject) throws UsernameNotFoundException {
+        long now = clock.getAsLong();
+        Entry cur = entries.get(subject);
+        if (cur != null && cur.expiresAt() > now) {
+            hits.increment();
+            return cur.details();
+        }
+        misses.increment();
+        long gen = generation.get();
+        UserDetails details = users.loadUserByUsername(subject);
+        if (ttlMs > 0) {
+            if (entries.size() >= maxEntries) evict(now);
+            Entry fresh = new Entry(details, now + ttlMs);
+            entries.put(subject, fresh);
+            if (generation.get() != gen) entries.remove(subject, fresh);   // may predate the change
+        }
+        return details;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStudentChanged(StudentAccountChangedEvent e) {
+        generation.incrementAndGet();
+        // the same student may be cached under its index number and its email
+        entries.values().removeIf(en -> en.details() instanceof StudentDetailsImpl s
+                && Objects.equals(s.student().getId(), e.getStudentId()));
+    }
+
+    @EventListener(DatabaseRestoredEvent.class)
+    public void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    public int size() { return entries.size(); }
+
+    // Full: drop expired entries, then arbitrary ones until there is room
+    private void evict(long now) {
+        entries.values().removeIf(en -> en.expiresAt() <= now);
+        Iterator<String> it = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+}
@@ -2,8 +2,12 @@ package com.example.votingsystem.admin.security;
 
 import com.example.votingsystem.admin.repo.UserRepository;
 import com.example.votingsystem.student.repo.StudentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -33,8 +37,17 @@ public class SecurityConfig {
     // Composite UDS (admins + students)
     @Bean
     public UserDetailsService userDetailsService(UserRepository userRepository,
-                                                 StudentRepository studentRepository) {
-        return new UserDetailsServiceImpl(userRepository, studentRepository);   // load users from both tables
+                                                 StudentRepository studentRepository,
+                                                 IdentityDirectory identities) {
+        return new UserDetailsServiceImpl(userRepository, studentRepository, identities);   // load users from both tables
+    }
+
+    // Principals for JwtAuthFilter; login itself (authProvider) always reads the DB
+    @Bean
+    public PrincipalCache principalCache(UserDetailsService uds, MeterRegistry meters,
+                                         @Value("${app.auth.principal-cache.ttl-ms:60000}") long ttlMs,
+                                         @Value("${app.auth.principal-cache.max-entries:50000}") int maxEntries) {
+        return new PrincipalCache(uds, ttlMs, maxEntries, meters);
     }
 
     @Bean
@@ -54,13 +67,14 @@ public class SecurityConfig {
     public SecurityFilterChain filterChain(
             HttpSecurity http,
             JwtService jwt,
-            UserDetailsService uds,
-            DaoAuthenticationProvider authProvider
+            PrincipalCache principals,
+            DaoAuthenticationProvider authProvider,
+            MeterRegistry meters
     ) throws Exception {
 
         // IMPORTANT: JwtAuthFilter must know how to map roles to ROLE_*
         // e.g., in the filter: new SimpleGrantedAuthority("ROLE_" + roleName)
-        JwtAuthFilter jwtFilter = new JwtAuthFilter(jwt, uds);
+        JwtAuthFilter jwtFilter = new JwtAuthFilter(jwt, principals, meters);
 
         http
                 .csrf(csrf -> csrf.disable())
@@ -73,10 +87,17 @@ public class SecurityConfig {
                 )
                 .authenticationProvider(authProvider)
                 .authorizeHttpRequests(reg -> reg
+                        // SSE streams complete on an async dispatch; the original request was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // Public/auth
                         .requestMatchers("/api/auth/**", "/api/public/**", "/h2-console/**").permitAll()
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
 
+                        // Liveness is public; the Prometheus scrape (per-route and login counters) needs an admin token
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/prometheus").hasRole("ADMIN")
+
                         // Public GETs (not the dashboard)
                         .requestMatchers(HttpMethod.GET,
                                 "/api/events/**",
@@ -136,8 +157,9 @@ public class SecurityConfig {
                 "http://localhost:5178","http://127.0.0.1:5178"
         ));
         cfg.setAllowedMethods(List.of("GET","POST","PUT","PATCH","DELETE","OPTIONS"));
-        cfg.setAllowedHeaders(List.of("Authorization","Content-Type"));
-        cfg.setExposedHeaders(List.of("Authorization"));   // if you ever read it client-side
+        cfg.setAllowedHeaders(List.of("Authorization","Content-Type","Idempotency-Key"));
+        cfg.setExposedHeaders(List.of("Authorization", "X-Dashboard-Version", "Idempotent-Replayed",
+                HttpHeaders.RETRY_AFTER));   // clients back off on 429/503 (and idempotency 409) by it
         cfg.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource src = new UrlBasedCorsConfigurationSource();
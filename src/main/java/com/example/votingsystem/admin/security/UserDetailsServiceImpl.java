@@ -8,29 +8,41 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
 /**
  * Single entry point for authentication lookups.
- * Tries admin/organizer users by username, then students by indexNo or email.
+ * Admin/organizer usernames, student index numbers and emails (any case) are resolved through the
+ * IdentityDirectory, so a lookup is one primary-key read instead of up to three queries.
  */
 public class UserDetailsServiceImpl implements UserDetailsService {
     private final UserRepository userRepo;
     private final StudentRepository studentRepo;
+    private final IdentityDirectory identities;
 
-    public UserDetailsServiceImpl(UserRepository userRepo, StudentRepository studentRepo) {
-        this.userRepo = userRepo; this.studentRepo = studentRepo;
+    public UserDetailsServiceImpl(UserRepository userRepo, StudentRepository studentRepo, IdentityDirectory identities) {
+        this.userRepo = userRepo; this.studentRepo = studentRepo; this.identities = identities;
     }
 
     @Override
     public UserDetails loadUserByUsername(String input) throws UsernameNotFoundException {
-        // 1) Admin/Organizer users (username)
-        var adminUser = userRepo.findByUsername(input).map(UserDetailsImpl::new);
-        if (adminUser.isPresent()) return adminUser.get();
-
-        // 2) Students (accept indexNo or email)
-        var byIndex = studentRepo.findByIndexNo(input).map(StudentDetailsImpl::new);
-        if (byIndex.isPresent()) return byIndex.get();
-
-        var byEmail = studentRepo.findByEmail(input).map(StudentDetailsImpl::new);
-        if (byEmail.isPresent()) return byEmail.get();
+        UserDetails found = load(input);
+        if (found == null) {
+            // stale mapping (row deleted or replaced behind the directory's back): look it up again
+            identities.forget(input);
+            found = load(input);
+        }
+        if (found == null) throw new UsernameNotFoundException("User not found: " + input);
+        return found;
+    }
 
-        throw new UsernameNotFoundException("User not found: " + input);
+    private UserDetails load(String input) {
+        var who = identities.resolve(input);
+        if (who == null) return null;
+        String key = input.trim();
+        return switch (who.kind()) {
+            case USER -> userRepo.findById(who.id())
+                    .filter(u -> u.getUsername().equalsIgnoreCase(key))
+                    .map(UserDetailsImpl::new).orElse(null);
+            case STUDENT -> studentRepo.findById(who.id())
+                    .filter(s -> s.getIndexNo().equalsIgnoreCase(key) || key.equalsIgnoreCase(s.getEmail()))
+                    .map(StudentDetailsImpl::new).orElse(null);
+        };
     }
 }
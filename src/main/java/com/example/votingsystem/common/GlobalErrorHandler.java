@@ -1,11 +1,13 @@
 package com.example.votingsystem.common;
 
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.AsyncRequestNotUsableException;
 
 import java.util.Map;
 
@@ -20,13 +22,36 @@ public class GlobalErrorHandler {
                 .body(Map.of("message", rootMessage(e)));
     }
 
-    // 409 Conflict for DB unique/constraint errors (e.g., duplicate email/indexNo)
+    // 409 Conflict for DB unique/constraint errors, worded after the constraint that was hit
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ResponseEntity<Map<String,String>> conflict(Exception e) {
         return ResponseEntity.status(HttpStatus.CONFLICT)
-                .body(Map.of("message", "IndexNo or Email already exists"));
+                .body(Map.of("message", conflictMessage(rootMessage(e))));
     }
 
+    // Database messages name the violated constraint/index (case differs per database)
+    static String conflictMessage(String dbMessage) {
+        String m = dbMessage == null ? "" : dbMessage.toLowerCase();
+        if (m.contains("uk_vote_student_category")) return "A vote for this category is already being recorded, please retry";
+        if (m.contains("uk_event_name")) return "An event with this name already exists";
+        if (m.contains("uk_category_name")) return "A category with this name already exists";
+        if (m.contains("uk_user_username")) return "Username already exists";
+        if (m.contains("index_no") || m.contains("email")) return "IndexNo or Email already exists";
+        return "Conflicting data, the record already exists or is still referenced";
+    }
+
+    // 503 Service Unavailable when a bounded queue/pool sheds load (client should retry)
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<Map<String,String>> busy(ServiceBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("message", e.getMessage()));
+    }
+
+    // Client went away mid-stream (e.g. closed an SSE tab): nothing can be written back
+    @ExceptionHandler(AsyncRequestNotUsableException.class)
+    public void clientGone() { }
+
     // 500 Internal Server Error for anything else (last resort)
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String,String>> serverError(Exception e) {
@@ -0,0 +1,368 @@
+package com.example.votingsystem.common;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Compressed set of non-negative long ids, roaring-style: ids are grouped by their high bits
+ * (id >>> 16) into containers of 65536; a container is a sorted char array while it holds at
+ * most 4096 ids and a 1024-word bitset above that. Unions and intersections work container by
+ * container. Not thread-safe.
+ */
+public final class IdBitmap {
+
+    private static final int ARRAY_MAX = 4096;   // beyond this a bitset (8 KB) is smaller than the array
+    private static final int WORDS = 1024;
+
+    private long[] keys = new long[4];           // high bits, sorted
+    private Container[] containers = new Container[4];
+    private int n;
+    private long cardinality;
+
+    public long cardinality() { return cardinality; }
+
+    public boolean isEmpty() { return cardinality == 0; }
+
+    public boolean add(long id) {
+        long high = high(id);
+        int i = find(high);
+        if (i < 0) {
+            i = -i - 1;
+            insert(i, high, new Container());
+        }
+        if (!containers[i].add(low(id))) return false;
+        cardinality++;
+        return true;
+    }
+
+    public boolean remove(long id) {
+        int i = find(high(id));
+        if (i < 0 || !containers[i].remove(low(id))) return false;
+        cardinality--;
+        if (containers[i].size == 0) {
+            System.arraycopy(keys, i + 1, keys, i, n - i - 1);
+            System.arraycopy(containers, i + 1, containers, i, n - i - 1);
+            containers[--n] = null;
+        }
+        return true;
+    }
+
+    public boolean contains(long id) {
+        int i = find(high(id));
+        return i >= 0 && containers[i].contains(low(id));
+    }
+
+    public IdBitmap copy() {
+        IdBitmap b = new IdBitmap();
+        b.keys = Arrays.copyOf(keys, Math.max(4, n));
+        b.containers = new Container[b.keys.length];
+        for (int i = 0; i < n; i++) b.containers[i] = containers[i].copy();
+        b.n = n;
+        b.cardinality = cardinality;
+        return b;
+    }
+
+    /** Ids in this bitmap or in {@code other}. */
+    public IdBitmap or(IdBitmap other) {
+        IdBitmap out = new IdBitmap();
+        int i = 0, j = 0;
+        while (i < n || j < other.n) {
+            if (j == other.n || (i < n && keys[i] < other.keys[j])) {
+                out.append(keys[i], containers[i++].copy());
+            } else if (i == n || other.keys[j] < keys[i]) {
+                out.append(other.keys[j], other.containers[j++].copy());
+            } else {
+                out.append(keys[i], Container.or(containers[i++], other.containers[j++]));
+            }
+        }
+        return out;
+    }
+
+    /** Ids in both bitmaps. */
+    public IdBitmap and(IdBitmap other) {
+        IdBitmap out = new IdBitmap();
+        int i = 0, j = 0;
+        while (i < n && j < other.n) {
+            if (keys[i] < other.keys[j]) i++;
+            else if (other.keys[j] < keys[i]) j++;
+            else {
+                Container c = Container.and(containers[i++], other.containers[j++]);
+                if (c.size > 0) out.append(keys[i - 1], c);
+            }
+        }
+        return out;
+    }
+
+    /** Size of the intersection, without building it. */
+    public long andCardinality(IdBitmap other) {
+        long count = 0;
+        int i = 0, j = 0;
+        while (i < n && j < other.n) {
+            if (keys[i] < other.keys[j]) i++;
+            else if (other.keys[j] < keys[i]) j++;
+            else count += Container.andCardinality(containers[i++], other.containers[j++]);
+        }
+        return count;
+    }
+
+    /** Ids present in every bitmap (empty for an empty list). */
+    public static IdBitmap andAll(List<IdBitmap> bitmaps) {
+        if (bitmaps.isEmpty()) return new IdBitmap();
+        // smallest first: the running result only shrinks
+        List<IdBitmap> sorted = bitmaps.stream().sorted(Comparator.comparingLong(IdBitmap::cardinality)).toList();
+        IdBitmap acc = sorted.get(0).copy();
+        for (int k = 1; k < sorted.size() && !acc.isEmpty(); k++) acc.retainAll(sorted.get(k));
+        return acc;
+    }
+
+    /** Ids present in any of the bitmaps. */
+    public static IdBitmap orAll(List<IdBitmap> bitmaps) {
+        if (bitmaps.isEmpty()) return new IdBitmap();
+        IdBitmap acc = bitmaps.get(0).copy();
+        for (int k = 1; k < bitmaps.size(); k++) acc.addAll(bitmaps.get(k));
+        return acc;
+    }
+
+    // In place (on a private copy): keep only the ids also in other
+    private void retainAll(IdBitmap other) {
+        int k = 0, j = 0;
+        long card = 0;
+        for (int i = 0; i < n; i++) {
+            while (j < other.n && other.keys[j] < keys[i]) j++;
+            if (j == other.n || other.keys[j] != keys[i]) continue;
+            Container c = containers[i].retainAll(other.containers[j]);
+            if (c.size == 0) continue;
+            keys[k] = keys[i];
+            containers[k++] = c;
+            card += c.size;
+        }
+        for (int i = k; i < n; i++) containers[i] = null;
+        n = k;
+        cardinality = card;
+    }
+
+    // In place (on a private copy): add every id of other
+    private void addAll(IdBitmap other) {
+        for (int j = 0; j < other.n; j++) {
+            int i = find(other.keys[j]);
+            if (i < 0) insert(-i - 1, other.keys[j], other.containers[j].copy());
+            else containers[i] = containers[i].addAll(other.containers[j]);
+        }
+        long card = 0;
+        for (int i = 0; i < n; i++) card += containers[i].size;
+        cardinality = card;
+    }
+
+    /** Approximate heap size of the containers. */
+    public long footprintBytes() {
+        long bytes = 16 + 8L * keys.length + 16 + 4L * containers.length;
+        for (int i = 0; i < n; i++) bytes += containers[i].footprintBytes();
+        return bytes;
+    }
+
+    private static long high(long id) {
+        if (id < 0) throw new IllegalArgumentException("Negative id: " + id);
+        return id >>> 16;
+    }
+
+    private static char low(long id) { return (char) id; }
+
+    private int find(long high) { return Arrays.binarySearch(keys, 0, n, high); }
+
+    private void insert(int i, long high, Container c) {
+        if (n == keys.length) {
+            keys = Arrays.copyOf(keys, n * 2);
+            containers = Arrays.copyOf(containers, n * 2);
+        }
+        System.arraycopy(keys, i, keys, i + 1, n - i);
+        System.arraycopy(containers, i, containers, i + 1, n - i);
+        keys[i] = high;
+        containers[i] = c;
+        n++;
+    }
+
+    // keys arrive in ascending order while building or()/and() results
+    private void append(long high, Container c) {
+        insert(n, high, c);
+        cardinality += c.size;
+    }
+
+    /** 65536 ids sharing their high bits: sorted array when sparse, bitset when dense. */
+    private static final class Container {
+        char[] array = new char[4];   // used while bits == null
+        long[] bits;
+        int size;
+
+        boolean add(char low) {
+            if (bits != null) {
+                long word = bits[low >>> 6], mask = 1L << low;
+                if ((word & mask) != 0) return false;
+                bits[low >>> 6] = word | mask;
+                size++;
+                return true;
+            }
+            int i = Arrays.binarySearch(array, 0, size, low);
+            if (i >= 0) return false;
+            if (size == ARRAY_MAX) {
+                toBits();
+                return add(low);
+            }
+            i = -i - 1;
+            if (size == array.length) array = Arrays.copyOf(array, Math.min(ARRAY_MAX, size * 2));
+            System.arraycopy(array, i, array, i + 1, size - i);
+            array[i] = low;
+            size++;
+            return true;
+        }
+
+        boolean remove(char low) {
+            if (bits != null) {
+                long word = bits[low >>> 6], mask = 1L << low;
+                if ((word & mask) == 0) return false;
+                bits[low >>> 6] = word & ~mask;
+                // back to an array well below the threshold, so add/remove at the edge doesn't flap
+                if (--size < ARRAY_MAX / 2) toArray();
+                return true;
+            }
+            int i = Arrays.binarySearch(array, 0, size, low);
+            if (i < 0) return false;
+            System.arraycopy(array, i + 1, array, i, size - i - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(char low) {
+            return bits != null ? (bits[low >>> 6] & (1L << low)) != 0
+                                : Arrays.binarySearch(array, 0, size, low) >= 0;
+        }
+
+        Container copy() {
+            Container c = new Container();
+            c.size = size;
+            if (bits != null) { c.bits = bits.clone(); c.array = null; }
+            else c.array = Arrays.copyOf(array, Math.max(4, size));
+            return c;
+        }
+
+        long footprintBytes() {
+            return 32 + (bits != null ? 16 + 8L * WORDS : 16 + 2L * array.length);
+        }
+
+        private void toBits() {
+            bits = new long[WORDS];
+            for (int i = 0; i < size; i++) bits[array[i] >>> 6] |= 1L << array[i];
+            array = null;
+        }
+
+        private void toArray() {
+            char[] a = new char[Math.max(4, size)];
+            int k = 0;
+            for (int w = 0; w < WORDS; w++) {
+                for (long word = bits[w]; word != 0; word &= word - 1) {
+                    a[k++] = (char) (w * 64 + Long.numberOfTrailingZeros(word));
+                }
+            }
+            array = a;
+            bits = null;
+        }
+
+        // this AND other; reuses this container's bitset when both are dense
+        Container retainAll(Container other) {
+            if (bits == null || other.bits == null) return and(this, other);
+            size = 0;
+            for (int w = 0; w < WORDS; w++) size += Long.bitCount(bits[w] &= other.bits[w]);
+            if (size <= ARRAY_MAX) toArray();
+            return this;
+        }
+
+        // this OR other; reuses this container's bitset when it has one
+        Container addAll(Container other) {
+            if (bits == null) return or(this, other);
+            orInto(bits, other);
+            size = 0;
+            for (long w : bits) size += Long.bitCount(w);
+            return this;
+        }
+
+        static Container or(Container a, Container b) {
+            Container out = new Container();
+            if (a.bits != null || b.bits != null || a.size + b.size > ARRAY_MAX) {
+                out.bits = new long[WORDS];
+                out.array = null;
+                orInto(out.bits, a);
+                orInto(out.bits, b);
+                for (long w : out.bits) out.size += Long.bitCount(w);
+                if (out.size <= ARRAY_MAX) out.toArray();
+                return out;
+            }
+            char[] m = new char[Math.max(4, a.size + b.size)];
+            int i = 0, j = 0, k = 0;
+            while (i < a.size && j < b.size) {
+                char x = a.array[i], y = b.array[j];
+                if (x < y) { m[k++] = x; i++; }
+                else if (y < x) { m[k++] = y; j++; }
+                else { m[k++] = x; i++; j++; }
+            }
+            while (i < a.size) m[k++] = a.array[i++];
+            while (j < b.size) m[k++] = b.array[j++];
+            out.array = m;
+            out.size = k;
+            return out;
+        }
+
+        private static void orInto(long[] bits, Container c) {
+            if (c.bits != null) for (int w = 0; w < WORDS; w++) bits[w] |= c.bits[w];
+            else for (int i = 0; i < c.size; i++) bits[c.array[i] >>> 6] |= 1L << c.array[i];
+        }
+
+        static Container and(Container a, Container b) {
+            Container out = new Container();
+            if (a.bits != null && b.bits != null) {
+                out.bits = new long[WORDS];
+                out.array = null;
+                for (int w = 0; w < WORDS; w++) out.size += Long.bitCount(out.bits[w] = a.bits[w] & b.bits[w]);
+                if (out.size <= ARRAY_MAX) out.toArray();
+                return out;
+            }
+            if (a.bits != null) { Container t = a; a = b; b = t; }   // a is an array now
+            char[] m = new char[Math.max(4, a.size)];
+            int k = 0;
+            if (b.bits != null) {
+                for (int i = 0; i < a.size; i++) if (b.contains(a.array[i])) m[k++] = a.array[i];
+            } else {
+                int i = 0, j = 0;
+                while (i < a.size && j < b.size) {
+                    char x = a.array[i], y = b.array[j];
+                    if (x < y) i++;
+                    else if (y < x) j++;
+                    else { m[k++] = x; i++; j++; }
+                }
+            }
+            out.array = m;
+            out.size = k;
+            return out;
+        }
+
+        static int andCardinality(Container a, Container b) {
+            int count = 0;
+            if (a.bits != null && b.bits != null) {
+                for (int w = 0; w < WORDS; w++) count += Long.bitCount(a.bits[w] & b.bits[w]);
+                return count;
+            }
+            if (a.bits != null) { Container t = a; a = b; b = t; }
+            if (b.bits != null) {
+                for (int i = 0; i < a.size; i++) if (b.contains(a.array[i])) count++;
+                return count;
+            }
+            int i = 0, j = 0;
+            while (i < a.size && j < b.size) {
+                char x = a.array[i], y = b.array[j];
+                if (x < y) i++;
+                else if (y < x) j++;
+                else { count++; i++; j++; }
+            }
+            return count;
+        }
+    }
+}
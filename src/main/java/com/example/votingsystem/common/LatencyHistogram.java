@@ -0,0 +1,56 @@
+package com.example.votingsystem.common;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with power-of-two microsecond buckets
+ * (bucket i holds durations below 2^i µs). Percentiles are bucket upper bounds.
+ */
+public class LatencyHistogram {
+
+    private static final int BUCKETS = 40;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private volatile long maxNanos;
+
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos) / 1_000;
+        int i = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        buckets.incrementAndGet(i);
+        count.increment();
+        totalNanos.add(nanos);
+        if (nanos > maxNanos) maxNanos = nanos;   // racy max is fine for monitoring
+    }
+
+    public long count() { return count.sum(); }
+
+    /** Upper bound (µs) of the bucket containing the given quantile (0..1). */
+    public long percentileMicros(double q) {
+        long n = count.sum();
+        if (n == 0) return 0;
+        long rank = (long) Math.ceil(q * n);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) return 1L << i;
+        }
+        return 1L << (BUCKETS - 1);
+    }
+
+    public Map<String, Object> summary() {
+        long n = count.sum();
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("count", n);
+        m.put("meanMicros", n == 0 ? 0 : totalNanos.sum() / n / 1_000);
+        m.put("p50Micros", percentileMicros(0.50));
+        m.put("p99Micros", percentileMicros(0.99));
+        m.put("p999Micros", percentileMicros(0.999));
+        m.put("maxMicros", maxNanos / 1_000);
+        return m;
+    }
+}
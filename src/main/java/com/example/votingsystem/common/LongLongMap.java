@@ -0,0 +1,127 @@
+package com.example.votingsystem.common;
+
+import java.util.Arrays;
+
+/**
+ * Small open-addressing map from long to long (no boxing), linear probing.
+ * Not thread-safe: callers share it copy-on-write (build a copy, then publish it).
+ */
+public final class LongLongMap {
+
+    /** Returned by {@link #get} when the key is absent. */
+    public static final long MISSING = Long.MIN_VALUE;
+
+    private static final long EMPTY = Long.MIN_VALUE;   // marks a free slot, so it can't be a key
+
+    private long[] keys;
+    private long[] values;
+    private int size;
+
+    public LongLongMap() { this(8); }
+
+    public LongLongMap(int expectedSize) {
+        int cap = Integer.highestOneBit(Math.max(4, expectedSize) * 2 - 1) << 1;
+        keys = new long[cap];
+        values = new long[cap];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    private LongLongMap(long[] keys, long[] values, int size) {
+        this.keys = keys;
+        this.values = values;
+        this.size = size;
+    }
+
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    public int size() { return size; }
+
+    /** Approximate heap size of the two backing arrays. */
+    public long footprintBytes() { return 2L * (16 + 8L * keys.length); }
+
+    public long get(long key) {
+        int mask = keys.length - 1;
+        for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) return values[i];
+            if (k == EMPTY) return MISSING;
+        }
+    }
+
+    public void put(long key, long value) {
+        if (key == EMPTY) throw new IllegalArgumentException("Key not supported: " + key);
+        if ((size + 1) * 2 > keys.length) resize(keys.length * 2);   // keep load factor <= 0.5
+        int mask = keys.length - 1;
+        for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+            if (keys[i] == key) { values[i] = value; return; }
+            if (keys[i] == EMPTY) {
+                keys[i] = key;
+                values[i] = value;
+                size++;
+                return;
+            }
+        }
+    }
+
+    public boolean remove(long key) {
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+        while (keys[i] != key) {
+            if (keys[i] == EMPTY) return false;
+            i = (i + 1) & mask;
+        }
+        // backward-shift deletion: pull later entries of the probe chain into the gap
+        int gap = i;
+        for (int j = (gap + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+            int home = slot(keys[j], mask);
+            boolean homeBetween = gap <= j ? (gap < home && home <= j) : (gap < home || home <= j);
+            if (!homeBetween) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+        keys[gap] = EMPTY;
+        size--;
+        return true;
+    }
+
+    /** Remove every entry whose value equals {@code value}; returns how many were removed. */
+    public int removeValue(long value) {
+        long[] hits = new long[size];
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY && values[i] == value) hits[n++] = keys[i];
+        }
+        for (int i = 0; i < n; i++) remove(hits[i]);
+        return n;
+    }
+
+    /** Receives the entries of {@link #forEach}. */
+    @FunctionalInterface
+    public interface EntryConsumer { void accept(long key, long value); }
+
+    public void forEach(EntryConsumer action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) action.accept(keys[i], values[i]);
+        }
+    }
+
+    public LongLongMap copy() {
+        return new LongLongMap(keys.clone(), values.clone(), size);
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys, oldValues = values;
+        keys = new long[capacity];
+        values = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) put(oldKeys[i], oldValues[i]);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.votingsystem.common;
+
+// Thrown when a bounded resource (queue/pool) is full; mapped to 503 + Retry-After
+public class ServiceBusyException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public ServiceBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
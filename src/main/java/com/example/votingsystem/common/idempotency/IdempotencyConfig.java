@@ -0,0 +1,29 @@
+package com.example.votingsystem.common.idempotency;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// Picks the Idempotency-Key store: in-memory (single node, default) or the shared idempotency_keys table
+@Configuration
+public class IdempotencyConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyConfig.class);
+
+    @Bean
+    public IdempotencyStore idempotencyStore(@Value("${app.idempotency.store:memory}") String type,
+                                             @Value("${app.idempotency.ttl-ms:3600000}") long ttlMs,
+                                             @Value("${app.idempotency.lease-ms:30000}") long leaseMs,
+                                             @Value("${app.idempotency.max-entries:100000}") int maxEntries,
+                                             JdbcTemplate jdbc) {
+        log.info("[Idempotency] store={} ttlMs={} leaseMs={}", type, ttlMs, leaseMs);
+        return switch (type) {
+            case "memory" -> new InMemoryIdempotencyStore(ttlMs, leaseMs, maxEntries);
+            case "jdbc" -> new JdbcIdempotencyStore(jdbc, ttlMs, leaseMs);
+            default -> throw new IllegalArgumentException("app.idempotency.store must be memory or jdbc: " + type);
+        };
+    }
+}
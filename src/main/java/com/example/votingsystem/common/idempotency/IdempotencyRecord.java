@@ -0,0 +1,44 @@
+package com.example.votingsystem.common.idempotency;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+// Table behind JdbcIdempotencyStore (mapped here so schema generation creates it); written with plain JDBC
+@Entity
+@Getter
+@Setter
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "ix_idempotency_keys_expires_at", columnList = "expires_at"),
+        @Index(name = "ix_idempotency_keys_lease_until", columnList = "lease_until")
+})
+public class IdempotencyRecord {
+
+    // "<scope>|<client key>"
+    @Id
+    @Column(name = "idem_key", length = 200)
+    private String idemKey;
+
+    // SHA-256 of the request, to refuse a key reused for a different request
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    // null while the first request is still running
+    @Column(name = "http_status")
+    private Integer httpStatus;
+
+    @Lob
+    private String body;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    // while running: when the claim lapses if the request never finishes (node died); null once completed
+    @Column(name = "lease_until")
+    private Instant leaseUntil;
+}
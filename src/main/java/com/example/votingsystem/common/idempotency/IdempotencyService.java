@@ -0,0 +1,121 @@
+package com.example.votingsystem.common.idempotency;
+
+import com.example.votingsystem.common.idempotency.IdempotencyStore.StoredResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Runs a write at most once per Idempotency-Key; retries with the same key get the stored response back
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private final IdempotencyStore store;
+    private final ObjectMapper json;
+    private final Counter executed, replayed, inProgress, mismatched;
+
+    public IdempotencyService(IdempotencyStore store, ObjectMapper json, MeterRegistry meters) {
+        this.store = store;
+        this.json = json;
+        this.executed = counter(meters, "new");
+        this.replayed = counter(meters, "replayed");
+        this.inProgress = counter(meters, "in_progress");
+        this.mismatched = counter(meters, "mismatch");
+    }
+
+    private static Counter counter(MeterRegistry meters, String result) {
+        return Counter.builder("idempotency.requests")
+                .description("Requests carrying an Idempotency-Key, by outcome")
+                .tag("result", result)
+                .register(meters);
+    }
+
+    /**
+     * Runs action unless scope+key was already used: a finished request is replayed, a running one
+     * gets 409, and the same key with a different request body gets 422. Without a key the action just runs.
+     */
+    public ResponseEntity<?> execute(String key, String scope, Object request, Supplier<ResponseEntity<?>> action) {
+        if (key == null || key.isBlank()) return action.get();
+        if (key.length() > MAX_KEY_LENGTH)
+            throw new IllegalArgumentException(HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+
+        String storeKey = scope + "|" + key;
+        var claim = store.claim(storeKey, fingerprint(request));
+        switch (claim.state()) {
+            case COMPLETED -> {
+                replayed.increment();
+                return replay(claim.response());
+            }
+            case IN_PROGRESS -> {
+                inProgress.increment();
+                return ResponseEntity.status(HttpStatus.CONFLICT).header("Retry-After", "1")
+                        .body(Map.of("message", "A request with this " + HEADER + " is still being processed"));
+            }
+            case MISMATCH -> {
+                mismatched.increment();
+                return ResponseEntity.unprocessableEntity()
+                        .body(Map.of("message", HEADER + " was already used for a different request"));
+            }
+            default -> executed.increment();
+        }
+
+        boolean completed = false;
+        try {
+            ResponseEntity<?> res = action.get();
+            if (res.getStatusCode().is2xxSuccessful()) {
+                store.complete(storeKey, new StoredResponse(res.getStatusCode().value(), body(res.getBody())));
+                completed = true;
+            }
+            return res;
+        } finally {
+            // failed requests (errors, exceptions, non-2xx) are not remembered: the retry runs again
+            if (!completed) store.release(storeKey);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.sweep-interval-ms:60000}")
+    public void purgeExpired() {
+        store.purgeExpired();
+    }
+
+    private static ResponseEntity<?> replay(StoredResponse r) {
+        var builder = ResponseEntity.status(r.status()).header(REPLAYED_HEADER, "true");
+        if (r.body() == null) return builder.build();
+        return builder.contentType(MediaType.APPLICATION_JSON).body(r.body());
+    }
+
+    private String body(Object body) {
+        if (body == null) return null;
+        try {
+            return json.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response not serializable", e);
+        }
+    }
+
+    // SHA-256 of the request as JSON, so a reused key with another payload is refused
+    private String fingerprint(Object request) {
+        try {
+            byte[] bytes = json.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint request", e);
+        }
+    }
+}
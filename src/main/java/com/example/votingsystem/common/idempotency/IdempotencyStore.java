@@ -0,0 +1,34 @@
+package com.example.votingsystem.common.idempotency;
+
+/**
+ * Remembers Idempotency-Key claims and the response that completed them, for a limited time.
+ * Keys arrive already scoped (caller + endpoint), so one client cannot replay another's response.
+ * A claim that is never completed or released (its node died) lapses after a short lease,
+ * well before the completed-response TTL.
+ */
+public interface IdempotencyStore {
+
+    enum State { NEW, IN_PROGRESS, COMPLETED, MISMATCH }
+
+    /** Response to replay: HTTP status and JSON body (null for empty bodies). */
+    record StoredResponse(int status, String body) {}
+
+    /** Result of a claim; response is set only for COMPLETED. */
+    record Claim(State state, StoredResponse response) {
+        static final Claim NEW = new Claim(State.NEW, null);
+        static final Claim IN_PROGRESS = new Claim(State.IN_PROGRESS, null);
+        static final Claim MISMATCH = new Claim(State.MISMATCH, null);
+    }
+
+    /** Claim the key for a request with the given fingerprint; NEW means the caller must run it. */
+    Claim claim(String key, String fingerprint);
+
+    /** Store the response of a claimed key so retries replay it. */
+    void complete(String key, StoredResponse response);
+
+    /** Drop a claim whose request failed, so a retry runs again. */
+    void release(String key);
+
+    /** Remove expired entries. */
+    void purgeExpired();
+}
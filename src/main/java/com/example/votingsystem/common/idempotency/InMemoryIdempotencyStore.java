@@ -0,0 +1,98 @@
+package com.example.votingsystem.common.idempotency;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongSupplier;
+
+/**
+ * Single-node store: a ConcurrentHashMap (lock-free lookups) plus a FIFO of claims used to expire
+ * entries and to evict the oldest ones once max-entries is reached. All entries share one TTL,
+ * so creation order is also expiry order. An unfinished claim past its lease can be claimed again,
+ * so a request that never released its key blocks retries for seconds, not for the whole TTL.
+ */
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    // response stays null while the first request is still running, until leaseUntil
+    private record Entry(String fingerprint, long expiresAt, long leaseUntil, StoredResponse response) {
+
+        boolean lapsed(long now) {
+            return expiresAt <= now || (response == null && leaseUntil <= now);
+        }
+    }
+
+    private record Stamp(String key, long expiresAt) {}
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Stamp> order = new ConcurrentLinkedQueue<>();
+    private final long ttlMs;
+    private final long leaseMs;
+    private final int maxEntries;
+    private final LongSupplier clock;
+
+    public InMemoryIdempotencyStore(long ttlMs, long leaseMs, int maxEntries) {
+        this(ttlMs, leaseMs, maxEntries, System::currentTimeMillis);
+    }
+
+    InMemoryIdempotencyStore(long ttlMs, long leaseMs, int maxEntries, LongSupplier clock) {
+        this.ttlMs = ttlMs;
+        this.leaseMs = Math.min(leaseMs, ttlMs);
+        this.maxEntries = Math.max(1, maxEntries);
+        this.clock = clock;
+    }
+
+    @Override
+    public Claim claim(String key, String fingerprint) {
+        long now = clock.getAsLong();
+        Entry fresh = new Entry(fingerprint, now + ttlMs, now + leaseMs, null);
+        while (true) {
+            Entry cur = entries.putIfAbsent(key, fresh);
+            if (cur == null) {
+                order.add(new Stamp(key, fresh.expiresAt()));
+                evictOverflow();
+                return Claim.NEW;
+            }
+            if (cur.lapsed(now)) {
+                entries.remove(key, cur);   // expired or abandoned: claim it again
+                continue;
+            }
+            if (!cur.fingerprint().equals(fingerprint)) return Claim.MISMATCH;
+            return cur.response() == null ? Claim.IN_PROGRESS : new Claim(State.COMPLETED, cur.response());
+        }
+    }
+
+    @Override
+    public void complete(String key, StoredResponse response) {
+        // keeps the claim's expiry, so the FIFO stamp still matches the entry
+        entries.computeIfPresent(key, (k, e) -> new Entry(e.fingerprint(), e.expiresAt(), e.leaseUntil(), response));
+    }
+
+    @Override
+    public void release(String key) {
+        entries.computeIfPresent(key, (k, e) -> e.response() == null ? null : e);
+    }
+
+    @Override
+    public void purgeExpired() {
+        long now = clock.getAsLong();
+        Stamp head;
+        while ((head = order.peek()) != null && head.expiresAt() <= now) {
+            if (order.remove(head)) removeIfSame(head);
+        }
+    }
+
+    private void evictOverflow() {
+        while (entries.size() > maxEntries) {
+            Stamp oldest = order.poll();
+            if (oldest == null) return;
+            removeIfSame(oldest);
+        }
+    }
+
+    // only remove the generation the stamp was created for (the key may have been claimed again since)
+    private void removeIfSame(Stamp s) {
+        entries.computeIfPresent(s.key(), (k, e) -> e.expiresAt() == s.expiresAt() ? null : e);
+    }
+
+    public int size() { return entries.size(); }
+}
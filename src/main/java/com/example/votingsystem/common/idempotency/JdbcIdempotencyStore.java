@@ -0,0 +1,94 @@
+package com.example.votingsystem.common.idempotency;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Shared store for several app nodes, in the idempotency_keys table (see IdempotencyRecord).
+ * The primary key makes the claim atomic across nodes; statements run in their own auto-commit
+ * transactions so a claim is visible to other nodes before the request runs.
+ */
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private record Row(String fingerprint, Integer status, String body, Timestamp expiresAt, Timestamp leaseUntil) {}
+
+    private final JdbcTemplate jdbc;
+    private final long ttlMs;
+    private final long leaseMs;
+    private final LongSupplier clock;
+
+    public JdbcIdempotencyStore(JdbcTemplate jdbc, long ttlMs, long leaseMs) {
+        this(jdbc, ttlMs, leaseMs, System::currentTimeMillis);
+    }
+
+    JdbcIdempotencyStore(JdbcTemplate jdbc, long ttlMs, long leaseMs, LongSupplier clock) {
+        this.jdbc = jdbc;
+        this.ttlMs = ttlMs;
+        this.leaseMs = Math.min(leaseMs, ttlMs);
+        this.clock = clock;
+    }
+
+    @Override
+    public Claim claim(String key, String fingerprint) {
+        for (int attempt = 0; attempt < 3; attempt++) {
+            long now = clock.getAsLong();
+            // look first: retries are the common case for a used key and a failed insert is costly
+            Row row = find(key);
+            if (row == null) {
+                try {
+                    jdbc.update("insert into idempotency_keys (idem_key, fingerprint, created_at, expires_at, lease_until)"
+                                    + " values (?, ?, ?, ?, ?)",
+                            key, fingerprint, new Timestamp(now), new Timestamp(now + ttlMs), new Timestamp(now + leaseMs));
+                    return Claim.NEW;
+                } catch (DuplicateKeyException raced) {
+                    continue;                                      // another node claimed it first
+                }
+            }
+            if (row.expiresAt().getTime() <= now) {
+                jdbc.update("delete from idempotency_keys where idem_key = ? and expires_at = ?", key, row.expiresAt());
+                continue;
+            }
+            if (row.status() == null && row.leaseUntil() != null && row.leaseUntil().getTime() <= now) {
+                // the node running it died: take the claim over (only if nobody else just did)
+                jdbc.update("delete from idempotency_keys where idem_key = ? and http_status is null and lease_until = ?",
+                        key, row.leaseUntil());
+                continue;
+            }
+            if (!row.fingerprint().equals(fingerprint)) return Claim.MISMATCH;
+            if (row.status() == null) return Claim.IN_PROGRESS;
+            return new Claim(State.COMPLETED, new StoredResponse(row.status(), row.body()));
+        }
+        return Claim.IN_PROGRESS;   // lost every race: let the client retry
+    }
+
+    private Row find(String key) {
+        List<Row> rows = jdbc.query(
+                "select fingerprint, http_status, body, expires_at, lease_until from idempotency_keys where idem_key = ?",
+                (rs, i) -> new Row(rs.getString(1), (Integer) rs.getObject(2), rs.getString(3), rs.getTimestamp(4),
+                        rs.getTimestamp(5)),
+                key);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    @Override
+    public void complete(String key, StoredResponse response) {
+        jdbc.update("update idempotency_keys set http_status = ?, body = ?, lease_until = null where idem_key = ?",
+                response.status(), response.body(), key);
+    }
+
+    @Override
+    public void release(String key) {
+        jdbc.update("delete from idempotency_keys where idem_key = ? and http_status is null", key);
+    }
+
+    @Override
+    public void purgeExpired() {
+        Timestamp now = new Timestamp(clock.getAsLong());
+        jdbc.update("delete from idempotency_keys where expires_at <= ?", now);
+        jdbc.update("delete from idempotency_keys where lease_until <= ? and http_status is null", now);
+    }
+}
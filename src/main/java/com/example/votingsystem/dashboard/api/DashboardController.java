@@ -1,10 +1,20 @@
 package com.example.votingsystem.dashboard.api;
 
+import com.example.votingsystem.admin.domain.Role;
+import com.example.votingsystem.admin.security.JwtService;
 import com.example.votingsystem.dashboard.dto.*;
+import com.example.votingsystem.dashboard.service.DashboardCounterService;
 import com.example.votingsystem.dashboard.service.DashboardService;
+import com.example.votingsystem.dashboard.service.LiveUpdateBroadcaster;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import com.example.votingsystem.dashboard.dto.SimpleSlice;
+import com.example.votingsystem.voting.service.VoteTallyEngine;
 
 import java.util.List;
 import java.util.Map;
@@ -14,40 +24,135 @@ import java.util.Map;
 @PreAuthorize("hasRole('ADMIN')")
 public class DashboardController {
 
+    // Version of the aggregates a response was built from; higher = fresher
+    static final String VERSION_HEADER = "X-Dashboard-Version";
+
     private final DashboardService service;
+    private final VoteTallyEngine tallies;
+    private final LiveUpdateBroadcaster live;
+    private final DashboardCounterService rates;
+    private final JwtService jwt;
+    private final long ticketTtlSeconds;
 
-    public DashboardController(DashboardService service) {
+    public DashboardController(DashboardService service, VoteTallyEngine tallies, LiveUpdateBroadcaster live,
+                               DashboardCounterService rates, JwtService jwt,
+                               @Value("${app.live.ticket-ttl-seconds:60}") long ticketTtlSeconds) {
         this.service = service;
+        this.tallies = tallies;
+        this.live = live;
+        this.rates = rates;
+        this.jwt = jwt;
+        this.ticketTtlSeconds = ticketTtlSeconds;
     }
 
     @GetMapping("/kpis")
-    public DashboardKpis kpis() { return service.kpis(); }
+    public ResponseEntity<DashboardKpis> kpis() {
+        long version = service.version();
+        return versioned(version, service.kpis());
+    }
 
     @GetMapping("/categories")
-    public List<CategoryProgressDto> categories() { return service.categoriesProgress(); }
+    public ResponseEntity<List<CategoryProgressDto>> categories() {
+        long version = service.version();
+        return versioned(version, service.categoriesProgress());
+    }
+
+    // Whole event dashboard in one call (versioned snapshot)
+    @GetMapping("/snapshot")
+    public ResponseEntity<DashboardSnapshot> snapshot(@RequestParam Long eventId) {
+        var snap = service.snapshot(eventId);
+        return versioned(snap.version(), snap);
+    }
+
+    // Live snapshots for one event over Server-Sent Events (replaces polling the endpoints above).
+    // Browsers' EventSource cannot set Authorization: open it with ?access_token=<ticket from /stream/ticket>
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam Long eventId) {
+        return live.open(LiveUpdateBroadcaster.dashboardTopic(eventId), () -> service.snapshot(eventId));
+    }
+
+    // Short-lived token that opens the stream and nothing else; fetch a new one before each (re)connect
+    @PostMapping("/stream/ticket")
+    public Map<String, Object> streamTicket(Authentication auth) {
+        String ticket = jwt.generate(auth.getName(), Role.ADMIN, ticketTtlSeconds, JwtService.STREAM_SCOPE);
+        return Map.of("ticket", ticket, "expiresIn", ticketTtlSeconds);
+    }
+
+    // Current votes/sec and votes/min for an event and each of its categories (since startup)
+    @GetMapping("/rates")
+    public VoteRates rates(@RequestParam Long eventId) { return rates.rates(eventId); }
+
+    // Subscriber/drop counters of the live stream
+    @GetMapping("/stream/stats")
+    public LiveUpdateBroadcaster.Stats streamStats() { return live.stats(); }
 
     @GetMapping("/leaders")
-    public List<NomineeVotesDto> leaders(@RequestParam Long categoryId,
-                                         @RequestParam(defaultValue = "3") int limit) {
-        return service.leaders(categoryId, limit);
+    public ResponseEntity<List<NomineeVotesDto>> leaders(@RequestParam Long categoryId,
+                                                         @RequestParam(defaultValue = "3") int limit) {
+        var snap = service.snapshotForCategory(categoryId);
+        return versioned(snap, service.leaders(snap, categoryId, limit));
     }
 
     @GetMapping("/genders")
-    public List<SimpleSlice> genders(@RequestParam Long categoryId) {
-        return service.gendersByVotedStudents(categoryId);
+    public ResponseEntity<List<SimpleSlice>> genders(@RequestParam Long categoryId) {
+        var snap = service.snapshotForCategory(categoryId);
+        return versioned(snap, service.gendersByVotedStudents(snap, categoryId));
     }
 
+    // resolution=MINUTE|HOUR returns the last `limit` buckets (zeros included) for live charts
     @GetMapping("/votes-by-day")
-    public List<Map<String, Object>> votesByDay(@RequestParam Long categoryId) {
-        return service.votesByDay(categoryId).stream()
+    public ResponseEntity<List<Map<String, Object>>> votesByDay(@RequestParam Long categoryId,
+                                                                @RequestParam(defaultValue = "DAY") String resolution,
+                                                                @RequestParam(defaultValue = "60") int limit) {
+        var res = TimeResolution.parse(resolution);
+        var snap = service.snapshotForCategory(categoryId);
+        var points = res == TimeResolution.DAY
+                ? service.votesByDay(snap, categoryId)
+                : service.histogram(null, categoryId, res, limit);
+        return versioned(snap, points.stream()
                 .map(tp -> Map.<String, Object>of(
                         "date", tp.ts().toString(),
                         "count", Long.valueOf(tp.votes())))
-                .toList();
+                .toList());
+    }
+
+    // Votes over time for a whole event (or one category) at MINUTE, HOUR or DAY resolution
+    @GetMapping("/histogram")
+    public ResponseEntity<List<TimePoint>> histogram(@RequestParam(required = false) Long eventId,
+                                                     @RequestParam(required = false) Long categoryId,
+                                                     @RequestParam(defaultValue = "HOUR") String resolution,
+                                                     @RequestParam(defaultValue = "60") int limit) {
+        long version = service.version();
+        return versioned(version, service.histogram(eventId, categoryId, TimeResolution.parse(resolution), limit));
+    }
+
+    // Result of the last live-tally vs DB reconciliation (null until the first run)
+    @GetMapping("/tally/reconcile")
+    public VoteTallyEngine.ReconcileReport lastReconcile() { return tallies.lastReconcile(); }
+
+    // Run a reconciliation now
+    @PostMapping("/tally/reconcile")
+    public VoteTallyEngine.ReconcileReport reconcile() { return tallies.reconcile(); }
+
+    // Voted in any / every category of the event (or of the listed categories), from the voter bitmaps
+    @GetMapping("/turnout")
+    public ResponseEntity<Turnout> turnout(@RequestParam Long eventId,
+                                           @RequestParam(required = false) List<Long> categoryIds) {
+        long version = service.version();
+        return versioned(version, service.turnout(eventId, categoryIds));
     }
 
     @GetMapping("/participation")
-    public Participation participation(@RequestParam Long categoryId) {
-        return service.participation(categoryId);
+    public ResponseEntity<Participation> participation(@RequestParam Long categoryId) {
+        var snap = service.snapshotForCategory(categoryId);
+        return versioned(snap, service.participation(snap, categoryId));
+    }
+
+    private static <T> ResponseEntity<T> versioned(DashboardSnapshot snap, T body) {
+        return versioned(snap == null ? 0L : snap.version(), body);
+    }
+
+    private static <T> ResponseEntity<T> versioned(long version, T body) {
+        return ResponseEntity.ok().header(VERSION_HEADER, String.valueOf(version)).body(body);
     }
 }
@@ -11,7 +11,6 @@ import org.springframework.web.bind.annotation.*;
 import java.lang.reflect.RecordComponent;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
-import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Objects;
@@ -69,7 +68,7 @@ public class ExportController {
     @GetMapping(value = "/votes-by-day", produces = "text/csv")
     public ResponseEntity<byte[]> exportVotesByDay(@RequestParam Long categoryId) {
         var rows = dash.votesByDay(categoryId); // List<TimePoint> (record: ts, votes)
-        DateTimeFormatter fmt = DateTimeFormatter.ISO_LOCAL_DATE; // yyyy-MM-dd
+        DateTimeFormatter fmt = DateTimeFormatter.ISO_LOCAL_DATE; // yyyy-MM-dd, in the histogram zone
 
         StringBuilder sb = new StringBuilder("date,votes\n");
         for (var p : rows) {
@@ -79,7 +78,7 @@ public class ExportController {
             Instant ts = (tObj instanceof Instant) ? (Instant) tObj : Instant.parse(String.valueOf(tObj));
             long votes = (vObj instanceof Number) ? ((Number) vObj).longValue() : Long.parseLong(String.valueOf(vObj));
 
-            sb.append(fmt.format(ts.atZone(ZoneOffset.UTC))).append(',').append(votes).append('\n');
+            sb.append(fmt.format(ts.atZone(dash.zone()))).append(',').append(votes).append('\n');
         }
         return csv("votes_by_day_category_" + categoryId + ".csv", sb.toString());
     }
@@ -2,8 +2,13 @@ package com.example.votingsystem.dashboard.api;
 
 import com.example.votingsystem.dashboard.repo.CategoryViewRepository;
 import com.example.votingsystem.dashboard.domain.CategoryView;
+import com.example.votingsystem.dashboard.dto.DashboardSnapshot;
 import com.example.votingsystem.dashboard.service.DashboardService;
+import com.example.votingsystem.dashboard.service.LiveUpdateBroadcaster;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import java.util.*;
 
 @RestController
@@ -11,13 +16,31 @@ import java.util.*;
 public class PublicCategoryViewController {
     private final CategoryViewRepository repo;
     private final DashboardService dash;
-    public PublicCategoryViewController(CategoryViewRepository repo, DashboardService dash){
-        this.repo = repo; this.dash = dash;
+    private final LiveUpdateBroadcaster live;
+    public PublicCategoryViewController(CategoryViewRepository repo, DashboardService dash, LiveUpdateBroadcaster live){
+        this.repo = repo; this.dash = dash; this.live = live;
     }
 
     @GetMapping("{categoryId}/widgets")
-    public List<Map<String,Object>> published(@PathVariable Long categoryId){
+    public ResponseEntity<List<Map<String,Object>>> published(@PathVariable Long categoryId){
+        var snap = dash.snapshotForCategory(categoryId);
+        return ResponseEntity.ok()
+                .header(DashboardController.VERSION_HEADER, String.valueOf(snap == null ? 0L : snap.version()))
+                .body(widgets(categoryId, snap));
+    }
+
+    // Same widgets pushed over Server-Sent Events whenever the category's votes change
+    @GetMapping(path = "{categoryId}/widgets/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@PathVariable Long categoryId){
+        return live.open(LiveUpdateBroadcaster.publicWidgetsTopic(categoryId), () -> {
+            var snap = dash.snapshotForCategory(categoryId);
+            return Map.of("version", snap == null ? 0L : snap.version(), "widgets", widgets(categoryId, snap));
+        });
+    }
+
+    private List<Map<String,Object>> widgets(Long categoryId, DashboardSnapshot snap){
         var views = repo.findByCategoryIdAndShowPublicTrueOrderByIdAsc(categoryId);
+        // one snapshot for all widgets so they agree with each other
         List<Map<String,Object>> out = new ArrayList<>();
         for (CategoryView v : views){
             Map<String,Object> row = new LinkedHashMap<>();
@@ -29,8 +52,7 @@ public class PublicCategoryViewController {
             row.put("filtersJson", v.getFiltersJson());
 
             if (v.getMetric() == CategoryView.Metric.LEADERS){
-                // DashboardService method name is leaders(categoryId, limit)
-                row.put("data", dash.leaders(v.getCategoryId(),
+                row.put("data", dash.leaders(snap, v.getCategoryId(),
                         Optional.ofNullable(v.getTopN()).orElse(3)));
             }
             out.add(row);
@@ -9,7 +9,8 @@ import java.time.Instant;
 
 @Setter
 @Getter
-@Entity @Table(name = "category_view")
+@Entity @Table(name = "category_view",
+        indexes = @Index(name = "ix_category_view_category", columnList = "category_id, show_public"))
 public class CategoryView {
     public enum ChartType { BAR, PIE, LINE }
     public enum Metric { LEADERS, GENDERS, VOTES_BY_DAY, PARTICIPATION }
@@ -0,0 +1,23 @@
+package com.example.votingsystem.dashboard.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+// Immutable view of one event's dashboard aggregates; version grows with every applied vote change
+public record DashboardSnapshot(
+        Long eventId,
+        long version,
+        Instant builtAt,
+        DashboardKpis kpis,
+        List<CategoryProgressDto> categories,
+        Map<Long, CategoryWidgets> widgets
+) {
+    // Everything the per-category widgets need (leaders are sorted, highest first)
+    public record CategoryWidgets(
+            List<NomineeVotesDto> leaders,
+            List<SimpleSlice> genders,
+            List<TimePoint> votesByDay,
+            Participation participation
+    ) {}
+}
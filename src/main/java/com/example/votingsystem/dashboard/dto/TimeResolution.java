@@ -0,0 +1,15 @@
+package com.example.votingsystem.dashboard.dto;
+
+// Bucket size of a vote histogram
+public enum TimeResolution {
+    MINUTE, HOUR, DAY;
+
+    /** Case-insensitive; IllegalArgumentException for anything else. */
+    public static TimeResolution parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("resolution must be MINUTE, HOUR or DAY");
+        }
+    }
+}
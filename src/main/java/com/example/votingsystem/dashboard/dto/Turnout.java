@@ -0,0 +1,7 @@
+package com.example.votingsystem.dashboard.dto;
+
+import java.util.List;
+
+// Students who voted in any / all of the categories, out of every eligible student
+public record Turnout(Long eventId, List<Long> categoryIds, long eligible,
+                      long votedAny, long votedAll, double percentAny, double percentAll) {}
@@ -0,0 +1,17 @@
+package com.example.votingsystem.dashboard.dto;
+
+import java.util.List;
+
+/**
+ * Vote submissions for one event or category, counted since startup.
+ * lastSecond and lastMinute (last 60 s) cover complete seconds; perMinute lists the last 60 minutes,
+ * oldest first, the current (partial) minute last.
+ */
+public record VoteRate(
+        long id,
+        long total,
+        long lastSecond,
+        double perSecond10s,
+        long lastMinute,
+        List<Long> perMinute
+) {}
@@ -0,0 +1,5 @@
+package com.example.votingsystem.dashboard.dto;
+
+import java.util.List;
+
+public record VoteRates(long eventId, VoteRate event, List<VoteRate> categories) {}
@@ -0,0 +1,487 @@
+package com.example.votingsystem.dashboard.service;
+
+import com.example.votingsystem.dashboard.dto.*;
+import com.example.votingsystem.dashboard.dto.DashboardSnapshot.CategoryWidgets;
+import com.example.votingsystem.common.IdBitmap;
+import com.example.votingsystem.admin.itc.DatabaseRestoredEvent;
+import com.example.votingsystem.nominee.events.CatalogChangedEvent;
+import com.example.votingsystem.student.domain.Gender;
+import com.example.votingsystem.voting.checkpoint.VoteCheckpointService;
+import com.example.votingsystem.voting.events.VoteCastEvent;
+import com.example.votingsystem.voting.events.VoteResetEvent;
+import com.example.votingsystem.voting.service.VoteTallyEngine;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Materialized dashboard aggregates per event, maintained incrementally from vote events.
+ * Holds what the live tally does not: voters per category (as {@link IdBitmap}s, so distinct
+ * voters, turnout and cross-category intersections are bitmap operations), genders and
+ * {@link VoteHistogram}s of votes per minute/hour/day (in app.dashboard.histogram.zone). Readers get an immutable {@link DashboardSnapshot} that is rebuilt only
+ * when the event's version has moved since the last read.
+ */
+@Service
+public class DashboardAggregateCache implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardAggregateCache.class);
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final TransactionTemplate readTx;
+    private final TransactionTemplate reloadTx;   // runs after the catalog edit committed
+    private final VoteTallyEngine tallies;
+    private final VoteCheckpointService checkpoints;
+    private final long catalogTtlMs;
+    private final ZoneId zone;
+    private final int minuteSlots;
+    private final int hourSlots;
+
+    private final ConcurrentHashMap<Long, EventAggregate> events = new ConcurrentHashMap<>();
+    // studentId -> gender, filled at load and on first vote
+    private final ConcurrentHashMap<Long, Gender> genders = new ConcurrentHashMap<>();
+    private final AtomicLong globalVersion = new AtomicLong();
+
+    private volatile Catalog catalog = Catalog.EMPTY;
+    private final AtomicLong catalogChanges = new AtomicLong();
+
+    // Names and ownership needed to label aggregates; refreshed on a miss or after catalog-ttl-ms
+    private record CategoryInfo(Long id, String name, Long eventId) {}
+    private record NomineeInfo(Long id, String name) {}
+    private record Catalog(Map<Long, CategoryInfo> categories, Map<Long, List<NomineeInfo>> nominees,
+                           long eligible, long loadedAt) {
+        static final Catalog EMPTY = new Catalog(Map.of(), Map.of(), 0, 0);
+    }
+
+    // Mutable state of one event, guarded by its own monitor
+    private final class EventAggregate {
+        final Long eventId;
+        VoteHistogram histogram = newHistogram();
+        long version;
+        DashboardSnapshot snapshot;
+        Catalog builtFrom;
+        final Map<Long, CategoryAggregate> categories = new HashMap<>();
+        IdBitmap voters = new IdBitmap();   // voted in any category; union of the categories, rebuilt per version
+        long votersVersion = -1;
+
+        EventAggregate(Long eventId) { this.eventId = eventId; }
+
+        void clear() {
+            categories.clear();
+            histogram = newHistogram();
+        }
+
+        CategoryAggregate category(Long categoryId) {
+            return categories.computeIfAbsent(categoryId, k -> new CategoryAggregate(newHistogram()));
+        }
+
+        IdBitmap voters() {
+            if (votersVersion != version) {
+                voters = IdBitmap.orAll(categories.values().stream().map(c -> c.voters).toList());
+                votersVersion = version;
+            }
+            return voters;
+        }
+    }
+
+    private static final class CategoryAggregate {
+        final IdBitmap voters = new IdBitmap();   // distinct voters (student ids)
+        final EnumMap<Gender, Long> byGender = new EnumMap<>(Gender.class);
+        final VoteHistogram histogram;           // when each counted vote was first cast
+
+        CategoryAggregate(VoteHistogram histogram) { this.histogram = histogram; }
+    }
+
+    private VoteHistogram newHistogram() { return new VoteHistogram(zone, minuteSlots, hourSlots); }
+
+    public DashboardAggregateCache(PlatformTransactionManager txManager,
+                                   VoteTallyEngine tallies,
+                                   VoteCheckpointService checkpoints,
+                                   @Value("${app.dashboard.catalog-ttl-ms:30000}") long catalogTtlMs,
+                                   @Value("${app.dashboard.histogram.zone:Asia/Colombo}") String zone,
+                                   @Value("${app.dashboard.histogram.minute-slots:1440}") int minuteSlots,
+                                   @Value("${app.dashboard.histogram.hour-slots:744}") int hourSlots) {
+        this.readTx = new TransactionTemplate(txManager);
+        this.readTx.setReadOnly(true);
+        this.reloadTx = new TransactionTemplate(txManager);
+        this.reloadTx.setReadOnly(true);
+        this.reloadTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.tallies = tallies;
+        this.checkpoints = checkpoints;
+        this.catalogTtlMs = catalogTtlMs;
+        this.zone = ZoneId.of(zone);
+        this.minuteSlots = minuteSlots;
+        this.hourSlots = hourSlots;
+    }
+
+    // ---- load ----
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long t0 = System.nanoTime();
+        long[] n = {0};
+        if (checkpoints.isEnabled()) {
+            checkpoints.restore().forEach((id, event, category, nominee, student, gender, minute) -> {
+                genders.put(student, gender);
+                addVote(event, category, student, minute);
+                n[0]++;
+            });
+        } else {
+            readTx.executeWithoutResult(s -> em.createQuery("""
+                    select c.event.id, c.id, s.id, s.gender, v.createdAt
+                    from Vote v join v.category c join v.student s
+                    """, Object[].class)
+                    .getResultStream()
+                    .forEach(r -> {
+                        genders.put((Long) r[2], (Gender) r[3]);
+                        addVote((Long) r[0], (Long) r[1], (Long) r[2], epochMinute((LocalDateTime) r[4]));
+                        n[0]++;
+                    }));
+        }
+        refreshCatalog();
+        log.info("[DashboardCache] loaded {} votes for {} events ({} ms)",
+                n[0], events.size(), (System.nanoTime() - t0) / 1_000_000);
+    }
+
+    // Every table was replaced (ITC restore): drop all aggregates and load them again
+    @EventListener(DatabaseRestoredEvent.class)
+    public synchronized void onDatabaseRestored() {
+        events.clear();
+        genders.clear();
+        catalogChanges.incrementAndGet();
+        catalog = Catalog.EMPTY;
+        afterSingletonsInstantiated();
+    }
+
+    // ---- incremental updates ----
+
+    public void apply(VoteCastEvent e) {
+        if (!e.isUpdate()) {
+            addVote(e.getEventId(), e.getCategoryId(), e.getVoterId(), e.getTimestamp() / 60_000);
+        } else {
+            // a changed vote only moves leaders (live tally); still a new version for readers
+            bump(aggregate(e.getEventId()));
+        }
+    }
+
+    public void apply(VoteResetEvent e) {
+        if (e.getNomineeId() == null || e.getEventId() == null) return;   // nothing was deleted
+        EventAggregate ev = aggregate(e.getEventId());
+        synchronized (ev) {
+            CategoryAggregate c = ev.category(e.getCategoryId());
+            if (!c.voters.remove(e.getVoterId())) return;
+            // same gender the vote was counted under: genders only gains entries
+            c.byGender.merge(genders.getOrDefault(e.getVoterId(), Gender.PREFER_NOT_TO_SAY), -1L, Long::sum);
+            if (e.getVoteCreatedAt() != null) {
+                long minute = epochMinute(e.getVoteCreatedAt());
+                c.histogram.add(minute, -1);
+                ev.histogram.add(minute, -1);
+            }
+            bump(ev);
+        }
+    }
+
+    // Vote timestamps are stored as server-local date-times
+    private static long epochMinute(LocalDateTime t) {
+        return t.atZone(ZoneId.systemDefault()).toEpochSecond() / 60;
+    }
+
+    private void addVote(Long eventId, Long categoryId, Long studentId, long epochMinute) {
+        Gender g = genders.get(studentId);
+        if (g == null) {
+            g = loadGender(studentId);    // outside any lock: one small query per first-time voter
+            Gender raced = genders.putIfAbsent(studentId, g);
+            if (raced != null) g = raced;
+        }
+        EventAggregate ev = aggregate(eventId);
+        synchronized (ev) {
+            CategoryAggregate c = ev.category(categoryId);
+            if (!c.voters.add(studentId)) return;   // already counted
+            c.byGender.merge(g, 1L, Long::sum);
+            c.histogram.add(epochMinute, 1);
+            ev.histogram.add(epochMinute, 1);
+            bump(ev);
+        }
+    }
+
+    private EventAggregate aggregate(Long eventId) {
+        return events.computeIfAbsent(eventId, id -> new EventAggregate(id));
+    }
+
+    private void bump(EventAggregate ev) {
+        synchronized (ev) { ev.version++; }
+        globalVersion.incrementAndGet();
+    }
+
+    private Gender loadGender(Long studentId) {
+        Gender g = readTx.execute(s -> em.createQuery(
+                        "select s.gender from Student s where s.id = :id", Gender.class)
+                .setParameter("id", studentId)
+                .getResultStream().findFirst().orElse(null));
+        return g == null ? Gender.PREFER_NOT_TO_SAY : g;
+    }
+
+    // ---- catalog ----
+
+    private Catalog catalog() {
+        Catalog c = catalog;
+        if (System.currentTimeMillis() - c.loadedAt() > catalogTtlMs) c = refreshCatalog();
+        return c;
+    }
+
+    private Catalog catalogWith(Long categoryId) {
+        Catalog c = catalog();
+        return c.categories().containsKey(categoryId) ? c : refreshCatalog();
+    }
+
+    // Catalog edits are picked up on the next read instead of waiting for the TTL. Votes leave
+    // with a deleted event or category without any VoteResetEvent, and a category moved to another
+    // event takes its votes along, so the aggregates they were counted in are recounted too.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent e) {
+        catalogChanges.incrementAndGet();
+        catalog = Catalog.EMPTY;
+        switch (e.getKind()) {
+            case EVENT -> {
+                boolean exists = reloadTx.execute(s -> em.createQuery(
+                                "select count(e) from Event e where e.id = :id", Long.class)
+                        .setParameter("id", e.getId()).getSingleResult()) > 0;
+                if (!exists && events.remove(e.getId()) != null) globalVersion.incrementAndGet();
+            }
+            case CATEGORY -> onCategoryChanged(e.getId());
+            case NOMINEE -> { }   // votes stay in their category
+        }
+    }
+
+    private void onCategoryChanged(Long categoryId) {
+        Long owner = reloadTx.execute(s -> em.createQuery(
+                        "select c.event.id from Category c where c.id = :id", Long.class)
+                .setParameter("id", categoryId)
+                .getResultStream().findFirst().orElse(null));
+        Set<Long> stale = new LinkedHashSet<>();
+        for (EventAggregate ev : events.values()) {
+            synchronized (ev) {
+                if (!Objects.equals(ev.eventId, owner) && ev.categories.containsKey(categoryId)) stale.add(ev.eventId);
+            }
+        }
+        if (stale.isEmpty()) return;           // created or renamed: counted where it belongs
+        if (owner != null) stale.add(owner);   // moved: its voters now count for the new event
+        stale.forEach(this::recount);
+    }
+
+    // Recounts one event from the votes table. The event's monitor is held throughout, so live
+    // updates for it wait and land on top: a vote already read is not counted twice, and the
+    // reset of a vote that was never read is a no-op.
+    private void recount(Long eventId) {
+        EventAggregate ev = aggregate(eventId);
+        synchronized (ev) {
+            ev.clear();
+            reloadTx.executeWithoutResult(s -> em.createQuery("""
+                    select c.id, s.id, s.gender, v.createdAt
+                    from Vote v join v.category c join v.student s
+                    where c.event.id = :event
+                    """, Object[].class)
+                    .setParameter("event", eventId)
+                    .getResultStream()
+                    .forEach(r -> {
+                        if (r[2] != null) genders.putIfAbsent((Long) r[1], (Gender) r[2]);
+                        addVote(eventId, (Long) r[0], (Long) r[1], epochMinute((LocalDateTime) r[3]));
+                    }));
+            bump(ev);
+        }
+        log.info("[DashboardCache] recounted event {} after a catalog change", eventId);
+    }
+
+    private synchronized Catalog refreshCatalog() {
+        long changesBefore = catalogChanges.get();
+        Catalog fresh = readTx.execute(s -> {
+            Map<Long, CategoryInfo> cats = new LinkedHashMap<>();
+            em.createQuery("select c.id, c.name, c.event.id from Category c order by c.id", Object[].class)
+                    .getResultList()
+                    .forEach(r -> cats.put((Long) r[0], new CategoryInfo((Long) r[0], (String) r[1], (Long) r[2])));
+            Map<Long, List<NomineeInfo>> noms = new HashMap<>();
+            em.createQuery("select n.category.id, n.id, n.name from Nominee n order by n.id", Object[].class)
+                    .getResultList()
+                    .forEach(r -> noms.computeIfAbsent((Long) r[0], k -> new ArrayList<>())
+                            .add(new NomineeInfo((Long) r[1], (String) r[2])));
+            long eligible = em.createQuery("select count(s) from Student s", Long.class).getSingleResult();
+            return new Catalog(Map.copyOf(cats), Map.copyOf(noms), eligible, System.currentTimeMillis());
+        });
+        // changed while loading: use it, but reload on the next read
+        if (catalogChanges.get() != changesBefore) {
+            fresh = new Catalog(fresh.categories(), fresh.nominees(), fresh.eligible(), 0);
+        }
+        catalog = fresh;
+        globalVersion.incrementAndGet();
+        return fresh;
+    }
+
+    // ---- reads ----
+
+    public long globalVersion() { return globalVersion.get(); }
+
+    /** Event that owns the category, or null if the category does not exist. */
+    public Long eventOf(Long categoryId) {
+        CategoryInfo c = catalogWith(categoryId).categories().get(categoryId);
+        return c == null ? null : c.eventId();
+    }
+
+    public DashboardKpis kpis() {
+        Catalog c = catalog();
+        long eligible = c.eligible();
+        List<IdBitmap> perEvent = new ArrayList<>();
+        for (EventAggregate ev : events.values()) {
+            synchronized (ev) { perEvent.add(ev.voters()); }   // replaced, never mutated, once built
+        }
+        return new DashboardKpis(tallies.total(), eligible, percent(IdBitmap.orAll(perEvent).cardinality(), eligible),
+                c.categories().size());
+    }
+
+    /**
+     * Students who voted in any / every category of the event, or of the given categories of it
+     * (each must belong to the event).
+     */
+    public Turnout turnout(Long eventId, List<Long> categoryIds) {
+        boolean wholeEvent = categoryIds == null || categoryIds.isEmpty();
+        Catalog c = catalog();
+        List<Long> eventCategories = categoriesOf(c, eventId);
+        if (eventCategories.isEmpty() || (!wholeEvent && !eventCategories.containsAll(categoryIds))) {
+            c = refreshCatalog();   // may have been created since the last load
+            eventCategories = categoriesOf(c, eventId);
+        }
+        List<Long> selected = wholeEvent ? eventCategories : categoryIds;
+        for (Long id : selected) {
+            if (!eventCategories.contains(id)) throw new IllegalArgumentException("Category " + id + " not in event");
+        }
+
+        long any = 0, all = 0;
+        EventAggregate ev = events.get(eventId);
+        if (ev != null && !selected.isEmpty()) {
+            synchronized (ev) {
+                List<IdBitmap> voters = new ArrayList<>(selected.size());
+                for (Long id : selected) {
+                    CategoryAggregate agg = ev.categories.get(id);
+                    voters.add(agg == null ? new IdBitmap() : agg.voters);
+                }
+                any = wholeEvent ? ev.voters().cardinality() : IdBitmap.orAll(voters).cardinality();
+                all = IdBitmap.andAll(voters).cardinality();
+            }
+        }
+        long eligible = c.eligible();
+        return new Turnout(eventId, selected, eligible, any, all, percent(any, eligible), percent(all, eligible));
+    }
+
+    /** Zone that hour and day buckets are cut in. */
+    public ZoneId zone() { return zone; }
+
+    /**
+     * Votes over time for a category (when categoryId is set) or a whole event: the last
+     * {@code limit} minutes/hours, or every day with votes.
+     */
+    public List<TimePoint> histogram(Long eventId, Long categoryId, TimeResolution resolution, int limit) {
+        if (categoryId != null) {
+            Long owner = eventOf(categoryId);
+            if (owner == null) return List.of();
+            eventId = owner;
+        }
+        if (eventId == null) throw new IllegalArgumentException("eventId or categoryId is required");
+        EventAggregate ev = events.get(eventId);
+        if (ev == null) ev = new EventAggregate(eventId);   // no votes yet: an all-zero series
+        synchronized (ev) {
+            VoteHistogram h = categoryId == null ? ev.histogram : ev.category(categoryId).histogram;
+            return h.series(resolution, System.currentTimeMillis(), limit);
+        }
+    }
+
+    private static List<Long> categoriesOf(Catalog c, Long eventId) {
+        return c.categories().values().stream()
+                .filter(ci -> Objects.equals(ci.eventId(), eventId))
+                .map(CategoryInfo::id)
+                .toList();
+    }
+
+    private static double percent(long part, long eligible) {
+        return eligible == 0 ? 0.0 : Math.round(part * 10000.0 / eligible) / 100.0;
+    }
+
+    public List<CategoryProgressDto> categoriesProgress() {
+        Catalog c = catalog();
+        return c.categories().values().stream()
+                .map(ci -> progress(ci, c.eligible()))
+                .toList();
+    }
+
+    /** Snapshot of one event; rebuilt only if votes changed since the last call. */
+    public DashboardSnapshot snapshot(Long eventId) {
+        Catalog c = catalog();
+        EventAggregate ev = events.get(eventId);
+        if (ev == null) {
+            // no votes yet: don't keep state around for ids that may not even exist
+            if (c.categories().values().stream().noneMatch(ci -> Objects.equals(ci.eventId(), eventId)))
+                return build(new EventAggregate(eventId), c);
+            ev = aggregate(eventId);
+        }
+        synchronized (ev) {
+            if (ev.snapshot != null && ev.builtFrom == c && ev.snapshot.version() == ev.version) return ev.snapshot;
+            if (ev.snapshot != null && ev.builtFrom != c) ev.version++;   // names/eligible changed
+            ev.snapshot = build(ev, c);
+            ev.builtFrom = c;
+            return ev.snapshot;
+        }
+    }
+
+    private DashboardSnapshot build(EventAggregate ev, Catalog c) {
+        long eligible = c.eligible();
+        List<CategoryProgressDto> progress = new ArrayList<>();
+        Map<Long, CategoryWidgets> widgets = new LinkedHashMap<>();
+        long totalVotes = 0;
+
+        for (CategoryInfo ci : c.categories().values()) {
+            if (!Objects.equals(ci.eventId(), ev.eventId)) continue;
+            progress.add(progress(ci, eligible));
+            totalVotes += tallies.categoryTotal(ci.id());
+
+            CategoryAggregate agg = ev.category(ci.id());
+            List<NomineeVotesDto> leaders = c.nominees().getOrDefault(ci.id(), List.of()).stream()
+                    .map(n -> new NomineeVotesDto(n.id(), n.name(), tallies.count(ci.id(), n.id())))
+                    .sorted(Comparator.comparingLong(NomineeVotesDto::votes).reversed()
+                            .thenComparing(NomineeVotesDto::nomineeId))
+                    .toList();
+            List<SimpleSlice> slices = agg.byGender.entrySet().stream()
+                    .filter(en -> en.getValue() > 0)
+                    .map(en -> new SimpleSlice(en.getKey().name(), en.getValue()))
+                    .sorted(Comparator.comparing(SimpleSlice::name))
+                    .toList();
+            List<TimePoint> days = agg.histogram.series(TimeResolution.DAY, 0, 0);
+            long voted = agg.voters.cardinality();
+            double percent = (eligible == 0) ? 0.0 : (voted * 100.0) / eligible;
+            widgets.put(ci.id(), new CategoryWidgets(leaders, slices, days, new Participation(eligible, voted, percent)));
+        }
+
+        var kpis = new DashboardKpis(totalVotes, eligible, percent(ev.voters().cardinality(), eligible), progress.size());
+        return new DashboardSnapshot(ev.eventId, ev.version, Instant.now(), kpis,
+                List.copyOf(progress), Collections.unmodifiableMap(widgets));
+    }
+
+    private CategoryProgressDto progress(CategoryInfo ci, long eligible) {
+        long votes = tallies.categoryTotal(ci.id());
+        double p = eligible == 0 ? 0.0 : Math.round((votes * 10000.0 / eligible)) / 100.0;
+        return new CategoryProgressDto(ci.id(), ci.name(), votes, p);
+    }
+}
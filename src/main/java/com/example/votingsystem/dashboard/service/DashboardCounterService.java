@@ -1,27 +1,109 @@
 package com.example.votingsystem.dashboard.service;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.example.votingsystem.common.LongLongMap;
+import com.example.votingsystem.dashboard.dto.VoteRate;
+import com.example.votingsystem.dashboard.dto.VoteRates;
 import org.springframework.stereotype.Service;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
 
+/**
+ * Live vote-rate counters per event and per category (since startup; the DB stays the source of totals).
+ * Keys are longs (kind in the high bits, id below) looked up in a copy-on-write LongLongMap that points
+ * into an array of RollingCounters: a bump is a lock-free lookup plus LongAdder/CAS updates, no allocation.
+ */
 @Service
 public class DashboardCounterService {
-    private static final Logger log = LoggerFactory.getLogger(DashboardCounterService.class);
-    private final ConcurrentHashMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    private static final long EVENT = 1L << 60;
+    private static final long CATEGORY = 2L << 60;
+
+    private static final RollingCounter[] NONE = new RollingCounter[0];
+
+    // index maps packed key -> position in counters; categoriesByEvent lists each event's category counters.
+    // All three are replaced together when a counter is added.
+    private record Registry(LongLongMap index, RollingCounter[] counters,
+                            Map<Long, RollingCounter[]> categoriesByEvent) {}
+
+    private volatile Registry registry = new Registry(new LongLongMap(), NONE, Map.of());
+    private final LongSupplier clock;
+
+    public DashboardCounterService() { this(System::currentTimeMillis); }
+
+    DashboardCounterService(LongSupplier clock) { this.clock = clock; }
 
     public void bump(Long eventId, Long categoryId) {
-        String key = eventId + ":" + categoryId;
-        long v = counters.computeIfAbsent(key, k -> new AtomicLong(0)).incrementAndGet();
-        log.info("[DashboardCounter] eventId={}, categoryId={}, bumps={}", eventId, categoryId, v);
+        long now = clock.getAsLong();
+        counter(EVENT, eventId, 0).increment(now);
+        counter(CATEGORY, categoryId, eventId).increment(now);
     }
 
-    public long get(Long eventId, Long categoryId) {
-        var a = counters.get(eventId + ":" + categoryId);
-        return a == null ? 0L : a.get();
+    public long eventTotal(long eventId) { return total(EVENT | eventId); }
+
+    public long categoryTotal(long categoryId) { return total(CATEGORY | categoryId); }
+
+    /** Current rates of an event and of each of its categories that received votes. */
+    public VoteRates rates(long eventId) {
+        long now = clock.getAsLong();
+        Registry r = registry;
+        long slot = r.index().get(EVENT | eventId);
+        VoteRate event = rate(eventId, slot == LongLongMap.MISSING ? null : r.counters()[(int) slot], now);
+
+        List<VoteRate> categories = new ArrayList<>();
+        for (RollingCounter c : r.categoriesByEvent().getOrDefault(eventId, NONE)) {
+            categories.add(rate(c.id(), c, now));
+        }
+        return new VoteRates(eventId, event, categories);
     }
-}
 
+    private long total(long key) {
+        Registry r = registry;
+        long slot = r.index().get(key);
+        return slot == LongLongMap.MISSING ? 0 : r.counters()[(int) slot].total();
+    }
+
+    private RollingCounter counter(long kind, long id, long ownerId) {
+        Registry r = registry;
+        long slot = r.index().get(kind | id);
+        return slot != LongLongMap.MISSING ? r.counters()[(int) slot] : add(kind, id, ownerId);
+    }
+
+    // new event/category: rare, so copy-on-write under a lock
+    private synchronized RollingCounter add(long kind, long id, long ownerId) {
+        long key = kind | id;
+        Registry r = registry;
+        long slot = r.index().get(key);
+        if (slot != LongLongMap.MISSING) return r.counters()[(int) slot];
+        RollingCounter c = new RollingCounter(id, ownerId);
+        RollingCounter[] counters = append(r.counters(), c);
+        LongLongMap index = r.index().copy();
+        index.put(key, counters.length - 1);
+        Map<Long, RollingCounter[]> byEvent = r.categoriesByEvent();
+        if (kind == CATEGORY) {
+            byEvent = new HashMap<>(byEvent);
+            byEvent.put(ownerId, append(byEvent.getOrDefault(ownerId, NONE), c));
+        }
+        registry = new Registry(index, counters, byEvent);
+        return c;
+    }
 
+    private static RollingCounter[] append(RollingCounter[] counters, RollingCounter c) {
+        RollingCounter[] next = Arrays.copyOf(counters, counters.length + 1);
+        next[counters.length] = c;
+        return next;
+    }
+
+    private static VoteRate rate(long id, RollingCounter c, long nowMs) {
+        long second = nowMs / 1000, minute = second / 60;
+        if (c == null) return new VoteRate(id, 0, 0, 0, 0, List.of());
+        List<Long> perMinute = new ArrayList<>(60);
+        for (long m = minute - 59; m <= minute; m++) perMinute.add(c.minute(m));
+        return new VoteRate(id, c.total(), c.second(second - 1), c.secondsBefore(second, 10) / 10.0,
+                c.secondsBefore(second, 60), perMinute);
+    }
+}
@@ -0,0 +1,305 @@
+package com.example.votingsystem.dashboard.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Server-Sent Events fan-out for live dashboard/results tiles.
+ * Vote events only mark a topic dirty; a ticker builds each dirty topic's payload once per
+ * coalesce-ms and queues it to every subscriber. Each subscriber has a small bounded buffer
+ * drained by a shared sender pool: when it is full the oldest frame is dropped (newer frames
+ * supersede it), and a subscriber that keeps dropping is disconnected as a slow consumer.
+ * A write still blocked after send-timeout-ms (client stopped reading, TCP window full) is given
+ * up by a watchdog: the subscriber is disconnected and the pool gets a replacement thread, so
+ * stalled clients never hold up fan-out to everyone else.
+ */
+@Service
+public class LiveUpdateBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveUpdateBroadcaster.class);
+
+    /** Where frames are written; an SseEmitter in production, a fake in tests. */
+    public interface Sink {
+        void send(Frame frame) throws IOException;
+        void close();
+    }
+
+    /** One SSE frame; a heartbeat is sent as a comment line. */
+    public record Frame(String name, Object data) {
+        static final Frame HEARTBEAT = new Frame(null, "hb");
+        public boolean heartbeat() { return name == null; }
+    }
+
+    // Topic names shared by the stream endpoints and the vote listener
+    public static String dashboardTopic(Long eventId) { return "dashboard:" + eventId; }
+    public static String publicWidgetsTopic(Long categoryId) { return "public-widgets:" + categoryId; }
+
+    /** Counters for monitoring. */
+    public record Stats(int topics, int subscribers, long framesSent, long framesDropped, long slowDisconnects) {}
+
+    private final long coalesceMs;
+    private final long heartbeatMs;
+    private final int bufferSize;
+    private final int maxConsecutiveDrops;
+    private final long emitterTimeoutMs;
+    private final int senderThreads;
+    private final long sendTimeoutMs;
+
+    private final ConcurrentHashMap<String, Topic> topics = new ConcurrentHashMap<>();
+    private final AtomicLong framesSent = new AtomicLong();
+    private final AtomicLong framesDropped = new AtomicLong();
+    private final AtomicLong slowDisconnects = new AtomicLong();
+
+    private ThreadPoolExecutor senders;
+    private int stuckSenders;   // threads still blocked in an abandoned write (guarded by this)
+    private ScheduledExecutorService ticker;
+
+    private static final class Topic {
+        final String name;
+        final Supplier<Object> payload;
+        final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        final AtomicBoolean dirty = new AtomicBoolean();
+
+        Topic(String name, Supplier<Object> payload) { this.name = name; this.payload = payload; }
+    }
+
+    /** One connected client. */
+    public final class Subscriber {
+        private final String topic;
+        private final Sink sink;
+        private final BlockingQueue<Frame> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicInteger consecutiveDrops = new AtomicInteger();
+        private final AtomicBoolean abandoned = new AtomicBoolean();   // watchdog gave up on a write
+        private volatile long sendingSince;   // nanoTime the current write started, 0 when idle
+        private volatile Thread sender;
+        private volatile boolean closed;
+
+        private Subscriber(String topic, Sink sink) {
+            this.topic = topic;
+            this.sink = sink;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        public boolean isClosed() { return closed; }
+        public int buffered() { return buffer.size(); }
+    }
+
+    public LiveUpdateBroadcaster(
+            @Value("${app.live.coalesce-ms:500}") long coalesceMs,
+            @Value("${app.live.heartbeat-ms:15000}") long heartbeatMs,
+            @Value("${app.live.buffer-size:8}") int bufferSize,
+            @Value("${app.live.max-consecutive-drops:16}") int maxConsecutiveDrops,
+            @Value("${app.live.emitter-timeout-ms:1800000}") long emitterTimeoutMs,
+            @Value("${app.live.sender-threads:8}") int senderThreads,
+            @Value("${app.live.send-timeout-ms:5000}") long sendTimeoutMs
+    ) {
+        this.coalesceMs = Math.max(10, coalesceMs);
+        this.heartbeatMs = Math.max(100, heartbeatMs);
+        this.bufferSize = Math.max(1, bufferSize);
+        this.maxConsecutiveDrops = Math.max(1, maxConsecutiveDrops);
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.senderThreads = Math.max(1, senderThreads);
+        this.sendTimeoutMs = Math.max(10, sendTimeoutMs);
+    }
+
+    @PostConstruct
+    void start() {
+        AtomicInteger n = new AtomicInteger();
+        senders = new ThreadPoolExecutor(senderThreads, senderThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), r -> daemon(r, "sse-sender-" + n.incrementAndGet()));
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "sse-ticker"));
+        ticker.scheduleWithFixedDelay(this::tick, coalesceMs, coalesceMs, TimeUnit.MILLISECONDS);
+        ticker.scheduleAtFixedRate(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+        long check = Math.max(5, sendTimeoutMs / 4);
+        ticker.scheduleWithFixedDelay(this::watchdog, check, check, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        ticker.shutdownNow();
+        senders.shutdownNow();
+        topics.values().forEach(t -> t.subscribers.forEach(this::disconnect));
+    }
+
+    private static Thread daemon(Runnable r, String name) {
+        Thread t = new Thread(r, name);
+        t.setDaemon(true);
+        return t;
+    }
+
+    // ---- subscribe ----
+
+    /** Open an SSE stream on a topic; the current payload is sent right away. */
+    public SseEmitter open(String topic, Supplier<Object> payload) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber s = subscribe(topic, payload, new Sink() {
+            @Override public void send(Frame f) throws IOException {
+                if (f.heartbeat()) emitter.send(SseEmitter.event().comment(String.valueOf(f.data())));
+                else emitter.send(SseEmitter.event().name(f.name()).data(f.data()));
+            }
+            @Override public void close() { emitter.complete(); }
+        });
+        emitter.onCompletion(() -> unsubscribe(s));
+        emitter.onTimeout(() -> disconnect(s));
+        emitter.onError(e -> unsubscribe(s));
+        return emitter;
+    }
+
+    public Subscriber subscribe(String topicName, Supplier<Object> payload, Sink sink) {
+        Subscriber s = new Subscriber(topicName, sink);
+        Topic topic = topics.compute(topicName, (k, t) -> {
+            Topic x = (t == null) ? new Topic(k, payload) : t;
+            x.subscribers.add(s);
+            return x;
+        });
+        try {
+            offer(s, new Frame("update", topic.payload.get()));
+        } catch (RuntimeException e) {
+            log.warn("[SSE] initial payload for {} failed: {}", topicName, e.getMessage());
+        }
+        return s;
+    }
+
+    public void unsubscribe(Subscriber s) {
+        s.closed = true;
+        s.buffer.clear();
+        // drop topics nobody watches any more so they don't pile up
+        topics.computeIfPresent(s.topic, (k, t) -> {
+            t.subscribers.remove(s);
+            return t.subscribers.isEmpty() ? null : t;
+        });
+    }
+
+    private void disconnect(Subscriber s) {
+        if (s.closed) return;
+        unsubscribe(s);
+        try { s.sink.close(); } catch (RuntimeException ignored) { }
+    }
+
+    // ---- publish ----
+
+    /** Note that a topic changed; subscribers get one update at the next tick. */
+    public void markDirty(String topicName) {
+        Topic t = topics.get(topicName);
+        if (t != null) t.dirty.set(true);
+    }
+
+    void tick() {
+        for (Topic t : topics.values()) {
+            if (!t.dirty.getAndSet(false) || t.subscribers.isEmpty()) continue;
+            Object payload;
+            try {
+                payload = t.payload.get();     // built once per topic, shared by all subscribers
+            } catch (RuntimeException e) {
+                log.warn("[SSE] payload for {} failed: {}", t.name, e.getMessage());
+                continue;
+            }
+            Frame frame = new Frame("update", payload);
+            for (Subscriber s : t.subscribers) offer(s, frame);
+        }
+    }
+
+    void heartbeat() {
+        for (Topic t : topics.values()) {
+            for (Subscriber s : t.subscribers) offer(s, Frame.HEARTBEAT);
+        }
+    }
+
+    private void offer(Subscriber s, Frame f) {
+        if (s.closed) return;
+        if (!s.buffer.offer(f)) {
+            // full: drop the oldest frame, a newer update supersedes it
+            s.buffer.poll();
+            framesDropped.incrementAndGet();
+            if (s.consecutiveDrops.incrementAndGet() > maxConsecutiveDrops) {
+                slowDisconnects.incrementAndGet();
+                log.debug("[SSE] disconnecting slow subscriber on {}", s.topic);
+                disconnect(s);
+                return;
+            }
+            s.buffer.offer(f);
+        }
+        if (s.draining.compareAndSet(false, true)) senders.execute(() -> drain(s));
+    }
+
+    private void drain(Subscriber s) {
+        while (true) {
+            Frame f;
+            while (!s.closed && (f = s.buffer.poll()) != null) {
+                try {
+                    s.sender = Thread.currentThread();
+                    s.sendingSince = System.nanoTime();
+                    s.sink.send(f);
+                    framesSent.incrementAndGet();
+                    s.consecutiveDrops.set(0);
+                } catch (IOException | RuntimeException e) {
+                    if (!s.abandoned.get()) disconnect(s);   // client went away
+                } finally {
+                    synchronized (s) { s.sendingSince = 0; }   // no watchdog interrupt after this
+                }
+                if (s.abandoned.get()) {
+                    // the watchdog already disconnected it and replaced this thread
+                    Thread.interrupted();
+                    resizeSenders(-1);
+                    try { s.sink.close(); } catch (RuntimeException ignored) { }
+                    return;
+                }
+                if (s.closed) return;
+            }
+            s.draining.set(false);
+            // a frame may have arrived after the last poll; pick it up unless another drain did
+            if (s.closed || s.buffer.isEmpty() || !s.draining.compareAndSet(false, true)) return;
+        }
+    }
+
+    // Give up on writes blocked for longer than send-timeout-ms
+    void watchdog() {
+        long now = System.nanoTime();
+        for (Topic t : topics.values()) {
+            for (Subscriber s : t.subscribers) {
+                long since = s.sendingSince;
+                if (since == 0 || now - since < TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs)) continue;
+                if (!s.abandoned.compareAndSet(false, true)) continue;
+                slowDisconnects.incrementAndGet();
+                log.debug("[SSE] write to a subscriber on {} stalled, disconnecting", s.topic);
+                unsubscribe(s);          // the sink is closed by its sender once the write returns
+                resizeSenders(1);
+                synchronized (s) {
+                    if (s.sendingSince != 0) s.sender.interrupt();   // frees sinks that honour interrupts
+                }
+            }
+        }
+    }
+
+    // A thread blocked in an abandoned write is replaced, and the extra one retired once it returns
+    private synchronized void resizeSenders(int delta) {
+        stuckSenders += delta;
+        int size = senderThreads + stuckSenders;
+        if (delta > 0) {
+            senders.setMaximumPoolSize(size);
+            senders.setCorePoolSize(size);
+        } else {
+            senders.setCorePoolSize(size);
+            senders.setMaximumPoolSize(size);
+        }
+    }
+
+    public Stats stats() {
+        int subs = topics.values().stream().mapToInt(t -> t.subscribers.size()).sum();
+        return new Stats(topics.size(), subs, framesSent.get(), framesDropped.get(), slowDisconnects.get());
+    }
+}
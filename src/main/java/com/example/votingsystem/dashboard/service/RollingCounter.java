@@ -0,0 +1,67 @@
+package com.example.votingsystem.dashboard.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lifetime total (LongAdder) plus rolling per-second and per-minute rings.
+ * A ring slot packs the period number (high 32 bits) and its count (low 32 bits) into one long,
+ * so a slot from an older period is recognised and restarted with a single CAS; nothing is allocated.
+ */
+public final class RollingCounter {
+
+    // one slot more than the 60 periods read, so the current (partial) period never overwrites them
+    static final int SLOTS = 61;
+
+    private final long id;
+    private final long ownerId;   // event of a category counter, 0 for event counters
+    private final LongAdder total = new LongAdder();
+    private final AtomicLongArray seconds = new AtomicLongArray(SLOTS);
+    private final AtomicLongArray minutes = new AtomicLongArray(SLOTS);
+
+    RollingCounter(long id, long ownerId) {
+        this.id = id;
+        this.ownerId = ownerId;
+    }
+
+    long id() { return id; }
+
+    long ownerId() { return ownerId; }
+
+    void increment(long nowMs) {
+        total.increment();
+        long second = nowMs / 1000;
+        bump(seconds, second);
+        bump(minutes, second / 60);
+    }
+
+    long total() { return total.sum(); }
+
+    /** Count of one second (epoch seconds); 0 once it has left the ring. */
+    long second(long second) { return count(seconds, second); }
+
+    /** Count of one minute (epoch minutes); 0 once it has left the ring. */
+    long minute(long minute) { return count(minutes, minute); }
+
+    /** Sum of the n complete seconds before {@code second} (n <= 60). */
+    long secondsBefore(long second, int n) {
+        long sum = 0;
+        for (long s = second - n; s < second; s++) sum += count(seconds, s);
+        return sum;
+    }
+
+    private static void bump(AtomicLongArray ring, long period) {
+        int i = (int) (period % SLOTS);
+        long stamp = period << 32;
+        while (true) {
+            long cur = ring.get(i);
+            long next = (cur & 0xFFFFFFFF00000000L) == stamp ? cur + 1 : stamp | 1;
+            if (ring.compareAndSet(i, cur, next)) return;
+        }
+    }
+
+    private static long count(AtomicLongArray ring, long period) {
+        long cur = ring.get((int) (period % SLOTS));
+        return (cur & 0xFFFFFFFF00000000L) == period << 32 ? cur & 0xFFFFFFFFL : 0;
+    }
+}
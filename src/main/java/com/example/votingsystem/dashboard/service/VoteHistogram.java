@@ -0,0 +1,93 @@
+package com.example.votingsystem.dashboard.service;
+
+import com.example.votingsystem.dashboard.dto.TimePoint;
+import com.example.votingsystem.dashboard.dto.TimeResolution;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Votes per minute, hour and day, with hours and days cut in one zone. Minutes and hours live in
+ * fixed rings whose slots pack the bucket number (high 32 bits) with its count (low 32 bits);
+ * days are kept for the life of the event. Every vote is added to all three levels, so the
+ * coarser ones are exact roll-ups of the minutes, including minutes that left the ring.
+ * Not thread-safe: guarded by the owning event aggregate.
+ */
+final class VoteHistogram {
+
+    private final ZoneId zone;
+    private final long[] minutes;   // bucket = epoch minute
+    private final long[] hours;     // bucket = local hour number (hours since the local epoch)
+    private final TreeMap<Long, Long> days = new TreeMap<>();   // local epoch day -> votes
+
+    VoteHistogram(ZoneId zone, int minuteSlots, int hourSlots) {
+        this.zone = zone;
+        this.minutes = new long[minuteSlots];
+        this.hours = new long[hourSlots];
+    }
+
+    /** Count (delta = 1) or uncount (delta = -1) a vote cast in the given epoch minute. */
+    void add(long epochMinute, int delta) {
+        long local = localMinute(epochMinute);
+        bump(minutes, epochMinute, delta);
+        bump(hours, Math.floorDiv(local, 60), delta);
+        long day = Math.floorDiv(local, 1440);
+        if (delta > 0) days.merge(day, (long) delta, Long::sum);
+        else days.computeIfPresent(day, (d, v) -> v + delta > 0 ? v + delta : null);
+    }
+
+    /**
+     * The last {@code limit} minutes or hours up to the one containing {@code nowMs} (zeros included,
+     * at most a ring's worth), or every day with votes.
+     */
+    List<TimePoint> series(TimeResolution resolution, long nowMs, int limit) {
+        List<TimePoint> out = new ArrayList<>();
+        switch (resolution) {
+            case MINUTE -> {
+                long now = Math.floorDiv(nowMs, 60_000);
+                for (long m = now - Math.min(limit, minutes.length) + 1; m <= now; m++) {
+                    out.add(new TimePoint(Instant.ofEpochSecond(m * 60), count(minutes, m)));
+                }
+            }
+            case HOUR -> {
+                long now = Math.floorDiv(localMinute(Math.floorDiv(nowMs, 60_000)), 60);
+                for (long h = now - Math.min(limit, hours.length) + 1; h <= now; h++) {
+                    Instant start = LocalDateTime.ofEpochSecond(h * 3600, 0, ZoneOffset.UTC).atZone(zone).toInstant();
+                    out.add(new TimePoint(start, count(hours, h)));
+                }
+            }
+            case DAY -> {
+                for (Map.Entry<Long, Long> d : days.entrySet()) {
+                    out.add(new TimePoint(LocalDate.ofEpochDay(d.getKey()).atStartOfDay(zone).toInstant(), d.getValue()));
+                }
+            }
+        }
+        return out;
+    }
+
+    // Minutes since the local epoch: the epoch minute shifted by the zone offset in force at that time
+    private long localMinute(long epochMinute) {
+        return epochMinute + zone.getRules().getOffset(Instant.ofEpochSecond(epochMinute * 60)).getTotalSeconds() / 60;
+    }
+
+    private static void bump(long[] ring, long bucket, int delta) {
+        int i = (int) Math.floorMod(bucket, (long) ring.length);
+        long stamp = bucket << 32;
+        long held = ring[i] >>> 32;
+        if (held == bucket) ring[i] += delta;
+        else if (delta > 0 && bucket > held) ring[i] = stamp | delta;   // slot held an older bucket: start over
+        // otherwise the bucket already left the ring (votes arrive out of order while loading)
+    }
+
+    private static long count(long[] ring, long bucket) {
+        long slot = ring[(int) Math.floorMod(bucket, (long) ring.length)];
+        return (slot & 0xFFFFFFFF00000000L) == bucket << 32 ? slot & 0xFFFFFFFFL : 0;
+    }
+}
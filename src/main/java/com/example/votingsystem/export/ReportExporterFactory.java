@@ -1,17 +1,21 @@
 package com.example.votingsystem.export;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Component;
 
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class ReportExporterFactory {
     private final Map<ReportFormat, ReportExporter> map = new EnumMap<>(ReportFormat.class);
 
-    public ReportExporterFactory(List<ReportExporter> exporters) {
-        for (ReportExporter e : exporters) map.put(e.getFormat(), e);
+    public ReportExporterFactory(List<ReportExporter> exporters, MeterRegistry meters) {
+        for (ReportExporter e : exporters) map.put(e.getFormat(), new Metered(e, meters));
     }
 
     public ReportExporter get(ReportFormat format) {
@@ -19,4 +23,38 @@ public class ReportExporterFactory {
         if (e == null) throw new IllegalArgumentException("No exporter for format: " + format);
         return e;
     }
+
+    // Records exports.generate (time) and exports.bytes (size) per format around the real exporter
+    private static final class Metered implements ReportExporter {
+        private final ReportExporter delegate;
+        private final Timer time;
+        private final DistributionSummary bytes;
+
+        Metered(ReportExporter delegate, MeterRegistry meters) {
+            this.delegate = delegate;
+            String format = delegate.getFormat().name();
+            this.time = Timer.builder("exports.generate")
+                    .description("Report file generation time")
+                    .tag("format", format)
+                    .register(meters);
+            this.bytes = DistributionSummary.builder("exports.bytes")
+                    .description("Generated report size")
+                    .baseUnit("bytes")
+                    .tag("format", format)
+                    .register(meters);
+        }
+
+        @Override public ReportFormat getFormat() { return delegate.getFormat(); }
+
+        @Override
+        public byte[] export(ReportTable table) throws Exception {
+            long t0 = System.nanoTime();
+            byte[] out = delegate.export(table);
+            time.record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+            bytes.record(out.length);
+            return out;
+        }
+
+        @Override public String filenameBase(ReportTable table) { return delegate.filenameBase(table); }
+    }
 }
@@ -0,0 +1,20 @@
+package com.example.votingsystem.nominee.events;
+
+// Published after an event, category or nominee is created, updated or deleted
+public class CatalogChangedEvent {
+
+    public enum Kind { EVENT, CATEGORY, NOMINEE }
+
+    private final Kind kind;
+    private final Long id;
+    private final long timestamp = System.currentTimeMillis();
+
+    public CatalogChangedEvent(Kind kind, Long id) {
+        this.kind = kind;
+        this.id = id;
+    }
+
+    public Kind getKind() { return kind; }
+    public Long getId() { return id; }
+    public long getTimestamp() { return timestamp; }
+}
@@ -2,13 +2,44 @@ package com.example.votingsystem.nominee.repository;
 
 import com.example.votingsystem.nominee.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
     // all categories that belong to an Event (Category has: private Event event;)
     List<Category> findByEvent_Id(Long eventId);
+
+    // category -> event id without loading the entity
+    @Query("select c.event.id from Category c where c.id = :id")
+    Optional<Long> findEventIdById(@Param("id") Long id);
+
+    // (categoryId, eventId) for every category
+    @Query("select c.id, c.event.id from Category c")
+    List<Object[]> findAllEventIds();
+
+    // Voting window columns of a category and its event (no entities loaded)
+    interface WindowRow {
+        Long getCategoryId();
+        Long getEventId();
+        LocalDateTime getEventStart();
+        LocalDateTime getEventEnd();
+        LocalDateTime getVotingStart();
+        LocalDateTime getVotingEnd();
+    }
+
+    @Query("""
+      select c.id as categoryId, e.id as eventId,
+             e.startAt as eventStart, e.endAt as eventEnd,
+             c.votingStart as votingStart, c.votingEnd as votingEnd
+      from Category c join c.event e
+      where c.id = :categoryId
+    """)
+    Optional<WindowRow> findWindow(@Param("categoryId") Long categoryId);
 }
@@ -2,10 +2,13 @@ package com.example.votingsystem.nominee.repository;
 
 import com.example.votingsystem.nominee.entity.Nominee;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface NomineeRepository extends JpaRepository<Nominee, Long> {
@@ -14,4 +17,12 @@ public interface NomineeRepository extends JpaRepository<Nominee, Long> {
 
     // used by the bundle endpoint
     List<Nominee> findByCategory_IdIn(Collection<Long> categoryIds);
+
+    // nominee -> category id without loading the entity (the photo LOB is never touched)
+    @Query("select n.category.id from Nominee n where n.id = :id")
+    Optional<Long> findCategoryIdById(@Param("id") Long id);
+
+    // (nomineeId, categoryId) for every nominee
+    @Query("select n.id, n.category.id from Nominee n")
+    List<Object[]> findAllCategoryIds();
 }
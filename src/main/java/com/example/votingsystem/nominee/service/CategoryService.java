@@ -5,6 +5,8 @@ import com.example.votingsystem.nominee.entity.Category;
 import com.example.votingsystem.nominee.entity.Event;
 import com.example.votingsystem.nominee.repository.CategoryRepository;
 import com.example.votingsystem.nominee.repository.EventRepository;
+import com.example.votingsystem.nominee.events.CatalogChangedEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,27 +17,31 @@ import java.util.List;
 public class CategoryService {
     private final CategoryRepository repo;     // DB access for categories
     private final EventRepository eventRepo;   // DB access for events
+    private final ApplicationEventPublisher publisher; // tells caches that categories changed
 
-    public CategoryService(CategoryRepository repo, EventRepository eventRepo) {
-        this.repo = repo; this.eventRepo = eventRepo;
+    public CategoryService(CategoryRepository repo, EventRepository eventRepo, ApplicationEventPublisher publisher) {
+        this.repo = repo; this.eventRepo = eventRepo; this.publisher = publisher;
     }
 
     // Create a new category from DTO
     public Category create(CategoryDto dto) {
         Category c = new Category();
         apply(c, dto);          // copy DTO fields to entity
-        return repo.save(c);    // save to DB
+        return changed(repo.save(c));    // save to DB
     }
 
     // Update an existing category by id
     public Category update(Long id, CategoryDto dto) {
         Category c = repo.findById(id).orElseThrow(); // load or fail
         apply(c, dto);                                // update fields
-        return repo.save(c);                          // save changes
+        return changed(repo.save(c));                 // save changes
     }
 
     // Delete category by id
-    public void delete(Long id) { repo.deleteById(id); }
+    public void delete(Long id) {
+        repo.deleteById(id);
+        publisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Kind.CATEGORY, id));
+    }
 
     // Get all categories
     public List<Category> findAll() { return repo.findAll(); }
@@ -46,6 +52,12 @@ public class CategoryService {
     // Get one category by id
     public Category get(Long id) { return repo.findById(id).orElseThrow(); }
 
+    // Publish a change notice for a saved category (helper)
+    private Category changed(Category c) {
+        publisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Kind.CATEGORY, c.getId()));
+        return c;
+    }
+
     // Copy fields from DTO to entity (helper)
     private void apply(Category c, CategoryDto dto) {
         c.setName(dto.name());
@@ -3,6 +3,8 @@ package com.example.votingsystem.nominee.service;
 import com.example.votingsystem.nominee.dto.EventDto;
 import com.example.votingsystem.nominee.entity.Event;
 import com.example.votingsystem.nominee.repository.EventRepository;
+import com.example.votingsystem.nominee.events.CatalogChangedEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -12,8 +14,11 @@ import java.util.List;
 @Transactional           // run methods inside a DB transaction
 public class EventService {
     private final EventRepository repo; // DB access for events
+    private final ApplicationEventPublisher publisher; // tells caches that events changed
 
-    public EventService(EventRepository repo) { this.repo = repo; }
+    public EventService(EventRepository repo, ApplicationEventPublisher publisher) {
+        this.repo = repo; this.publisher = publisher;
+    }
 
     // Create a new event from DTO
     public Event create(EventDto dto) {
@@ -22,7 +27,7 @@ public class EventService {
         e.setDescription(dto.description());
         e.setStartAt(dto.startAt());
         e.setEndAt(dto.endAt());
-        return repo.save(e);
+        return changed(repo.save(e));
     }
 
     // Update an existing event by id using DTO data
@@ -32,15 +37,24 @@ public class EventService {
         e.setDescription(dto.description());
         e.setStartAt(dto.startAt());
         e.setEndAt(dto.endAt());
-        return repo.save(e);
+        return changed(repo.save(e));
     }
 
     // Delete an event by id
-    public void delete(Long id) { repo.deleteById(id); }
+    public void delete(Long id) {
+        repo.deleteById(id);
+        publisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Kind.EVENT, id));
+    }
 
     // Get all events
     public List<Event> findAll() { return repo.findAll(); }
 
     // Get a single event by id (or fail if not found)
     public Event get(Long id) { return repo.findById(id).orElseThrow(); }
+
+    // Publish a change notice for a saved event (helper)
+    private Event changed(Event e) {
+        publisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Kind.EVENT, e.getId()));
+        return e;
+    }
 }
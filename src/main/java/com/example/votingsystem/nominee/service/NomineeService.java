@@ -5,6 +5,8 @@ import com.example.votingsystem.nominee.entity.Category;
 import com.example.votingsystem.nominee.entity.Nominee;
 import com.example.votingsystem.nominee.repository.CategoryRepository;
 import com.example.votingsystem.nominee.repository.NomineeRepository;
+import com.example.votingsystem.nominee.events.CatalogChangedEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -18,10 +20,13 @@ public class NomineeService {
 
     private final NomineeRepository nomineeRepo;     // DB access for nominees
     private final CategoryRepository categoryRepo;   // DB access for categories
+    private final ApplicationEventPublisher publisher; // tells caches that nominees changed
 
-    public NomineeService(NomineeRepository nomineeRepo, CategoryRepository categoryRepo) {
+    public NomineeService(NomineeRepository nomineeRepo, CategoryRepository categoryRepo,
+                          ApplicationEventPublisher publisher) {
         this.nomineeRepo = nomineeRepo;
         this.categoryRepo = categoryRepo;
+        this.publisher = publisher;
     }
 
     public List<Nominee> findAll() {                 // get all nominees
@@ -40,21 +45,27 @@ public class NomineeService {
         Nominee n = new Nominee();
         applyDto(n, dto);                            // copy fields from DTO
         applyPhoto(n, photo);                        // set photo bytes/type if provided
-        return nomineeRepo.save(n);
+        return changed(nomineeRepo.save(n));
     }
 
     public Nominee update(Long id, NomineeDto dto, MultipartFile photo) throws IOException { // update nominee
         Nominee n = nomineeRepo.findById(id).orElseThrow();
         applyDto(n, dto);
         applyPhoto(n, photo);
-        return nomineeRepo.save(n);
+        return changed(nomineeRepo.save(n));
     }
 
     public void delete(Long id) {                    // delete nominee
         nomineeRepo.deleteById(id);
+        publisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Kind.NOMINEE, id));
     }
 
     // --- helpers ---
+    private Nominee changed(Nominee n) {             // publish a change notice for a saved nominee
+        publisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Kind.NOMINEE, n.getId()));
+        return n;
+    }
+
     private void applyDto(Nominee n, NomineeDto dto) { // map DTO to entity
         if (dto.name() != null) n.setName(dto.name());
         n.setBio(dto.bio());
@@ -9,7 +9,13 @@ import lombok.Setter;
 @Entity
 @Getter
 @Setter
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        // scheduler: due PENDING rows, scheduled or not
+        @Index(name = "ix_notification_status_scheduled", columnList = "status, scheduled_for"),
+        @Index(name = "ix_notification_status_created", columnList = "status, created_at"),
+        // admin lists: active / archived, newest first
+        @Index(name = "ix_notification_archived_created", columnList = "archived, created_at")
+})
 public class Notification {
 
     @Id
@@ -6,6 +6,10 @@ import com.example.votingsystem.notification.api.ScheduleEmailRequest;
 import com.example.votingsystem.notification.model.Notification;
 import com.example.votingsystem.notification.model.Notification.Status;
 import com.example.votingsystem.notification.repo.NotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
 import jakarta.transaction.Transactional;
@@ -20,6 +24,7 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 @Service // Handles creating, scheduling, sending, and managing notifications
@@ -33,9 +38,28 @@ public class NotificationService {
     // tune as you like
     private static final int MAX_ATTEMPTS = 3; // retry limit
 
-    public NotificationService(NotificationRepository repo, JavaMailSender mailSender) {
+    // metrics: due items per scheduler run, send time per outcome, re-sends of earlier failures
+    private final DistributionSummary batchSize;
+    private final Timer sent, retryLater, failed;
+    private final Counter retries;
+
+    public NotificationService(NotificationRepository repo, JavaMailSender mailSender, MeterRegistry meters) {
         this.repo = repo;
         this.mailSender = mailSender;
+        this.batchSize = DistributionSummary.builder("notifications.batch.size")
+                .description("Due notifications picked up per sendDueBatch run").register(meters);
+        this.sent = sendTimer(meters, "sent");
+        this.retryLater = sendTimer(meters, "retry");
+        this.failed = sendTimer(meters, "failed");
+        this.retries = Counter.builder("notifications.retries")
+                .description("Send attempts for notifications that failed before").register(meters);
+    }
+
+    private static Timer sendTimer(MeterRegistry meters, String outcome) {
+        return Timer.builder("notifications.send")
+                .description("Time to send one email")
+                .tag("outcome", outcome)
+                .register(meters);
     }
 
     // ======================== READ/UPDATE SINGLE ========================
@@ -180,6 +204,7 @@ public class NotificationService {
 
         // 2) Immediate ones (no schedule set)
         due.addAll(repo.findTop100ByStatusAndScheduledForIsNullOrderByCreatedAtAsc(Status.PENDING));
+        batchSize.record(due.size());
 
         for (Notification n : due) {
             trySend(n); // send each due item
@@ -190,6 +215,9 @@ public class NotificationService {
 
     // Try to send an email; update status/attempts accordingly
     public Notification trySend(Notification n) {
+        if (n.getAttempts() > 0) retries.increment();
+        long t0 = System.nanoTime();
+        Timer outcome = sent;
         try {
             MimeMessage mime = mailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(
@@ -212,12 +240,15 @@ public class NotificationService {
             n.setError(ex.getMessage());
             if (n.getAttempts() >= MAX_ATTEMPTS) {
                 n.setStatus(Status.FAILED); // give up
+                outcome = failed;
             } else {
                 n.setStatus(Status.PENDING); // retry later
                 // simple backoff: retry in 60s
                 n.setScheduledFor(Instant.now().plusSeconds(60));
+                outcome = retryLater;
             }
         }
+        outcome.record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
         return repo.save(n); // persist changes
     }
 
@@ -1,5 +1,7 @@
 package com.example.votingsystem.result.service;
 
+import com.example.votingsystem.dashboard.dto.TimeResolution;
+import com.example.votingsystem.dashboard.service.DashboardService;
 import com.example.votingsystem.nominee.entity.Category;
 import com.example.votingsystem.nominee.entity.Event;
 import com.example.votingsystem.nominee.entity.Nominee;
@@ -12,6 +14,7 @@ import jakarta.persistence.EntityNotFoundException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -23,10 +26,12 @@ public class EventReportService {
     private final CategoryRepository categories;
     private final NomineeRepository nominees;
     private final VoteRepository votes;
+    private final DashboardService dashboard;
 
     public EventReportService(EventRepository events, CategoryRepository categories,
-                              NomineeRepository nominees, VoteRepository votes) {
+                              NomineeRepository nominees, VoteRepository votes, DashboardService dashboard) {
         this.events = events; this.categories = categories; this.nominees = nominees; this.votes = votes;
+        this.dashboard = dashboard;
     }
 
     public List<Event> getAllEvents() {
@@ -67,9 +72,9 @@ public class EventReportService {
             topNominees.add(new TopNomineeDto(rank++, (Long) r[0], (String) r[1], (Long) r[2]));
         }
 
-        // daily counts
-        var daily = votes.dailyCounts(eventId).stream()
-                .map(r -> new DailyVoteCountDto(String.valueOf(r[0]), (Long) r[1]))
+        // daily counts (from the live histogram, days cut in the dashboard zone)
+        var daily = dashboard.histogram(eventId, null, TimeResolution.DAY, 0).stream()
+                .map(tp -> new DailyVoteCountDto(LocalDate.ofInstant(tp.ts(), dashboard.zone()).toString(), tp.votes()))
                 .toList();
 
         return new EventReportDto(
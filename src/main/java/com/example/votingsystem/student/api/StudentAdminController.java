@@ -2,10 +2,12 @@ package com.example.votingsystem.student.api;
 
 import com.example.votingsystem.student.domain.Gender;
 import com.example.votingsystem.student.domain.Student;
+import com.example.votingsystem.student.events.StudentAccountChangedEvent;
 import com.example.votingsystem.student.repo.StudentRepository;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -22,10 +24,12 @@ public class StudentAdminController {
 
     private final StudentRepository repo;
     private final PasswordEncoder encoder;
+    private final ApplicationEventPublisher publisher;
 
-    public StudentAdminController(StudentRepository repo, PasswordEncoder encoder) {
+    public StudentAdminController(StudentRepository repo, PasswordEncoder encoder, ApplicationEventPublisher publisher) {
         this.repo = repo;
         this.encoder = encoder;
+        this.publisher = publisher;
     }
 
     // ===== Request DTOs (only change is Gender added) =====
@@ -85,7 +89,9 @@ public class StudentAdminController {
         s.setGender(req.gender() == null ? Gender.PREFER_NOT_TO_SAY : req.gender()); // ✅ save gender
 
         try {
-            return repo.save(s);
+            Student saved = repo.save(s);
+            publisher.publishEvent(new StudentAccountChangedEvent(StudentAccountChangedEvent.Kind.CREATED, saved.getId()));
+            return saved;
         } catch (DataIntegrityViolationException e) {
             throw new ConflictException("Duplicate index or email");
         }
@@ -104,7 +110,9 @@ public class StudentAdminController {
         if (req.gender() != null)   s.setGender(req.gender()); // ✅ update gender if provided
 
         try {
-            return repo.save(s);
+            Student saved = repo.save(s);
+            publisher.publishEvent(new StudentAccountChangedEvent(StudentAccountChangedEvent.Kind.UPDATED, id));
+            return saved;
         } catch (DataIntegrityViolationException e) {
             throw new ConflictException("Duplicate index or email");
         }
@@ -115,5 +123,6 @@ public class StudentAdminController {
     public void delete(@PathVariable Long id) {
         if (!repo.existsById(id)) throw new NotFoundException("Student not found");
         repo.deleteById(id);
+        publisher.publishEvent(new StudentAccountChangedEvent(StudentAccountChangedEvent.Kind.DELETED, id));
     }
 }
@@ -2,8 +2,10 @@ package com.example.votingsystem.student.api;
 
 import com.example.votingsystem.student.domain.Student;
 import com.example.votingsystem.student.dto.StudentDto;
+import com.example.votingsystem.student.events.StudentAccountChangedEvent;
 import com.example.votingsystem.student.repo.StudentRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,6 +21,7 @@ import java.util.List;
 public class StudentApprovalAdminController {
 
     private final StudentRepository repo;
+    private final ApplicationEventPublisher publisher;
 
     @GetMapping("/pending")
     public List<StudentDto> pending() {
@@ -32,6 +35,8 @@ public class StudentApprovalAdminController {
         Student s = repo.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Student not found"));
         s.setActive(true);
-        return StudentDto.from(repo.save(s));
+        StudentDto dto = StudentDto.from(repo.save(s));
+        publisher.publishEvent(new StudentAccountChangedEvent(StudentAccountChangedEvent.Kind.ACTIVATED, id));
+        return dto;
     }
 }
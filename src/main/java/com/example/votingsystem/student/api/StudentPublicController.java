@@ -3,9 +3,11 @@ package com.example.votingsystem.student.api;
 import com.example.votingsystem.student.domain.Gender;
 import com.example.votingsystem.student.domain.Student;
 import com.example.votingsystem.student.dto.PublicRegisterStudentRequest;
+import com.example.votingsystem.student.events.StudentAccountChangedEvent;
 import com.example.votingsystem.student.repo.StudentRepository;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,6 +24,7 @@ public class StudentPublicController {
 
     private final StudentRepository repo;   // DB access for students
     private final PasswordEncoder encoder;  // hashes passwords
+    private final ApplicationEventPublisher publisher;  // account changes (identity directory)
 
     @PostMapping("/register")
     @Transactional
@@ -45,6 +48,7 @@ public class StudentPublicController {
         if (req.gender() != null) s.setGender(req.gender()); else s.setGender(Gender.PREFER_NOT_TO_SAY);
 
         repo.save(s); // persist to DB
+        publisher.publishEvent(new StudentAccountChangedEvent(StudentAccountChangedEvent.Kind.CREATED, s.getId()));
 
         // Simple success message
         return Map.of("message", "Registration submitted. Please wait for admin approval.");
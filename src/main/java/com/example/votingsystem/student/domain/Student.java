@@ -13,7 +13,9 @@ import java.time.LocalDateTime;
 @Setter
 @Getter
 @Entity
-@Table(name = "students")
+@Table(name = "students",
+        // admin approval queue (findByActiveFalse)
+        indexes = @Index(name = "ix_student_active", columnList = "active"))
 public class Student {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
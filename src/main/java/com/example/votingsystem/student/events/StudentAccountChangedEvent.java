@@ -0,0 +1,20 @@
+package com.example.votingsystem.student.events;
+
+// Published after a student account is created, updated, activated, deleted or gets a new password
+public class StudentAccountChangedEvent {
+
+    public enum Kind { CREATED, UPDATED, ACTIVATED, DELETED, PASSWORD_RESET }
+
+    private final Kind kind;
+    private final Long studentId;
+    private final long timestamp = System.currentTimeMillis();
+
+    public StudentAccountChangedEvent(Kind kind, Long studentId) {
+        this.kind = kind;
+        this.studentId = studentId;
+    }
+
+    public Kind getKind() { return kind; }
+    public Long getStudentId() { return studentId; }
+    public long getTimestamp() { return timestamp; }
+}
@@ -0,0 +1,259 @@
+package com.example.votingsystem.voting.checkpoint;
+
+import com.example.votingsystem.admin.itc.DatabaseRestoredEvent;
+import com.example.votingsystem.common.LongLongMap;
+import com.example.votingsystem.student.domain.Gender;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+/**
+ * Periodic binary checkpoints of the per-vote state the live tally and the dashboard aggregates are
+ * built from, so a restart loads a file instead of scanning and joining the whole votes table.
+ *
+ * After loading a checkpoint only the difference is read from the DB: votes with id > the last
+ * checkpointed id, votes whose updated_at is within commit-margin-ms of the checkpoint (changed
+ * votes and inserts that committed late), and, when the row count says some were deleted, the ids
+ * still present. The same catch-up keeps the in-memory copy current before each checkpoint.
+ *
+ * File: magic, version, takenAt, rows (see VoteRows), CRC32C of everything before it.
+ * Written to a temp file, forced, then atomically renamed over the previous checkpoint.
+ */
+@Service
+public class VoteCheckpointService {
+
+    private static final Logger log = LoggerFactory.getLogger(VoteCheckpointService.class);
+
+    private static final int MAGIC = 0x56544B31;   // "VTK1"
+    private static final int VERSION = 2;   // 2: rows carry the minute instead of the day
+    private static final String FILE = "vote-state.ckpt";
+    private static final int HEADER_BYTES = 4 + 4 + 8;
+
+    private static final String ROW_SELECT = """
+            select v.id, c.event_id, v.category_id, v.nominee_id, v.student_id, s.gender, v.created_at
+            from votes v join categories c on c.id = v.category_id join students s on s.id = v.student_id
+            """;
+
+    /** How the last restore went. */
+    public record RestoreReport(String source, int rows, int caughtUp, int deleted, long millis) {}
+
+    private final boolean enabled;
+    private final Path dir;
+    private final long commitMarginMs;
+    private final JdbcTemplate jdbc;
+    private final MeterRegistry meters;
+    private final Timer writeTimer;
+
+    // guarded by this
+    private VoteRows rows;
+    private long caughtUpAt;       // start time of the last successful catch-up
+    private volatile RestoreReport lastRestore;
+
+    public VoteCheckpointService(@Value("${app.voting.checkpoint.enabled:true}") boolean enabled,
+                                 @Value("${app.voting.checkpoint.dir:./data/checkpoints}") String dir,
+                                 @Value("${app.voting.checkpoint.commit-margin-ms:60000}") long commitMarginMs,
+                                 JdbcTemplate jdbc,
+                                 MeterRegistry meters) {
+        this.enabled = enabled;
+        this.dir = Paths.get(dir);
+        this.commitMarginMs = commitMarginMs;
+        this.jdbc = jdbc;
+        this.meters = meters;
+        this.writeTimer = Timer.builder("votes.checkpoint.write")
+                .description("Catch-up and write of a vote state checkpoint")
+                .register(meters);
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    public RestoreReport lastRestore() { return lastRestore; }
+
+    /**
+     * Current vote rows for the startup loaders: from the checkpoint plus the DB difference on the
+     * first call (full DB read if there is no usable checkpoint), caught up again on later calls.
+     */
+    public synchronized VoteRows restore() {
+        if (rows != null) {
+            catchUp();
+            return rows;
+        }
+        long t0 = System.nanoTime();
+        String source = "checkpoint";
+        int[] delta = null;
+        VoteRows loaded = read();
+        if (loaded != null && !sameDatabase(loaded)) {
+            log.warn("[Checkpoint] checkpoint was taken from a different votes table; loading from the DB");
+            loaded = null;
+        }
+        if (loaded != null) {
+            rows = loaded;
+            delta = catchUp();
+            if (delta == null) {          // DB has votes the checkpoint + catch-up cannot account for
+                log.warn("[Checkpoint] checkpoint does not match the votes table; loading from the DB");
+                loaded = null;
+            }
+        }
+        if (loaded == null) {
+            source = "database";
+            delta = new int[]{0, 0};
+            fullLoad();
+        }
+        long nanos = System.nanoTime() - t0;
+        Timer.builder("votes.startup.restore")
+                .description("Time to restore vote state at startup")
+                .tag("source", source)
+                .register(meters)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        lastRestore = new RestoreReport(source, rows.size(), delta[0], delta[1], nanos / 1_000_000);
+        log.info("[Checkpoint] restored {} votes from {} ({} read since the checkpoint, {} deleted) in {} ms",
+                rows.size(), source, delta[0], delta[1], lastRestore.millis());
+        return rows;
+    }
+
+    @Scheduled(initialDelayString = "${app.voting.checkpoint.interval-ms:60000}",
+               fixedDelayString = "${app.voting.checkpoint.interval-ms:60000}")
+    public void scheduledCheckpoint() {
+        if (enabled) checkpoint();
+    }
+
+    // a clean shutdown leaves a checkpoint with nothing to catch up
+    @PreDestroy
+    public void onShutdown() {
+        if (enabled && rows != null) checkpoint();
+    }
+
+    // The checkpoint describes the replaced tables: reload from the DB and overwrite it, before the
+    // loaders that read restore() rebuild themselves from the same event
+    @EventListener(DatabaseRestoredEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public synchronized void onDatabaseRestored() {
+        if (rows == null) return;   // never restored (disabled, or startup still running)
+        fullLoad();
+        write();
+        log.info("[Checkpoint] reloaded {} votes after a database restore", rows.size());
+    }
+
+    /** Catch up with the DB and write a new checkpoint. */
+    public synchronized void checkpoint() {
+        if (rows == null) return;   // nothing restored yet (startup still running)
+        writeTimer.record(() -> {
+            if (catchUp() == null) fullLoad();
+            write();
+        });
+    }
+
+    // ---- DB ----
+
+    private void fullLoad() {
+        long startedAt = System.currentTimeMillis();
+        VoteRows fresh = new VoteRows();
+        jdbc.query(ROW_SELECT, rs -> { putRow(fresh, rs); });
+        rows = fresh;
+        caughtUpAt = startedAt;
+    }
+
+    // The newest checkpointed vote must still be the same vote (a recreated DB reuses ids)
+    private boolean sameDatabase(VoteRows loaded) {
+        long[] key = loaded.keyOf(loaded.maxId());
+        if (key == null) return true;   // empty checkpoint
+        var found = jdbc.query("select student_id, category_id from votes where id = ?",
+                (rs, i) -> new long[]{rs.getLong(1), rs.getLong(2)}, loaded.maxId());
+        return found.isEmpty() || (found.get(0)[0] == key[0] && found.get(0)[1] == key[1]);
+    }
+
+    // Returns {rows read, rows deleted}, or null if the DB holds votes the rows cannot account for
+    private int[] catchUp() {
+        long startedAt = System.currentTimeMillis();
+        // counted before the reads below, so anything counted here is also read there
+        long inDb = jdbc.queryForObject("select count(*) from votes", Long.class);
+        int[] read = {0};
+        jdbc.query(ROW_SELECT + " where v.id > ?", rs -> { putRow(rows, rs); read[0]++; }, rows.maxId());
+        jdbc.query(ROW_SELECT + " where v.updated_at >= ?", rs -> { putRow(rows, rs); read[0]++; },
+                new Timestamp(caughtUpAt - commitMarginMs));
+
+        int deleted = 0;
+        if (inDb < rows.size()) {
+            // some votes were deleted (or inserted after the count): keep the ones the DB still has
+            LongLongMap present = new LongLongMap(rows.size());
+            jdbc.query("select id from votes where id <= ?", rs -> { present.put(rs.getLong(1), 1); }, rows.maxId());
+            deleted = rows.retainOnly(present);
+            if (present.size() > rows.size()) return null;
+        } else if (inDb > rows.size()) {
+            return null;
+        }
+        caughtUpAt = startedAt;
+        return new int[]{read[0], deleted};
+    }
+
+    private static void putRow(VoteRows target, ResultSet rs) throws SQLException {
+        String gender = rs.getString(6);
+        target.put(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5),
+                gender == null ? Gender.PREFER_NOT_TO_SAY : Gender.valueOf(gender),
+                rs.getTimestamp(7).getTime() / 60_000);
+    }
+
+    // ---- file ----
+
+    private VoteRows read() {
+        if (!enabled) return null;
+        Path file = dir.resolve(FILE);
+        if (!Files.exists(file)) return null;
+        try {
+            byte[] data = Files.readAllBytes(file);
+            if (data.length < HEADER_BYTES + 4) throw new IOException("Truncated checkpoint");
+            CRC32C crc = new CRC32C();
+            crc.update(data, 0, data.length - 4);
+            ByteBuffer in = ByteBuffer.wrap(data);
+            if (in.getInt(data.length - 4) != (int) crc.getValue()) throw new IOException("Checksum mismatch");
+            if (in.getInt() != MAGIC || in.getInt() != VERSION) throw new IOException("Unknown checkpoint format");
+            long takenAt = in.getLong();
+            VoteRows loaded = VoteRows.readFrom(in.limit(data.length - 4));
+            caughtUpAt = takenAt;
+            return loaded;
+        } catch (IOException | RuntimeException e) {
+            log.warn("[Checkpoint] ignoring unreadable checkpoint {}: {}", file.toAbsolutePath(), e.toString());
+            return null;
+        }
+    }
+
+    private void write() {
+        Path tmp = dir.resolve(FILE + ".tmp");
+        try {
+            Files.createDirectories(dir);
+            ByteBuffer out = ByteBuffer.allocate(HEADER_BYTES + rows.serializedSize() + 4);
+            out.putInt(MAGIC).putInt(VERSION).putLong(caughtUpAt);
+            rows.writeTo(out);
+            CRC32C crc = new CRC32C();
+            crc.update(out.array(), 0, out.position());
+            out.putInt((int) crc.getValue()).flip();
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (out.hasRemaining()) ch.write(out);
+                ch.force(true);
+            }
+            Files.move(tmp, dir.resolve(FILE), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            log.debug("[Checkpoint] wrote {} votes", rows.size());
+        } catch (IOException e) {
+            log.warn("[Checkpoint] write failed: {}", e.toString());
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.votingsystem.voting.checkpoint;
+
+import com.example.votingsystem.common.LongLongMap;
+import com.example.votingsystem.student.domain.Gender;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * One row per vote with what the startup loaders need: event, category, nominee, voter, voter
+ * gender and the minute it was cast. Columns are primitive arrays; a LongLongMap finds a vote's row
+ * by id, and removal moves the last row into the gap. Not thread-safe (owned by VoteCheckpointService).
+ */
+public final class VoteRows {
+
+    private static final Gender[] GENDERS = Gender.values();
+    static final int BYTES_PER_ROW = 5 * 8 + 1 + 4;
+
+    @FunctionalInterface
+    public interface RowConsumer {
+        void accept(long voteId, long eventId, long categoryId, long nomineeId, long studentId,
+                    Gender gender, long epochMinute);
+    }
+
+    private long[] ids, events, categories, nominees, students;
+    private byte[] genders;
+    private int[] minutes;
+    private int size;
+    private long maxId;   // highest vote id ever added (removals keep it)
+    private LongLongMap index;
+
+    public VoteRows() { this(1024); }
+
+    VoteRows(int capacity) {
+        capacity = Math.max(16, capacity);
+        ids = new long[capacity];
+        events = new long[capacity];
+        categories = new long[capacity];
+        nominees = new long[capacity];
+        students = new long[capacity];
+        genders = new byte[capacity];
+        minutes = new int[capacity];
+        index = new LongLongMap(capacity);
+    }
+
+    public int size() { return size; }
+
+    public long maxId() { return maxId; }
+
+    /** Insert a vote, or overwrite the row of an existing vote id. */
+    void put(long voteId, long eventId, long categoryId, long nomineeId, long studentId, Gender gender, long epochMinute) {
+        long at = index.get(voteId);
+        int i;
+        if (at == LongLongMap.MISSING) {
+            if (size == ids.length) grow();
+            i = size++;
+            ids[i] = voteId;
+            index.put(voteId, i);
+            maxId = Math.max(maxId, voteId);
+        } else {
+            i = (int) at;
+        }
+        events[i] = eventId;
+        categories[i] = categoryId;
+        nominees[i] = nomineeId;
+        students[i] = studentId;
+        genders[i] = (byte) gender.ordinal();
+        minutes[i] = (int) epochMinute;
+    }
+
+    /** Removes every row whose vote id is not in present; returns how many were removed. */
+    int retainOnly(LongLongMap present) {
+        int removed = 0;
+        for (int i = size - 1; i >= 0; i--) {
+            if (present.get(ids[i]) == LongLongMap.MISSING) {
+                removeAt(i);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private void removeAt(int i) {
+        index.remove(ids[i]);
+        int last = --size;
+        if (i != last) {
+            ids[i] = ids[last];
+            events[i] = events[last];
+            categories[i] = categories[last];
+            nominees[i] = nominees[last];
+            students[i] = students[last];
+            genders[i] = genders[last];
+            minutes[i] = minutes[last];
+            index.put(ids[i], i);
+        }
+    }
+
+    /** Voter and category of a vote as {studentId, categoryId}, or null if the vote is not here. */
+    long[] keyOf(long voteId) {
+        long at = index.get(voteId);
+        return at == LongLongMap.MISSING ? null : new long[]{students[(int) at], categories[(int) at]};
+    }
+
+    public void forEach(RowConsumer action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(ids[i], events[i], categories[i], nominees[i], students[i], GENDERS[genders[i]], minutes[i]);
+        }
+    }
+
+    private void grow() {
+        int cap = ids.length * 2;
+        ids = Arrays.copyOf(ids, cap);
+        events = Arrays.copyOf(events, cap);
+        categories = Arrays.copyOf(categories, cap);
+        nominees = Arrays.copyOf(nominees, cap);
+        students = Arrays.copyOf(students, cap);
+        genders = Arrays.copyOf(genders, cap);
+        minutes = Arrays.copyOf(minutes, cap);
+    }
+
+    // ---- binary form (see VoteCheckpointService for the file layout) ----
+
+    int serializedSize() { return 4 + size * BYTES_PER_ROW; }
+
+    void writeTo(ByteBuffer out) {
+        out.putInt(size);
+        for (int i = 0; i < size; i++) {
+            out.putLong(ids[i]).putLong(events[i]).putLong(categories[i]).putLong(nominees[i]).putLong(students[i]);
+            out.put(genders[i]).putInt(minutes[i]);
+        }
+    }
+
+    static VoteRows readFrom(ByteBuffer in) throws IOException {
+        int n = in.getInt();
+        if (n < 0 || (long) n * BYTES_PER_ROW > in.remaining()) throw new IOException("Bad row count " + n);
+        VoteRows rows = new VoteRows(n);
+        for (int i = 0; i < n; i++) {
+            long id = in.getLong(), event = in.getLong(), category = in.getLong(),
+                    nominee = in.getLong(), student = in.getLong();
+            int gender = in.get();
+            int minute = in.getInt();
+            if (gender < 0 || gender >= GENDERS.length) throw new IOException("Bad gender " + gender);
+            rows.put(id, event, category, nominee, student, GENDERS[gender], minute);
+        }
+        return rows;
+    }
+}
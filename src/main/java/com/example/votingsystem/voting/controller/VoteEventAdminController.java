@@ -0,0 +1,23 @@
+package com.example.votingsystem.voting.controller;
+
+import com.example.votingsystem.voting.service.VoteEventDispatcher;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+// Queue depths and per-listener latency of the vote event dispatcher
+@RestController
+@RequestMapping("/api/admin/vote-events")
+@PreAuthorize("hasRole('ADMIN')")
+public class VoteEventAdminController {
+
+    private final VoteEventDispatcher dispatcher;
+
+    public VoteEventAdminController(VoteEventDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    @GetMapping("/stats")
+    public Map<String, Object> stats() { return dispatcher.stats(); }
+}
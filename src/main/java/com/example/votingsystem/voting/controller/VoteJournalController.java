@@ -0,0 +1,45 @@
+package com.example.votingsystem.voting.controller;
+
+import com.example.votingsystem.voting.journal.JournalRecord;
+import com.example.votingsystem.voting.journal.VoteJournal;
+import com.example.votingsystem.voting.service.VotingWindowResolver;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Replays the vote journal (admins only); times are local times in the app zone, both ends inclusive
+@RestController
+@RequestMapping("/api/dashboard/journal")
+@PreAuthorize("hasRole('ADMIN')")
+public class VoteJournalController {
+
+    private final VoteJournal journal;
+
+    public VoteJournalController(VoteJournal journal) {
+        this.journal = journal;
+    }
+
+    // Cast/reset history, oldest first
+    @GetMapping("/history")
+    public List<JournalRecord> history(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "1000") int limit) {
+        return journal.history(millis(from, 0L), millis(to, Long.MAX_VALUE), Math.max(1, Math.min(limit, 100_000)));
+    }
+
+    // Net vote change per category/nominee in the range (without from: the tallies at 'to')
+    @GetMapping("/tallies")
+    public VoteJournal.TallyReplay tallies(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return journal.tallies(millis(from, 0L), millis(to, Long.MAX_VALUE));
+    }
+
+    private static long millis(LocalDateTime t, long fallback) {
+        return t == null ? fallback : t.atZone(VotingWindowResolver.APP_ZONE).toInstant().toEpochMilli();
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.votingsystem.voting.controller;
 
+import com.example.votingsystem.common.idempotency.IdempotencyService;
 import com.example.votingsystem.voting.dto.*;
+import com.example.votingsystem.voting.service.VoteWriteBehindQueue;
 import com.example.votingsystem.voting.service.VotingService;
 import com.example.votingsystem.admin.security.StudentDetailsImpl;
 import org.springframework.http.ResponseEntity;
@@ -16,17 +18,46 @@ import java.util.List;
 public class VotingController {
 
     private final VotingService service; // business logic
-    public VotingController(VotingService service){ this.service = service; }
+    private final VoteWriteBehindQueue writeBehind; // optional batched ingestion
+    private final IdempotencyService idempotency; // replays retried writes sent with an Idempotency-Key
+    public VotingController(VotingService service, VoteWriteBehindQueue writeBehind, IdempotencyService idempotency){
+        this.service = service;
+        this.writeBehind = writeBehind;
+        this.idempotency = idempotency;
+    }
 
     // Cast or update a vote (students only)
     @PostMapping
     @PreAuthorize("hasRole('STUDENT')")
     public ResponseEntity<?> vote(@AuthenticationPrincipal Object principal,
+                                  @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
                                   @RequestBody VoteRequest req) {
         if (!(principal instanceof StudentDetailsImpl s))
             return ResponseEntity.status(403).body("Only students can vote");
-        service.castOrUpdateVote(s.student().getId(), req);
-        return ResponseEntity.ok().build();
+        Long studentId = s.student().getId();
+        return idempotency.execute(idempotencyKey, "vote:" + studentId, req, () -> {
+            if (writeBehind.isEnabled()) {
+                // validate now, write in the next batch; returns once the batch is committed
+                writeBehind.submitAndAwait(service.validateVote(studentId, req));
+            } else {
+                service.castOrUpdateVote(studentId, req);
+            }
+            return ResponseEntity.ok().build();
+        });
+    }
+
+    // Cast or update votes for several categories of one event at once (students only);
+    // the body lists the outcome per category, rejected ones included
+    @PostMapping("/ballot")
+    @PreAuthorize("hasRole('STUDENT')")
+    public ResponseEntity<?> ballot(@AuthenticationPrincipal Object principal,
+                                    @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                    @RequestBody BallotRequest req) {
+        if (!(principal instanceof StudentDetailsImpl s))
+            return ResponseEntity.status(403).body("Only students can vote");
+        Long studentId = s.student().getId();
+        return idempotency.execute(idempotencyKey, "ballot:" + studentId, req,
+                () -> ResponseEntity.ok(service.castBallot(studentId, req)));
     }
 
     // Get my votes (current student)
@@ -47,8 +78,12 @@ public class VotingController {
     @DeleteMapping("/category/{categoryId}")
     @PreAuthorize("hasRole('STUDENT')")
     public ResponseEntity<?> deleteMyVote(@AuthenticationPrincipal StudentDetailsImpl s,
+                                          @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
                                           @PathVariable Long categoryId) {
-        service.resetMyVote(s.student().getId(), categoryId);
-        return ResponseEntity.noContent().build();
+        Long studentId = s.student().getId();
+        return idempotency.execute(idempotencyKey, "reset:" + studentId, categoryId, () -> {
+            service.resetMyVote(studentId, categoryId);
+            return ResponseEntity.noContent().build();
+        });
     }
 }
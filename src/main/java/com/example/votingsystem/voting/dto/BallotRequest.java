@@ -0,0 +1,6 @@
+package com.example.votingsystem.voting.dto;
+
+import java.util.Map;
+
+// Whole ballot for one event: categoryId -> nomineeId
+public record BallotRequest(Long eventId, Map<Long, Long> selections) {}
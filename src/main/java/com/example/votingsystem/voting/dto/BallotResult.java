@@ -0,0 +1,11 @@
+package com.example.votingsystem.voting.dto;
+
+import java.util.List;
+
+// Per-category outcome of a ballot; rejected categories carry the reason, the others were stored
+public record BallotResult(Long eventId, int accepted, int rejected, List<CategoryOutcome> categories) {
+
+    public enum Status { CAST, UPDATED, REJECTED }
+
+    public record CategoryOutcome(Long categoryId, Long nomineeId, Status status, String message) {}
+}
@@ -0,0 +1,4 @@
+package com.example.votingsystem.voting.dto;
+
+// A vote that already passed validation (ids only), ready to be written
+public record VoteCommand(Long studentId, Long eventId, Long categoryId, Long nomineeId) {}
@@ -14,7 +14,9 @@ import java.time.LocalDateTime;
 @Setter
 @Table(name = "votes",
         uniqueConstraints = @UniqueConstraint(name = "uk_vote_student_category",
-                columnNames = {"student_id", "category_id"}))
+                columnNames = {"student_id", "category_id"}),
+        // checkpoint catch-up reads the votes changed since the last checkpoint
+        indexes = @Index(name = "ix_votes_updated_at", columnList = "updated_at"))
 public class Vote {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
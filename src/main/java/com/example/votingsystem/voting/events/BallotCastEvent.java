@@ -0,0 +1,20 @@
+package com.example.votingsystem.voting.events;
+
+import java.util.List;
+
+// One committed ballot; VoteEventDispatcher hands every vote in it to the listeners as a VoteCastEvent
+public class BallotCastEvent {
+    private final Long eventId;
+    private final Long voterId;
+    private final List<VoteCastEvent> votes;
+
+    public BallotCastEvent(Long eventId, Long voterId, List<VoteCastEvent> votes) {
+        this.eventId = eventId;
+        this.voterId = voterId;
+        this.votes = List.copyOf(votes);
+    }
+
+    public Long getEventId() { return eventId; }
+    public Long getVoterId() { return voterId; }
+    public List<VoteCastEvent> getVotes() { return votes; }
+}
@@ -7,16 +7,24 @@ public class VoteCastEvent {
     private final Long voterId;
     private final boolean update;
     private final Long voteId;
+    private final Long previousNomineeId;   // nominee the vote pointed to before an update (null for new votes)
     private final long timestamp = System.currentTimeMillis();
+    private final long sequence = VoteSequence.next();   // commit order of changes to the same vote
 
     public VoteCastEvent(Long eventId, Long categoryId, Long nomineeId,
                          Long voterId, boolean update, Long voteId) {
+        this(eventId, categoryId, nomineeId, voterId, update, voteId, null);
+    }
+
+    public VoteCastEvent(Long eventId, Long categoryId, Long nomineeId,
+                         Long voterId, boolean update, Long voteId, Long previousNomineeId) {
         this.eventId = eventId;
         this.categoryId = categoryId;
         this.nomineeId = nomineeId;
         this.voterId = voterId;
         this.update = update;
         this.voteId = voteId;
+        this.previousNomineeId = previousNomineeId;
     }
 
     public Long getEventId() { return eventId; }
@@ -25,6 +33,7 @@ public class VoteCastEvent {
     public Long getVoterId() { return voterId; }
     public boolean isUpdate() { return update; }
     public Long getVoteId() { return voteId; }
+    public Long getPreviousNomineeId() { return previousNomineeId; }
     public long getTimestamp() { return timestamp; }
+    public long getSequence() { return sequence; }
 }
-
@@ -0,0 +1,12 @@
+package com.example.votingsystem.voting.events;
+
+/**
+ * Receives committed vote changes from VoteEventDispatcher, off the request thread.
+ * Events of one category arrive in commit order; listeners run in @Order order.
+ */
+public interface VoteEventListener {
+
+    default void onVoteCast(VoteCastEvent e) { }
+
+    default void onVoteReset(VoteResetEvent e) { }
+}
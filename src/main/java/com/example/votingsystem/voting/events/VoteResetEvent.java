@@ -1,17 +1,33 @@
 package com.example.votingsystem.voting.events;
 
+import java.time.LocalDateTime;
+
 public class VoteResetEvent {
+    private final Long eventId;
     private final Long categoryId;
+    private final Long nomineeId;   // nominee of the deleted vote (null if there was no vote)
     private final Long voterId;
+    private final LocalDateTime voteCreatedAt;   // when the deleted vote was first cast (null if there was no vote)
     private final long timestamp = System.currentTimeMillis();
+    private final long sequence = VoteSequence.next();   // commit order of changes to the same vote
 
     public VoteResetEvent(Long categoryId, Long voterId) {
+        this(null, categoryId, null, voterId, null);
+    }
+
+    public VoteResetEvent(Long eventId, Long categoryId, Long nomineeId, Long voterId, LocalDateTime voteCreatedAt) {
+        this.eventId = eventId;
         this.categoryId = categoryId;
+        this.nomineeId = nomineeId;
         this.voterId = voterId;
+        this.voteCreatedAt = voteCreatedAt;
     }
 
+    public Long getEventId() { return eventId; }
     public Long getCategoryId() { return categoryId; }
+    public Long getNomineeId() { return nomineeId; }
     public Long getVoterId() { return voterId; }
+    public LocalDateTime getVoteCreatedAt() { return voteCreatedAt; }
     public long getTimestamp() { return timestamp; }
+    public long getSequence() { return sequence; }
 }
-
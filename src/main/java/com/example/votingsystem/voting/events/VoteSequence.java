@@ -0,0 +1,16 @@
+package com.example.votingsystem.voting.events;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Order of vote changes in this process. Events take a number when they are built, right after
+ * their row was written and before the transaction commits, so two writes to the same
+ * (student, category) row (serialized by the row lock) are numbered in commit order.
+ */
+public final class VoteSequence {
+    private static final AtomicLong last = new AtomicLong();
+
+    private VoteSequence() {}
+
+    public static long next() { return last.incrementAndGet(); }
+}
@@ -0,0 +1,19 @@
+package com.example.votingsystem.voting.journal;
+
+/**
+ * One journaled vote change. Ids that do not apply are 0: oldNomineeId for a first vote,
+ * newNomineeId for a reset, eventId for resets recorded without one.
+ */
+public record JournalRecord(
+        long seq,
+        long timestamp,          // epoch millis
+        Type type,
+        boolean update,
+        long voterId,
+        long eventId,
+        long categoryId,
+        long oldNomineeId,
+        long newNomineeId
+) {
+    public enum Type { CAST, RESET }
+}
@@ -0,0 +1,418 @@
+package com.example.votingsystem.voting.journal;
+
+import com.example.votingsystem.common.LongLongMap;
+import com.example.votingsystem.voting.journal.JournalRecord.Type;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only binary journal of vote casts and resets, in memory-mapped segment files.
+ *
+ * Records are 64 bytes: type, flags, seq, timestamp, voter, event, category, old and new
+ * nominee, then a CRC32C of the first 60 bytes. A zero type byte marks the end of the data.
+ * Appends only copy into the mapping; a background thread forces everything appended since its
+ * last pass in one call (group commit), so an OS crash loses at most fsync-interval-ms of records.
+ * Timestamps never go backwards, so replay skips whole segments and binary-searches the first one.
+ */
+@Component
+public class VoteJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(VoteJournal.class);
+
+    public static final int RECORD_BYTES = 64;
+    private static final int CRC_OFFSET = 60;
+    private static final byte CAST = 1, RESET = 2;
+    private static final byte FLAG_UPDATE = 1;
+    private static final String SUFFIX = ".seg";
+
+    private final boolean enabled;
+    private final Path dir;
+    private final int segmentBytes;
+    private final long fsyncIntervalMs;
+    private final Timer fsyncTimer;
+
+    // sealed segments plus the active one (last); readers take a snapshot of the list
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+
+    // writer state, guarded by this
+    private Segment active;
+    private int position;
+    private int forcedUpTo;
+    private long nextSeq = 1;
+    private long lastTimestamp;
+    private final ByteBuffer scratch = ByteBuffer.allocate(RECORD_BYTES);
+    private final CRC32C writeCrc = new CRC32C();
+
+    private FileChannel lockChannel;
+    private FileLock lock;
+    private volatile boolean open;
+    private Thread flusher;
+
+    private static final class Segment {
+        final Path path;
+        final MappedByteBuffer buf;
+        volatile long firstTimestamp;   // Long.MAX_VALUE while empty
+        volatile int limit;             // bytes that may hold records
+
+        Segment(Path path, MappedByteBuffer buf, int limit) {
+            this.path = path;
+            this.buf = buf;
+            this.limit = limit;
+            this.firstTimestamp = buf.get(0) == 0 ? Long.MAX_VALUE : buf.getLong(12);
+        }
+    }
+
+    /** Net tally change per category and nominee over a time range, plus what was read. */
+    public record TallyReplay(long fromMs, long toMs, long records, long corrupt,
+                              Map<Long, Map<Long, Long>> tallies) {}
+
+    public VoteJournal(@Value("${app.voting.journal.enabled:true}") boolean enabled,
+                       @Value("${app.voting.journal.dir:./data/journal}") String dir,
+                       @Value("${app.voting.journal.segment-bytes:67108864}") long segmentBytes,
+                       @Value("${app.voting.journal.fsync-interval-ms:10}") long fsyncIntervalMs,
+                       MeterRegistry meters) {
+        this.enabled = enabled;
+        this.dir = Paths.get(dir);
+        // whole records only, at least 1024 of them
+        this.segmentBytes = (int) (Math.min(Math.max(segmentBytes, 1024L * RECORD_BYTES), 1L << 30)
+                / RECORD_BYTES * RECORD_BYTES);
+        this.fsyncIntervalMs = Math.max(1, fsyncIntervalMs);
+        this.fsyncTimer = Timer.builder("votes.journal.fsync")
+                .description("Group-commit force of newly appended journal records")
+                .register(meters);
+    }
+
+    @PostConstruct
+    public synchronized void open() {
+        if (!enabled) return;
+        try {
+            Files.createDirectories(dir);
+            lockChannel = FileChannel.open(dir.resolve("journal.lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            try {
+                lock = lockChannel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                lock = null;
+            }
+            if (lock == null) {
+                lockChannel.close();
+                log.warn("[Journal] {} is used by another instance; journaling disabled", dir.toAbsolutePath());
+                return;
+            }
+            List<Path> files;
+            try (Stream<Path> s = Files.list(dir)) {
+                files = s.filter(p -> p.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+            }
+            for (int i = 0; i < files.size(); i++) {
+                boolean last = i == files.size() - 1;
+                segments.add(map(files.get(i), !last));
+            }
+            if (segments.isEmpty()) {
+                active = create(1);
+                position = 0;
+            } else {
+                active = segments.get(segments.size() - 1);
+                recoverTail();
+            }
+            forcedUpTo = position;
+            open = true;
+            flusher = new Thread(this::flushLoop, "vote-journal-fsync");
+            flusher.setDaemon(true);
+            flusher.start();
+            log.info("[Journal] {} segment(s) in {}, next seq {}", segments.size(), dir.toAbsolutePath(), nextSeq);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open vote journal in " + dir, e);
+        }
+    }
+
+    // Finds the end of the active segment: the first empty slot or the first record failing its CRC
+    // (a write torn by a crash; the next append overwrites it)
+    private void recoverTail() {
+        ByteBuffer view = active.buf.duplicate();
+        CRC32C crc = new CRC32C();
+        int p = 0;
+        long seq = 0, ts = 0;
+        while (p < view.capacity() && view.get(p) != 0 && valid(view, p, crc)) {
+            seq = view.getLong(p + 4);
+            ts = view.getLong(p + 12);
+            p += RECORD_BYTES;
+        }
+        position = p;
+        active.limit = p;
+        if (seq == 0 && segments.size() > 1) {
+            // empty active segment: continue after the previous one
+            Segment prev = segments.get(segments.size() - 2);
+            int end = lastRecordOffset(prev);
+            if (end >= 0) {
+                seq = prev.buf.getLong(end + 4);
+                ts = prev.buf.getLong(end + 12);
+            }
+        }
+        nextSeq = seq + 1;
+        lastTimestamp = ts;
+        if (seq == 0) nextSeq = firstSeqOf(active.path);
+    }
+
+    private static int lastRecordOffset(Segment s) {
+        int p = s.limit - RECORD_BYTES;
+        while (p >= 0 && s.buf.get(p) == 0) p -= RECORD_BYTES;
+        return p;
+    }
+
+    // ---- appends ----
+
+    public void cast(long timestamp, boolean update, Long voterId, Long eventId, Long categoryId,
+                     Long oldNomineeId, Long newNomineeId) {
+        append(CAST, update, timestamp, voterId, eventId, categoryId, oldNomineeId, newNomineeId);
+    }
+
+    public void reset(long timestamp, Long voterId, Long eventId, Long categoryId, Long nomineeId) {
+        append(RESET, false, timestamp, voterId, eventId, categoryId, nomineeId, null);
+    }
+
+    private synchronized void append(byte type, boolean update, long timestamp, Long voterId, Long eventId,
+                                     Long categoryId, Long oldNomineeId, Long newNomineeId) {
+        if (!open) return;
+        if (position + RECORD_BYTES > active.buf.capacity()) roll();
+        long ts = Math.max(lastTimestamp, timestamp);
+        lastTimestamp = ts;
+
+        ByteBuffer b = scratch;
+        b.put(0, type);
+        b.put(1, update ? FLAG_UPDATE : 0);
+        b.putShort(2, (short) 0);
+        b.putLong(4, nextSeq++);
+        b.putLong(12, ts);
+        b.putLong(20, id(voterId));
+        b.putLong(28, id(eventId));
+        b.putLong(36, id(categoryId));
+        b.putLong(44, id(oldNomineeId));
+        b.putLong(52, id(newNomineeId));
+        writeCrc.reset();
+        writeCrc.update(b.array(), 0, CRC_OFFSET);
+        b.putInt(CRC_OFFSET, (int) writeCrc.getValue());
+
+        active.buf.put(position, b.array(), 0, RECORD_BYTES);
+        if (position == 0) active.firstTimestamp = ts;
+        position += RECORD_BYTES;
+        active.limit = position;   // publishes the record to readers
+    }
+
+    private static long id(Long v) { return v == null ? 0L : v; }
+
+    private void roll() {
+        active.buf.force();
+        try {
+            active = create(nextSeq);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot roll vote journal segment", e);
+        }
+        position = 0;
+        forcedUpTo = 0;
+    }
+
+    private Segment create(long firstSeq) throws IOException {
+        Path path = dir.resolve(String.format("%020d%s", firstSeq, SUFFIX));
+        try (RandomAccessFile f = new RandomAccessFile(path.toFile(), "rw")) {
+            f.setLength(segmentBytes);
+        }
+        Segment s = map(path, false);
+        segments.add(s);
+        return s;
+    }
+
+    private Segment map(Path path, boolean sealed) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            int size = (int) (ch.size() / RECORD_BYTES * RECORD_BYTES);
+            MappedByteBuffer buf = ch.map(sealed ? FileChannel.MapMode.READ_ONLY : FileChannel.MapMode.READ_WRITE, 0, size);
+            return new Segment(path, buf, sealed ? size : 0);
+        }
+    }
+
+    private static long firstSeqOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    // ---- group commit ----
+
+    private void flushLoop() {
+        while (open) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(fsyncIntervalMs);
+                sync();
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.warn("[Journal] fsync failed: {}", e.toString());
+            }
+        }
+    }
+
+    /** Forces every record appended so far to disk. */
+    public void sync() {
+        Segment seg;
+        int from, to;
+        synchronized (this) {
+            if (!open) return;
+            seg = active;
+            from = forcedUpTo;
+            to = position;
+            forcedUpTo = to;
+        }
+        if (to > from) fsyncTimer.record(() -> seg.buf.force(from, to - from));
+    }
+
+    @PreDestroy
+    public void close() {
+        Thread t;
+        synchronized (this) {
+            if (!open) return;
+            t = flusher;
+        }
+        sync();
+        synchronized (this) {
+            open = false;
+            segments.clear();   // mappings are released once unreachable
+            try {
+                lock.release();
+                lockChannel.close();
+            } catch (IOException e) {
+                log.warn("[Journal] cannot release lock: {}", e.toString());
+            }
+        }
+        t.interrupt();
+    }
+
+    public boolean isOpen() { return open; }
+
+    // ---- replay ----
+
+    /** Streams every intact record with fromMs <= timestamp <= toMs, in append order; returns the count. */
+    public long replay(long fromMs, long toMs, Consumer<JournalRecord> sink) {
+        long[] n = new long[1];
+        scan(fromMs, toMs, (b, p) -> {
+            sink.accept(decode(b, p));
+            n[0]++;
+            return true;
+        });
+        return n[0];
+    }
+
+    /** Records in the range, oldest first, at most limit of them. */
+    public List<JournalRecord> history(long fromMs, long toMs, int limit) {
+        List<JournalRecord> out = new ArrayList<>();
+        scan(fromMs, toMs, (b, p) -> {
+            out.add(decode(b, p));
+            return out.size() < limit;
+        });
+        return out;
+    }
+
+    /**
+     * Net change of each (category, nominee) tally over the range; from 0 it is the tally at toMs
+     * of everything journaled (votes cast before the journal existed are not in it).
+     */
+    public TallyReplay tallies(long fromMs, long toMs) {
+        Map<Long, LongLongMap> cells = new HashMap<>();
+        long[] records = new long[1];
+        long corrupt = scan(fromMs, toMs, (b, p) -> {
+            records[0]++;
+            long category = b.getLong(p + 36);
+            long oldNominee = b.getLong(p + 44);
+            long newNominee = b.getLong(p + 52);
+            LongLongMap c = cells.computeIfAbsent(category, k -> new LongLongMap());
+            if (b.get(p) == RESET || (b.get(p + 1) & FLAG_UPDATE) != 0) {
+                if (oldNominee != 0) addTo(c, oldNominee, -1);
+            }
+            if (newNominee != 0) addTo(c, newNominee, 1);
+            return true;
+        });
+
+        Map<Long, Map<Long, Long>> out = new TreeMap<>();
+        for (var e : cells.entrySet()) {
+            Map<Long, Long> nominees = new TreeMap<>();
+            e.getValue().forEach(nominees::put);
+            out.put(e.getKey(), nominees);
+        }
+        return new TallyReplay(fromMs, toMs, records[0], corrupt, out);
+    }
+
+    private static void addTo(LongLongMap m, long key, long delta) {
+        long cur = m.get(key);
+        m.put(key, cur == LongLongMap.MISSING ? delta : cur + delta);
+    }
+
+    // returns false to stop the scan
+    private interface RecordVisitor { boolean visit(ByteBuffer b, int offset); }
+
+    // Visits intact records in the range; returns how many records failed their CRC
+    private long scan(long fromMs, long toMs, RecordVisitor visitor) {
+        List<Segment> snapshot = List.copyOf(segments);
+        CRC32C crc = new CRC32C();
+        long corrupt = 0;
+        for (int i = 0; i < snapshot.size(); i++) {
+            Segment s = snapshot.get(i);
+            if (s.firstTimestamp > toMs) break;
+            if (i + 1 < snapshot.size() && snapshot.get(i + 1).firstTimestamp < fromMs) continue;   // all older
+
+            ByteBuffer b = s.buf.duplicate();
+            int limit = s.limit;
+            for (int p = firstAtOrAfter(b, limit, fromMs); p < limit; p += RECORD_BYTES) {
+                if (b.get(p) == 0) break;
+                if (!valid(b, p, crc)) { corrupt++; continue; }
+                if (b.getLong(p + 12) > toMs || !visitor.visit(b, p)) return corrupt;
+            }
+        }
+        return corrupt;
+    }
+
+    // Binary search on the (non-decreasing) timestamps of a segment
+    private static int firstAtOrAfter(ByteBuffer b, int limit, long fromMs) {
+        int lo = 0, hi = limit / RECORD_BYTES;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int p = mid * RECORD_BYTES;
+            if (b.get(p) != 0 && b.getLong(p + 12) < fromMs) lo = mid + 1; else hi = mid;
+        }
+        return lo * RECORD_BYTES;
+    }
+
+    private static boolean valid(ByteBuffer b, int p, CRC32C crc) {
+        crc.reset();
+        b.limit(p + CRC_OFFSET).position(p);
+        crc.update(b);
+        b.limit(b.capacity());
+        return (int) crc.getValue() == b.getInt(p + CRC_OFFSET);
+    }
+
+    private static JournalRecord decode(ByteBuffer b, int p) {
+        return new JournalRecord(b.getLong(p + 4), b.getLong(p + 12),
+                b.get(p) == RESET ? Type.RESET : Type.CAST, (b.get(p + 1) & FLAG_UPDATE) != 0,
+                b.getLong(p + 20), b.getLong(p + 28), b.getLong(p + 36), b.getLong(p + 44), b.getLong(p + 52));
+    }
+}
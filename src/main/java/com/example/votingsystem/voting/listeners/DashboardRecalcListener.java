@@ -2,26 +2,28 @@ package com.example.votingsystem.voting.listeners;
 
 import com.example.votingsystem.dashboard.service.DashboardService;
 import com.example.votingsystem.voting.events.VoteCastEvent;
+import com.example.votingsystem.voting.events.VoteEventListener;
 import com.example.votingsystem.voting.events.VoteResetEvent;
-import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
+// Runs after VoteTallyListener so a new dashboard version already sees the updated tally
 @Component
-public class DashboardRecalcListener {
+@Order(10)
+public class DashboardRecalcListener implements VoteEventListener {
     private final DashboardService dashboard;
 
     public DashboardRecalcListener(DashboardService dashboard) {
         this.dashboard = dashboard;
     }
 
-    @EventListener
+    @Override
     public void onVoteCast(VoteCastEvent e) {
-        dashboard.recalcForEvent(e.getEventId());
+        dashboard.recalcForEvent(e);
     }
 
-    @EventListener
+    @Override
     public void onVoteReset(VoteResetEvent e) {
+        dashboard.recalcForEvent(e);
     }
 }
-
-
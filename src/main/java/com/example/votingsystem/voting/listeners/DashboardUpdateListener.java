@@ -2,28 +2,22 @@ package com.example.votingsystem.voting.listeners;
 
 import com.example.votingsystem.dashboard.service.DashboardCounterService;
 import com.example.votingsystem.voting.events.VoteCastEvent;
-import com.example.votingsystem.voting.events.VoteResetEvent;
-import org.springframework.context.event.EventListener;
+import com.example.votingsystem.voting.events.VoteEventListener;
 import org.springframework.stereotype.Component;
 
+// Feeds the live vote-rate counters (resets are not submissions, so they are not counted)
 @Component
-public class DashboardUpdateListener {
+public class DashboardUpdateListener implements VoteEventListener {
     private final DashboardCounterService counters;
 
     public DashboardUpdateListener(DashboardCounterService counters) {
         this.counters = counters;
     }
 
-    @EventListener
+    @Override
     public void onVoteCast(VoteCastEvent e) {
         counters.bump(e.getEventId(), e.getCategoryId());
     }
-
-    @EventListener
-    public void onVoteReset(VoteResetEvent e) {
-        // Negative eventId just to distinguish in logs (optional)
-        counters.bump(-1L, e.getCategoryId());
-    }
 }
 
 
@@ -0,0 +1,31 @@
+package com.example.votingsystem.voting.listeners;
+
+import com.example.votingsystem.dashboard.service.LiveUpdateBroadcaster;
+import com.example.votingsystem.voting.events.VoteCastEvent;
+import com.example.votingsystem.voting.events.VoteEventListener;
+import com.example.votingsystem.voting.events.VoteResetEvent;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// Marks SSE topics dirty; the broadcaster pushes one coalesced update per topic per tick
+@Component
+@Order(20)
+public class LiveUpdateListener implements VoteEventListener {
+    private final LiveUpdateBroadcaster live;
+
+    public LiveUpdateListener(LiveUpdateBroadcaster live) {
+        this.live = live;
+    }
+
+    @Override
+    public void onVoteCast(VoteCastEvent e) {
+        live.markDirty(LiveUpdateBroadcaster.dashboardTopic(e.getEventId()));
+        live.markDirty(LiveUpdateBroadcaster.publicWidgetsTopic(e.getCategoryId()));
+    }
+
+    @Override
+    public void onVoteReset(VoteResetEvent e) {
+        if (e.getEventId() != null) live.markDirty(LiveUpdateBroadcaster.dashboardTopic(e.getEventId()));
+        live.markDirty(LiveUpdateBroadcaster.publicWidgetsTopic(e.getCategoryId()));
+    }
+}
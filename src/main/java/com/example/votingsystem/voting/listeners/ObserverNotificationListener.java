@@ -1,16 +1,16 @@
 package com.example.votingsystem.voting.listeners;
 
 import com.example.votingsystem.voting.events.VoteCastEvent;
+import com.example.votingsystem.voting.events.VoteEventListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
 @Component
-public class ObserverNotificationListener {
+public class ObserverNotificationListener implements VoteEventListener {
     private static final Logger log = LoggerFactory.getLogger(ObserverNotificationListener.class);
 
-    @EventListener
+    @Override
     public void onVoteCast(VoteCastEvent e) {
         log.info("[OBSERVER NOTIFIED] CAST vote event fired for studentId={}", e.getVoterId());
     }
@@ -0,0 +1,30 @@
+package com.example.votingsystem.voting.listeners;
+
+import com.example.votingsystem.voting.events.VoteCastEvent;
+import com.example.votingsystem.voting.events.VoteEventListener;
+import com.example.votingsystem.voting.events.VoteResetEvent;
+import com.example.votingsystem.voting.journal.VoteJournal;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// Records every committed cast/reset in the binary vote journal
+@Component
+@Order(1)
+public class VoteJournalListener implements VoteEventListener {
+    private final VoteJournal journal;
+
+    public VoteJournalListener(VoteJournal journal) {
+        this.journal = journal;
+    }
+
+    @Override
+    public void onVoteCast(VoteCastEvent e) {
+        journal.cast(e.getTimestamp(), e.isUpdate(), e.getVoterId(), e.getEventId(), e.getCategoryId(),
+                e.getPreviousNomineeId(), e.getNomineeId());
+    }
+
+    @Override
+    public void onVoteReset(VoteResetEvent e) {
+        journal.reset(e.getTimestamp(), e.getVoterId(), e.getEventId(), e.getCategoryId(), e.getNomineeId());
+    }
+}
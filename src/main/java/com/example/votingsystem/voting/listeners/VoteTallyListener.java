@@ -0,0 +1,29 @@
+package com.example.votingsystem.voting.listeners;
+
+import com.example.votingsystem.voting.events.VoteCastEvent;
+import com.example.votingsystem.voting.events.VoteEventListener;
+import com.example.votingsystem.voting.events.VoteResetEvent;
+import com.example.votingsystem.voting.service.VoteTallyEngine;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// Keeps the live tally in step with the votes table; only committed changes are counted
+@Component
+@Order(0)
+public class VoteTallyListener implements VoteEventListener {
+    private final VoteTallyEngine tallies;
+
+    public VoteTallyListener(VoteTallyEngine tallies) {
+        this.tallies = tallies;
+    }
+
+    @Override
+    public void onVoteCast(VoteCastEvent e) {
+        tallies.onCast(e.getCategoryId(), e.getNomineeId(), e.getPreviousNomineeId(), e.isUpdate());
+    }
+
+    @Override
+    public void onVoteReset(VoteResetEvent e) {
+        tallies.onReset(e.getCategoryId(), e.getNomineeId());
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.votingsystem.voting.repository;
+
+import com.example.votingsystem.voting.dto.VoteCommand;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Plain JDBC writes for many votes at once (one batch instead of one transaction per vote).
+ * Callers must run it inside a transaction.
+ */
+@Repository
+public class VoteBatchRepository {
+
+    // Insert-or-update keyed by uk_vote_student_category, so the one-vote-per-category rule still holds
+    private static final String MERGE_SQL = """
+        merge into votes v
+        using (values (cast(? as bigint), cast(? as bigint), cast(? as bigint), cast(? as timestamp)))
+              s(student_id, category_id, nominee_id, ts)
+        on v.student_id = s.student_id and v.category_id = s.category_id
+        when matched then update set nominee_id = s.nominee_id, updated_at = s.ts
+        when not matched then insert (student_id, category_id, nominee_id, created_at, updated_at)
+             values (s.student_id, s.category_id, s.nominee_id, s.ts, s.ts)
+        """;
+
+    private final JdbcTemplate jdbc;
+
+    public VoteBatchRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    // Result of one upsert: which row, was it an update, and which nominee it replaced
+    public record Upsert(VoteCommand command, Long voteId, boolean update, Long previousNomineeId) {}
+
+    private record Key(long studentId, long categoryId) {}
+    private record Row(long id, long nomineeId) {}
+
+    /**
+     * Upsert all commands with one JDBC batch. If the same (student, category) appears twice,
+     * the last one wins and every command for that key gets the same outcome.
+     */
+    public List<Upsert> upsertAll(List<VoteCommand> commands) {
+        if (commands.isEmpty()) return List.of();
+
+        // last command per (student, category) wins, keeping arrival order
+        Map<Key, VoteCommand> latest = new LinkedHashMap<>();
+        for (VoteCommand c : commands) latest.put(new Key(c.studentId(), c.categoryId()), c);
+
+        // 1) lock the rows that already exist so we know the nominee being replaced
+        Map<Key, Row> before = currentRows(latest.keySet(), true);
+
+        // 2) one batched MERGE for the whole set
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>(latest.size());
+        for (VoteCommand c : latest.values()) {
+            args.add(new Object[]{ c.studentId(), c.categoryId(), c.nomineeId(), now });
+        }
+        jdbc.batchUpdate(MERGE_SQL, args);
+
+        // 3) read back ids of freshly inserted rows
+        Map<Key, Row> after = before.size() == latest.size() ? before : currentRows(latest.keySet(), false);
+
+        List<Upsert> out = new ArrayList<>(commands.size());
+        for (VoteCommand c : commands) {
+            Key k = new Key(c.studentId(), c.categoryId());
+            Row prev = before.get(k);
+            Row cur = after.get(k);
+            out.add(new Upsert(latest.get(k), cur == null ? null : cur.id(),
+                    prev != null, prev == null ? null : prev.nomineeId()));
+        }
+        return out;
+    }
+
+    private Map<Key, Row> currentRows(Set<Key> keys, boolean lock) {
+        Set<Long> studentIds = new LinkedHashSet<>();
+        Set<Long> categoryIds = new LinkedHashSet<>();
+        for (Key k : keys) { studentIds.add(k.studentId()); categoryIds.add(k.categoryId()); }
+
+        String sql = "select id, student_id, category_id, nominee_id from votes"
+                + " where student_id in (" + placeholders(studentIds.size()) + ")"
+                + " and category_id in (" + placeholders(categoryIds.size()) + ")"
+                + (lock ? " for update" : "");
+        List<Object> params = new ArrayList<>(studentIds);
+        params.addAll(categoryIds);
+
+        Map<Key, Row> rows = new HashMap<>();
+        jdbc.query(sql, rs -> {
+            Key k = new Key(rs.getLong("student_id"), rs.getLong("category_id"));
+            if (keys.contains(k)) rows.put(k, new Row(rs.getLong("id"), rs.getLong("nominee_id")));
+        }, params.toArray());
+        return rows;
+    }
+
+    private static String placeholders(int n) {
+        return String.join(",", Collections.nCopies(n, "?"));
+    }
+}
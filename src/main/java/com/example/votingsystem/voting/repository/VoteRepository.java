@@ -11,7 +11,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface VoteRepository extends JpaRepository<Vote, Long> {
+public interface VoteRepository extends JpaRepository<Vote, Long>, VoteUpsertRepository {
 
     Optional<Vote> findByStudent_IdAndCategory_Id(Long studentId, Long categoryId);
 
@@ -56,13 +56,11 @@ public interface VoteRepository extends JpaRepository<Vote, Long> {
     """)
     List<Object[]> topNominees(@Param("eventId") Long eventId, Pageable pageable);
 
-    // H2-safe: cast timestamp -> date (works across H2/MySQL/Postgres via Hibernate)
+    // (categoryId, nomineeId, count) for every cell; used to load/reconcile the live tally engine
     @Query("""
-      select cast(v.createdAt as date) as d, count(v.id)
-      from Vote v join v.category c
-      where c.event.id = :eventId
-      group by cast(v.createdAt as date)
-      order by cast(v.createdAt as date) asc
+      select v.category.id, v.nominee.id, count(v.id)
+      from Vote v
+      group by v.category.id, v.nominee.id
     """)
-    List<Object[]> dailyCounts(@Param("eventId") Long eventId);
+    List<Object[]> countsByCategoryAndNominee();
 }
@@ -0,0 +1,23 @@
+package com.example.votingsystem.voting.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+// Single-statement vote writes, mixed into VoteRepository (implemented with plain JDBC)
+public interface VoteUpsertRepository {
+
+    /** Outcome of one upsert; previousNomineeId is null when the row was inserted. */
+    record Upserted(Long voteId, boolean update, Long previousNomineeId) {}
+
+    /**
+     * Insert the vote, or move the existing (student, category) vote to the nominee.
+     * One round trip for a changed vote; a first vote also reads back its new id.
+     */
+    Upserted upsert(Long studentId, Long categoryId, Long nomineeId);
+
+    /** The vote a delete removed: which nominee lost it, and when it was first cast. */
+    record Removed(Long nomineeId, LocalDateTime createdAt) {}
+
+    /** Delete the (student, category) vote and report what was removed; empty if there was none. */
+    Optional<Removed> remove(Long studentId, Long categoryId);
+}
@@ -0,0 +1,68 @@
+package com.example.votingsystem.voting.repository;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+// Spring Data picks this up as the implementation of VoteUpsertRepository (the "Impl" suffix)
+class VoteUpsertRepositoryImpl implements VoteUpsertRepository {
+
+    // H2 data-change delta table: the MERGE runs and the rows it replaced are selected in the same
+    // statement, so an update reports the old nominee without storing it. An insert replaces nothing.
+    static final String UPSERT_SQL = """
+        select id, nominee_id from old table (
+          merge into votes v
+          using (values (cast(? as bigint), cast(? as bigint), cast(? as bigint), cast(? as timestamp)))
+                s(student_id, category_id, nominee_id, ts)
+          on v.student_id = s.student_id and v.category_id = s.category_id
+          when matched then update set nominee_id = s.nominee_id, updated_at = s.ts
+          when not matched then insert (student_id, category_id, nominee_id, created_at, updated_at)
+               values (s.student_id, s.category_id, s.nominee_id, s.ts, s.ts))
+        """;
+
+    // the deleted row comes back from the same statement, so the caller learns what it removed
+    static final String REMOVE_SQL = """
+        select nominee_id, created_at from old table (
+          delete from votes where student_id = ? and category_id = ?)
+        """;
+
+    // id of the row the MERGE just inserted (unique-key lookup, already locked by this transaction)
+    static final String INSERTED_ID_SQL = "select id from votes where student_id = ? and category_id = ?";
+
+    private final JdbcTemplate jdbc;
+
+    VoteUpsertRepositoryImpl(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public Upserted upsert(Long studentId, Long categoryId, Long nomineeId) {
+        try {
+            return run(studentId, categoryId, nomineeId);
+        } catch (DuplicateKeyException e) {
+            // two first votes raced: the other insert has committed by now, so this time the MERGE matches it
+            return run(studentId, categoryId, nomineeId);
+        }
+    }
+
+    private Upserted run(Long studentId, Long categoryId, Long nomineeId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Upserted> replaced = jdbc.query(UPSERT_SQL,
+                (rs, i) -> new Upserted(rs.getLong("id"), true, rs.getLong("nominee_id")),
+                studentId, categoryId, nomineeId, now);
+        if (!replaced.isEmpty()) return replaced.get(0);
+        Long id = jdbc.queryForObject(INSERTED_ID_SQL, Long.class, studentId, categoryId);
+        return new Upserted(id, false, null);
+    }
+
+    @Override
+    public Optional<Removed> remove(Long studentId, Long categoryId) {
+        return jdbc.query(REMOVE_SQL,
+                (rs, i) -> new Removed(rs.getLong("nominee_id"), rs.getTimestamp("created_at").toLocalDateTime()),
+                studentId, categoryId).stream().findFirst();
+    }
+}
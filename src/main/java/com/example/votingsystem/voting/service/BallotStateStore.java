@@ -0,0 +1,303 @@
+package com.example.votingsystem.voting.service;
+
+import com.example.votingsystem.admin.itc.DatabaseRestoredEvent;
+import com.example.votingsystem.common.LongLongMap;
+import com.example.votingsystem.nominee.events.CatalogChangedEvent;
+import com.example.votingsystem.voting.dto.MyVoteView;
+import com.example.votingsystem.voting.events.BallotCastEvent;
+import com.example.votingsystem.voting.events.VoteCastEvent;
+import com.example.votingsystem.voting.events.VoteResetEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Current ballot of every student, per event, in memory: the chosen nominee of each
+ * (student slot, category slot) cell of int pages, so /api/vote/my and the reset check need no SQL.
+ * Loaded at startup, then kept current from committed vote events on the committing thread
+ * (a student sees their vote as soon as the request returns). After-commit callbacks of two
+ * writes to the same vote can run in either order, so each cell remembers the sequence of the
+ * event that last set it (in int pages laid out like the cells, allocated once a page sees a
+ * live change) and older events are ignored. Catalog changes reload it.
+ */
+@Component
+public class BallotStateStore implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(BallotStateStore.class);
+
+    private static final String LOAD_SQL = "select v.student_id, c.event_id, v.category_id, v.nominee_id"
+            + " from votes v join categories c on c.id = v.category_id";
+
+    private final JdbcTemplate jdbc;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<Long, EventBallots> events = new HashMap<>();   // guarded by lock
+    // changes applied while a reload reads the DB; replayed onto the loaded state (guarded by lock)
+    private List<long[]> pending;
+
+    public BallotStateStore(JdbcTemplate jdbc, MeterRegistry meters) {
+        this.jdbc = jdbc;
+        Gauge.builder("votes.ballots.bytes", this, BallotStateStore::footprintBytes)
+                .description("Approximate heap used by the in-memory ballot state")
+                .baseUnit("bytes")
+                .register(meters);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() { reload(); }
+
+    /** Rebuild from the votes table (one query); also after an ITC restore replaced it. */
+    @EventListener(DatabaseRestoredEvent.class)
+    public synchronized void reload() {
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try { pending = new ArrayList<>(); } finally { lock.writeLock().unlock(); }
+
+        Map<Long, EventBallots> loaded = new HashMap<>();
+        int[] rows = {0};
+        boolean done = false;
+        try {
+            jdbc.query(LOAD_SQL, rs -> {
+                loaded.computeIfAbsent(rs.getLong(2), id -> new EventBallots())
+                        .set(rs.getLong(1), rs.getLong(3), rs.getLong(4));
+                rows[0]++;
+            });
+            done = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (done) {
+                    for (long[] c : pending) apply(loaded, c[0], c[1], c[2], c[3], c[4]);
+                    events = loaded;
+                }
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("[Ballots] loaded {} votes for {} events ({} KB, {} ms)",
+                rows[0], loaded.size(), footprintBytes() / 1024, System.currentTimeMillis() - started);
+    }
+
+    /** Every vote of the student, event by event. */
+    public List<MyVoteView> votesOf(long studentId) {
+        List<MyVoteView> out = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            events.forEach((eventId, ballots) -> ballots.forEachVote(studentId,
+                    (categoryId, nomineeId) -> out.add(new MyVoteView(eventId, categoryId, nomineeId))));
+        } finally {
+            lock.readLock().unlock();
+        }
+        return out;
+    }
+
+    /** Nominee the student chose in the category, or 0 if they have no vote there. */
+    public long nomineeOf(long studentId, long eventId, long categoryId) {
+        lock.readLock().lock();
+        try {
+            EventBallots ballots = events.get(eventId);
+            return ballots == null ? 0 : ballots.get(studentId, categoryId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long footprintBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (EventBallots b : events.values()) bytes += b.footprintBytes();
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---- committed changes ----
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onVoteCast(VoteCastEvent e) {
+        if (e.getEventId() == null) return;
+        change(e.getVoterId(), e.getEventId(), e.getCategoryId(), e.getNomineeId(), e.getSequence());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBallotCast(BallotCastEvent e) {
+        for (VoteCastEvent v : e.getVotes()) onVoteCast(v);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onVoteReset(VoteResetEvent e) {
+        // nothing deleted: says nothing about a vote cast meanwhile (no row lock was held)
+        if (e.getEventId() == null || e.getNomineeId() == null) return;
+        change(e.getVoterId(), e.getEventId(), e.getCategoryId(), 0, e.getSequence());
+    }
+
+    // Categories or nominees may have moved or been deleted with their votes
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent e) { reload(); }
+
+    private void change(long studentId, long eventId, long categoryId, long nomineeId, long sequence) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) pending.add(new long[]{studentId, eventId, categoryId, nomineeId, sequence});
+            apply(events, studentId, eventId, categoryId, nomineeId, sequence);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void apply(Map<Long, EventBallots> events, long studentId, long eventId,
+                              long categoryId, long nomineeId, long sequence) {
+        EventBallots ballots = events.get(eventId);
+        if (ballots == null) {
+            if (nomineeId == 0) return;
+            events.put(eventId, ballots = new EventBallots());
+        }
+        ballots.change(studentId, categoryId, nomineeId, sequence);
+    }
+
+    /** Receives the votes of {@link EventBallots#forEachVote}. */
+    @FunctionalInterface
+    interface VoteConsumer { void accept(long categoryId, long nomineeId); }
+
+    /**
+     * Ballots of one event. Cells hold a nominee slot + 1 (0 = no vote); a page covers
+     * PAGE_STUDENTS students x stride categories. sequencePages mirror that layout with the low
+     * 32 bits of the last applied event's sequence (0 = loaded, never changed since); they are
+     * compared with wrap-around arithmetic, which holds while two writes to one cell are less than
+     * 2^31 events apart. Not thread-safe (the store locks around it).
+     */
+    static final class EventBallots {
+        static final int PAGE_STUDENTS = 1024;
+
+        private final LongLongMap studentSlots = new LongLongMap();
+        private final LongLongMap categorySlots = new LongLongMap();
+        private final LongLongMap nomineeSlots = new LongLongMap();
+        private long[] categoryIds = new long[8];
+        private long[] nomineeIds = new long[32];
+        private int stride = 8;           // category slots per student row
+        private int[][] pages = new int[0][];
+        private int[][] sequencePages = new int[0][];   // null until a page gets a live change
+        private int students, categories, nominees;
+
+        void set(long studentId, long categoryId, long nomineeId) {
+            long s = studentSlots.get(studentId);
+            long c = categorySlots.get(categoryId);
+            if (nomineeId == 0 && (s == LongLongMap.MISSING || c == LongLongMap.MISSING)) return;
+            if (s == LongLongMap.MISSING) s = addStudent(studentId);
+            if (c == LongLongMap.MISSING) c = addCategory(categoryId);
+            int cell = nomineeId == 0 ? 0 : nomineeSlot(nomineeId) + 1;
+            pages[(int) s / PAGE_STUDENTS][(int) (s % PAGE_STUDENTS) * stride + (int) c] = cell;
+        }
+
+        /** Apply an event unless a later one already changed the cell (loaded cells count as sequence 0). */
+        void change(long studentId, long categoryId, long nomineeId, long sequence) {
+            int seq = (int) sequence;
+            long s = studentSlots.get(studentId);
+            long c = categorySlots.get(categoryId);
+            if (s != LongLongMap.MISSING && c != LongLongMap.MISSING) {
+                int[] seqs = sequencePages[(int) s / PAGE_STUDENTS];
+                int last = seqs == null ? 0 : seqs[(int) (s % PAGE_STUDENTS) * stride + (int) c];
+                if (last != 0 && last - seq > 0) return;
+            }
+            set(studentId, categoryId, nomineeId);
+            s = studentSlots.get(studentId);
+            c = categorySlots.get(categoryId);
+            if (s == LongLongMap.MISSING || c == LongLongMap.MISSING) return;
+            int p = (int) s / PAGE_STUDENTS;
+            if (sequencePages[p] == null) sequencePages[p] = new int[PAGE_STUDENTS * stride];
+            sequencePages[p][(int) (s % PAGE_STUDENTS) * stride + (int) c] = seq == 0 ? 1 : seq;   // 0 stays "loaded"
+        }
+
+        long get(long studentId, long categoryId) {
+            long s = studentSlots.get(studentId);
+            long c = categorySlots.get(categoryId);
+            if (s == LongLongMap.MISSING || c == LongLongMap.MISSING) return 0;
+            int cell = pages[(int) s / PAGE_STUDENTS][(int) (s % PAGE_STUDENTS) * stride + (int) c];
+            return cell == 0 ? 0 : nomineeIds[cell - 1];
+        }
+
+        void forEachVote(long studentId, VoteConsumer action) {
+            long s = studentSlots.get(studentId);
+            if (s == LongLongMap.MISSING) return;
+            int[] page = pages[(int) s / PAGE_STUDENTS];
+            int row = (int) (s % PAGE_STUDENTS) * stride;
+            for (int c = 0; c < categories; c++) {
+                int cell = page[row + c];
+                if (cell != 0) action.accept(categoryIds[c], nomineeIds[cell - 1]);
+            }
+        }
+
+        long footprintBytes() {
+            long bytes = studentSlots.footprintBytes() + categorySlots.footprintBytes() + nomineeSlots.footprintBytes()
+                    + 16 + 8L * categoryIds.length + 16 + 8L * nomineeIds.length
+                    + 16 + 4L * pages.length + 16 + 4L * sequencePages.length;
+            for (int[] page : pages) bytes += 16 + 4L * page.length;
+            for (int[] page : sequencePages) if (page != null) bytes += 16 + 4L * page.length;
+            return bytes;
+        }
+
+        private long addStudent(long studentId) {
+            int s = students++;
+            if (s / PAGE_STUDENTS == pages.length) {
+                pages = Arrays.copyOf(pages, pages.length + 1);
+                pages[pages.length - 1] = new int[PAGE_STUDENTS * stride];
+                sequencePages = Arrays.copyOf(sequencePages, pages.length);
+            }
+            studentSlots.put(studentId, s);
+            return s;
+        }
+
+        private long addCategory(long categoryId) {
+            int c = categories++;
+            if (c == stride) widen(stride + 8);   // categories are added rarely: keep rows tight
+            if (c == categoryIds.length) categoryIds = Arrays.copyOf(categoryIds, c * 2);
+            categoryIds[c] = categoryId;
+            categorySlots.put(categoryId, c);
+            return c;
+        }
+
+        private int nomineeSlot(long nomineeId) {
+            long n = nomineeSlots.get(nomineeId);
+            if (n != LongLongMap.MISSING) return (int) n;
+            int slot = nominees++;
+            if (slot == nomineeIds.length) nomineeIds = Arrays.copyOf(nomineeIds, slot * 2);
+            nomineeIds[slot] = nomineeId;
+            nomineeSlots.put(nomineeId, slot);
+            return slot;
+        }
+
+        // More categories than a row holds: copy every row into wider pages
+        private void widen(int newStride) {
+            for (int p = 0; p < pages.length; p++) {
+                pages[p] = widen(pages[p], newStride);
+                if (sequencePages[p] != null) sequencePages[p] = widen(sequencePages[p], newStride);
+            }
+            stride = newStride;
+        }
+
+        private int[] widen(int[] page, int newStride) {
+            int[] wide = new int[PAGE_STUDENTS * newStride];
+            for (int r = 0; r < PAGE_STUDENTS; r++) {
+                System.arraycopy(page, r * stride, wide, r * newStride, stride);
+            }
+            return wide;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.votingsystem.voting.service;
+
+import com.example.votingsystem.common.LatencyHistogram;
+import com.example.votingsystem.voting.events.BallotCastEvent;
+import com.example.votingsystem.voting.events.VoteCastEvent;
+import com.example.votingsystem.voting.events.VoteEventListener;
+import com.example.votingsystem.voting.events.VoteResetEvent;
+import com.example.votingsystem.voting.events.VoteSequence;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers vote events to every {@link VoteEventListener} after the vote transaction commits,
+ * on worker threads instead of the request thread. Each worker owns a bounded queue and a
+ * category always maps to the same worker. Events are delivered in {@link VoteSequence} order,
+ * not in the order after-commit callbacks happen to run: two transactions can commit in one
+ * order and reach the dispatcher in the other, so an event is held back until every earlier
+ * event of its worker's categories has committed (or rolled back).
+ * A failing listener is logged and skipped; it can no longer roll a vote back.
+ */
+@Service
+public class VoteEventDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(VoteEventDispatcher.class);
+
+    private final List<VoteEventListener> listeners;
+    private final int workerCount;
+    private final int bufferSize;
+
+    private final Map<String, LatencyHistogram> latency = new LinkedHashMap<>();
+    private final Map<String, Counter> failures = new LinkedHashMap<>();
+    private final Map<String, Timer> timers = new LinkedHashMap<>();   // votes.listener{listener=...}
+    private final Timer enqueueTimer;                                  // time the committing thread waits for a slot
+    private final AtomicLong pending = new AtomicLong();
+
+    private final List<Worker> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    // A queued event and its place in the commit order
+    private record Item(long sequence, Object event) {}
+
+    /**
+     * One delivery thread and its categories' events, ordered by sequence. {@code committing} holds
+     * the sequences of events published by transactions that have not finished yet; an event is
+     * only delivered once no earlier one of these categories can still arrive. Guarded by the monitor.
+     */
+    private static final class Worker {
+        final PriorityQueue<Item> queue = new PriorityQueue<>(Comparator.comparingLong(Item::sequence));
+        final TreeSet<Long> committing = new TreeSet<>();
+        long waitingFor;   // sequence of the head held back for an earlier event, 0 when not waiting
+        Thread thread;
+    }
+
+    public VoteEventDispatcher(
+            List<VoteEventListener> listeners,      // sorted by @Order
+            @Value("${app.voting.events.workers:4}") int workerCount,
+            @Value("${app.voting.events.buffer-size:4096}") int bufferSize,
+            MeterRegistry meters
+    ) {
+        this.listeners = List.copyOf(listeners);
+        this.workerCount = Math.max(1, workerCount);
+        this.bufferSize = Math.max(1, bufferSize);
+        for (VoteEventListener l : this.listeners) {
+            String name = nameOf(l);
+            latency.put(name, new LatencyHistogram());
+            timers.put(name, Timer.builder("votes.listener")
+                    .description("Vote event handling time per listener")
+                    .tag("listener", name)
+                    .register(meters));
+            failures.put(name, Counter.builder("votes.listener.failures")
+                    .tag("listener", name)
+                    .register(meters));
+        }
+        this.enqueueTimer = Timer.builder("votes.events.enqueue")
+                .description("After-commit hand-off of a vote event (includes back-pressure waits)")
+                .register(meters);
+        Gauge.builder("votes.events.pending", pending, AtomicLong::get).register(meters);
+    }
+
+    private static String nameOf(VoteEventListener l) {
+        return AopUtils.getTargetClass(l).getSimpleName();
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            Worker w = new Worker();
+            w.thread = new Thread(() -> runWorker(w), "vote-events-" + i);
+            w.thread.setDaemon(true);
+            workers.add(w);
+            w.thread.start();
+        }
+        log.info("[VoteEvents] {} workers, buffer {} each, listeners={}", workerCount, bufferSize, latency.keySet());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        awaitIdle(Duration.ofSeconds(5));
+        running = false;
+        for (Worker w : workers) w.thread.interrupt();
+        for (Worker w : workers) w.thread.join(1_000);
+    }
+
+    // ---- intake: registered when published (inside the vote transaction), queued after commit ----
+
+    @EventListener
+    public void onVoteCast(VoteCastEvent e) { accept(List.of(e)); }
+
+    @EventListener
+    public void onVoteReset(VoteResetEvent e) { accept(List.of(e)); }
+
+    // A ballot is split per category so each vote keeps its category's ordering
+    @EventListener
+    public void onBallotCast(BallotCastEvent e) { accept(e.getVotes()); }
+
+    private void accept(List<?> events) {
+        if (!running || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            for (Object e : events) enqueue(e);   // published outside a transaction: nothing left to commit
+            return;
+        }
+        for (Object e : events) {
+            Worker w = workerOf(e);
+            synchronized (w) { w.committing.add(sequenceOf(e)); }
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                for (Object e : events) {
+                    if (status == STATUS_COMMITTED) enqueue(e);
+                    else forget(e);   // rolled back: nothing to deliver, stop holding later events for it
+                }
+            }
+        });
+    }
+
+    private Worker workerOf(Object event) {
+        Long categoryId = event instanceof VoteCastEvent c ? c.getCategoryId() : ((VoteResetEvent) event).getCategoryId();
+        return workers.get((int) Math.floorMod(categoryId == null ? 0L : categoryId, (long) workerCount));
+    }
+
+    private static long sequenceOf(Object event) {
+        return event instanceof VoteCastEvent c ? c.getSequence() : ((VoteResetEvent) event).getSequence();
+    }
+
+    private void enqueue(Object event) {
+        if (!running) { deliver(event); return; }
+        Worker w = workerOf(event);
+        long sequence = sequenceOf(event);
+        pending.incrementAndGet();
+        long t0 = System.nanoTime();
+        synchronized (w) {
+            try {
+                // full buffer: the committing thread waits (back-pressure), unless the worker is waiting for this event
+                while (running && w.queue.size() >= bufferSize && !(sequence < w.waitingFor)) w.wait(100);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();   // queue it anyway: dropping it would lose the vote's effects
+            }
+            w.queue.add(new Item(sequence, event));
+            w.committing.remove(sequence);
+            w.notifyAll();
+        }
+        enqueueTimer.record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+    }
+
+    private void forget(Object event) {
+        Worker w = workerOf(event);
+        synchronized (w) {
+            w.committing.remove(sequenceOf(event));
+            w.notifyAll();
+        }
+    }
+
+    private void runWorker(Worker w) {
+        while (running) {
+            Item next;
+            synchronized (w) {
+                next = w.queue.peek();
+                // hold the head back while an earlier event of these categories is still committing
+                if (next == null || (!w.committing.isEmpty() && w.committing.first() < next.sequence())) {
+                    w.waitingFor = next == null ? 0 : next.sequence();
+                    if (next != null) w.notifyAll();   // the event we wait for may be blocked on a full buffer
+                    try {
+                        w.wait(200);
+                    } catch (InterruptedException e) {
+                        break;
+                    }
+                    continue;
+                }
+                w.queue.poll();
+                w.waitingFor = 0;
+                w.notifyAll();   // room for a producer waiting on a full buffer
+            }
+            try {
+                deliver(next.event());
+            } finally {
+                pending.decrementAndGet();
+            }
+        }
+    }
+
+    private void deliver(Object event) {
+        for (VoteEventListener l : listeners) {
+            String name = nameOf(l);
+            long t0 = System.nanoTime();
+            try {
+                if (event instanceof VoteCastEvent c) l.onVoteCast(c);
+                else if (event instanceof VoteResetEvent r) l.onVoteReset(r);
+            } catch (RuntimeException ex) {
+                failures.get(name).increment();
+                log.warn("[VoteEvents] {} failed on {}: {}", name, event.getClass().getSimpleName(), ex.toString());
+            } finally {
+                long nanos = System.nanoTime() - t0;
+                latency.get(name).record(nanos);
+                timers.get(name).record(nanos, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    // ---- monitoring ----
+
+    /** Wait until every queued event has been delivered (tests, shutdown). */
+    public boolean awaitIdle(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (pending.get() > 0) {
+            if (System.nanoTime() > deadline) return false;
+            Thread.sleep(5);
+        }
+        return true;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> perListener = new LinkedHashMap<>();
+        latency.forEach((name, h) -> {
+            Map<String, Object> m = new LinkedHashMap<>(h.summary());
+            m.put("failures", (long) failures.get(name).count());
+            perListener.put(name, m);
+        });
+        List<Integer> depths = new ArrayList<>();
+        for (Worker w : workers) {
+            synchronized (w) { depths.add(w.queue.size()); }
+        }
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("workers", workerCount);
+        out.put("bufferSize", bufferSize);
+        out.put("pending", pending.get());
+        out.put("queueDepths", depths);
+        out.put("listeners", perListener);
+        return out;
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.votingsystem.voting.service;
+
+import com.example.votingsystem.admin.itc.DatabaseRestoredEvent;
+import com.example.votingsystem.voting.checkpoint.VoteCheckpointService;
+import com.example.votingsystem.voting.repository.VoteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live vote counts per (categoryId, nomineeId), kept in memory so read endpoints don't
+ * have to COUNT(*) the votes table. Loaded once at startup, then moved by vote events
+ * (see VoteTallyListener) and checked against the DB by a periodic reconciliation job.
+ */
+@Service
+public class VoteTallyEngine implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(VoteTallyEngine.class);
+
+    private final VoteRepository votes;
+    private final VoteCheckpointService checkpoints;   // null: always load with GROUP BY
+
+    // categoryId -> (nomineeId -> votes)
+    private final ConcurrentHashMap<Long, ConcurrentHashMap<Long, LongAdder>> cells = new ConcurrentHashMap<>();
+    // categoryId -> votes in the category (sum of its cells)
+    private final ConcurrentHashMap<Long, LongAdder> categoryTotals = new ConcurrentHashMap<>();
+    private final LongAdder total = new LongAdder();
+
+    // drift seen by the previous reconciliation, repaired only if it is still the same next time
+    private Map<Cell, Long> pendingDrift = Map.of();
+    private volatile ReconcileReport lastReport;
+
+    private record Cell(long categoryId, long nomineeId) {}
+
+    /** Outcome of the last reconciliation run. */
+    public record ReconcileReport(Instant checkedAt, int cellsChecked, int driftedCells,
+                                  long absoluteDrift, int repairedCells) {}
+
+    public VoteTallyEngine(VoteRepository votes) {
+        this(votes, null);
+    }
+
+    @Autowired
+    public VoteTallyEngine(VoteRepository votes, VoteCheckpointService checkpoints) {
+        this.votes = votes;
+        this.checkpoints = checkpoints;
+    }
+
+    // Runs after all singletons exist but before the web server accepts requests
+    @Override
+    public void afterSingletonsInstantiated() {
+        long t0 = System.nanoTime();
+        if (checkpoints != null && checkpoints.isEnabled()) {
+            checkpoints.restore().forEach((id, event, category, nominee, student, gender, minute) -> add(category, nominee, 1));
+        } else {
+            for (Object[] r : votes.countsByCategoryAndNominee()) {
+                add((Long) r[0], (Long) r[1], ((Number) r[2]).longValue());
+            }
+        }
+        log.info("[Tally] loaded {} votes in {} categories ({} ms)",
+                total.sum(), cells.size(), (System.nanoTime() - t0) / 1_000_000);
+    }
+
+    // Every table was replaced (ITC restore): count again from scratch
+    @EventListener(DatabaseRestoredEvent.class)
+    public synchronized void onDatabaseRestored() {
+        cells.clear();
+        categoryTotals.clear();
+        total.reset();
+        pendingDrift = Map.of();
+        afterSingletonsInstantiated();
+    }
+
+    // ---- writes (called after commit) ----
+
+    public void onCast(Long categoryId, Long nomineeId, Long previousNomineeId, boolean update) {
+        if (!update) {
+            add(categoryId, nomineeId, 1);
+        } else if (previousNomineeId != null && !previousNomineeId.equals(nomineeId)) {
+            // vote moved: same category total, one nominee loses what the other gains
+            cell(categoryId, previousNomineeId).decrement();
+            cell(categoryId, nomineeId).increment();
+        }
+    }
+
+    public void onReset(Long categoryId, Long nomineeId) {
+        if (nomineeId == null) return;    // nothing was deleted
+        add(categoryId, nomineeId, -1);
+    }
+
+    private void add(Long categoryId, Long nomineeId, long delta) {
+        cell(categoryId, nomineeId).add(delta);
+        categoryTotals.computeIfAbsent(categoryId, k -> new LongAdder()).add(delta);
+        total.add(delta);
+    }
+
+    private LongAdder cell(Long categoryId, Long nomineeId) {
+        return cells.computeIfAbsent(categoryId, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(nomineeId, k -> new LongAdder());
+    }
+
+    // ---- reads ----
+
+    public long count(Long categoryId, Long nomineeId) {
+        var byNominee = cells.get(categoryId);
+        if (byNominee == null) return 0L;
+        var a = byNominee.get(nomineeId);
+        return a == null ? 0L : a.sum();
+    }
+
+    public long categoryTotal(Long categoryId) {
+        var a = categoryTotals.get(categoryId);
+        return a == null ? 0L : a.sum();
+    }
+
+    public long total() { return total.sum(); }
+
+    public ReconcileReport lastReconcile() { return lastReport; }
+
+    // ---- reconciliation ----
+
+    /**
+     * Compare every cell with a fresh GROUP BY and log any drift. A cell is corrected only when the
+     * same drift shows up on two runs in a row, so votes committed during the scan are not "fixed".
+     */
+    @Scheduled(initialDelayString = "${app.voting.tally.reconcile-interval-ms:300000}",
+               fixedDelayString = "${app.voting.tally.reconcile-interval-ms:300000}")
+    public synchronized ReconcileReport reconcile() {
+        Map<Cell, Long> db = new HashMap<>();
+        for (Object[] r : votes.countsByCategoryAndNominee()) {
+            db.put(new Cell((Long) r[0], (Long) r[1]), ((Number) r[2]).longValue());
+        }
+
+        Set<Cell> all = new HashSet<>(db.keySet());
+        cells.forEach((cid, byNominee) -> byNominee.keySet().forEach(nid -> all.add(new Cell(cid, nid))));
+
+        Map<Cell, Long> drift = new HashMap<>();
+        long absDrift = 0;
+        int repaired = 0;
+        for (Cell c : all) {
+            long diff = db.getOrDefault(c, 0L) - count(c.categoryId(), c.nomineeId());
+            if (diff == 0) continue;
+            drift.put(c, diff);
+            absDrift += Math.abs(diff);
+            if (Objects.equals(pendingDrift.get(c), diff)) {
+                add(c.categoryId(), c.nomineeId(), diff);
+                drift.remove(c);
+                repaired++;
+            }
+        }
+        pendingDrift = drift;
+
+        var report = new ReconcileReport(Instant.now(), all.size(), drift.size() + repaired, absDrift, repaired);
+        lastReport = report;
+        if (report.driftedCells() > 0) {
+            log.warn("[Tally] reconciliation found drift: cells={}, absDrift={}, repaired={}",
+                    report.driftedCells(), absDrift, repaired);
+        } else {
+            log.debug("[Tally] reconciliation ok: {} cells", all.size());
+        }
+        return report;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.votingsystem.voting.service;
+
+import com.example.votingsystem.admin.itc.DatabaseRestoredEvent;
+import com.example.votingsystem.common.LongLongMap;
+import com.example.votingsystem.nominee.events.CatalogChangedEvent;
+import com.example.votingsystem.nominee.repository.CategoryRepository;
+import com.example.votingsystem.nominee.repository.NomineeRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of the event -> category -> nominee topology as primitive long maps
+ * (nomineeId -> categoryId, categoryId -> eventId), so vote validation needs no SQL.
+ * Maps are copy-on-write: lookups read a published map without locking. Entries are
+ * dropped after NomineeService/CategoryService/EventService commit a change.
+ */
+@Component
+public class VoteTopologyCache implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(VoteTopologyCache.class);
+
+    private final NomineeRepository nominees;
+    private final CategoryRepository categories;
+
+    private volatile LongLongMap nomineeToCategory = new LongLongMap();
+    private volatile LongLongMap categoryToEvent = new LongLongMap();
+    // bumped on every invalidation so a slow DB load can't re-insert what was just dropped
+    private long generation;
+
+    public VoteTopologyCache(NomineeRepository nominees, CategoryRepository categories) {
+        this.nominees = nominees;
+        this.categories = categories;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        var noms = nominees.findAllCategoryIds();
+        var cats = categories.findAllEventIds();
+        var n2c = new LongLongMap(noms.size());
+        for (Object[] r : noms) n2c.put((Long) r[0], (Long) r[1]);
+        var c2e = new LongLongMap(cats.size());
+        for (Object[] r : cats) c2e.put((Long) r[0], (Long) r[1]);
+        synchronized (this) {
+            nomineeToCategory = n2c;
+            categoryToEvent = c2e;
+        }
+        log.info("[Topology] cached {} nominees, {} categories", n2c.size(), c2e.size());
+    }
+
+    // Every table was replaced (ITC restore)
+    @EventListener(DatabaseRestoredEvent.class)
+    public void onDatabaseRestored() {
+        synchronized (this) { generation++; }
+        afterSingletonsInstantiated();
+    }
+
+    /** Category of the nominee; EntityNotFoundException if there is no such nominee. */
+    public long categoryOf(Long nomineeId) {
+        return lookup(nomineeId, "nomineeId", true, nominees::findCategoryIdById, "Nominee not found");
+    }
+
+    /** Event of the category; EntityNotFoundException if there is no such category. */
+    public long eventOf(Long categoryId) {
+        return lookup(categoryId, "categoryId", false, categories::findEventIdById, "Category not found");
+    }
+
+    private long lookup(Long id, String name, boolean nomineeMap,
+                        Function<Long, Optional<Long>> loader, String notFound) {
+        if (id == null) throw new IllegalArgumentException(name + " is required");
+        long v = (nomineeMap ? nomineeToCategory : categoryToEvent).get(id);
+        if (v != LongLongMap.MISSING) return v;
+
+        long gen;
+        synchronized (this) { gen = generation; }
+        long loaded = loader.apply(id).orElseThrow(() -> new EntityNotFoundException(notFound));
+        synchronized (this) {
+            if (gen == generation) {
+                if (nomineeMap) nomineeToCategory = with(nomineeToCategory, id, loaded);
+                else categoryToEvent = with(categoryToEvent, id, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    private static LongLongMap with(LongLongMap map, long key, long value) {
+        LongLongMap next = map.copy();
+        next.put(key, value);
+        return next;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onCatalogChanged(CatalogChangedEvent e) {
+        generation++;
+        long id = e.getId();
+        switch (e.getKind()) {
+            case NOMINEE -> {
+                var next = nomineeToCategory.copy();
+                next.remove(id);
+                nomineeToCategory = next;
+            }
+            case CATEGORY -> {
+                var c2e = categoryToEvent.copy();
+                c2e.remove(id);
+                var n2c = nomineeToCategory.copy();
+                n2c.removeValue(id);          // its nominees may have moved or gone
+                categoryToEvent = c2e;
+                nomineeToCategory = n2c;
+            }
+            case EVENT -> {
+                var next = categoryToEvent.copy();
+                next.removeValue(id);
+                categoryToEvent = next;
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.votingsystem.voting.service;
+
+import com.example.votingsystem.common.ServiceBusyException;
+import com.example.votingsystem.voting.dto.VoteCommand;
+import com.example.votingsystem.voting.events.VoteCastEvent;
+import com.example.votingsystem.voting.repository.VoteBatchRepository;
+import com.example.votingsystem.voting.repository.VoteBatchRepository.Upsert;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Optional write-behind ingestion for votes (app.voting.write-behind.enabled=true).
+ * Validated votes go on a bounded queue; one writer thread flushes them to the DB in
+ * JDBC batches every flush-interval-ms or batch-size votes, whichever comes first.
+ * The caller is only acknowledged after the batch transaction has committed; a failing batch is
+ * retried in halves, so one bad vote does not fail the others.
+ */
+@Service
+public class VoteWriteBehindQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(VoteWriteBehindQueue.class);
+
+    private final VoteBatchRepository batches;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher publisher;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long offerTimeoutMs;
+    private final long ackTimeoutMs;
+    private final BlockingQueue<Pending> queue;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    // One queued vote + the future the request thread waits on
+    private record Pending(VoteCommand command, CompletableFuture<Upsert> done) {}
+
+    public VoteWriteBehindQueue(
+            VoteBatchRepository batches,
+            PlatformTransactionManager txManager,
+            ApplicationEventPublisher publisher,
+            @Value("${app.voting.write-behind.enabled:false}") boolean enabled,
+            @Value("${app.voting.write-behind.capacity:10000}") int capacity,
+            @Value("${app.voting.write-behind.batch-size:500}") int batchSize,
+            @Value("${app.voting.write-behind.flush-interval-ms:20}") long flushIntervalMs,
+            @Value("${app.voting.write-behind.offer-timeout-ms:200}") long offerTimeoutMs,
+            @Value("${app.voting.write-behind.ack-timeout-ms:10000}") long ackTimeoutMs
+    ) {
+        this.batches = batches;
+        this.tx = new TransactionTemplate(txManager);
+        this.publisher = publisher;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalMs = Math.max(1, flushIntervalMs);
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.ackTimeoutMs = ackTimeoutMs;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    public int depth() { return queue.size(); }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) return;
+        running = true;
+        writer = new Thread(this::runWriter, "vote-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("[WriteBehind] started: capacity={}, batchSize={}, flushIntervalMs={}",
+                queue.remainingCapacity(), batchSize, flushIntervalMs);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (writer == null) return;
+        running = false;           // writer drains what is left, then exits
+        writer.join(ackTimeoutMs);
+    }
+
+    /**
+     * Queue a validated vote and block until it is durable.
+     * Back-pressure: if the queue stays full for offer-timeout-ms the vote is rejected with 503.
+     */
+    public Upsert submitAndAwait(VoteCommand command) {
+        if (!running) throw new IllegalStateException("Write-behind ingestion is not running");
+
+        var pending = new Pending(command, new CompletableFuture<>());
+        try {
+            if (!queue.offer(pending, offerTimeoutMs, TimeUnit.MILLISECONDS))
+                throw new ServiceBusyException("Too many votes in flight, please retry", 1);
+            return pending.done().get(ackTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Vote interrupted, please retry", 1);
+        } catch (TimeoutException e) {
+            // still safe to retry: the write is an upsert on (student, category)
+            throw new ServiceBusyException("Vote not confirmed in time, please retry", 1);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    // ---- writer thread ----
+
+    private void runWriter() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+
+                // keep collecting until the batch is full or the flush interval is over
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    long left = deadline - System.nanoTime();
+                    if (left <= 0) break;
+                    Pending next = queue.poll(left, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("[WriteBehind] writer loop error", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Pending> batch) {
+        List<Pending> stored = new ArrayList<>(batch.size());
+        List<Upsert> results = new ArrayList<>(batch.size());
+        write(batch, stored, results);
+
+        for (int i = 0; i < stored.size(); i++) stored.get(i).done().complete(results.get(i));
+        log.debug("[WriteBehind] flushed {} votes", stored.size());
+    }
+
+    // One transaction per batch; if it fails, split it in halves so only the offending vote is rejected
+    private void write(List<Pending> batch, List<Pending> stored, List<Upsert> results) {
+        List<VoteCommand> commands = new ArrayList<>(batch.size());
+        for (Pending p : batch) commands.add(p.command());
+        try {
+            results.addAll(tx.execute(status -> {
+                List<Upsert> written = batches.upsertAll(commands);
+                publish(written);
+                return written;
+            }));
+            stored.addAll(batch);
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                log.warn("[WriteBehind] vote {} failed: {}", commands.get(0), e.getMessage());
+                batch.get(0).done().completeExceptionally(e);
+                return;
+            }
+            log.warn("[WriteBehind] batch of {} failed, retrying in halves: {}", batch.size(), e.getMessage());
+            int mid = batch.size() / 2;
+            write(batch.subList(0, mid), stored, results);
+            write(batch.subList(mid, batch.size()), stored, results);
+        }
+    }
+
+    // Inside the batch transaction, while the rows are locked, so events are numbered in commit order;
+    // observers run after commit. One event per (student, category).
+    private void publish(List<Upsert> written) {
+        Set<VoteCommand> published = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Upsert u : written) {
+            if (!published.add(u.command())) continue;
+            VoteCommand c = u.command();
+            try {
+                publisher.publishEvent(new VoteCastEvent(
+                        c.eventId(), c.categoryId(), c.nomineeId(), c.studentId(), u.update(), u.voteId(),
+                        u.previousNomineeId()));
+            } catch (RuntimeException e) {
+                // a failing observer must not roll the batch back
+                log.warn("[WriteBehind] listener failed for voteId={}: {}", u.voteId(), e.getMessage());
+            }
+        }
+    }
+}
@@ -1,23 +1,31 @@
 package com.example.votingsystem.voting.service;
 
 import com.example.votingsystem.voting.dto.*;
-import com.example.votingsystem.voting.entity.Vote;
+import com.example.votingsystem.voting.dto.BallotResult.CategoryOutcome;
+import com.example.votingsystem.voting.dto.BallotResult.Status;
+import com.example.votingsystem.voting.repository.VoteBatchRepository;
+import com.example.votingsystem.voting.repository.VoteBatchRepository.Upsert;
 import com.example.votingsystem.voting.repository.VoteRepository;
+import com.example.votingsystem.voting.repository.VoteUpsertRepository.Removed;
 import com.example.votingsystem.nominee.repository.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import org.springframework.context.ApplicationEventPublisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.example.votingsystem.voting.events.BallotCastEvent;
 import com.example.votingsystem.voting.events.VoteCastEvent;
 import com.example.votingsystem.voting.events.VoteResetEvent;
 
 import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class VotingService {
@@ -27,141 +35,181 @@ public class VotingService {
     private final VoteRepository votes;
     private final EventRepository events;
     private final CategoryRepository categories;
-    private final NomineeRepository nominees;
-    private final com.example.votingsystem.student.repo.StudentRepository students;
     private final ApplicationEventPublisher publisher;
+    private final VoteTallyEngine tallies;
+    private final VotingWindowResolver windows;
+    private final VoteTopologyCache topology;
+    private final VoteBatchRepository batches;
+    private final BallotStateStore ballots;
 
-    private static final ZoneId APP_ZONE = ZoneId.of("Asia/Colombo");
+    // castOrUpdateVote latency by stage (votes.cast{stage=validate|db|publish})
+    private final Timer validateTimer;
+    private final Timer dbTimer;
+    private final Timer publishTimer;
 
     public VotingService(
             VoteRepository votes,
             EventRepository events,
             CategoryRepository categories,
-            NomineeRepository nominees,
-            com.example.votingsystem.student.repo.StudentRepository students,
-            ApplicationEventPublisher publisher
+            ApplicationEventPublisher publisher,
+            VoteTallyEngine tallies,
+            VotingWindowResolver windows,
+            VoteTopologyCache topology,
+            VoteBatchRepository batches,
+            BallotStateStore ballots,
+            MeterRegistry meters
     ) {
         this.votes = votes;
         this.events = events;
         this.categories = categories;
-        this.nominees = nominees;
-        this.students = students;
         this.publisher = publisher;
+        this.tallies = tallies;
+        this.windows = windows;
+        this.topology = topology;
+        this.batches = batches;
+        this.ballots = ballots;
+        this.validateTimer = stageTimer(meters, "validate");
+        this.dbTimer = stageTimer(meters, "db");
+        this.publishTimer = stageTimer(meters, "publish");
     }
 
-    private static LocalDateTime coerceInclusiveEnd(LocalDateTime end) {
-        if (end == null) return null;
-        if (end.toLocalTime().equals(LocalTime.MIDNIGHT)) {
-            return end.with(LocalTime.of(23, 59, 59, 999_000_000));
-        }
-        return end;
+    private static Timer stageTimer(MeterRegistry meters, String stage) {
+        return Timer.builder("votes.cast")
+                .description("castOrUpdateVote time per stage (db includes the commit)")
+                .tag("stage", stage)
+                .register(meters);
     }
 
-    @Transactional
-    public void castOrUpdateVote(Long studentId, VoteRequest req) {
-        var event    = events.findById(req.eventId()).orElseThrow(() -> new EntityNotFoundException("Event not found"));
-        var category = categories.findById(req.categoryId()).orElseThrow(() -> new EntityNotFoundException("Category not found"));
-        var nominee  = nominees.findById(req.nomineeId()).orElseThrow(() -> new EntityNotFoundException("Nominee not found"));
-        var student  = students.findById(studentId).orElseThrow(() -> new EntityNotFoundException("Student not found"));
+    // Runs after the surrounding transaction commits, or right away without one
+    private static void afterCommit(Runnable r) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) { r.run(); return; }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override public void afterCommit() { r.run(); }
+        });
+    }
 
-        if (!Objects.equals(category.getEvent().getId(), event.getId()))
+    // Membership checks (from the topology cache, no SQL) and voting-window check shared by every vote write path
+    private VoteCommand resolve(Long studentId, VoteRequest req) {
+        long eventId    = topology.eventOf(req.categoryId());
+        long categoryId = req.categoryId();
+        long nomineeCat = topology.categoryOf(req.nomineeId());
+
+        if (req.eventId() == null || eventId != req.eventId()) {
+            if (req.eventId() == null || !events.existsById(req.eventId()))
+                throw new EntityNotFoundException("Event not found");
             throw new IllegalArgumentException("Category not in event");
-        if (!Objects.equals(nominee.getCategory().getId(), category.getId()))
+        }
+        if (nomineeCat != categoryId)
             throw new IllegalArgumentException("Nominee not in category");
 
-        // ---- Effective voting window (inclusive) --------------------------------
-        LocalDateTime now = LocalDateTime.now(APP_ZONE);
-
-        LocalDateTime effStart = event.getStartAt();
-        LocalDateTime effEnd   = coerceInclusiveEnd(event.getEndAt());
-
-        LocalDateTime catStart = category.getVotingStart();
-        LocalDateTime catEnd   = coerceInclusiveEnd(category.getVotingEnd());
+        windows.requireOpen(categoryId);
 
-        boolean categoryHasCompleteWindow = (catStart != null && catEnd != null && !catEnd.isBefore(catStart));
-        if (categoryHasCompleteWindow) {
-            boolean eventStillOpen = (effEnd == null) || now.isBefore(effEnd) || now.isEqual(effEnd);
-            if (!(catEnd.isBefore(now) && eventStillOpen)) {
-                effStart = catStart;
-                effEnd   = catEnd;
-            }
-        }
-
-        System.out.printf("[VOTE WINDOW] now=%s  start=%s  end=%s  (eventId=%d, categoryId=%d)%n",
-                now, effStart, effEnd, event.getId(), category.getId());
+        // the student id comes from the authenticated principal, which was loaded by the JWT filter
+        return new VoteCommand(studentId, eventId, categoryId, req.nomineeId());
+    }
 
-        if (effStart != null && now.isBefore(effStart)) throw new IllegalStateException("Voting not started");
-        if (effEnd != null && now.isAfter(effEnd))     throw new IllegalStateException("Voting closed");
-        // -------------------------------------------------------------------------
+    // Validate only (no write); used by the write-behind ingestion path
+    @Transactional(readOnly = true)
+    public VoteCommand validateVote(Long studentId, VoteRequest req) {
+        return resolve(studentId, req);
+    }
 
-        boolean updated = false;
-        Long voteId;
-
-        var existing = votes.findByStudent_IdAndCategory_Id(student.getId(), category.getId());
-        if (existing.isPresent()) {
-            existing.get().setNominee(nominee);
-            updated = true;
-            voteId = existing.get().getId();
-        } else {
-            var v = new Vote();
-            v.setStudent(student);
-            v.setCategory(category);
-            v.setNominee(nominee);
-            votes.save(v);
-            voteId = v.getId();
-        }
+    @Transactional
+    public void castOrUpdateVote(Long studentId, VoteRequest req) {
+        long t0 = System.nanoTime();
+        var cmd = resolve(studentId, req);
+        long t1 = System.nanoTime();
+        validateTimer.record(t1 - t0, TimeUnit.NANOSECONDS);
+        afterCommit(() -> dbTimer.record(System.nanoTime() - t1, TimeUnit.NANOSECONDS));
+
+        // one statement: insert, or move the existing vote and report the nominee it replaced
+        var row = votes.upsert(cmd.studentId(), cmd.categoryId(), cmd.nomineeId());
+        boolean updated = row.update();
+        Long voteId = row.voteId();
+        Long previousNomineeId = row.previousNomineeId();
 
         // ---- Publish Observer event ---------------------------------------------
+        long t2 = System.nanoTime();
         publisher.publishEvent(new VoteCastEvent(
-                event.getId(), category.getId(), nominee.getId(), studentId, updated, voteId));
+                cmd.eventId(), cmd.categoryId(), cmd.nomineeId(), studentId, updated, voteId, previousNomineeId));
+        publishTimer.record(System.nanoTime() - t2, TimeUnit.NANOSECONDS);
         log.info("[Observer] Published VoteCastEvent: eventId={}, categoryId={}, nomineeId={}, voterId={}, updated={}, voteId={}",
-                event.getId(), category.getId(), nominee.getId(), studentId, updated, voteId);
+                cmd.eventId(), cmd.categoryId(), cmd.nomineeId(), studentId, updated, voteId);
         // -------------------------------------------------------------------------
     }
 
+    /**
+     * Whole ballot in one transaction: every selection is checked against the cached topology and
+     * windows, the valid ones are written with one batched upsert and published as one BallotCastEvent.
+     * Invalid selections are reported per category instead of failing the ballot.
+     */
     @Transactional
-    public void resetMyVote(Long studentId, Long categoryId) {
-        var category = categories.findById(categoryId)
-                .orElseThrow(() -> new EntityNotFoundException("Category not found"));
-        var event = category.getEvent();
-
-        LocalDateTime now = LocalDateTime.now(APP_ZONE);
-
-        LocalDateTime effStart = event.getStartAt();
-        LocalDateTime effEnd   = coerceInclusiveEnd(event.getEndAt());
-
-        LocalDateTime catStart = category.getVotingStart();
-        LocalDateTime catEnd   = coerceInclusiveEnd(category.getVotingEnd());
-
-        boolean categoryHasCompleteWindow = (catStart != null && catEnd != null && !catEnd.isBefore(catStart));
-        if (categoryHasCompleteWindow) {
-            boolean eventStillOpen = (effEnd == null) || now.isBefore(effEnd) || now.isEqual(effEnd);
-            if (!(catEnd.isBefore(now) && eventStillOpen)) {
-                effStart = catStart;
-                effEnd   = catEnd;
-            }
+    public BallotResult castBallot(Long studentId, BallotRequest req) {
+        if (req == null || req.eventId() == null) throw new IllegalArgumentException("eventId is required");
+        if (req.selections() == null || req.selections().isEmpty()) throw new IllegalArgumentException("Ballot is empty");
+        if (!events.existsById(req.eventId())) throw new EntityNotFoundException("Event not found");
+
+        LocalDateTime now = LocalDateTime.now(VotingWindowResolver.APP_ZONE);
+        Map<Long, String> rejected = new HashMap<>();
+        List<VoteCommand> accepted = new ArrayList<>(req.selections().size());
+        req.selections().forEach((categoryId, nomineeId) -> {
+            String reason = ballotRejection(req.eventId(), categoryId, nomineeId, now);
+            if (reason != null) rejected.put(categoryId, reason);
+            else accepted.add(new VoteCommand(studentId, req.eventId(), categoryId, nomineeId));
+        });
+
+        Map<Long, Upsert> written = new HashMap<>();
+        List<VoteCastEvent> cast = new ArrayList<>(accepted.size());
+        for (Upsert u : batches.upsertAll(accepted)) {
+            VoteCommand c = u.command();
+            written.put(c.categoryId(), u);
+            cast.add(new VoteCastEvent(c.eventId(), c.categoryId(), c.nomineeId(), studentId,
+                    u.update(), u.voteId(), u.previousNomineeId()));
         }
+        if (!cast.isEmpty()) publisher.publishEvent(new BallotCastEvent(req.eventId(), studentId, cast));
+
+        // outcomes in the order the client sent them
+        List<CategoryOutcome> outcomes = new ArrayList<>(req.selections().size());
+        req.selections().forEach((categoryId, nomineeId) -> {
+            Upsert u = written.get(categoryId);
+            outcomes.add(u != null
+                    ? new CategoryOutcome(categoryId, nomineeId, u.update() ? Status.UPDATED : Status.CAST, null)
+                    : new CategoryOutcome(categoryId, nomineeId, Status.REJECTED, rejected.get(categoryId)));
+        });
+        log.debug("[Ballot] studentId={}, eventId={}, accepted={}, rejected={}",
+                studentId, req.eventId(), written.size(), rejected.size());
+        return new BallotResult(req.eventId(), written.size(), rejected.size(), outcomes);
+    }
 
-        System.out.printf("[RESET WINDOW] now=%s  start=%s  end=%s  (eventId=%d, categoryId=%d)%n",
-                now, effStart, effEnd, event.getId(), category.getId());
+    // Same rules as resolve(), as a message instead of an exception
+    private String ballotRejection(Long eventId, Long categoryId, Long nomineeId, LocalDateTime now) {
+        if (categoryId == null || nomineeId == null) return "categoryId and nomineeId are required";
+        try {
+            if (topology.eventOf(categoryId) != eventId) return "Category not in event";
+            if (topology.categoryOf(nomineeId) != categoryId) return "Nominee not in category";
+        } catch (EntityNotFoundException e) {
+            return e.getMessage();
+        }
+        return windows.window(categoryId).blockedReason(now);
+    }
 
-        if (effStart != null && now.isBefore(effStart)) throw new IllegalStateException("Voting not started");
-        if (effEnd != null && now.isAfter(effEnd))     throw new IllegalStateException("Voting closed");
+    @Transactional
+    public void resetMyVote(Long studentId, Long categoryId) {
+        var window = windows.requireOpen(categoryId);
 
-        votes.deleteByStudent_IdAndCategory_Id(studentId, categoryId);
+        // always delete (the ballot state may lag a commit, or be another node's); the statement
+        // reports which nominee/day lost the vote so live aggregates can be decremented
+        var removed = votes.remove(studentId, categoryId);
+        Long nomineeId = removed.map(Removed::nomineeId).orElse(null);
+        LocalDateTime createdAt = removed.map(Removed::createdAt).orElse(null);
 
-        publisher.publishEvent(new VoteResetEvent(categoryId, studentId));
+        publisher.publishEvent(new VoteResetEvent(window.eventId(), categoryId, nomineeId, studentId, createdAt));
         log.info("[Observer] Published VoteResetEvent: categoryId={}, voterId={}", categoryId, studentId);
     }
 
-    @Transactional(readOnly = true)
+    // Served from the in-memory ballot state (no SQL)
     public List<MyVoteView> myVotes(Long studentId) {
-        return votes.findByStudent_Id(studentId).stream()
-                .map(v -> new MyVoteView(
-                        v.getCategory().getEvent().getId(),
-                        v.getCategory().getId(),
-                        v.getNominee().getId()))
-                .toList();
+        return ballots.votesOf(studentId);
     }
 
     @Transactional(readOnly = true)
@@ -171,7 +219,7 @@ public class VotingService {
         return category.getNominees().stream()
                 .map(n -> new CategoryResultRow(
                         n.getId(), n.getName(),
-                        votes.countByCategory_IdAndNominee_Id(categoryId, n.getId())))
+                        tallies.count(categoryId, n.getId())))
                 .sorted(Comparator.comparingLong(CategoryResultRow::votes).reversed())
                 .toList();
     }
@@ -0,0 +1,126 @@
+package com.example.votingsystem.voting.service;
+
+import com.example.votingsystem.admin.itc.DatabaseRestoredEvent;
+import com.example.votingsystem.nominee.events.CatalogChangedEvent;
+import com.example.votingsystem.nominee.repository.CategoryRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Effective voting window per category, resolved once and kept as an immutable entry.
+ * The open/closed check is a map lookup plus a few comparisons; entries are dropped when
+ * EventService/CategoryService commit a change (CatalogChangedEvent).
+ */
+@Component
+public class VotingWindowResolver {
+
+    private static final Logger log = LoggerFactory.getLogger(VotingWindowResolver.class);
+
+    public static final ZoneId APP_ZONE = ZoneId.of("Asia/Colombo");
+
+    private final CategoryRepository categories;
+    private final ConcurrentHashMap<Long, Window> windows = new ConcurrentHashMap<>();
+    // bumped on every invalidation so a slow DB load can't re-insert what was just dropped
+    private long generation;
+
+    public VotingWindowResolver(CategoryRepository categories) {
+        this.categories = categories;
+    }
+
+    /** Pre-resolved window of one category (ends already made inclusive). */
+    public record Window(Long categoryId, Long eventId,
+                         LocalDateTime eventStart, LocalDateTime eventEnd,
+                         LocalDateTime categoryStart, LocalDateTime categoryEnd,
+                         boolean categoryHasCompleteWindow) {
+
+        /** Null when voting is open at {@code now}, otherwise the reason it is not. */
+        public String blockedReason(LocalDateTime now) {
+            LocalDateTime start = eventStart, end = eventEnd;
+            if (categoryHasCompleteWindow) {
+                // a finished category window falls back to the event window while the event is open
+                boolean eventStillOpen = (eventEnd == null) || !now.isAfter(eventEnd);
+                if (!(categoryEnd.isBefore(now) && eventStillOpen)) {
+                    start = categoryStart;
+                    end = categoryEnd;
+                }
+            }
+            if (start != null && now.isBefore(start)) return "Voting not started";
+            if (end != null && now.isAfter(end)) return "Voting closed";
+            return null;
+        }
+    }
+
+    // An end at exactly midnight means "through that whole day"
+    static LocalDateTime coerceInclusiveEnd(LocalDateTime end) {
+        if (end == null) return null;
+        if (end.toLocalTime().equals(LocalTime.MIDNIGHT)) {
+            return end.with(LocalTime.of(23, 59, 59, 999_000_000));
+        }
+        return end;
+    }
+
+    public Window window(Long categoryId) {
+        Window w = windows.get(categoryId);
+        if (w != null) return w;
+
+        long gen;
+        synchronized (this) { gen = generation; }
+        w = load(categoryId);
+        synchronized (this) {
+            if (gen == generation) {
+                Window prev = windows.putIfAbsent(categoryId, w);
+                if (prev != null) return prev;
+            }
+        }
+        return w;
+    }
+
+    /** The category's window if voting is open now; IllegalStateException otherwise. */
+    public Window requireOpen(Long categoryId) {
+        Window w = window(categoryId);
+        String reason = w.blockedReason(LocalDateTime.now(APP_ZONE));
+        if (reason != null) throw new IllegalStateException(reason);
+        return w;
+    }
+
+    private Window load(Long categoryId) {
+        var r = categories.findWindow(categoryId)
+                .orElseThrow(() -> new EntityNotFoundException("Category not found"));
+        LocalDateTime catStart = r.getVotingStart();
+        LocalDateTime catEnd = coerceInclusiveEnd(r.getVotingEnd());
+        boolean complete = catStart != null && catEnd != null && !catEnd.isBefore(catStart);
+        var w = new Window(r.getCategoryId(), r.getEventId(),
+                r.getEventStart(), coerceInclusiveEnd(r.getEventEnd()),
+                catStart, catEnd, complete);
+        log.debug("[VotingWindow] resolved {}", w);
+        return w;
+    }
+
+    // ---- invalidation ----
+
+    @EventListener(DatabaseRestoredEvent.class)
+    public synchronized void onDatabaseRestored() {
+        generation++;
+        windows.clear();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onCatalogChanged(CatalogChangedEvent e) {
+        generation++;
+        switch (e.getKind()) {
+            case CATEGORY -> windows.remove(e.getId());
+            case EVENT -> windows.values().removeIf(w -> w.eventId().equals(e.getId()));
+            default -> { }   // nominees don't affect windows
+        }
+    }
+}
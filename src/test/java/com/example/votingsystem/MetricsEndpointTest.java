@@ -0,0 +1,65 @@
+package com.example.votingsystem;
+
+import com.example.votingsystem.admin.domain.Role;
+import com.example.votingsystem.admin.security.JwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The Prometheus scrape needs an admin token and lists every instrumented meter
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:metrics;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class MetricsEndpointTest {
+
+    @Autowired MockMvc mvc;
+    @Autowired JwtService jwt;
+
+    @Test
+    void prometheusEndpointRequiresAnAdminToken() throws Exception {
+        mvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+        mvc.perform(get("/actuator/prometheus")
+                        .header("Authorization", "Bearer " + jwt.generate("IT001", Role.STUDENT, 3600)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void prometheusEndpointExposesApplicationMeters() throws Exception {
+        mvc.perform(get("/actuator/health")).andExpect(status().isOk());
+
+        String scrape = mvc.perform(get("/actuator/prometheus")
+                        .header("Authorization", "Bearer " + jwt.generate("admin", Role.ADMIN, 3600)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> expected = List.of(
+                "votes_cast_seconds_count{application=\"votingsystem\",stage=\"validate\"}",
+                "votes_cast_seconds_count{application=\"votingsystem\",stage=\"db\"}",
+                "votes_cast_seconds_count{application=\"votingsystem\",stage=\"publish\"}",
+                "votes_listener_seconds_count{application=\"votingsystem\",listener=\"VoteTallyListener\"}",
+                "votes_listener_failures_total",
+                "votes_events_enqueue_seconds_count",
+                "votes_events_pending",
+                "auth_jwt_parse_seconds_count{application=\"votingsystem\",result=\"valid\"}",
+                "auth_login_seconds_count{application=\"votingsystem\",outcome=\"success\"}",
+                "auth_login_failures_total",
+                "auth_login_lockouts_total",
+                "notifications_batch_size_count",
+                "notifications_send_seconds_count{application=\"votingsystem\",outcome=\"sent\"}",
+                "notifications_retries_total",
+                "exports_generate_seconds_count{application=\"votingsystem\",format=\"PDF\"}",
+                "exports_bytes_count{application=\"votingsystem\",format=\"CSV\"}");
+        for (String name : expected) {
+            assertTrue(scrape.contains(name), "missing meter " + name);
+        }
+    }
+}
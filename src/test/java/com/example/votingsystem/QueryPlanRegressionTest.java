@@ -0,0 +1,409 @@
+package com.example.votingsystem;
+
+import com.example.votingsystem.admin.auth.PasswordResetRepository;
+import com.example.votingsystem.admin.repo.UserRepository;
+import com.example.votingsystem.admin.security.LoginAttemptRepository;
+import com.example.votingsystem.common.idempotency.IdempotencyStore;
+import com.example.votingsystem.dashboard.repo.CategoryViewRepository;
+import com.example.votingsystem.dashboard.service.DashboardAggregateCache;
+import com.example.votingsystem.nominee.repository.CategoryRepository;
+import com.example.votingsystem.nominee.repository.EventRepository;
+import com.example.votingsystem.nominee.repository.NomineeRepository;
+import com.example.votingsystem.notification.model.Notification.Status;
+import com.example.votingsystem.notification.repo.NotificationRepository;
+import com.example.votingsystem.result.domain.ResultStatus;
+import com.example.votingsystem.result.repo.ResultItemRepository;
+import com.example.votingsystem.result.repo.ResultSetRepository;
+import com.example.votingsystem.student.repo.StudentRepository;
+import com.example.votingsystem.voting.checkpoint.VoteCheckpointService;
+import com.example.votingsystem.voting.repository.VoteBatchRepository;
+import com.example.votingsystem.voting.repository.VoteRepository;
+import com.example.votingsystem.voting.dto.VoteCommand;
+import com.example.votingsystem.voting.service.BallotStateStore;
+import com.example.votingsystem.voting.service.VoteTallyEngine;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Seeds a realistic volume, runs every repository / EntityManager / JdbcTemplate query and checks
+ * its H2 plan (EXPLAIN ANALYZE for selects, EXPLAIN for updates and deletes): a table scan that
+ * reads more than SCAN_LIMIT rows fails the test. Loads that read a whole table on purpose
+ * (cache warm-ups, reconciliation) and known case-insensitive lookups run through unchecked().
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-plans;DB_CLOSE_DELAY=-1",
+        "app.idempotency.store=jdbc",
+        "logging.level.com.example.votingsystem=WARN"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanRegressionTest {
+
+    private static final int SCAN_LIMIT = 1_000;
+    private static final int STUDENTS = 5_000;
+    private static final int EVENTS = 4;
+    private static final int CATEGORIES_PER_EVENT = 10;
+    private static final int NOMINEES_PER_CATEGORY = 5;
+    private static final int NOTIFICATIONS = 5_000;
+
+    private static final Pattern TABLE_SCAN =
+            Pattern.compile("/\\* PUBLIC\\.(\\w+)\\.tableScan \\*/(\\s*/\\* (direct lookup|scanCount: (\\d+)) \\*/)?");
+
+    @TestConfiguration
+    static class Recording {
+        @Bean
+        static BeanPostProcessor recordingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String name) {
+                    return bean instanceof DataSource ds ? Recorder.wrap(ds) : bean;
+                }
+            };
+        }
+    }
+
+    @Autowired JdbcTemplate jdbc;
+    @Autowired DataSource dataSource;
+    @Autowired PlatformTransactionManager txManager;
+    @Autowired VoteRepository votes;
+    @Autowired VoteBatchRepository voteBatches;
+    @Autowired EventRepository events;
+    @Autowired CategoryRepository categories;
+    @Autowired NomineeRepository nominees;
+    @Autowired StudentRepository students;
+    @Autowired UserRepository users;
+    @Autowired LoginAttemptRepository loginAttempts;
+    @Autowired PasswordResetRepository passwordResets;
+    @Autowired NotificationRepository notifications;
+    @Autowired CategoryViewRepository categoryViews;
+    @Autowired ResultSetRepository resultSets;
+    @Autowired ResultItemRepository resultItems;
+    @Autowired VoteTallyEngine tallies;
+    @Autowired DashboardAggregateCache dashboard;
+    @Autowired BallotStateStore ballots;
+    @Autowired VoteCheckpointService checkpoints;
+    @Autowired IdempotencyStore idempotency;
+
+    private final List<String> violations = new ArrayList<>();
+    private long eventId, categoryId, nomineeId, studentId;
+
+    @BeforeAll
+    void seed() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Long> categoryIds = new ArrayList<>();
+        List<Long> nomineeIds = new ArrayList<>();
+        for (int e = 0; e < EVENTS; e++) {
+            jdbc.update("insert into events (name, start_at, end_at) values (?, ?, ?)", "Plan event " + e,
+                    Timestamp.valueOf(LocalDateTime.now().minusDays(1)), Timestamp.valueOf(LocalDateTime.now().plusDays(1)));
+            long event = jdbc.queryForObject("select max(id) from events", Long.class);
+            for (int c = 0; c < CATEGORIES_PER_EVENT; c++) {
+                jdbc.update("insert into categories (name, event_id, active) values (?, ?, true)",
+                        "Plan category " + e + "-" + c, event);
+                long category = jdbc.queryForObject("select max(id) from categories", Long.class);
+                categoryIds.add(category);
+                for (int n = 0; n < NOMINEES_PER_CATEGORY; n++) {
+                    jdbc.update("insert into nominees (name, category_id) values (?, ?)", "Plan nominee " + n, category);
+                    nomineeIds.add(jdbc.queryForObject("select max(id) from nominees", Long.class));
+                }
+            }
+            eventId = event;
+        }
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            rows.add(new Object[]{"P" + i, "Plan student " + i, "p" + i + "@plan.test", "n/a", i % 10 != 0, now, "FEMALE"});
+        }
+        jdbc.batchUpdate("insert into students (index_no, full_name, email, password_hash, active, created_at, gender)"
+                + " values (?, ?, ?, ?, ?, ?, ?)", rows);
+        long firstStudent = jdbc.queryForObject("select min(id) from students where index_no like 'P%'", Long.class);
+
+        // every student votes in ten categories spread over the events
+        rows.clear();
+        for (int s = 0; s < STUDENTS; s++) {
+            for (int k = 0; k < 10; k++) {
+                int c = (s + k * 4) % categoryIds.size();
+                rows.add(new Object[]{firstStudent + s, categoryIds.get(c),
+                        nomineeIds.get(c * NOMINEES_PER_CATEGORY + s % NOMINEES_PER_CATEGORY), now, now});
+            }
+        }
+        jdbc.batchUpdate("insert into votes (student_id, category_id, nominee_id, created_at, updated_at)"
+                + " values (?, ?, ?, ?, ?)", rows);
+
+        rows.clear();
+        for (int i = 0; i < NOTIFICATIONS; i++) {
+            Status status = i % 50 == 0 ? Status.PENDING : Status.SENT;
+            Timestamp scheduled = i % 3 == 0 ? Timestamp.from(Instant.now().plusSeconds(i)) : null;
+            rows.add(new Object[]{"r" + i + "@plan.test", "Subject", "Body", status.name(), now, scheduled, 0, i % 4 == 0});
+        }
+        jdbc.batchUpdate("insert into notifications (recipient, subject, body, status, created_at, scheduled_for,"
+                + " attempts, archived) values (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+
+        rows.clear();
+        for (int i = 0; i < STUDENTS; i++) rows.add(new Object[]{"P" + i, i % 5, null});
+        jdbc.batchUpdate("insert into login_attempts (username, failures, blocked_until) values (?, ?, ?)", rows);
+
+        rows.clear();
+        for (int i = 0; i < STUDENTS; i++) {
+            rows.add(new Object[]{firstStudent + i, "123456", Timestamp.from(Instant.now().plusSeconds(600)), now});
+        }
+        jdbc.batchUpdate("insert into password_reset (student_id, code, expires_at, created_at) values (?, ?, ?, ?)", rows);
+
+        rows.clear();
+        for (Long c : categoryIds) {
+            for (int i = 0; i < 30; i++) rows.add(new Object[]{c, "View " + i, 3, i % 2 == 0});
+        }
+        jdbc.batchUpdate("insert into category_view (category_id, title, topn, show_public, chart_type, metric)"
+                + " values (?, ?, ?, ?, 'BAR', 'LEADERS')", rows);
+
+        jdbc.execute("analyze");   // row counts for the optimizer
+        categoryId = categoryIds.get(categoryIds.size() - 1);
+        nomineeId = nomineeIds.get(nomineeIds.size() - 1);
+        studentId = firstStudent + STUDENTS / 2;
+    }
+
+    @Test
+    void repositoryQueriesUseIndexes() {
+        var tx = new TransactionTemplate(txManager);
+        LocalDateTime now = LocalDateTime.now();
+
+        // votes
+        check("vote by student and category", () -> votes.findByStudent_IdAndCategory_Id(studentId, categoryId));
+        check("votes of a student", () -> votes.findByStudent_Id(studentId));
+        check("count by category and nominee", () -> votes.countByCategory_IdAndNominee_Id(categoryId, nomineeId));
+        check("count by event", () -> votes.countByEvent(eventId));
+        check("category counts of an event", () -> votes.categoryVoteCounts(eventId));
+        check("nominee counts in a category", () -> votes.nomineeCountsInCategory(eventId, categoryId));
+        check("top nominees of an event", () -> votes.topNominees(eventId, PageRequest.of(0, 10)));
+        check("vote upsert", () -> tx.execute(s -> votes.upsert(studentId, categoryId, nomineeId)));
+        check("batched upsert", () -> tx.execute(s -> voteBatches.upsertAll(
+                List.of(new VoteCommand(studentId, eventId, categoryId, nomineeId)))));
+        check("delete a vote", () -> tx.executeWithoutResult(s -> votes.remove(studentId, categoryId)));
+
+        // catalog
+        check("categories of an event", () -> categories.findByEvent_Id(eventId));
+        check("event of a category", () -> categories.findEventIdById(categoryId));
+        check("voting window", () -> categories.findWindow(categoryId));
+        check("nominees of a category", () -> nominees.findByCategory_Id(categoryId));
+        check("nominees of categories", () -> nominees.findByCategory_IdIn(List.of(categoryId, categoryId - 1)));
+        check("category of a nominee", () -> nominees.findCategoryIdById(nomineeId));
+        check("event by name", () -> events.findByNameIgnoreCase("plan event 1"));
+        check("active events", () -> events.findByStartAtLessThanEqualAndEndAtGreaterThanEqual(now, now));
+        check("count active events", () -> events.countByStartAtLessThanEqualAndEndAtGreaterThanEqual(now, now));
+
+        // students and accounts
+        check("student by index", () -> students.findByIndexNo("P42"));
+        check("student by email", () -> students.findByEmail("p42@plan.test"));
+        check("index taken", () -> students.existsByIndexNo("P42"));
+        check("email taken", () -> students.existsByEmail("p42@plan.test"));
+        check("students awaiting approval", () -> students.findByActiveFalse());
+        check("user by name", () -> users.findByUsername("admin"));
+        check("login attempts of a user", () -> loginAttempts.findByUsername("P42"));
+        check("open password reset", () -> passwordResets.findTopByStudentIdAndUsedAtIsNullOrderByIdDesc(studentId));
+
+        // notifications (scheduler and admin lists)
+        check("due scheduled notifications", () -> notifications
+                .findTop100ByStatusAndScheduledForLessThanEqualOrderByScheduledForAsc(Status.PENDING, Instant.now()));
+        check("due unscheduled notifications", () -> notifications
+                .findTop100ByStatusAndScheduledForIsNullOrderByCreatedAtAsc(Status.PENDING));
+        check("active notifications", () -> notifications.findAllDesc());
+        check("archived notifications", () -> notifications.findByArchivedTrue());
+
+        // dashboard and results
+        check("public views of a category", () -> categoryViews.findByCategoryIdAndShowPublicTrueOrderByIdAsc(categoryId));
+        check("views of a category", () -> categoryViews.findByCategoryId(categoryId));
+        check("result sets of an event", () -> resultSets.findByEvent_IdOrderByCreatedAtDesc(eventId));
+        check("published result set", () -> resultSets.findTopByEvent_IdAndStatusOrderByPublishedAtDesc(eventId,
+                ResultStatus.PUBLISHED));
+        check("items of a result set", () -> resultItems.findByResultSet_IdOrderByPositionAsc(1L));
+
+        // JdbcTemplate / EntityManager queries outside repositories
+        check("checkpoint catch-up", checkpoints::checkpoint);
+        check("idempotency claim", () -> {
+            var claim = idempotency.claim("plan-key", "fp");
+            if (claim.state() == IdempotencyStore.State.NEW) idempotency.complete("plan-key", new IdempotencyStore.StoredResponse(200, "{}"));
+        });
+        check("idempotency purge", () -> idempotency.purgeExpired());
+
+        // whole-table reads by design: startup loads and reconciliation
+        unchecked("tally reconcile", tallies::reconcile);
+        unchecked("dashboard load", dashboard::afterSingletonsInstantiated);
+        unchecked("ballot store load", ballots::reload);
+        unchecked("tally load", votes::countsByCategoryAndNominee);
+        unchecked("topology load", categories::findAllEventIds);
+        unchecked("topology load", nominees::findAllCategoryIds);
+
+        // known scans: H2 cannot index upper(col); only used by sign-up checks and password reset
+        unchecked("student by email, any case", () -> students.findByEmailIgnoreCase("P42@plan.test"));
+        unchecked("student by index, any case", () -> students.findByIndexNoIgnoreCase("p42"));
+        unchecked("email taken, any case", () -> students.existsByEmailIgnoreCase("P42@plan.test"));
+        unchecked("index taken, any case", () -> students.existsByIndexNoIgnoreCase("p42"));
+
+        assertTrue(violations.isEmpty(), "Table scans over " + SCAN_LIMIT + " rows:\n" + String.join("\n", violations));
+    }
+
+    // ---- plan checks ----
+
+    private void check(String label, Runnable query) {
+        List<Recorder.Statement> run = Recorder.record(query);
+        try (Connection c = Recorder.unwrap(dataSource).getConnection()) {
+            for (Recorder.Statement st : run) {
+                String sql = st.sql().strip();
+                String verb = sql.substring(0, Math.min(6, sql.length())).toLowerCase(Locale.ROOT);
+                String explain = switch (verb) {
+                    case "select" -> "explain analyze ";
+                    case "update", "delete" -> "explain ";
+                    default -> null;   // inserts and merges: their lookups are on unique keys
+                };
+                if (explain == null) continue;
+                String plan = explain(c, explain + sql, st.params());
+                Matcher m = TABLE_SCAN.matcher(plan);
+                while (m.find()) {
+                    if ("direct lookup".equals(m.group(3))) continue;
+                    long rows = m.group(4) != null ? Long.parseLong(m.group(4)) : rowCount(c, m.group(1));
+                    if (rows > SCAN_LIMIT) {
+                        violations.add("- " + label + ": " + m.group(1) + " scanned (" + rows + " rows)\n    " + plan
+                                .replaceAll("\\s+", " "));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(label, e);
+        }
+    }
+
+    // Runs the query (it must still work) without judging its plan
+    private static void unchecked(String label, Runnable query) {
+        try {
+            query.run();
+        } catch (RuntimeException e) {
+            throw new IllegalStateException(label, e);
+        }
+    }
+
+    private static String explain(Connection c, String sql, Map<Integer, Object> params) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            for (var p : params.entrySet()) ps.setObject(p.getKey(), p.getValue());
+            try (ResultSet rs = ps.executeQuery()) {
+                StringBuilder plan = new StringBuilder();
+                while (rs.next()) plan.append(rs.getString(1)).append('\n');
+                return plan.toString();
+            }
+        }
+    }
+
+    private static long rowCount(Connection c, String table) throws SQLException {
+        try (Statement s = c.createStatement(); ResultSet rs = s.executeQuery("select count(*) from " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    /** JDBC proxies that capture the SQL and parameters the test thread runs while recording. */
+    static final class Recorder {
+        record Statement(String sql, Map<Integer, Object> params) {}
+
+        private static final ThreadLocal<List<Statement>> CAPTURE = new ThreadLocal<>();
+
+        static List<Statement> record(Runnable action) {
+            List<Statement> out = new ArrayList<>();
+            CAPTURE.set(out);
+            try {
+                action.run();
+            } finally {
+                CAPTURE.remove();
+            }
+            return out;
+        }
+
+        static DataSource wrap(DataSource target) {
+            return proxy(DataSource.class, target, (p, m, args) -> {
+                if (m.getName().equals("unwrap") && args[0] == DataSource.class) return target;
+                Object r = invoke(target, m, args);
+                return r instanceof Connection c ? connection(c) : r;
+            });
+        }
+
+        static DataSource unwrap(DataSource ds) {
+            try {
+                return ds.unwrap(DataSource.class);
+            } catch (SQLException e) {
+                return ds;
+            }
+        }
+
+        private static Connection connection(Connection target) {
+            return proxy(Connection.class, target, (p, m, args) -> {
+                Object r = invoke(target, m, args);
+                if (m.getName().startsWith("prepare") && r instanceof PreparedStatement ps) {
+                    return prepared(ps, (String) args[0]);
+                }
+                if (m.getName().equals("createStatement") && r instanceof java.sql.Statement s) return plain(s);
+                return r;
+            });
+        }
+
+        private static PreparedStatement prepared(PreparedStatement target, String sql) {
+            Map<Integer, Object> params = new TreeMap<>();
+            return proxy(PreparedStatement.class, target, (p, m, args) -> {
+                String name = m.getName();
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer i) {
+                    params.put(i, name.equals("setNull") ? null : args[1]);
+                } else if (name.equals("clearParameters")) {
+                    params.clear();
+                } else if (name.startsWith("execute") || name.equals("addBatch")) {
+                    capture(sql, params);
+                }
+                return invoke(target, m, args);
+            });
+        }
+
+        private static java.sql.Statement plain(java.sql.Statement target) {
+            return proxy(java.sql.Statement.class, target, (p, m, args) -> {
+                if (m.getName().startsWith("execute") && args != null && args[0] instanceof String sql) {
+                    capture(sql, Map.of());
+                }
+                return invoke(target, m, args);
+            });
+        }
+
+        private static void capture(String sql, Map<Integer, Object> params) {
+            List<Statement> out = CAPTURE.get();
+            if (out != null) out.add(new Statement(sql, new TreeMap<>(params)));
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+        }
+
+        private static Object invoke(Object target, java.lang.reflect.Method m, Object[] args) throws Throwable {
+            try {
+                return m.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
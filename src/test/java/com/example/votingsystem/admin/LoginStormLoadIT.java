@@ -0,0 +1,195 @@
+package com.example.votingsystem.admin;
+
+import com.example.votingsystem.admin.domain.Role;
+import com.example.votingsystem.admin.security.JwtService;
+import com.example.votingsystem.common.LatencyHistogram;
+import com.example.votingsystem.nominee.entity.Category;
+import com.example.votingsystem.nominee.entity.Event;
+import com.example.votingsystem.nominee.entity.Nominee;
+import com.example.votingsystem.nominee.repository.CategoryRepository;
+import com.example.votingsystem.nominee.repository.EventRepository;
+import com.example.votingsystem.nominee.repository.NomineeRepository;
+import com.example.votingsystem.voting.service.VotingWindowResolver;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Login storm at election opening (runs with -Ploadtest): students who are already logged in keep
+ * voting while thousands of others hit /api/auth/login at once, more of them than Tomcat has workers.
+ * Logins run on the bounded login pool, so vote latency during the storm must stay close to the
+ * quiet baseline; logins beyond the queue are shed with 503 and retried by the client.
+ * Sizing: -Dload.storm.logins, .threads, .voters
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:login-storm;DB_CLOSE_DELAY=-1",
+        "logging.level.com.example.votingsystem=WARN"
+})
+class LoginStormLoadIT {
+
+    private static final int LOGINS = Integer.getInteger("load.storm.logins", 2000);
+    // above Tomcat's 200 workers: without the login pool they would all be busy hashing
+    private static final int THREADS = Integer.getInteger("load.storm.threads", 300);
+    private static final int VOTERS = Integer.getInteger("load.storm.voters", 8);
+    private static final long WARMUP_MS = 3000;
+    private static final long BASELINE_MS = 3000;
+    private static final String PASSWORD = "Storm#2024";
+
+    @LocalServerPort int port;
+    @Autowired EventRepository events;
+    @Autowired CategoryRepository categories;
+    @Autowired NomineeRepository nominees;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired PasswordEncoder encoder;
+    @Autowired JwtService jwt;
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+
+    @Test
+    void votesStayFastDuringLoginStorm() throws Exception {
+        LocalDateTime now = LocalDateTime.now(VotingWindowResolver.APP_ZONE);
+        var event = new Event();
+        event.setName("Storm event");
+        event.setStartAt(now.minusHours(1));
+        event.setEndAt(now.plusDays(1));
+        events.save(event);
+        var cat = new Category();
+        cat.setName("Storm category");
+        cat.setEvent(event);
+        categories.save(cat);
+        long[] noms = new long[2];
+        for (int n = 0; n < noms.length; n++) {
+            var nom = new Nominee();
+            nom.setName("Storm nominee " + n);
+            nom.setCategory(cat);
+            noms[n] = nominees.save(nom).getId();
+        }
+        seedStudents(VOTERS + LOGINS);
+
+        // voters already hold tokens; they flip their vote back and forth for the whole test
+        AtomicInteger phase = new AtomicInteger();   // 0 warm-up (not recorded), 1 quiet, 2 storm
+        AtomicBoolean stop = new AtomicBoolean();
+        LatencyHistogram quiet = new LatencyHistogram();
+        LatencyHistogram stormy = new LatencyHistogram();
+        Map<String, LongAdder> voteOutcomes = new ConcurrentSkipListMap<>();
+        ExecutorService voters = Executors.newFixedThreadPool(VOTERS);
+        for (int v = 0; v < VOTERS; v++) {
+            String token = jwt.generate("STM" + v, Role.STUDENT, 3600);
+            voters.submit(() -> {
+                for (int i = 0; !stop.get(); i++) {
+                    long t0 = System.nanoTime();
+                    var res = post("/api/vote", token, "{\"eventId\":" + event.getId() + ",\"categoryId\":"
+                            + cat.getId() + ",\"nomineeId\":" + noms[i % 2] + "}");
+                    if (phase.get() > 0) (phase.get() == 2 ? stormy : quiet).record(System.nanoTime() - t0);
+                    count(voteOutcomes, res.statusCode() == 200 ? "ok" : "http-" + res.statusCode());
+                }
+                return null;
+            });
+        }
+        Thread.sleep(WARMUP_MS);
+        phase.set(1);
+        Thread.sleep(BASELINE_MS);
+
+        // the storm: every other student logs in at once; shed logins retry after Retry-After
+        Map<String, LongAdder> loginOutcomes = new ConcurrentSkipListMap<>();
+        Map<String, String> samples = new ConcurrentSkipListMap<>();   // first response body per error class
+        LatencyHistogram loginLatency = new LatencyHistogram();
+        ExecutorService clients = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch gate = new CountDownLatch(1);
+        List<Future<?>> logins = new ArrayList<>(LOGINS);
+        for (int i = VOTERS; i < VOTERS + LOGINS; i++) {
+            String idx = "STM" + i;
+            logins.add(clients.submit(() -> {
+                gate.await();
+                long t0 = System.nanoTime();
+                long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(10);
+                while (System.nanoTime() < deadline) {
+                    var res = post("/api/auth/login", null,
+                            "{\"username\":\"" + idx + "\",\"password\":\"" + PASSWORD + "\"}");
+                    if (res.statusCode() != 503) {
+                        String outcome = res.statusCode() == 200 ? "ok" : "http-" + res.statusCode();
+                        if (!outcome.equals("ok")) samples.putIfAbsent(outcome, res.body());
+                        count(loginOutcomes, outcome);
+                        break;
+                    }
+                    count(loginOutcomes, "busy");
+                    Thread.sleep(1000L * Long.parseLong(res.headers().firstValue("Retry-After").orElse("1")));
+                }
+                loginLatency.record(System.nanoTime() - t0);
+                return null;
+            }));
+        }
+        long start = System.nanoTime();
+        phase.set(2);
+        gate.countDown();
+        for (Future<?> f : logins) f.get();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        stop.set(true);
+        voters.shutdown();
+        voters.awaitTermination(30, TimeUnit.SECONDS);
+        clients.shutdown();
+
+        System.out.printf("[STORM] %d logins in %.2fs, latency(µs)=%s outcomes=%s%n",
+                LOGINS, seconds, loginLatency.summary(), sums(loginOutcomes));
+        samples.forEach((k, v) -> System.out.printf("[STORM] login sample %s: %s%n", k, v));
+        System.out.printf("[STORM] votes quiet latency(µs)=%s%n", quiet.summary());
+        System.out.printf("[STORM] votes storm latency(µs)=%s outcomes=%s%n", stormy.summary(), sums(voteOutcomes));
+
+        assertEquals(Set.of("ok"), voteOutcomes.keySet(), "votes must not fail during the storm");
+        assertEquals(LOGINS, loginOutcomes.get("ok").sum(), "every login must eventually succeed");
+        long quietP99 = quiet.percentileMicros(0.99);
+        long stormP99 = stormy.percentileMicros(0.99);
+        assertTrue(stormP99 <= Math.max(5 * quietP99, 100_000),
+                "vote p99 went from " + quietP99 + "µs to " + stormP99 + "µs during the login storm");
+    }
+
+    // Students in bulk, all sharing one BCrypt hash
+    private void seedStudents(int count) {
+        String hash = encoder.encode(PASSWORD);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now(VotingWindowResolver.APP_ZONE));
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{ "STM" + i, "Storm student " + i, "stm" + i + "@storm.test", hash, true, now, "FEMALE" });
+        }
+        jdbc.batchUpdate("insert into students (index_no, full_name, email, password_hash, active, created_at, gender)"
+                + " values (?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private static void count(Map<String, LongAdder> outcomes, String outcome) {
+        outcomes.computeIfAbsent(outcome, k -> new LongAdder()).increment();
+    }
+
+    private static Map<String, Long> sums(Map<String, LongAdder> outcomes) {
+        Map<String, Long> out = new LinkedHashMap<>();
+        outcomes.forEach((k, v) -> out.put(k, v.sum()));
+        return out;
+    }
+
+    private HttpResponse<String> post(String path, String token, String body) throws Exception {
+        var req = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(120))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) req.header("Authorization", "Bearer " + token);
+        return http.send(req.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
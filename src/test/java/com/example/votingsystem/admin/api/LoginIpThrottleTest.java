@@ -0,0 +1,81 @@
+package com.example.votingsystem.admin.api;
+
+import com.example.votingsystem.student.domain.Student;
+import com.example.votingsystem.student.repo.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+// Failures for unknown identifiers block the address for unknown identifiers only; real accounts behind it still log in
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:login-ip-throttle;DB_CLOSE_DELAY=-1",
+        "app.auth.throttle.ip-max-failures=3"
+})
+@AutoConfigureMockMvc
+class LoginIpThrottleTest {
+
+    private static final String NAT = "10.20.30.40";
+
+    @Autowired MockMvc mvc;
+    @Autowired StudentRepository students;
+    @Autowired PasswordEncoder encoder;
+
+    @Test
+    void blockedAddressStillLetsKnownAccountsIn() throws Exception {
+        for (String indexNo : new String[]{"NAT1", "NAT2"}) {
+            var s = new Student();
+            s.setIndexNo(indexNo);
+            s.setFullName("Student " + indexNo);
+            s.setEmail(indexNo.toLowerCase() + "@nat.test");
+            s.setPasswordHash(encoder.encode("Right#1"));
+            students.save(s);
+        }
+
+        // a student mistyping a password doesn't count against the shared address
+        for (int i = 0; i < 2; i++) assertEquals(401, login("NAT2", "wrong", NAT));
+
+        for (int i = 0; i < 3; i++) assertEquals(401, login("guess" + i, "wrong", NAT));
+        assertEquals(429, login("guess9", "wrong", NAT));
+        assertEquals(401, login("guess9", "wrong", "10.20.30.41"));   // other addresses unaffected
+
+        assertEquals(200, login("NAT1", "Right#1", NAT));
+        assertEquals(200, login("nat2@nat.test", "Right#1", NAT));
+    }
+
+    @Test
+    void crossOriginClientsCanReadRetryAfter() throws Exception {
+        String ip = "10.20.30.50";
+        for (int i = 0; i < 3; i++) assertEquals(401, login("probe" + i, "wrong", ip));
+
+        MockHttpServletResponse throttled = send("probe9", "wrong", ip);
+        assertEquals(429, throttled.getStatus());
+        assertNotNull(throttled.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(throttled.getHeaders(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS).stream()
+                .anyMatch(h -> h.contains(HttpHeaders.RETRY_AFTER)));
+    }
+
+    private int login(String username, String password, String ip) throws Exception {
+        return send(username, password, ip).getStatus();
+    }
+
+    private MockHttpServletResponse send(String username, String password, String ip) throws Exception {
+        MvcResult started = mvc.perform(post("/api/auth/login")
+                        .with(r -> { r.setRemoteAddr(ip); return r; })
+                        .header(HttpHeaders.ORIGIN, "http://localhost:5174")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"%s\",\"password\":\"%s\"}".formatted(username, password)))
+                .andReturn();
+        return mvc.perform(asyncDispatch(started)).andReturn().getResponse();
+    }
+}
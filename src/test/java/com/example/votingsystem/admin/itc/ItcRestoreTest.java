@@ -0,0 +1,103 @@
+package com.example.votingsystem.admin.itc;
+
+import com.example.votingsystem.admin.security.IdentityDirectory;
+import com.example.votingsystem.dashboard.service.DashboardAggregateCache;
+import com.example.votingsystem.nominee.entity.Category;
+import com.example.votingsystem.nominee.entity.Event;
+import com.example.votingsystem.nominee.entity.Nominee;
+import com.example.votingsystem.nominee.repository.CategoryRepository;
+import com.example.votingsystem.nominee.repository.EventRepository;
+import com.example.votingsystem.nominee.repository.NomineeRepository;
+import com.example.votingsystem.student.domain.Student;
+import com.example.votingsystem.student.repo.StudentRepository;
+import com.example.votingsystem.voting.dto.VoteRequest;
+import com.example.votingsystem.voting.service.BallotStateStore;
+import com.example.votingsystem.voting.service.VoteEventDispatcher;
+import com.example.votingsystem.voting.service.VoteTallyEngine;
+import com.example.votingsystem.voting.service.VoteTopologyCache;
+import com.example.votingsystem.voting.service.VotingService;
+import com.example.votingsystem.voting.service.VotingWindowResolver;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// After an ITC restore every in-memory copy describes the restored tables, not the replaced ones
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:itc-restore;DB_CLOSE_DELAY=-1")
+class ItcRestoreTest {
+
+    @Autowired ItcService itc;
+    @Autowired VotingService voting;
+    @Autowired VoteEventDispatcher dispatcher;
+    @Autowired BallotStateStore ballots;
+    @Autowired VoteTallyEngine tallies;
+    @Autowired VoteTopologyCache topology;
+    @Autowired DashboardAggregateCache dashboard;
+    @Autowired IdentityDirectory identities;
+    @Autowired EventRepository events;
+    @Autowired CategoryRepository categories;
+    @Autowired NomineeRepository nominees;
+    @Autowired StudentRepository students;
+    @Autowired JdbcTemplate jdbc;
+
+    @Test
+    void restoreRebuildsTheInMemoryState() throws Exception {
+        LocalDateTime now = LocalDateTime.now(VotingWindowResolver.APP_ZONE);
+        var event = new Event();
+        event.setName("Restore event");
+        event.setStartAt(now.minusDays(1));
+        event.setEndAt(now.plusDays(1));
+        events.save(event);
+        var cat = new Category();
+        cat.setName("Restore category");
+        cat.setEvent(event);
+        categories.save(cat);
+        var n = new Nominee();
+        n.setName("Nominee");
+        n.setCategory(cat);
+        nominees.save(n);
+        var s = new Student();
+        s.setIndexNo("ITC1");
+        s.setFullName("Restore student");
+        s.setEmail("itc1@restore.test");
+        s.setPasswordHash("n/a");
+        students.save(s);
+
+        voting.castOrUpdateVote(s.getId(), new VoteRequest(event.getId(), cat.getId(), n.getId()));
+        assertTrue(dispatcher.awaitIdle(Duration.ofSeconds(10)));
+        Path backup = Files.createTempFile("itc-restore", ".sql");
+        jdbc.execute("SCRIPT TO '" + backup.toAbsolutePath() + "'");
+
+        // after the backup: the vote is reset and a second category appears
+        voting.resetMyVote(s.getId(), cat.getId());
+        var later = new Category();
+        later.setName("Created after the backup");
+        later.setEvent(event);
+        categories.save(later);
+        assertEquals(event.getId(), topology.eventOf(later.getId()));
+        assertTrue(dispatcher.awaitIdle(Duration.ofSeconds(10)));
+        assertEquals(0, ballots.nomineeOf(s.getId(), event.getId(), cat.getId()));
+
+        try {
+            itc.restoreFromMultipart(new MockMultipartFile("file", "backup.sql", "text/plain", Files.readAllBytes(backup)));
+        } finally {
+            Files.deleteIfExists(backup);
+        }
+
+        assertEquals(n.getId(), ballots.nomineeOf(s.getId(), event.getId(), cat.getId()));
+        assertEquals(1, tallies.count(cat.getId(), n.getId()));
+        assertEquals(1, tallies.total());
+        assertEquals(1, dashboard.turnout(event.getId(), null).votedAny());
+        assertThrows(EntityNotFoundException.class, () -> topology.eventOf(later.getId()));
+        assertNotNull(identities.resolve("itc1"));
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.votingsystem.admin.security;
+
+import com.example.votingsystem.admin.security.IdentityDirectory.Kind;
+import com.example.votingsystem.student.events.StudentAccountChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.sql.Timestamp;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:identity-directory;DB_CLOSE_DELAY=-1")
+class IdentityDirectoryTest {
+
+    @Autowired IdentityDirectory identities;
+    @Autowired UserDetailsService uds;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired ApplicationEventPublisher publisher;
+
+    @Test
+    void resolvesAnyIdentifierIgnoringCase() {
+        long id = insertStudent("ID100", "id100@dir.test");
+
+        // inserted behind the directory's back: found by the fallback query, then remembered
+        var byIndex = identities.resolve("ID100");
+        assertEquals(new IdentityDirectory.Identity(Kind.STUDENT, id, "ID100"), byIndex);
+        assertSame(byIndex, identities.resolve(" id100 "));
+        assertSame(byIndex, identities.resolve("ID100@Dir.Test"));
+
+        assertEquals(Kind.USER, identities.resolve("ADMIN").kind());   // seeded on startup
+        assertEquals("admin", uds.loadUserByUsername("Admin").getUsername());
+        assertEquals("ID100", uds.loadUserByUsername("id100@dir.test").getUsername());
+        assertNull(identities.resolve("nobody"));
+    }
+
+    @Test
+    void followsCommittedStudentChanges() {
+        long id = insertStudent("ID200", "id200@dir.test");
+        assertNotNull(identities.resolve("id200@dir.test"));
+
+        jdbc.update("update students set email = ? where id = ?", "moved200@dir.test", id);
+        publisher.publishEvent(new StudentAccountChangedEvent(StudentAccountChangedEvent.Kind.UPDATED, id));
+        assertNull(identities.resolve("id200@dir.test"));
+        assertEquals(id, identities.resolve("MOVED200@dir.test").id());
+
+        jdbc.update("delete from students where id = ?", id);
+        publisher.publishEvent(new StudentAccountChangedEvent(StudentAccountChangedEvent.Kind.DELETED, id));
+        assertNull(identities.resolve("ID200"));
+    }
+
+    @Test
+    void staleMappingNeverLoadsAnotherAccount() {
+        long id = insertStudent("ID300", "id300@dir.test");
+        assertNotNull(identities.resolve("ID300"));
+
+        // row renamed without an event (e.g. a restored backup): the old name must not log in as it
+        jdbc.update("update students set index_no = ?, email = ? where id = ?", "ID301", "id301@dir.test", id);
+        assertThrows(UsernameNotFoundException.class, () -> uds.loadUserByUsername("ID300"));
+        assertNull(identities.resolve("ID300"));
+        assertEquals("ID301", uds.loadUserByUsername("ID301").getUsername());
+    }
+
+    private long insertStudent(String indexNo, String email) {
+        jdbc.update("insert into students (index_no, full_name, email, password_hash, active, created_at, gender)"
+                + " values (?, ?, ?, ?, ?, ?, ?)", indexNo, "Directory " + indexNo, email, "x", true,
+                new Timestamp(System.currentTimeMillis()), "MALE");
+        return jdbc.queryForObject("select id from students where index_no = ?", Long.class, indexNo);
+    }
+}
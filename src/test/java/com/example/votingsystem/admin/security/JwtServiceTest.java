@@ -0,0 +1,59 @@
+package com.example.votingsystem.admin.security;
+
+import com.example.votingsystem.admin.domain.Role;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "test-secret-test-secret-test-secret-test-secret";
+
+    @Test
+    void verifiedTokensAreCached() {
+        var jwt = new JwtService(SECRET, 100);
+        String token = jwt.generate("IT001", Role.STUDENT, 3600);
+
+        var claims = jwt.claims(token);
+        assertEquals("IT001", claims.getSubject());
+        assertEquals("STUDENT", claims.get("role", String.class));
+        assertSame(claims, jwt.claims(token));
+        assertEquals(1, jwt.cachedTokens());
+    }
+
+    @Test
+    void tamperedTokenIsRejected() {
+        var jwt = new JwtService(SECRET, 100);
+        String token = jwt.generate("IT001", Role.STUDENT, 3600);
+        jwt.claims(token);
+
+        String forged = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        assertThrows(JwtException.class, () -> jwt.claims(forged));
+        assertThrows(JwtException.class, () -> new JwtService(SECRET + "-other", 100).claims(token));
+    }
+
+    @Test
+    void expiredTokenIsNotServedFromCache() {
+        AtomicLong now = new AtomicLong(1_700_000_000_000L);
+        var jwt = new JwtService(SECRET, 100, now::get);
+        String token = jwt.generate("IT001", Role.STUDENT, 60);
+        jwt.claims(token);
+
+        now.addAndGet(59_000);
+        assertEquals("IT001", jwt.claims(token).getSubject());
+        now.addAndGet(2_000);
+        assertThrows(ExpiredJwtException.class, () -> jwt.claims(token));
+        assertEquals(0, jwt.cachedTokens());
+    }
+
+    @Test
+    void cacheIsBounded() {
+        var jwt = new JwtService(SECRET, 3);
+        for (int i = 0; i < 10; i++) jwt.claims(jwt.generate("IT00" + i, Role.STUDENT, 3600));
+        assertTrue(jwt.cachedTokens() <= 3);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.votingsystem.admin.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Blocks are written behind to login_attempts and restored by a fresh instance (a restart)
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:login-attempts;DB_CLOSE_DELAY=-1")
+class LoginAttemptServiceTest {
+
+    @Autowired JdbcTemplate jdbc;
+
+    private LoginAttemptService fresh() {
+        var s = new LoginAttemptService(jdbc, new SimpleMeterRegistry(), 3, 5, 900_000, 600_000);
+        s.afterSingletonsInstantiated();
+        return s;
+    }
+
+    @Test
+    void blocksSurviveRestart() {
+        var before = fresh();
+        for (int i = 0; i < 3; i++) before.recordFailure(" IT777 ");
+        before.recordFailure("it778");
+        for (int i = 0; i < 5; i++) before.recordIpFailure("10.0.0.7");
+        assertTrue(before.isBlocked("it777"));
+        assertTrue(before.ipBlockedUntil("10.0.0.7").isPresent());
+        assertEquals(0, count("it777"));   // nothing written on the login path
+        before.flush();
+        assertEquals(1, count("it777"));
+
+        var after = fresh();
+        assertTrue(after.isBlocked("IT777"));
+        assertEquals(before.blockedUntil("it777"), after.blockedUntil("it777"));
+        assertTrue(after.ipBlockedUntil("10.0.0.7").isPresent());
+        assertFalse(after.isBlocked("it778"));
+        after.recordFailure("it778");
+        after.recordFailure("it778");   // restored failure + 2 = 3
+        assertTrue(after.isBlocked("it778"));
+
+        // success clears the block and deletes the row
+        after.recordSuccess("it777");
+        after.flush();
+        assertFalse(after.isBlocked("it777"));
+        assertEquals(0, count("it777"));
+    }
+
+    private int count(String username) {
+        return jdbc.queryForObject("select count(*) from login_attempts where username = ?", Integer.class, username);
+    }
+}
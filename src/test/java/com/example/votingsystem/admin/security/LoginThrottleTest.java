@@ -0,0 +1,88 @@
+package com.example.votingsystem.admin.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginThrottleTest {
+
+    private static final long MIN = 60_000;
+
+    @Test
+    void blocksAfterMaxFailuresWithinWindow() {
+        var throttle = new LoginThrottle(3, 15 * MIN, 10 * MIN);
+        long t = 1_000_000;
+        assertFalse(throttle.fail("it001", t));
+        assertFalse(throttle.fail("it001", t + MIN));
+        assertTrue(throttle.fail("it001", t + 2 * MIN));
+        assertEquals(t + 12 * MIN, throttle.blockedUntil("it001", t + 2 * MIN));
+        assertEquals(0, throttle.blockedUntil("it002", t + 2 * MIN));
+
+        // block over: a fresh window starts
+        assertEquals(0, throttle.blockedUntil("it001", t + 12 * MIN));
+        assertFalse(throttle.fail("it001", t + 13 * MIN));
+    }
+
+    @Test
+    void failuresOutsideTheWindowDoNotCount() {
+        var throttle = new LoginThrottle(3, 15 * MIN, 10 * MIN);
+        long t = 1_000_000;
+        throttle.fail("it001", t);
+        throttle.fail("it001", t + 10 * MIN);
+        assertFalse(throttle.fail("it001", t + 16 * MIN));   // the first one slid out
+        assertTrue(throttle.fail("it001", t + 17 * MIN));
+    }
+
+    @Test
+    void concurrentFailuresAreNotLost() throws Exception {
+        int threads = 8, perThread = 500;
+        var throttle = new LoginThrottle(threads * perThread + 1, 15 * MIN, 10 * MIN);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch gate = new CountDownLatch(1);
+        for (int i = 0; i < threads; i++) {
+            pool.submit(() -> {
+                gate.await();
+                for (int n = 0; n < perThread; n++) throttle.fail("it001", 1_000_000);
+                return null;
+            });
+        }
+        gate.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        Map<String, long[]> written = new HashMap<>();
+        throttle.drainDirty(1_000_000, written::put);
+        assertEquals(threads * perThread, written.get("it001")[0]);
+        assertTrue(throttle.fail("it001", 1_000_000));
+    }
+
+    @Test
+    void drainsChangesAndSweepsIdleKeys() {
+        var throttle = new LoginThrottle(3, 15 * MIN, 10 * MIN);
+        long t = 1_000_000;
+        throttle.fail("a", t);
+        throttle.restore("b", 0, t + 5 * MIN, t);
+        throttle.clear("c");   // unknown: nothing to write
+
+        Map<String, long[]> written = new HashMap<>();
+        throttle.drainDirty(t, written::put);
+        assertEquals(1, written.size());
+        assertArrayEquals(new long[]{1, 0}, written.get("a"));
+
+        throttle.clear("a");
+        written.clear();
+        throttle.drainDirty(t, written::put);
+        assertArrayEquals(new long[]{0, 0}, written.get("a"));
+
+        assertEquals(1, throttle.size());            // b is still blocked
+        throttle.sweep(t + 6 * MIN);
+        assertEquals(0, throttle.size());
+    }
+}
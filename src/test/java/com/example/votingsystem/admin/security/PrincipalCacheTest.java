@@ -0,0 +1,81 @@
+package com.example.votingsystem.admin.security;
+
+import com.example.votingsystem.student.domain.Student;
+import com.example.votingsystem.student.events.StudentAccountChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrincipalCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Map<String, Long> ids = Map.of("IT001", 1L, "a@uni.test", 1L, "IT002", 2L);
+
+    private final UserDetailsService users = subject -> {
+        loads.incrementAndGet();
+        Long id = ids.get(subject);
+        if (id == null) throw new UsernameNotFoundException(subject);
+        Student s = new Student();
+        s.setId(id);
+        s.setIndexNo("IT00" + id);
+        s.setActive(true);
+        return new StudentDetailsImpl(s);
+    };
+
+    @Test
+    void cachesUntilTtl() {
+        var cache = new PrincipalCache(users, 10_000, 100, new SimpleMeterRegistry(), now::get);
+        var first = cache.get("IT001");
+        assertSame(first, cache.get("IT001"));
+        assertEquals(1, loads.get());
+
+        now.addAndGet(10_000);
+        assertNotSame(first, cache.get("IT001"));
+        assertEquals(2, loads.get());
+
+        // unknown subjects are not cached
+        assertThrows(UsernameNotFoundException.class, () -> cache.get("nobody"));
+        assertThrows(UsernameNotFoundException.class, () -> cache.get("nobody"));
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void studentChangeEvictsEverySubjectOfThatStudent() {
+        var cache = new PrincipalCache(users, 60_000, 100, new SimpleMeterRegistry(), now::get);
+        cache.get("IT001");
+        cache.get("a@uni.test");
+        cache.get("IT002");
+        assertEquals(3, cache.size());
+
+        cache.onStudentChanged(new StudentAccountChangedEvent(StudentAccountChangedEvent.Kind.UPDATED, 1L));
+        assertEquals(1, cache.size());
+        cache.get("IT002");
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void staysWithinMaxEntries() {
+        var cache = new PrincipalCache(users, 60_000, 2, new SimpleMeterRegistry(), now::get);
+        cache.get("IT001");
+        cache.get("a@uni.test");
+        cache.get("IT002");
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void zeroTtlDisablesCaching() {
+        var cache = new PrincipalCache(users, 0, 100, new SimpleMeterRegistry(), now::get);
+        cache.get("IT001");
+        cache.get("IT001");
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+}
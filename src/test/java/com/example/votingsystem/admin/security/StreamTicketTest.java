@@ -0,0 +1,45 @@
+package com.example.votingsystem.admin.security;
+
+import com.example.votingsystem.admin.domain.Role;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// An EventSource opens the dashboard stream with a ticket in the URL; the ticket opens nothing else
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:stream-ticket;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+class StreamTicketTest {
+
+    @Autowired MockMvc mvc;
+    @Autowired JwtService jwt;
+    @Autowired ObjectMapper json;
+
+    @Test
+    void ticketOpensTheStreamOnly() throws Exception {
+        String admin = jwt.generate("admin", Role.ADMIN, 3600);
+        mvc.perform(post("/api/dashboard/stream/ticket")).andExpect(status().isUnauthorized());
+        String body = mvc.perform(post("/api/dashboard/stream/ticket").header("Authorization", "Bearer " + admin))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String ticket = json.readTree(body).get("ticket").asText();
+
+        mvc.perform(get("/api/dashboard/stream").param("eventId", "1").param("access_token", ticket))
+                .andExpect(request().asyncStarted());
+
+        mvc.perform(get("/api/dashboard/kpis").header("Authorization", "Bearer " + ticket))
+                .andExpect(status().isUnauthorized());
+        mvc.perform(get("/api/dashboard/stream/stats").param("access_token", ticket))
+                .andExpect(status().isUnauthorized());
+        // full tokens are not taken from the URL
+        mvc.perform(get("/api/dashboard/stream").param("eventId", "1").param("access_token", admin))
+                .andExpect(status().isUnauthorized());
+    }
+}
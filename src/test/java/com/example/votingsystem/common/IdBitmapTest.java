@@ -0,0 +1,64 @@
+package com.example.votingsystem.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdBitmapTest {
+
+    @Test
+    void behavesLikeHashSetAcrossSparseAndDenseContainers() {
+        var bitmap = new IdBitmap();
+        Set<Long> ref = new HashSet<>();
+        Random rnd = new Random(7);
+
+        for (int i = 0; i < 300_000; i++) {
+            // one dense container (bitset), one sparse one, and ids far apart
+            long id = switch (rnd.nextInt(3)) {
+                case 0 -> rnd.nextInt(20_000);
+                case 1 -> 1_000_000 + rnd.nextInt(60_000) * 16L;
+                default -> rnd.nextInt(1 << 20) * 65_536L;
+            };
+            if (rnd.nextInt(3) == 0) assertEquals(ref.remove(id), bitmap.remove(id));
+            else assertEquals(ref.add(id), bitmap.add(id));
+        }
+
+        assertEquals(ref.size(), bitmap.cardinality());
+        for (long id : ref) assertTrue(bitmap.contains(id));
+        for (long id = 0; id < 30_000; id++) assertEquals(ref.contains(id), bitmap.contains(id));
+    }
+
+    @Test
+    void unionAndIntersectionMatchSets() {
+        Random rnd = new Random(11);
+        var a = new IdBitmap();
+        var b = new IdBitmap();
+        var c = new IdBitmap();
+        Set<Long> sa = new HashSet<>(), sb = new HashSet<>(), sc = new HashSet<>();
+        for (int i = 0; i < 50_000; i++) {
+            long x = rnd.nextInt(200_000), y = rnd.nextInt(200_000), z = rnd.nextInt(8_000) * 25L;
+            a.add(x); sa.add(x);
+            b.add(y); sb.add(y);
+            c.add(z); sc.add(z);
+        }
+
+        Set<Long> union = new HashSet<>(sa);
+        union.addAll(sb);
+        Set<Long> all = new HashSet<>(sa);
+        all.retainAll(sb);
+        all.retainAll(sc);
+
+        assertEquals(union.size(), a.or(b).cardinality());
+        assertEquals(union.size(), IdBitmap.orAll(List.of(a, b)).cardinality());
+        IdBitmap inAll = IdBitmap.andAll(List.of(a, b, c));
+        assertEquals(all.size(), inAll.cardinality());
+        for (long id : all) assertTrue(inAll.contains(id));
+        assertEquals(all.size(), a.and(b).andCardinality(c));
+        assertEquals(sa.size(), a.cardinality(), "operands are not modified");
+    }
+}
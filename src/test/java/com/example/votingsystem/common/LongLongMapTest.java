@@ -0,0 +1,52 @@
+package com.example.votingsystem.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongLongMapTest {
+
+    @Test
+    void behavesLikeHashMapUnderRandomPutsAndRemoves() {
+        var map = new LongLongMap();
+        Map<Long, Long> ref = new HashMap<>();
+        Random rnd = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            long key = rnd.nextInt(5_000);            // small key space: lots of collisions and removals
+            switch (rnd.nextInt(4)) {
+                case 0, 1 -> { long v = rnd.nextInt(50); map.put(key, v); ref.put(key, v); }
+                case 2 -> assertEquals(ref.remove(key) != null, map.remove(key));
+                default -> {
+                    long v = rnd.nextInt(50);
+                    int expected = (int) ref.values().stream().filter(x -> x == v).count();
+                    ref.values().removeIf(x -> x == v);
+                    assertEquals(expected, map.removeValue(v));
+                }
+            }
+        }
+
+        assertEquals(ref.size(), map.size());
+        for (long k = 0; k < 5_000; k++) {
+            Long expected = ref.get(k);
+            assertEquals(expected == null ? LongLongMap.MISSING : expected, map.get(k));
+        }
+    }
+
+    @Test
+    void copyIsIndependent() {
+        var a = new LongLongMap();
+        a.put(1, 10);
+        var b = a.copy();
+        b.put(2, 20);
+        b.remove(1);
+        assertEquals(10, a.get(1));
+        assertEquals(LongLongMap.MISSING, a.get(2));
+        assertEquals(20, b.get(2));
+        assertThrows(IllegalArgumentException.class, () -> a.put(Long.MIN_VALUE, 1));
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.votingsystem.common.idempotency;
+
+import com.example.votingsystem.common.idempotency.IdempotencyStore.State;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyServiceTest {
+
+    @Test
+    void claimIsReleasedWhateverTheActionThrows() {
+        var store = new InMemoryIdempotencyStore(3_600_000, 30_000, 100);
+        var service = new IdempotencyService(store, new ObjectMapper(), new SimpleMeterRegistry());
+        var request = Map.of("nomineeId", 1);
+
+        assertThrows(StackOverflowError.class, () -> service.execute("k1", "vote", request, () -> {
+            throw new StackOverflowError();
+        }));
+        assertThrows(IllegalStateException.class, () -> service.execute("k2", "vote", request, () -> {
+            throw new IllegalStateException("Voting closed");
+        }));
+        assertEquals(400, service.execute("k3", "vote", request, () -> ResponseEntity.badRequest().build())
+                .getStatusCode().value());
+
+        for (String key : new String[]{"k1", "k2", "k3"}) {
+            assertEquals(State.NEW, store.claim("vote|" + key, "any").state(), key + " was released");
+        }
+    }
+}
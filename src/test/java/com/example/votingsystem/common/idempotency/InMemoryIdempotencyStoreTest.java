@@ -0,0 +1,79 @@
+package com.example.votingsystem.common.idempotency;
+
+import com.example.votingsystem.common.idempotency.IdempotencyStore.State;
+import com.example.votingsystem.common.idempotency.IdempotencyStore.StoredResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryIdempotencyStoreTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    @Test
+    void claimCompleteReplayAndMismatch() {
+        var store = new InMemoryIdempotencyStore(10_000, 10_000, 100, now::get);
+
+        assertEquals(State.NEW, store.claim("k", "fp").state());
+        assertEquals(State.IN_PROGRESS, store.claim("k", "fp").state());
+        assertEquals(State.MISMATCH, store.claim("k", "other").state());
+
+        store.complete("k", new StoredResponse(200, "{\"ok\":true}"));
+        var replay = store.claim("k", "fp");
+        assertEquals(State.COMPLETED, replay.state());
+        assertEquals(new StoredResponse(200, "{\"ok\":true}"), replay.response());
+
+        // release only drops unfinished claims
+        store.release("k");
+        assertEquals(State.COMPLETED, store.claim("k", "fp").state());
+        assertEquals(State.NEW, store.claim("failed", "fp").state());
+        store.release("failed");
+        assertEquals(State.NEW, store.claim("failed", "fp").state());
+    }
+
+    @Test
+    void entriesExpireAfterTtl() {
+        var store = new InMemoryIdempotencyStore(10_000, 10_000, 100, now::get);
+        store.claim("a", "fp");
+        store.complete("a", new StoredResponse(204, null));
+        now.addAndGet(5_000);
+        store.claim("b", "fp");
+
+        now.addAndGet(5_000);   // "a" expired, "b" still live
+        assertEquals(State.NEW, store.claim("a", "fp").state(), "expired key can be used again");
+        store.purgeExpired();
+        assertEquals(2, store.size());
+
+        now.addAndGet(10_000);
+        store.purgeExpired();
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void unfinishedClaimLapsesAfterItsLease() {
+        var store = new InMemoryIdempotencyStore(60_000, 1_000, 100, now::get);
+        store.claim("done", "fp");
+        store.complete("done", new StoredResponse(200, null));
+        store.claim("stuck", "fp");                     // never completed nor released
+
+        now.addAndGet(999);
+        assertEquals(State.IN_PROGRESS, store.claim("stuck", "fp").state());
+        now.addAndGet(1);
+        assertEquals(State.NEW, store.claim("stuck", "fp").state(), "lease lapsed: the retry runs");
+        assertEquals(State.COMPLETED, store.claim("done", "fp").state(), "completed responses keep the TTL");
+    }
+
+    @Test
+    void oldestEntriesAreEvictedBeyondMaxEntries() {
+        var store = new InMemoryIdempotencyStore(60_000, 60_000, 3, now::get);
+        for (int i = 0; i < 5; i++) {
+            store.claim("k" + i, "fp");
+            store.complete("k" + i, new StoredResponse(200, null));
+        }
+        assertEquals(3, store.size());
+        assertEquals(State.NEW, store.claim("k0", "fp").state(), "evicted");
+        assertEquals(State.COMPLETED, store.claim("k4", "fp").state());
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.votingsystem.common.idempotency;
+
+import com.example.votingsystem.common.idempotency.IdempotencyStore.State;
+import com.example.votingsystem.common.idempotency.IdempotencyStore.StoredResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:idempotency-jdbc;DB_CLOSE_DELAY=-1")
+class JdbcIdempotencyStoreTest {
+
+    @Autowired JdbcTemplate jdbc;
+
+    private final AtomicLong now = new AtomicLong(System.currentTimeMillis());
+
+    @Test
+    void claimOfADeadNodeLapsesAfterItsLease() {
+        var store = new JdbcIdempotencyStore(jdbc, 3_600_000, 30_000, now::get);
+        store.claim("lease|done", "fp");
+        store.complete("lease|done", new StoredResponse(200, "{}"));
+        store.claim("lease|stuck", "fp");            // its node died before completing or releasing
+
+        now.addAndGet(29_999);
+        assertEquals(State.IN_PROGRESS, store.claim("lease|stuck", "fp").state());
+        now.addAndGet(1);
+        assertEquals(State.NEW, store.claim("lease|stuck", "fp").state(), "lease lapsed: the retry runs");
+        assertEquals(State.COMPLETED, store.claim("lease|done", "fp").state(), "completed responses keep the TTL");
+
+        now.addAndGet(30_000);                       // the new claim was abandoned too
+        store.purgeExpired();
+        assertEquals(0, count("lease|stuck"));
+        assertEquals(1, count("lease|done"));
+    }
+
+    private long count(String key) {
+        return jdbc.queryForObject("select count(*) from idempotency_keys where idem_key = ?", Long.class, key);
+    }
+}
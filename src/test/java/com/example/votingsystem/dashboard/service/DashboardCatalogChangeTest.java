@@ -0,0 +1,93 @@
+package com.example.votingsystem.dashboard.service;
+
+import com.example.votingsystem.nominee.dto.CategoryDto;
+import com.example.votingsystem.nominee.entity.Category;
+import com.example.votingsystem.nominee.entity.Event;
+import com.example.votingsystem.nominee.entity.Nominee;
+import com.example.votingsystem.nominee.repository.EventRepository;
+import com.example.votingsystem.nominee.repository.NomineeRepository;
+import com.example.votingsystem.nominee.service.CategoryService;
+import com.example.votingsystem.student.domain.Student;
+import com.example.votingsystem.student.repo.StudentRepository;
+import com.example.votingsystem.voting.dto.VoteRequest;
+import com.example.votingsystem.voting.service.VoteEventDispatcher;
+import com.example.votingsystem.voting.service.VotingService;
+import com.example.votingsystem.voting.service.VotingWindowResolver;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Voters of a category stop counting for an event once the category leaves it
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:dashboard-catalog;DB_CLOSE_DELAY=-1")
+class DashboardCatalogChangeTest {
+
+    @Autowired DashboardAggregateCache dashboard;
+    @Autowired CategoryService categoryService;
+    @Autowired VotingService voting;
+    @Autowired VoteEventDispatcher dispatcher;
+    @Autowired EventRepository events;
+    @Autowired NomineeRepository nominees;
+    @Autowired StudentRepository students;
+    @Autowired JdbcTemplate jdbc;
+
+    @Test
+    void movedAndDeletedCategoriesTakeTheirVotersAlong() throws Exception {
+        LocalDateTime now = LocalDateTime.now(VotingWindowResolver.APP_ZONE);
+        Event first = event("First", now), second = event("Second", now);
+        Category kept = categoryService.create(dto("Kept", first, now));
+        Category moved = categoryService.create(dto("Moved", first, now));
+        Student a = student("CAT1"), b = student("CAT2");
+        vote(a, first, kept);
+        vote(b, first, moved);
+        assertTrue(dispatcher.awaitIdle(Duration.ofSeconds(10)));
+        assertEquals(2, dashboard.turnout(first.getId(), null).votedAny());
+        double bothVoted = dashboard.kpis().participationPct();
+
+        categoryService.update(moved.getId(), dto("Moved", second, now));
+        assertEquals(1, dashboard.turnout(first.getId(), null).votedAny());
+        assertEquals(1, dashboard.turnout(second.getId(), null).votedAny());
+        assertEquals(bothVoted, dashboard.kpis().participationPct());
+
+        // its votes go with it, as the foreign key cascade would take them
+        jdbc.update("delete from votes where category_id = ?", moved.getId());
+        categoryService.delete(moved.getId());
+        assertEquals(0, dashboard.turnout(second.getId(), null).votedAny());
+        assertEquals(1, dashboard.turnout(first.getId(), null).votedAny());
+        assertTrue(dashboard.kpis().participationPct() < bothVoted);
+    }
+
+    private Event event(String name, LocalDateTime now) {
+        var e = new Event();
+        e.setName(name);
+        e.setStartAt(now.minusDays(1));
+        e.setEndAt(now.plusDays(1));
+        return events.save(e);
+    }
+
+    private static CategoryDto dto(String name, Event event, LocalDateTime now) {
+        return new CategoryDto(null, name, null, now.minusDays(1), now.plusDays(1), event.getId());
+    }
+
+    private Student student(String indexNo) {
+        var s = new Student();
+        s.setIndexNo(indexNo);
+        s.setFullName("Student " + indexNo);
+        s.setEmail(indexNo.toLowerCase() + "@catalog.test");
+        s.setPasswordHash("n/a");
+        return students.save(s);
+    }
+
+    private void vote(Student s, Event event, Category category) {
+        var n = new Nominee();
+        n.setName("Nominee of " + category.getName() + " for " + s.getIndexNo());
+        n.setCategory(category);
+        nominees.save(n);
+        voting.castOrUpdateVote(s.getId(), new VoteRequest(event.getId(), category.getId(), n.getId()));
+    }
+}
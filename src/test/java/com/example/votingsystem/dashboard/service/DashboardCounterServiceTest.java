@@ -0,0 +1,72 @@
+package com.example.votingsystem.dashboard.service;
+
+import com.example.votingsystem.dashboard.dto.VoteRate;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DashboardCounterServiceTest {
+
+    private final AtomicLong now = new AtomicLong(1_700_000_000_000L);
+    private final DashboardCounterService counters = new DashboardCounterService(now::get);
+
+    @Test
+    void ratesFollowTheClock() {
+        for (int s = 0; s < 10; s++) {
+            for (int i = 0; i < 5; i++) counters.bump(1L, 10L);   // 5/s in category 10
+            counters.bump(1L, 11L);                               // 1/s in category 11
+            now.addAndGet(1000);
+        }
+        counters.bump(2L, 20L);   // other event
+
+        var rates = counters.rates(1L);
+        assertEquals(60, rates.event().total());
+        assertEquals(6, rates.event().lastSecond());
+        assertEquals(6.0, rates.event().perSecond10s());
+        assertEquals(60, rates.event().lastMinute());
+        assertEquals(60, rates.event().perMinute().size());
+        assertEquals(60, rates.event().perMinute().stream().mapToLong(Long::longValue).sum());
+
+        assertEquals(List.of(10L, 11L), rates.categories().stream().map(VoteRate::id).toList());
+        assertEquals(5, rates.categories().get(0).lastSecond());
+        assertEquals(1, rates.categories().get(1).lastSecond());
+        assertEquals(List.of(20L), counters.rates(2L).categories().stream().map(VoteRate::id).toList());
+
+        // two minutes of silence: ring slots from the old periods no longer count
+        now.addAndGet(120_000);
+        VoteRate quiet = counters.rates(1L).event();
+        assertEquals(0, quiet.lastSecond());
+        assertEquals(0, quiet.lastMinute());
+        assertEquals(60, quiet.total());
+        assertEquals(60, quiet.perMinute().stream().mapToLong(Long::longValue).sum(), "still within the hour");
+
+        assertEquals(0, counters.rates(99L).event().total());
+        assertEquals(1, counters.categoryTotal(20L));
+    }
+
+    @Test
+    void concurrentBumpsAreNotLost() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            long category = 100 + t % 4;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < 50_000; i++) counters.bump(1L, category);
+            }));
+        }
+        for (Future<?> f : futures) f.get();
+        pool.shutdown();
+
+        assertEquals(400_000, counters.eventTotal(1L));
+        for (long c = 100; c < 104; c++) assertEquals(100_000, counters.categoryTotal(c));
+        assertEquals(4, counters.rates(1L).categories().size());
+        assertEquals(400_000, counters.rates(1L).event().perMinute().stream().mapToLong(Long::longValue).sum());
+    }
+}
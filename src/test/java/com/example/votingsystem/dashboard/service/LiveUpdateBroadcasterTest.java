@@ -0,0 +1,164 @@
+package com.example.votingsystem.dashboard.service;
+
+import com.example.votingsystem.dashboard.service.LiveUpdateBroadcaster.Frame;
+import com.example.votingsystem.dashboard.service.LiveUpdateBroadcaster.Subscriber;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Thousands of simulated SSE subscribers sharing the broadcaster's sender pool
+class LiveUpdateBroadcasterTest {
+
+    private static final int FAST = 5000;
+    private static final int SLOW = 20;
+    private static final int UPDATES = 100;
+    private static final long TICK_MS = 20;
+
+    private final LiveUpdateBroadcaster live =
+            new LiveUpdateBroadcaster(60_000, 60_000, 4, 8, 0, 32, 5_000);   // ticks are driven by the test
+
+    // Records what a client would have seen
+    private static class FakeClient implements LiveUpdateBroadcaster.Sink {
+        final long delayMs;
+        volatile int lastVersion;
+        volatile boolean outOfOrder;
+        volatile boolean closed;
+        final AtomicInteger updates = new AtomicInteger();
+        final AtomicInteger heartbeats = new AtomicInteger();
+
+        FakeClient(long delayMs) { this.delayMs = delayMs; }
+
+        @Override public void send(Frame f) throws IOException {
+            if (delayMs > 0) {
+                try { Thread.sleep(delayMs); } catch (InterruptedException e) { throw new IOException(e); }
+            }
+            if (f.heartbeat()) { heartbeats.incrementAndGet(); return; }
+            int v = (Integer) f.data();
+            if (v < lastVersion) outOfOrder = true;
+            lastVersion = v;
+            updates.incrementAndGet();
+        }
+
+        @Override public void close() { closed = true; }
+    }
+
+    @AfterEach
+    void tearDown() { live.stop(); }
+
+    @Test
+    void coalescesUpdatesAndDisconnectsSlowConsumers() throws Exception {
+        live.start();
+        AtomicInteger version = new AtomicInteger();
+        String topic = LiveUpdateBroadcaster.dashboardTopic(1L);
+
+        List<FakeClient> fast = new ArrayList<>();
+        List<Subscriber> fastSubs = new ArrayList<>();
+        for (int i = 0; i < FAST; i++) {
+            var c = new FakeClient(0);
+            fast.add(c);
+            fastSubs.add(live.subscribe(topic, version::get, c));
+        }
+        List<FakeClient> slow = new ArrayList<>();
+        for (int i = 0; i < SLOW; i++) {
+            var c = new FakeClient(500);   // stalled connection: ~25 ticks per frame
+            slow.add(c);
+            live.subscribe(topic, version::get, c);
+        }
+
+        // many votes per tick: each tick builds the payload once and pushes one frame
+        for (int i = 0; i < UPDATES; i++) {
+            version.incrementAndGet();
+            for (int k = 0; k < 10; k++) live.markDirty(topic);
+            live.tick();
+            Thread.sleep(TICK_MS);
+        }
+        live.heartbeat();
+
+        long deadline = System.currentTimeMillis() + 20_000;
+        while (System.currentTimeMillis() < deadline
+                && fast.stream().anyMatch(c -> c.lastVersion != UPDATES || c.heartbeats.get() == 0)) {
+            Thread.sleep(20);
+        }
+
+        for (FakeClient c : fast) {
+            assertEquals(UPDATES, c.lastVersion, "fast client sees the latest version");
+            assertFalse(c.outOfOrder, "frames arrive in order");
+            assertTrue(c.updates.get() <= UPDATES + 1, "at most one frame per tick (+ initial)");
+            assertEquals(1, c.heartbeats.get());
+            assertFalse(c.closed);
+        }
+        assertTrue(fastSubs.stream().noneMatch(Subscriber::isClosed));
+        assertTrue(slow.stream().allMatch(c -> c.closed), "slow consumers are disconnected");
+
+        var stats = live.stats();
+        assertEquals(FAST, stats.subscribers());
+        assertEquals(SLOW, stats.slowDisconnects());
+        assertTrue(stats.framesDropped() > 0);
+    }
+
+    @Test
+    void blockedWritesDoNotStallOtherSubscribers() throws Exception {
+        live.start();   // stopped by tearDown; this test uses its own small pool
+        var stalls = new LiveUpdateBroadcaster(60_000, 60_000, 4, 8, 0, 2, 200);
+        stalls.start();
+        CountDownLatch never = new CountDownLatch(1);
+        String topic = LiveUpdateBroadcaster.dashboardTopic(2L);
+        AtomicInteger version = new AtomicInteger();
+        try {
+            // more clients whose writes never return (interrupts ignored) than there are sender threads
+            List<FakeClient> stuck = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                var c = new FakeClient(0) {
+                    @Override public void send(Frame f) {
+                        while (true) {
+                            try { never.await(); return; } catch (InterruptedException ignored) { }
+                        }
+                    }
+                };
+                stuck.add(c);
+                stalls.subscribe(topic, version::get, c);
+            }
+            List<FakeClient> fast = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                var c = new FakeClient(0);
+                fast.add(c);
+                stalls.subscribe(topic, version::get, c);
+            }
+
+            for (int i = 0; i < 5; i++) {
+                version.incrementAndGet();
+                stalls.markDirty(topic);
+                stalls.tick();
+                Thread.sleep(100);
+            }
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (System.currentTimeMillis() < deadline && fast.stream().anyMatch(c -> c.lastVersion != 5)) {
+                Thread.sleep(20);
+            }
+
+            for (FakeClient c : fast) assertEquals(5, c.lastVersion, "others keep receiving frames");
+            assertEquals(10, stalls.stats().subscribers());
+            assertEquals(4, stalls.stats().slowDisconnects());
+        } finally {
+            never.countDown();
+            stalls.stop();
+        }
+    }
+
+    @Test
+    void lastSubscriberLeavingRemovesTopic() {
+        live.start();
+        var c = new FakeClient(0);
+        Subscriber s = live.subscribe(LiveUpdateBroadcaster.publicWidgetsTopic(7L), () -> 0, c);
+        assertEquals(1, live.stats().topics());
+        live.unsubscribe(s);
+        assertEquals(0, live.stats().topics());
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.votingsystem.dashboard.service;
+
+import com.example.votingsystem.dashboard.dto.TimePoint;
+import com.example.votingsystem.dashboard.dto.TimeResolution;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VoteHistogramTest {
+
+    private static final ZoneId COLOMBO = ZoneId.of("Asia/Colombo");   // UTC+05:30
+
+    private static long minute(String instant) { return Instant.parse(instant).getEpochSecond() / 60; }
+
+    @Test
+    void hoursAndDaysAreCutInTheConfiguredZone() {
+        var h = new VoteHistogram(COLOMBO, 60, 48);
+        h.add(minute("2026-10-17T18:20:00Z"), 1);   // 23:50 in Colombo, Oct 17
+        h.add(minute("2026-10-17T18:40:00Z"), 1);   // 00:10 in Colombo, Oct 18
+        h.add(minute("2026-10-17T18:45:00Z"), 1);
+
+        List<TimePoint> days = h.series(TimeResolution.DAY, 0, 0);
+        assertEquals(2, days.size());
+        assertEquals(Instant.parse("2026-10-16T18:30:00Z"), days.get(0).ts());   // Oct 17 00:00 Colombo
+        assertEquals(1, days.get(0).votes());
+        assertEquals(2, days.get(1).votes());
+
+        long now = Instant.parse("2026-10-17T18:59:00Z").toEpochMilli();
+        List<TimePoint> hours = h.series(TimeResolution.HOUR, now, 2);
+        assertEquals(Instant.parse("2026-10-17T17:30:00Z"), hours.get(0).ts());  // 23:00 Colombo
+        assertEquals(1, hours.get(0).votes());
+        assertEquals(2, hours.get(1).votes());
+
+        List<TimePoint> minutes = h.series(TimeResolution.MINUTE, now, 30);
+        assertEquals(30, minutes.size());
+        assertEquals(2, minutes.stream().mapToLong(TimePoint::votes).sum());      // 18:20 is outside the window
+    }
+
+    @Test
+    void removalsAndOutOfOrderLoadsKeepRingsConsistent() {
+        var h = new VoteHistogram(COLOMBO, 60, 48);
+        long recent = minute("2026-10-17T12:00:00Z");
+        h.add(recent, 1);
+        h.add(recent - 60, 1);      // an hour older: same minute slot, must not evict the newer minute
+        h.add(recent, -1);
+        h.add(recent, 1);
+        h.add(recent - 60 * 24 * 3, -1);   // removal from a bucket that left every ring
+
+        long now = recent * 60_000;
+        assertEquals(1, h.series(TimeResolution.MINUTE, now, 1).get(0).votes());
+        List<TimePoint> hours = h.series(TimeResolution.HOUR, now, 2);
+        assertEquals(List.of(1L, 1L), hours.stream().map(TimePoint::votes).toList());
+        assertEquals(2, h.series(TimeResolution.DAY, 0, 0).stream().mapToLong(TimePoint::votes).sum());
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.votingsystem.voting;
+
+import com.example.votingsystem.dashboard.service.DashboardService;
+import com.example.votingsystem.nominee.entity.Category;
+import com.example.votingsystem.nominee.entity.Event;
+import com.example.votingsystem.nominee.entity.Nominee;
+import com.example.votingsystem.nominee.repository.CategoryRepository;
+import com.example.votingsystem.nominee.repository.EventRepository;
+import com.example.votingsystem.nominee.repository.NomineeRepository;
+import com.example.votingsystem.student.domain.Student;
+import com.example.votingsystem.student.repo.StudentRepository;
+import com.example.votingsystem.voting.dto.BallotRequest;
+import com.example.votingsystem.voting.dto.BallotResult;
+import com.example.votingsystem.voting.dto.BallotResult.Status;
+import com.example.votingsystem.voting.service.VoteEventDispatcher;
+import com.example.votingsystem.voting.service.VoteTallyEngine;
+import com.example.votingsystem.voting.service.VotingService;
+import com.example.votingsystem.voting.service.VotingWindowResolver;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:ballot;DB_CLOSE_DELAY=-1")
+class BallotSubmissionTest {
+
+    @Autowired VotingService voting;
+    @Autowired VoteTallyEngine tallies;
+    @Autowired VoteEventDispatcher dispatcher;
+    @Autowired DashboardService dashboard;
+    @Autowired EventRepository events;
+    @Autowired CategoryRepository categories;
+    @Autowired NomineeRepository nominees;
+    @Autowired StudentRepository students;
+    @Autowired JdbcTemplate jdbc;
+
+    @Test
+    void validCategoriesAreStoredAndInvalidOnesReportedPerCategory() throws Exception {
+        LocalDateTime now = LocalDateTime.now(VotingWindowResolver.APP_ZONE);
+        var event = new Event();
+        event.setName("Ballot event");
+        event.setStartAt(now.minusDays(1));
+        event.setEndAt(now.plusDays(1));
+        events.save(event);
+
+        Category open = category(event, "Open", null, null);
+        Category other = category(event, "Other", null, null);
+        Category notYet = category(event, "Not yet", now.plusDays(1), now.plusDays(2));
+        Nominee a1 = nominee(open, "A1"), a2 = nominee(open, "A2");
+        Nominee b1 = nominee(other, "B1");
+        Nominee c1 = nominee(notYet, "C1");
+
+        var s = new Student();
+        s.setIndexNo("BAL1");
+        s.setFullName("Ballot student");
+        s.setEmail("bal1@ballot.test");
+        s.setPasswordHash("n/a");
+        students.save(s);
+
+        Map<Long, Long> selections = new LinkedHashMap<>();
+        selections.put(open.getId(), a1.getId());
+        selections.put(other.getId(), a2.getId());      // nominee of another category
+        selections.put(notYet.getId(), c1.getId());     // window not started
+        selections.put(987654L, b1.getId());            // unknown category
+        BallotResult first = voting.castBallot(s.getId(), new BallotRequest(event.getId(), selections));
+
+        assertEquals(1, first.accepted());
+        assertEquals(3, first.rejected());
+        var out = first.categories();
+        assertEquals(Status.CAST, out.get(0).status());
+        assertEquals("Nominee not in category", out.get(1).message());
+        assertEquals("Voting not started", out.get(2).message());
+        assertEquals("Category not found", out.get(3).message());
+        assertEquals(1L, jdbc.queryForObject("select count(*) from votes", Long.class));
+
+        // second ballot changes the first choice and adds the other category
+        BallotResult second = voting.castBallot(s.getId(), new BallotRequest(event.getId(),
+                Map.of(open.getId(), a2.getId(), other.getId(), b1.getId())));
+        assertEquals(2, second.accepted());
+        assertTrue(second.categories().stream().anyMatch(o -> o.status() == Status.UPDATED));
+
+        // listeners saw every vote of the ballot (split per category by the dispatcher)
+        assertTrue(dispatcher.awaitIdle(Duration.ofSeconds(10)));
+        assertEquals(0, tallies.count(open.getId(), a1.getId()));
+        assertEquals(1, tallies.count(open.getId(), a2.getId()));
+        assertEquals(1, tallies.count(other.getId(), b1.getId()));
+
+        // the ballot state saw both categories without waiting for the listeners
+        assertEquals(2, voting.myVotes(s.getId()).size());
+
+        // voted in two of the three categories
+        var turnout = dashboard.turnout(event.getId(), null);
+        assertEquals(1, turnout.votedAny());
+        assertEquals(0, turnout.votedAll());
+        assertEquals(1, dashboard.turnout(event.getId(), List.of(open.getId(), other.getId())).votedAll());
+    }
+
+    private Category category(Event event, String name, LocalDateTime start, LocalDateTime end) {
+        var c = new Category();
+        c.setName(name);
+        c.setEvent(event);
+        c.setVotingStart(start);
+        c.setVotingEnd(end);
+        return categories.save(c);
+    }
+
+    private Nominee nominee(Category category, String name) {
+        var n = new Nominee();
+        n.setName(name);
+        n.setCategory(category);
+        return nominees.save(n);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.votingsystem.voting;
+
+import com.example.votingsystem.admin.security.StudentDetailsImpl;
+import com.example.votingsystem.nominee.entity.Category;
+import com.example.votingsystem.nominee.entity.Event;
+import com.example.votingsystem.nominee.entity.Nominee;
+import com.example.votingsystem.nominee.repository.CategoryRepository;
+import com.example.votingsystem.nominee.repository.EventRepository;
+import com.example.votingsystem.nominee.repository.NomineeRepository;
+import com.example.votingsystem.student.domain.Student;
+import com.example.votingsystem.student.repo.StudentRepository;
+import com.example.votingsystem.voting.service.VoteEventDispatcher;
+import com.example.votingsystem.voting.service.VoteTallyEngine;
+import com.example.votingsystem.voting.service.VotingWindowResolver;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// A retried vote with the same Idempotency-Key is answered from the store instead of being applied again
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:idempotent-vote;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+class IdempotentVoteTest {
+
+    @Autowired MockMvc mvc;
+    @Autowired VoteTallyEngine tallies;
+    @Autowired VoteEventDispatcher dispatcher;
+    @Autowired EventRepository events;
+    @Autowired CategoryRepository categories;
+    @Autowired NomineeRepository nominees;
+    @Autowired StudentRepository students;
+    @Autowired JdbcTemplate jdbc;
+
+    @Test
+    void sameKeyIsAppliedOnceAndReplayed() throws Exception {
+        LocalDateTime now = LocalDateTime.now(VotingWindowResolver.APP_ZONE);
+        var event = new Event();
+        event.setName("Idempotent event");
+        event.setStartAt(now.minusDays(1));
+        event.setEndAt(now.plusDays(1));
+        events.save(event);
+        var cat = new Category();
+        cat.setName("Idempotent category");
+        cat.setEvent(event);
+        categories.save(cat);
+        var a = new Nominee();
+        a.setName("A");
+        a.setCategory(cat);
+        nominees.save(a);
+        var b = new Nominee();
+        b.setName("B");
+        b.setCategory(cat);
+        nominees.save(b);
+        var s = new Student();
+        s.setIndexNo("IDEM1");
+        s.setFullName("Idempotent student");
+        s.setEmail("idem1@idem.test");
+        s.setPasswordHash("n/a");
+        students.save(s);
+        var principal = new StudentDetailsImpl(s);
+
+        String voteA = "{\"eventId\":%d,\"categoryId\":%d,\"nomineeId\":%d}".formatted(event.getId(), cat.getId(), a.getId());
+        String voteB = "{\"eventId\":%d,\"categoryId\":%d,\"nomineeId\":%d}".formatted(event.getId(), cat.getId(), b.getId());
+
+        mvc.perform(vote(principal, "key-1", voteA)).andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"));
+        mvc.perform(vote(principal, "key-1", voteA)).andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"));
+        // same key, different vote: refused rather than silently replayed
+        mvc.perform(vote(principal, "key-1", voteB)).andExpect(status().isUnprocessableEntity());
+
+        assertTrue(dispatcher.awaitIdle(Duration.ofSeconds(10)));
+        assertEquals(1, tallies.count(cat.getId(), a.getId()));
+        assertEquals(0, tallies.count(cat.getId(), b.getId()));
+        assertEquals("1", jdbc.queryForObject("select count(*) from votes where student_id = ?", String.class, s.getId()));
+
+        // retried reset: second call replays the 204 without touching the vote again
+        for (int i = 0; i < 2; i++) {
+            mvc.perform(delete("/api/vote/category/{id}", cat.getId()).with(user(principal))
+                    .header("Idempotency-Key", "reset-1")).andExpect(status().isNoContent());
+        }
+        assertTrue(dispatcher.awaitIdle(Duration.ofSeconds(10)));
+        assertEquals(0, tallies.categoryTotal(cat.getId()));
+    }
+
+    private static MockHttpServletRequestBuilder vote(StudentDetailsImpl principal, String key, String body) {
+        return post("/api/vote").with(user(principal)).header("Idempotency-Key", key)
+                .contentType(MediaType.APPLICATION_JSON).content(body);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.votingsystem.voting;
+
+import com.example.votingsystem.nominee.entity.Category;
+import com.example.votingsystem.nominee.entity.Event;
+import com.example.votingsystem.nominee.entity.Nominee;
+import com.example.votingsystem.nominee.repository.CategoryRepository;
+import com.example.votingsystem.nominee.repository.EventRepository;
+import com.example.votingsystem.nominee.repository.NomineeRepository;
+import com.example.votingsystem.student.domain.Student;
+import com.example.votingsystem.student.repo.StudentRepository;
+import com.example.votingsystem.voting.service.BallotStateStore;
+import com.example.votingsystem.voting.service.VotingService;
+import com.example.votingsystem.voting.service.VotingWindowResolver;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A reset deletes the vote even when this node's ballot state has not seen it (another node, or a late callback)
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:reset-vote;DB_CLOSE_DELAY=-1")
+class ResetVoteTest {
+
+    @Autowired VotingService voting;
+    @Autowired BallotStateStore ballots;
+    @Autowired EventRepository events;
+    @Autowired CategoryRepository categories;
+    @Autowired NomineeRepository nominees;
+    @Autowired StudentRepository students;
+    @Autowired JdbcTemplate jdbc;
+
+    @Test
+    void resetDeletesAVoteTheBallotStateHasNotSeen() {
+        LocalDateTime now = LocalDateTime.now(VotingWindowResolver.APP_ZONE);
+        var event = new Event();
+        event.setName("Reset event");
+        event.setStartAt(now.minusDays(1));
+        event.setEndAt(now.plusDays(1));
+        events.save(event);
+        var cat = new Category();
+        cat.setName("Reset category");
+        cat.setEvent(event);
+        categories.save(cat);
+        var n = new Nominee();
+        n.setName("Nominee");
+        n.setCategory(cat);
+        nominees.save(n);
+        var s = new Student();
+        s.setIndexNo("RST1");
+        s.setFullName("Reset student");
+        s.setEmail("rst1@reset.test");
+        s.setPasswordHash("n/a");
+        students.save(s);
+
+        // written by another node: no event reached this one
+        Timestamp ts = Timestamp.valueOf(now);
+        jdbc.update("insert into votes (student_id, category_id, nominee_id, created_at, updated_at) values (?, ?, ?, ?, ?)",
+                s.getId(), cat.getId(), n.getId(), ts, ts);
+        assertEquals(0, ballots.nomineeOf(s.getId(), event.getId(), cat.getId()));
+
+        voting.resetMyVote(s.getId(), cat.getId());
+        assertEquals(0, jdbc.queryForObject("select count(*) from votes where student_id = ?", Long.class, s.getId()));
+
+        voting.resetMyVote(s.getId(), cat.getId());   // nothing left: still fine
+    }
+}
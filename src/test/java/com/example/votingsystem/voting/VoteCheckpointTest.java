@@ -0,0 +1,144 @@
+package com.example.votingsystem.voting;
+
+import com.example.votingsystem.nominee.entity.Category;
+import com.example.votingsystem.nominee.entity.Event;
+import com.example.votingsystem.nominee.entity.Nominee;
+import com.example.votingsystem.nominee.repository.CategoryRepository;
+import com.example.votingsystem.nominee.repository.EventRepository;
+import com.example.votingsystem.nominee.repository.NomineeRepository;
+import com.example.votingsystem.student.domain.Student;
+import com.example.votingsystem.student.repo.StudentRepository;
+import com.example.votingsystem.voting.checkpoint.VoteCheckpointService;
+import com.example.votingsystem.voting.checkpoint.VoteRows;
+import com.example.votingsystem.voting.dto.VoteRequest;
+import com.example.votingsystem.voting.repository.VoteRepository;
+import com.example.votingsystem.voting.service.VoteEventDispatcher;
+import com.example.votingsystem.voting.service.VotingService;
+import com.example.votingsystem.voting.service.VotingWindowResolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A restart loads the checkpoint and reads only new, changed and deleted votes from the DB
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:checkpoint;DB_CLOSE_DELAY=-1")
+class VoteCheckpointTest {
+
+    static final Path DIR;
+    static {
+        try {
+            DIR = Files.createTempDirectory("checkpoint-test");
+        } catch (IOException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void checkpointDir(DynamicPropertyRegistry registry) {
+        registry.add("app.voting.checkpoint.dir", DIR::toString);
+    }
+
+    @Autowired VotingService voting;
+    @Autowired VoteCheckpointService checkpoints;
+    @Autowired VoteEventDispatcher dispatcher;
+    @Autowired VoteRepository votes;
+    @Autowired EventRepository events;
+    @Autowired CategoryRepository categories;
+    @Autowired NomineeRepository nominees;
+    @Autowired StudentRepository students;
+    @Autowired JdbcTemplate jdbc;
+
+    @Test
+    void restartCatchesUpFromTheCheckpoint() throws Exception {
+        LocalDateTime now = LocalDateTime.now(VotingWindowResolver.APP_ZONE);
+        var event = new Event();
+        event.setName("Checkpoint event");
+        event.setStartAt(now.minusDays(1));
+        event.setEndAt(now.plusDays(1));
+        events.save(event);
+        var cat = new Category();
+        cat.setName("Checkpoint category");
+        cat.setEvent(event);
+        categories.save(cat);
+        List<Nominee> noms = new ArrayList<>();
+        for (String name : List.of("A", "B")) {
+            var n = new Nominee();
+            n.setName(name);
+            n.setCategory(cat);
+            noms.add(nominees.save(n));
+        }
+        List<Long> voters = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            var s = new Student();
+            s.setIndexNo("CK" + i);
+            s.setFullName("Checkpoint " + i);
+            s.setEmail("ck" + i + "@ck.test");
+            s.setPasswordHash("n/a");
+            voters.add(students.save(s).getId());
+        }
+        for (int i = 0; i < 6; i++) vote(voters.get(i), event, cat, noms.get(0));
+        checkpoints.checkpoint();
+
+        // after the checkpoint: one change, one reset, two new votes
+        vote(voters.get(0), event, cat, noms.get(1));
+        voting.resetMyVote(voters.get(1), cat.getId());
+        vote(voters.get(6), event, cat, noms.get(1));
+        vote(voters.get(7), event, cat, noms.get(0));
+        assertTrue(dispatcher.awaitIdle(Duration.ofSeconds(10)));
+
+        var restarted = newService();
+        Map<Long, Long> restored = counts(restarted.restore(), cat.getId());
+        var report = restarted.lastRestore();
+        assertEquals("checkpoint", report.source());
+        assertEquals(1, report.deleted());
+        assertEquals(7, report.rows());
+        assertEquals(dbCounts(cat.getId()), restored);
+        assertEquals(Map.of(noms.get(0).getId(), 5L, noms.get(1).getId(), 2L), restored);
+
+        // a damaged checkpoint is ignored
+        checkpoints.checkpoint();
+        try (var f = new RandomAccessFile(DIR.resolve("vote-state.ckpt").toFile(), "rw")) {
+            f.seek(40);
+            f.write(0x7F);
+        }
+        var fallback = newService();
+        assertEquals(dbCounts(cat.getId()), counts(fallback.restore(), cat.getId()));
+        assertEquals("database", fallback.lastRestore().source());
+    }
+
+    private void vote(Long student, Event event, Category cat, Nominee nominee) {
+        voting.castOrUpdateVote(student, new VoteRequest(event.getId(), cat.getId(), nominee.getId()));
+    }
+
+    private VoteCheckpointService newService() {
+        return new VoteCheckpointService(true, DIR.toString(), 60_000, jdbc, new SimpleMeterRegistry());
+    }
+
+    private static Map<Long, Long> counts(VoteRows rows, long categoryId) {
+        Map<Long, Long> out = new HashMap<>();
+        rows.forEach((id, event, category, nominee, student, gender, minute) -> {
+            if (category == categoryId) out.merge(nominee, 1L, Long::sum);
+        });
+        return out;
+    }
+
+    private Map<Long, Long> dbCounts(long categoryId) {
+        Map<Long, Long> out = new HashMap<>();
+        jdbc.query("select nominee_id, count(*) from votes where category_id = ? group by nominee_id",
+                rs -> { out.put(rs.getLong(1), rs.getLong(2)); }, categoryId);
+        return out;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.votingsystem.voting;
+
+import com.example.votingsystem.dashboard.service.DashboardService;
+import com.example.votingsystem.nominee.entity.Category;
+import com.example.votingsystem.nominee.entity.Event;
+import com.example.votingsystem.nominee.entity.Nominee;
+import com.example.votingsystem.nominee.events.CatalogChangedEvent;
+import com.example.votingsystem.nominee.repository.CategoryRepository;
+import com.example.votingsystem.nominee.repository.EventRepository;
+import com.example.votingsystem.nominee.repository.NomineeRepository;
+import com.example.votingsystem.student.domain.Student;
+import com.example.votingsystem.student.repo.StudentRepository;
+import com.example.votingsystem.voting.dto.VoteRequest;
+import com.example.votingsystem.voting.repository.VoteRepository;
+import com.example.votingsystem.voting.service.VoteEventDispatcher;
+import com.example.votingsystem.voting.service.VoteWriteBehindQueue;
+import com.example.votingsystem.voting.service.VotingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Load test (runs with -Ploadtest): measures synchronous castOrUpdateVote and write-behind batches side by side
+// and checks both store every vote exactly once. Which one is faster depends on the database and core count
+// (on embedded H2 with one core the synchronous path usually wins), so the comparison is reported, not asserted.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ingestion-load;DB_CLOSE_DELAY=-1",
+        "app.voting.write-behind.enabled=true",
+        "logging.level.com.example.votingsystem=WARN"
+})
+class VoteIngestionLoadIT {
+
+    private static final int STUDENTS_PER_RUN = Integer.getInteger("load.students", 1000);
+    private static final int CATEGORIES = 10;
+    private static final int THREADS = Integer.getInteger("load.threads", 32);
+
+    @Autowired VotingService voting;
+    @Autowired VoteWriteBehindQueue writeBehind;
+    @Autowired EventRepository events;
+    @Autowired CategoryRepository categories;
+    @Autowired NomineeRepository nominees;
+    @Autowired StudentRepository students;
+    @Autowired VoteRepository votes;
+    @Autowired DashboardService dashboard;
+    @Autowired VoteEventDispatcher dispatcher;
+    @Autowired ApplicationEventPublisher publisher;
+
+    private record Ballot(Long studentId, VoteRequest req) {}
+
+    private record Result(double rate, long p99Ms) {}
+
+    @Test
+    void bothIngestionModesStoreEveryVote() throws Exception {
+        var event = new Event();
+        event.setName("Load event");
+        event.setStartAt(LocalDateTime.now().minusDays(1));
+        event.setEndAt(LocalDateTime.now().plusDays(1));
+        events.save(event);
+
+        List<Nominee> noms = new ArrayList<>();
+        for (int c = 0; c < CATEGORIES; c++) {
+            var cat = new Category();
+            cat.setName("Load category " + c);
+            cat.setEvent(event);
+            categories.save(cat);
+            var n = new Nominee();
+            n.setName("Nominee " + c);
+            n.setCategory(cat);
+            noms.add(nominees.save(n));
+        }
+
+        List<Ballot> syncBallots = ballots(event, noms, "sync");
+        List<Ballot> batchBallots = ballots(event, noms, "batch");
+        // rows above were saved through repositories, not the admin services that announce catalog edits
+        publisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Kind.EVENT, event.getId()));
+
+        Result sync = run(syncBallots, b -> voting.castOrUpdateVote(b.studentId(), b.req()));
+        Result batch = run(batchBallots, b -> writeBehind.submitAndAwait(voting.validateVote(b.studentId(), b.req())));
+
+        System.out.printf("[LOAD] synchronous: %.0f votes/s, p99 %d ms; write-behind: %.0f votes/s, p99 %d ms (%.2fx)%n",
+                sync.rate(), sync.p99Ms(), batch.rate(), batch.p99Ms(), batch.rate() / sync.rate());
+
+        // every (student, category) pair stored exactly once
+        assertEquals((long) (syncBallots.size() + batchBallots.size()), votes.count());
+
+        // materialized dashboard aggregates agree with the table (once listeners caught up)
+        assertTrue(dispatcher.awaitIdle(Duration.ofSeconds(30)));
+        var snap = dashboard.snapshot(event.getId());
+        assertEquals(votes.countByEvent(event.getId()), snap.kpis().totalVotes());
+        long perCategory = 2L * STUDENTS_PER_RUN;
+        snap.widgets().values().forEach(w -> {
+            assertEquals(perCategory, w.participation().voted());
+            assertEquals(perCategory, w.votesByDay().stream().mapToLong(tp -> tp.votes()).sum());
+            assertEquals(perCategory, w.leaders().get(0).votes());
+        });
+    }
+
+    private List<Ballot> ballots(Event event, List<Nominee> noms, String prefix) {
+        List<Ballot> out = new ArrayList<>();
+        for (int i = 0; i < STUDENTS_PER_RUN; i++) {
+            var s = new Student();
+            s.setIndexNo(prefix + i);
+            s.setFullName("Student " + i);
+            s.setEmail(prefix + i + "@load.test");
+            s.setPasswordHash("n/a");
+            students.save(s);
+            for (Nominee n : noms) {
+                out.add(new Ballot(s.getId(), new VoteRequest(event.getId(), n.getCategory().getId(), n.getId())));
+            }
+        }
+        return out;
+    }
+
+    private interface VoteCall { void cast(Ballot b) throws Exception; }
+
+    private Result run(List<Ballot> ballots, VoteCall call) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        AtomicInteger failures = new AtomicInteger();
+        long[] latencies = new long[ballots.size()];
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>(ballots.size());
+        for (int i = 0; i < ballots.size(); i++) {
+            int n = i;
+            futures.add(pool.submit(() -> {
+                long t0 = System.nanoTime();
+                try { call.cast(ballots.get(n)); } catch (Exception e) { failures.incrementAndGet(); }
+                latencies[n] = System.nanoTime() - t0;
+            }));
+        }
+        for (Future<?> f : futures) f.get();
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+        assertEquals(0, failures.get());
+        Arrays.sort(latencies);
+        long p99 = latencies[(int) Math.min(latencies.length - 1, Math.ceil(latencies.length * 0.99) - 1)];
+        return new Result(ballots.size() / (elapsed / 1e9), TimeUnit.NANOSECONDS.toMillis(p99));
+    }
+}
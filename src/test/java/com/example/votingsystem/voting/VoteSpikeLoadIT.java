@@ -0,0 +1,302 @@
+package com.example.votingsystem.voting;
+
+import com.example.votingsystem.common.LatencyHistogram;
+import com.example.votingsystem.nominee.dto.EventDto;
+import com.example.votingsystem.nominee.entity.Category;
+import com.example.votingsystem.nominee.entity.Event;
+import com.example.votingsystem.nominee.entity.Nominee;
+import com.example.votingsystem.nominee.repository.CategoryRepository;
+import com.example.votingsystem.nominee.repository.EventRepository;
+import com.example.votingsystem.nominee.repository.NomineeRepository;
+import com.example.votingsystem.nominee.service.EventService;
+import com.example.votingsystem.voting.service.VotingWindowResolver;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Election-opening spike (runs with -Ploadtest): every seeded student logs in through
+ * /api/auth/login and then all of them POST /api/vote at once.
+ * One category closes in the middle of the spike ("Voting closed" races) and some students
+ * double-submit (unique-constraint races). Reports latency percentiles, throughput,
+ * error classes and Hikari pool saturation.
+ * Sizing: -Dload.spike.students, .categories, .threads, .close-after-ms, .duplicate-rate
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:vote-spike;DB_CLOSE_DELAY=-1",
+        "logging.level.com.example.votingsystem=WARN",
+        "logging.level.org.hibernate.engine.jdbc.spi.SqlExceptionHelper=OFF"
+})
+class VoteSpikeLoadIT {
+
+    private static final int STUDENTS = Integer.getInteger("load.spike.students", 500);
+    private static final int CATEGORIES = Integer.getInteger("load.spike.categories", 5);
+    private static final int NOMINEES = 4;
+    // JDK 17 has no virtual threads: a large platform pool stands in for one-thread-per-client
+    private static final int THREADS = Integer.getInteger("load.spike.threads", 200);
+    private static final long CLOSE_AFTER_MS = Long.getLong("load.spike.close-after-ms", 5000);
+    private static final double DUPLICATE_RATE =
+            Double.parseDouble(System.getProperty("load.spike.duplicate-rate", "0.1"));
+    private static final String PASSWORD = "Spike#2024";
+
+    @LocalServerPort int port;
+    @Autowired EventRepository events;
+    @Autowired EventService eventService;
+    @Autowired CategoryRepository categories;
+    @Autowired NomineeRepository nominees;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired PasswordEncoder encoder;
+    @Autowired DataSource dataSource;
+    @Autowired ObjectMapper json;
+
+    private HttpClient http;
+
+    // Outcome counters per error class ("ok", "voting-closed", "conflict", "busy", "http-500", "io", ...)
+    private static final class Phase {
+        final String name;
+        final LatencyHistogram latency = new LatencyHistogram();
+        final Map<String, LongAdder> outcomes = new ConcurrentSkipListMap<>();
+        final Map<String, String> samples = new ConcurrentSkipListMap<>();   // first response body per error class
+        long elapsedNanos;
+
+        Phase(String name) { this.name = name; }
+
+        void count(String outcome) { outcomes.computeIfAbsent(outcome, k -> new LongAdder()).increment(); }
+
+        long get(String outcome) { LongAdder a = outcomes.get(outcome); return a == null ? 0 : a.sum(); }
+
+        long total() { return outcomes.values().stream().mapToLong(LongAdder::sum).sum(); }
+
+        void print() {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            outcomes.forEach((k, v) -> counts.put(k, v.sum()));
+            double seconds = elapsedNanos / 1e9;
+            System.out.printf("[SPIKE] %-6s %d requests in %.2fs (%.0f req/s) latency(µs)=%s outcomes=%s%n",
+                    name, total(), seconds, total() / seconds, latency.summary(), counts);
+            samples.forEach((k, v) -> System.out.printf("[SPIKE] %-6s sample %s: %s%n", name, k, v));
+        }
+    }
+
+    // Samples the connection pool while a phase runs
+    private static final class PoolSampler implements AutoCloseable {
+        private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+        private final AtomicInteger maxActive = new AtomicInteger();
+        private final AtomicInteger maxWaiting = new AtomicInteger();
+        private final int poolSize;
+
+        PoolSampler(HikariDataSource ds) {
+            var pool = ds.getHikariPoolMXBean();
+            poolSize = ds.getMaximumPoolSize();
+            timer.scheduleAtFixedRate(() -> {
+                maxActive.accumulateAndGet(pool.getActiveConnections(), Math::max);
+                maxWaiting.accumulateAndGet(pool.getThreadsAwaitingConnection(), Math::max);
+            }, 0, 20, TimeUnit.MILLISECONDS);
+        }
+
+        @Override public void close() {
+            timer.shutdownNow();
+            System.out.printf("[SPIKE] pool: max=%d, peakActive=%d, peakWaitingThreads=%d%n",
+                    poolSize, maxActive.get(), maxWaiting.get());
+        }
+    }
+
+    private record Ballot(String token, long eventId, long categoryId, long nomineeId) {}
+
+    @Test
+    void electionOpeningSpike() throws Exception {
+        http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        var hikari = dataSource.unwrap(HikariDataSource.class);
+        LocalDateTime now = LocalDateTime.now(VotingWindowResolver.APP_ZONE);
+
+        // main event stays open; a second one-category event closes in the middle of the spike
+        Event open = event("Spike event", now.plusDays(1));
+        Event closing = event("Spike event (closing)", now.plusDays(1));
+        List<Category> cats = new ArrayList<>();
+        List<long[]> noms = new ArrayList<>();
+        for (int c = 0; c < CATEGORIES; c++) {
+            var cat = new Category();
+            cat.setName("Spike category " + c);
+            boolean last = c == CATEGORIES - 1;
+            cat.setEvent(last ? closing : open);
+            if (!last) {   // the closing category has no own window, so it follows its event
+                cat.setVotingStart(now.minusHours(1));
+                cat.setVotingEnd(now.plusDays(1));
+            }
+            cats.add(categories.save(cat));
+            long[] ids = new long[NOMINEES];
+            for (int n = 0; n < NOMINEES; n++) {
+                var nom = new Nominee();
+                nom.setName("Spike nominee " + c + "-" + n);
+                nom.setCategory(cat);
+                ids[n] = nominees.save(nom).getId();
+            }
+            noms.add(ids);
+        }
+        List<String> indexNos = seedStudents();
+
+        // ---- phase 1: everybody logs in; logins shed with 503 are retried after Retry-After ----
+        Map<String, String> tokens = new ConcurrentHashMap<>();
+        List<String> pending = indexNos;
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(5);
+        for (int round = 1; !pending.isEmpty() && System.nanoTime() < deadline; round++) {
+            Phase login = new Phase(round == 1 ? "login" : "retry" + round);
+            AtomicInteger retryAfter = new AtomicInteger(1);
+            try (var sampler = new PoolSampler(hikari)) {
+                runAll(login, pending, idx -> {
+                    var res = post("/api/auth/login", null,
+                            "{\"username\":\"" + idx + "\",\"password\":\"" + PASSWORD + "\"}");
+                    if (res.statusCode() == 200) tokens.put(idx, json.readTree(res.body()).get("token").asText());
+                    if (res.statusCode() == 503) retryAfter.accumulateAndGet(
+                            Integer.parseInt(res.headers().firstValue("Retry-After").orElse("1")), Math::max);
+                    return res;
+                });
+            }
+            login.print();
+            pending = indexNos.stream().filter(idx -> !tokens.containsKey(idx)).toList();
+            if (!pending.isEmpty()) Thread.sleep(1000L * retryAfter.get());
+        }
+        assertEquals(STUDENTS, tokens.size(), "every student must be able to log in");
+
+        // ---- phase 2: every student votes in every category, some press the button twice ----
+        Random rnd = new Random(42);
+        List<Ballot> ballots = new ArrayList<>();
+        for (String idx : indexNos) {
+            String token = tokens.get(idx);
+            for (int c = 0; c < CATEGORIES; c++) {
+                Category cat = cats.get(c);
+                var ballot = new Ballot(token, cat.getEvent().getId(), cat.getId(), noms.get(c)[rnd.nextInt(NOMINEES)]);
+                ballots.add(ballot);
+                if (c == 0 && rnd.nextDouble() < DUPLICATE_RATE) ballots.add(ballot);
+            }
+        }
+        Collections.shuffle(ballots, rnd);
+
+        // close the second event shortly after the gate opens (EventService publishes the change)
+        eventService.update(closing.getId(), new EventDto(closing.getId(), closing.getName(), null, closing.getStartAt(),
+                LocalDateTime.now(VotingWindowResolver.APP_ZONE).plusNanos(CLOSE_AFTER_MS * 1_000_000)));
+
+        Phase vote = new Phase("vote");
+        try (var sampler = new PoolSampler(hikari)) {
+            runAll(vote, ballots, b -> post("/api/vote", b.token(),
+                    "{\"eventId\":" + b.eventId() + ",\"categoryId\":" + b.categoryId()
+                            + ",\"nomineeId\":" + b.nomineeId() + "}"));
+        }
+        vote.print();
+
+        // only the expected races may fail, and nothing may be lost
+        Set<String> allowed = Set.of("ok", "voting-closed", "conflict");
+        assertTrue(allowed.containsAll(vote.outcomes.keySet()), "unexpected error classes: " + vote.outcomes.keySet());
+        for (int c = 0; c < CATEGORIES - 1; c++) {
+            assertEquals(STUDENTS, votesIn(cats.get(c).getId()));
+        }
+        long closedRejects = vote.get("voting-closed");
+        assertEquals(STUDENTS - closedRejects, votesIn(cats.get(CATEGORIES - 1).getId()));
+    }
+
+    private Event event(String name, LocalDateTime end) {
+        var e = new Event();
+        e.setName(name);
+        e.setStartAt(LocalDateTime.now(VotingWindowResolver.APP_ZONE).minusHours(1));
+        e.setEndAt(end);
+        return events.save(e);
+    }
+
+    private long votesIn(long categoryId) {
+        return jdbc.queryForObject("select count(*) from votes where category_id = ?", Long.class, categoryId);
+    }
+
+    // Students in bulk, all sharing one BCrypt hash (hashing 500+ passwords would dominate set-up)
+    private List<String> seedStudents() {
+        String hash = encoder.encode(PASSWORD);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now(VotingWindowResolver.APP_ZONE));
+        List<String> indexNos = new ArrayList<>(STUDENTS);
+        List<Object[]> rows = new ArrayList<>(STUDENTS);
+        for (int i = 0; i < STUDENTS; i++) {
+            String idx = "SPK" + i;
+            indexNos.add(idx);
+            rows.add(new Object[]{ idx, "Spike student " + i, idx.toLowerCase() + "@spike.test", hash, true, now,
+                    i % 2 == 0 ? "MALE" : "FEMALE" });
+        }
+        jdbc.batchUpdate("insert into students (index_no, full_name, email, password_hash, active, created_at, gender)"
+                + " values (?, ?, ?, ?, ?, ?, ?)", rows);
+        return indexNos;
+    }
+
+    private interface Call<T> { HttpResponse<String> send(T item) throws Exception; }
+
+    // Fires all items behind one start gate so they hit the server together
+    private <T> void runAll(Phase phase, List<T> items, Call<T> call) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch gate = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>(items.size());
+        for (T item : items) {
+            futures.add(pool.submit(() -> {
+                gate.await();
+                long t0 = System.nanoTime();
+                String outcome;
+                try {
+                    var res = call.send(item);
+                    outcome = classify(res);
+                    if (!outcome.equals("ok")) phase.samples.putIfAbsent(outcome, abbreviate(res.body()));
+                } catch (Exception e) {
+                    outcome = "io";
+                    phase.samples.putIfAbsent(outcome, e.toString());
+                }
+                phase.latency.record(System.nanoTime() - t0);
+                phase.count(outcome);
+                return null;
+            }));
+        }
+        long start = System.nanoTime();
+        gate.countDown();
+        for (Future<?> f : futures) f.get();
+        phase.elapsedNanos = System.nanoTime() - start;
+        pool.shutdown();
+    }
+
+    private static String classify(HttpResponse<String> res) {
+        int status = res.statusCode();
+        String body = res.body() == null ? "" : res.body();
+        if (status == 200) return "ok";
+        // window checks surface as IllegalStateException, so match the message rather than the status
+        if (body.contains("Voting closed")) return "voting-closed";
+        if (status == 409) return "conflict";
+        if (status == 503) return "busy";
+        return "http-" + status;
+    }
+
+    private static String abbreviate(String s) {
+        if (s == null) return "";
+        return s.length() <= 200 ? s : s.substring(0, 200) + "...";
+    }
+
+    private HttpResponse<String> post(String path, String token, String body) throws Exception {
+        var req = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) req.header("Authorization", "Bearer " + token);
+        return http.send(req.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
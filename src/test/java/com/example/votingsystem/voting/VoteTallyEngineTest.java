@@ -0,0 +1,54 @@
+package com.example.votingsystem.voting;
+
+import com.example.votingsystem.voting.repository.VoteRepository;
+import com.example.votingsystem.voting.service.VoteTallyEngine;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class VoteTallyEngineTest {
+
+    private static List<Object[]> rows(Object[]... r) { return new ArrayList<>(List.of(r)); }
+
+    @Test
+    void castChangeAndResetMoveTheRightCounters() {
+        VoteRepository repo = mock(VoteRepository.class);
+        when(repo.countsByCategoryAndNominee()).thenReturn(rows(new Object[]{1L, 10L, 2L}));
+        var engine = new VoteTallyEngine(repo);
+        engine.afterSingletonsInstantiated();
+
+        engine.onCast(1L, 11L, null, false);   // new vote
+        engine.onCast(1L, 11L, 10L, true);     // changed 10 -> 11
+        engine.onCast(1L, 11L, 11L, true);     // re-cast same nominee: no change
+        engine.onReset(1L, 10L);               // deleted vote for 10
+
+        assertEquals(0, engine.count(1L, 10L));
+        assertEquals(2, engine.count(1L, 11L));
+        assertEquals(2, engine.categoryTotal(1L));
+        assertEquals(2, engine.total());
+    }
+
+    @Test
+    void reconcileRepairsOnlyStableDrift() {
+        VoteRepository repo = mock(VoteRepository.class);
+        when(repo.countsByCategoryAndNominee()).thenReturn(rows(new Object[]{1L, 10L, 5L}));
+        var engine = new VoteTallyEngine(repo);
+        engine.afterSingletonsInstantiated();
+        engine.onCast(1L, 10L, null, false);   // engine now says 6, DB says 5
+
+        var first = engine.reconcile();
+        assertEquals(1, first.driftedCells());
+        assertEquals(0, first.repairedCells());
+        assertEquals(6, engine.count(1L, 10L));
+
+        var second = engine.reconcile();
+        assertEquals(1, second.repairedCells());
+        assertEquals(5, engine.count(1L, 10L));
+        assertEquals(5, engine.total());
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.votingsystem.voting;
+
+import com.example.votingsystem.nominee.entity.Category;
+import com.example.votingsystem.nominee.entity.Event;
+import com.example.votingsystem.nominee.entity.Nominee;
+import com.example.votingsystem.nominee.repository.CategoryRepository;
+import com.example.votingsystem.nominee.repository.EventRepository;
+import com.example.votingsystem.nominee.repository.NomineeRepository;
+import com.example.votingsystem.student.domain.Student;
+import com.example.votingsystem.student.repo.StudentRepository;
+import com.example.votingsystem.voting.dto.VoteRequest;
+import com.example.votingsystem.voting.repository.VoteRepository;
+import com.example.votingsystem.voting.repository.VoteUpsertRepository.Upserted;
+import com.example.votingsystem.voting.service.VoteEventDispatcher;
+import com.example.votingsystem.voting.service.VoteTallyEngine;
+import com.example.votingsystem.voting.service.VotingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Duplicate submissions racing on the same (student, category): one row, no errors, consistent tallies
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:upsert-race;DB_CLOSE_DELAY=-1",
+        "logging.level.com.example.votingsystem=WARN"
+})
+class VoteUpsertConcurrencyTest {
+
+    private static final int STUDENTS = 20;
+    private static final int COPIES = 8;   // concurrent submissions per student
+
+    @Autowired VotingService voting;
+    @Autowired VoteRepository votes;
+    @Autowired VoteTallyEngine tallies;
+    @Autowired VoteEventDispatcher dispatcher;
+    @Autowired EventRepository events;
+    @Autowired CategoryRepository categories;
+    @Autowired NomineeRepository nominees;
+    @Autowired StudentRepository students;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired PlatformTransactionManager txManager;
+
+    @Test
+    void upsertReportsExactlyOneInsertPerKey() throws Exception {
+        var f = fixture("direct");
+        var tx = new TransactionTemplate(txManager);
+
+        List<Upserted> results = race(f, (student, copy) ->
+                tx.execute(s -> votes.upsert(student, f.category().getId(), f.nominees().get(copy % 2).getId())));
+
+        for (Long student : f.students()) {
+            long rows = jdbc.queryForObject("select count(*) from votes where student_id = ? and category_id = ?",
+                    Long.class, student, f.category().getId());
+            assertEquals(1, rows);
+        }
+        assertEquals(STUDENTS, results.stream().filter(r -> !r.update()).count(), "one insert per student");
+        assertEquals(STUDENTS * (COPIES - 1L), results.stream().filter(Upserted::update).count());
+        assertTrue(results.stream().allMatch(r -> r.update() == (r.previousNomineeId() != null)),
+                "every update reports the nominee it replaced");
+    }
+
+    @Test
+    void duplicateVoteSubmissionsNeverFailAndKeepTalliesExact() throws Exception {
+        var f = fixture("service");
+
+        race(f, (student, copy) -> {
+            voting.castOrUpdateVote(student, new VoteRequest(f.event().getId(), f.category().getId(),
+                    f.nominees().get(copy % 2).getId()));
+            return null;
+        });
+
+        assertTrue(dispatcher.awaitIdle(Duration.ofSeconds(10)));
+        long catId = f.category().getId();
+        assertEquals(STUDENTS, tallies.categoryTotal(catId));
+        for (Nominee n : f.nominees()) {
+            long stored = jdbc.queryForObject("select count(*) from votes where category_id = ? and nominee_id = ?",
+                    Long.class, catId, n.getId());
+            assertEquals(stored, tallies.count(catId, n.getId()), "tally for " + n.getName());
+        }
+    }
+
+    private interface Submit<T> { T submit(Long studentId, int copy) throws Exception; }
+
+    // Fires COPIES submissions per student at once; any exception fails the test
+    private <T> List<T> race(Fixture f, Submit<T> submit) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(STUDENTS * COPIES);
+        CountDownLatch gate = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>();
+        for (Long student : f.students()) {
+            for (int c = 0; c < COPIES; c++) {
+                int copy = c;
+                futures.add(pool.submit(() -> { gate.await(); return submit.submit(student, copy); }));
+            }
+        }
+        gate.countDown();
+        List<T> out = new ArrayList<>();
+        for (Future<T> fut : futures) out.add(fut.get(30, TimeUnit.SECONDS));
+        pool.shutdown();
+        return out;
+    }
+
+    private record Fixture(Event event, Category category, List<Nominee> nominees, List<Long> students) {}
+
+    private Fixture fixture(String prefix) {
+        var event = new Event();
+        event.setName("Race event " + prefix);
+        event.setStartAt(LocalDateTime.now().minusDays(1));
+        event.setEndAt(LocalDateTime.now().plusDays(1));
+        events.save(event);
+        var cat = new Category();
+        cat.setName("Race category " + prefix);
+        cat.setEvent(event);
+        categories.save(cat);
+        List<Nominee> noms = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            var n = new Nominee();
+            n.setName("Race nominee " + prefix + i);
+            n.setCategory(cat);
+            noms.add(nominees.save(n));
+        }
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            var s = new Student();
+            s.setIndexNo(prefix + i);
+            s.setFullName("Racer " + i);
+            s.setEmail(prefix + i + "@race.test");
+            s.setPasswordHash("n/a");
+            ids.add(students.save(s).getId());
+        }
+        return new Fixture(event, cat, noms, ids);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.votingsystem.voting;
+
+import com.example.votingsystem.nominee.entity.Category;
+import com.example.votingsystem.nominee.entity.Event;
+import com.example.votingsystem.nominee.entity.Nominee;
+import com.example.votingsystem.nominee.repository.CategoryRepository;
+import com.example.votingsystem.nominee.repository.EventRepository;
+import com.example.votingsystem.nominee.repository.NomineeRepository;
+import com.example.votingsystem.student.domain.Student;
+import com.example.votingsystem.student.repo.StudentRepository;
+import com.example.votingsystem.voting.dto.VoteCommand;
+import com.example.votingsystem.voting.repository.VoteRepository;
+import com.example.votingsystem.voting.service.VoteWriteBehindQueue;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// One bad vote in a write-behind batch fails alone; the rest of the batch is stored and acknowledged
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:write-behind;DB_CLOSE_DELAY=-1",
+        "app.voting.write-behind.enabled=true",
+        "app.voting.write-behind.flush-interval-ms=500"
+})
+class VoteWriteBehindTest {
+
+    private static final int VOTERS = 20;
+
+    @Autowired VoteWriteBehindQueue writeBehind;
+    @Autowired EventRepository events;
+    @Autowired CategoryRepository categories;
+    @Autowired NomineeRepository nominees;
+    @Autowired StudentRepository students;
+    @Autowired VoteRepository votes;
+
+    @Test
+    void badVoteDoesNotFailItsBatch() throws Exception {
+        var event = new Event();
+        event.setName("Write-behind event");
+        event.setStartAt(LocalDateTime.now().minusDays(1));
+        event.setEndAt(LocalDateTime.now().plusDays(1));
+        events.save(event);
+        var cat = new Category();
+        cat.setName("Write-behind category");
+        cat.setEvent(event);
+        categories.save(cat);
+        var n = new Nominee();
+        n.setName("Nominee");
+        n.setCategory(cat);
+        nominees.save(n);
+
+        List<VoteCommand> commands = new ArrayList<>();
+        for (int i = 0; i <= VOTERS; i++) {
+            var s = new Student();
+            s.setIndexNo("WB" + i);
+            s.setFullName("Student " + i);
+            s.setEmail("wb" + i + "@test");
+            s.setPasswordHash("n/a");
+            students.save(s);
+            // the last one names a nominee that no longer exists (deleted after validation)
+            commands.add(new VoteCommand(s.getId(), event.getId(), cat.getId(), i < VOTERS ? n.getId() : 999_999L));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(commands.size());
+        List<Future<?>> results = new ArrayList<>();
+        for (VoteCommand c : commands) results.add(pool.submit(() -> writeBehind.submitAndAwait(c)));
+        pool.shutdown();
+
+        for (int i = 0; i < VOTERS; i++) assertNotNull(results.get(i).get(10, TimeUnit.SECONDS));
+        var failed = assertThrows(ExecutionException.class, () -> results.get(VOTERS).get(10, TimeUnit.SECONDS));
+        assertInstanceOf(DataIntegrityViolationException.class, failed.getCause());
+        assertEquals(VOTERS, votes.count());
+    }
+}
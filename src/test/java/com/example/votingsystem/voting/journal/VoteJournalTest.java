@@ -0,0 +1,115 @@
+package com.example.votingsystem.voting.journal;
+
+import com.example.votingsystem.voting.journal.JournalRecord.Type;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VoteJournalTest {
+
+    private static final long T0 = 1_700_000_000_000L;
+    private static final int PER_SEGMENT = 1024;   // smallest segment size
+
+    @TempDir Path dir;
+
+    private VoteJournal open() {
+        var j = new VoteJournal(true, dir.toString(), PER_SEGMENT * VoteJournal.RECORD_BYTES, 5, new SimpleMeterRegistry());
+        j.open();
+        return j;
+    }
+
+    @Test
+    void replaysTalliesAndHistoryForATimeRange() {
+        var j = open();
+        j.cast(T0, false, 1L, 7L, 10L, null, 100L);        // s1 -> 100
+        j.cast(T0 + 10, false, 2L, 7L, 10L, null, 100L);   // s2 -> 100
+        j.cast(T0 + 20, true, 1L, 7L, 10L, 100L, 101L);    // s1 moves to 101
+        j.reset(T0 + 30, 2L, 7L, 10L, 100L);              // s2 deletes its vote
+        j.reset(T0 + 40, 3L, 7L, 10L, null);              // nothing to delete
+        j.cast(T0 + 5, false, 4L, 7L, 11L, null, 200L);    // late event: timestamp clamped to T0 + 40
+
+        assertEquals(Map.of(10L, Map.of(100L, 0L, 101L, 1L), 11L, Map.of(200L, 1L)), j.tallies(0, Long.MAX_VALUE).tallies());
+        assertEquals(Map.of(10L, Map.of(100L, 2L)), j.tallies(0, T0 + 15).tallies());
+        assertEquals(Map.of(100L, -2L, 101L, 1L), j.tallies(T0 + 20, T0 + 30).tallies().get(10L));
+
+        List<JournalRecord> h = j.history(T0 + 20, T0 + 40, 10);
+        assertEquals(List.of(3L, 4L, 5L, 6L), h.stream().map(JournalRecord::seq).toList());
+        assertEquals(new JournalRecord(3, T0 + 20, Type.CAST, true, 1, 7, 10, 100, 101), h.get(0));
+        assertEquals(T0 + 40, h.get(3).timestamp());
+        assertEquals(2, j.history(0, Long.MAX_VALUE, 2).size());
+        j.close();
+    }
+
+    @Test
+    void rollsSegmentsAndContinuesAfterRestart() throws Exception {
+        var j = open();
+        int n = PER_SEGMENT * 4 + 100;
+        for (int i = 0; i < n; i++) j.cast(T0 + i, false, (long) i, 1L, 1L + i % 3, null, 10L + i % 2);
+        j.close();
+        assertEquals(5, segmentFiles().size());
+
+        var reopened = open();
+        reopened.cast(T0 + n, false, 999L, 1L, 1L, null, 10L);
+        List<JournalRecord> all = reopened.history(0, Long.MAX_VALUE, Integer.MAX_VALUE);
+        assertEquals(n + 1, all.size());
+        assertEquals(n + 1, all.get(n).seq());
+
+        // a range deep inside later segments: earlier ones are skipped, the first is found by binary search
+        long from = T0 + PER_SEGMENT * 2L + 17;
+        List<JournalRecord> range = reopened.history(from, from + 99, Integer.MAX_VALUE);
+        assertEquals(100, range.size());
+        assertEquals(from, range.get(0).timestamp());
+
+        var replay = reopened.tallies(0, Long.MAX_VALUE);
+        assertEquals(n + 1, replay.records());
+        assertEquals(n + 1, replay.tallies().values().stream().flatMap(m -> m.values().stream()).mapToLong(Long::longValue).sum());
+        reopened.close();
+    }
+
+    @Test
+    void tornTailRecordIsDroppedOnRecovery() throws Exception {
+        var j = open();
+        for (int i = 0; i < 3; i++) j.cast(T0 + i, false, (long) i, 1L, 1L, null, 10L);
+        j.close();
+
+        // half-written third record: payload present, CRC wrong
+        try (var f = new RandomAccessFile(segmentFiles().get(0).toFile(), "rw")) {
+            f.seek(2L * VoteJournal.RECORD_BYTES + 60);
+            f.writeInt(0xDEADBEEF);
+        }
+
+        var reopened = open();
+        assertEquals(2, reopened.history(0, Long.MAX_VALUE, 10).size());
+        reopened.cast(T0 + 10, false, 5L, 1L, 1L, null, 11L);   // overwrites the torn slot
+        var replay = reopened.tallies(0, Long.MAX_VALUE);
+        assertEquals(0, replay.corrupt());
+        assertEquals(Map.of(10L, 2L, 11L, 1L), replay.tallies().get(1L));
+        assertEquals(3, reopened.history(0, Long.MAX_VALUE, 10).get(2).seq());
+        reopened.close();
+    }
+
+    @Test
+    void secondInstanceOnTheSameDirectoryStaysDisabled() {
+        var first = open();
+        var second = open();
+        assertTrue(first.isOpen());
+        assertFalse(second.isOpen());
+        second.cast(T0, false, 1L, 1L, 1L, null, 1L);   // ignored
+        first.close();
+    }
+
+    private List<Path> segmentFiles() throws Exception {
+        try (Stream<Path> s = Files.list(dir)) {
+            return s.filter(p -> p.toString().endsWith(".seg")).sorted().toList();
+        }
+    }
+}
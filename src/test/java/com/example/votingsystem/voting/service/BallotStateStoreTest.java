@@ -0,0 +1,64 @@
+package com.example.votingsystem.voting.service;
+
+import com.example.votingsystem.voting.service.BallotStateStore.EventBallots;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BallotStateStoreTest {
+
+    @Test
+    void cellsKeepTheirNomineeWhenRowsWiden() {
+        var ballots = new EventBallots();
+        ballots.set(7, 100, 1000);
+        for (long c = 101; c < 130; c++) ballots.set(8, c, 2000 + c);   // more categories than a row holds
+        ballots.set(7, 129, 5);
+
+        assertEquals(1000, ballots.get(7, 100));
+        assertEquals(5, ballots.get(7, 129));
+        assertEquals(2101, ballots.get(8, 101));
+        assertEquals(0, ballots.get(7, 101));
+        assertEquals(0, ballots.get(9, 100));
+
+        ballots.set(7, 100, 0);                                           // reset
+        List<long[]> votes = new ArrayList<>();
+        ballots.forEachVote(7, (c, n) -> votes.add(new long[]{c, n}));
+        assertEquals(1, votes.size());
+        assertArrayEquals(new long[]{129, 5}, votes.get(0));
+    }
+
+    @Test
+    void laterEventWinsWhateverOrderItArrivesIn() {
+        var ballots = new EventBallots();
+        ballots.set(7, 100, 1000);                 // loaded
+        ballots.change(7, 100, 3000, 12);          // the second of two changes arrives first
+        ballots.change(7, 100, 2000, 11);
+        assertEquals(3000, ballots.get(7, 100));
+
+        ballots.change(7, 100, 0, 13);             // reset
+        ballots.change(7, 100, 4000, 9);
+        assertEquals(0, ballots.get(7, 100));
+        ballots.change(7, 100, 5000, 14);
+        assertEquals(5000, ballots.get(7, 100));
+    }
+
+    // 50k students x 20 categories, filled the way live votes fill it: ~4.7 MB of int cells (rows of 24),
+    // the same again for their sequences, and ~2 MB for the student slot map
+    @Test
+    void footprintForFiftyThousandStudentsTimesTwentyCategories() {
+        var ballots = new EventBallots();
+        long sequence = 0;
+        for (long s = 0; s < 50_000; s++) {
+            for (long c = 0; c < 20; c++) ballots.change(1_000_000 + s, 500 + c, 10_000 + c * 5 + s % 5, ++sequence);
+        }
+        assertEquals(10_000 + 19 * 5 + 3, ballots.get(1_049_998, 519));
+        long bytes = ballots.footprintBytes();
+        assertTrue(bytes < 12L * 1024 * 1024, "footprint " + bytes);
+
+        ballots.change(1_049_998, 519, 10_000, 1);   // an older event still loses
+        assertEquals(10_000 + 19 * 5 + 3, ballots.get(1_049_998, 519));
+    }
+}
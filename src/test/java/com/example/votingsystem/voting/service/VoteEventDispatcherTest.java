@@ -0,0 +1,69 @@
+package com.example.votingsystem.voting.service;
+
+import com.example.votingsystem.voting.events.VoteCastEvent;
+import com.example.votingsystem.voting.events.VoteEventListener;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Two writes to one vote whose after-commit callbacks run in the opposite order
+class VoteEventDispatcherTest {
+
+    private final List<Long> delivered = new CopyOnWriteArrayList<>();
+    private final VoteEventDispatcher dispatcher = new VoteEventDispatcher(List.of(new VoteEventListener() {
+        @Override public void onVoteCast(VoteCastEvent e) { delivered.add(e.getNomineeId()); }
+    }), 2, 16, new SimpleMeterRegistry());
+
+    @AfterEach
+    void tearDown() throws InterruptedException { dispatcher.stop(); }
+
+    @Test
+    void deliversInSequenceOrderWhenCallbacksRunOutOfOrder() throws Exception {
+        dispatcher.start();
+        var first = publishInTransaction(new VoteCastEvent(1L, 10L, 100L, 7L, false, 1L));
+        var second = publishInTransaction(new VoteCastEvent(1L, 10L, 200L, 7L, true, 1L, 100L));
+
+        complete(second, TransactionSynchronization.STATUS_COMMITTED);
+        Thread.sleep(300);
+        assertTrue(delivered.isEmpty(), "held back until the earlier write has committed");
+
+        complete(first, TransactionSynchronization.STATUS_COMMITTED);
+        assertTrue(dispatcher.awaitIdle(Duration.ofSeconds(5)));
+        assertEquals(List.of(100L, 200L), delivered);
+    }
+
+    @Test
+    void rolledBackEventDoesNotHoldLaterOnes() throws Exception {
+        dispatcher.start();
+        var rolledBack = publishInTransaction(new VoteCastEvent(1L, 10L, 100L, 7L, false, 1L));
+        var committed = publishInTransaction(new VoteCastEvent(1L, 10L, 200L, 8L, false, 2L));
+
+        complete(committed, TransactionSynchronization.STATUS_COMMITTED);
+        complete(rolledBack, TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertTrue(dispatcher.awaitIdle(Duration.ofSeconds(5)));
+        assertEquals(List.of(200L), delivered);
+    }
+
+    // Publishes as a transaction would and returns its synchronizations, to be completed later
+    private List<TransactionSynchronization> publishInTransaction(VoteCastEvent e) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            dispatcher.onVoteCast(e);
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void complete(List<TransactionSynchronization> syncs, int status) {
+        syncs.forEach(s -> s.afterCompletion(status));
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.votingsystem.voting.service;
+
+import com.example.votingsystem.nominee.events.CatalogChangedEvent;
+import com.example.votingsystem.nominee.repository.CategoryRepository;
+import com.example.votingsystem.nominee.repository.CategoryRepository.WindowRow;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class VotingWindowResolverTest {
+
+    private static final LocalDateTime OLD_END = LocalDateTime.of(2026, 1, 1, 12, 0);
+    private static final LocalDateTime NEW_END = LocalDateTime.of(2026, 2, 1, 12, 0);
+
+    @Test
+    void loadOverlappingAnInvalidationIsNotCached() throws Exception {
+        CategoryRepository repo = mock(CategoryRepository.class);
+        var loading = new CountDownLatch(1);
+        var invalidated = new CountDownLatch(1);
+        var before = Optional.of(row(OLD_END));
+        var after = Optional.of(row(NEW_END));
+        when(repo.findWindow(1L))
+                .thenAnswer(inv -> {
+                    loading.countDown();
+                    assertTrue(invalidated.await(5, TimeUnit.SECONDS));
+                    return before;   // read before the change committed
+                })
+                .thenReturn(after);
+        var resolver = new VotingWindowResolver(repo);
+
+        var slow = CompletableFuture.supplyAsync(() -> resolver.window(1L));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        resolver.onCatalogChanged(new CatalogChangedEvent(CatalogChangedEvent.Kind.CATEGORY, 1L));
+        invalidated.countDown();
+
+        assertEquals(OLD_END, slow.get(5, TimeUnit.SECONDS).eventEnd());   // its caller still gets what it read
+        assertEquals(NEW_END, resolver.window(1L).eventEnd());             // but nobody else does
+        assertEquals(NEW_END, resolver.window(1L).eventEnd());
+        verify(repo, times(2)).findWindow(1L);
+    }
+
+    private static WindowRow row(LocalDateTime eventEnd) {
+        WindowRow r = mock(WindowRow.class);
+        when(r.getCategoryId()).thenReturn(1L);
+        when(r.getEventId()).thenReturn(10L);
+        when(r.getEventEnd()).thenReturn(eventEnd);
+        return r;
+    }
+}